@@ -0,0 +1,105 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark class for the write and reload of every {@link RDFFileFormat}
+ * of {@link RDFFileSystem} on a generated graph of rows with string,
+ * integer, decimal and date literals.
+ * <p>
+ * Scores are in milliseconds per write or reload of the whole graph. The
+ * size of the file written in each format is logged once the trial is
+ * done. Reload only parses the file, without building a graph from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FileFormatBenchmark {
+
+    private static final Logger LOGGER = LogManager.getLogger(FileFormatBenchmark.class);
+    private static final int ROWS = 25000;
+    @Param({"TURTLE", "NTRIPLES", "NQUADS", "TRIG", "JSONLD", "RDFXML", "RDFJSON", "THRIFT", "THRIFT_VALUES"})
+    private RDFFileFormat format;
+    private Graph graph;
+    private Path directory;
+    private Path written;
+    private Path reloaded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        graph = GraphFactory.createDefaultGraph();
+        graph.getPrefixMapping().setNsPrefix("ex", "http://example.com/");
+        Node name = NodeFactory.createURI("http://example.com/name");
+        Node count = NodeFactory.createURI("http://example.com/count");
+        Node price = NodeFactory.createURI("http://example.com/price");
+        Node date = NodeFactory.createURI("http://example.com/date");
+        for (int i = 0; i < ROWS; i++) {
+            Node row = NodeFactory.createURI("http://example.com/row/" + i);
+            graph.add(Triple.create(row, name, NodeFactory.createLiteral("Name of row " + i)));
+            graph.add(Triple.create(row, count, NodeFactory.createLiteral(String.valueOf(i),
+                    XSDDatatype.XSDinteger)));
+            graph.add(Triple.create(row, price, NodeFactory.createLiteral(i / 100 + "." + i % 100,
+                    XSDDatatype.XSDdecimal)));
+            graph.add(Triple.create(row, date, NodeFactory.createLiteral(String.format("2020-%02d-%02d",
+                    i % 12 + 1, i % 28 + 1), XSDDatatype.XSDdate)));
+        }
+        directory = Files.createTempDirectory("rdfweaver-format-");
+        written = directory.resolve("written");
+        reloaded = directory.resolve("reloaded");
+        writeTo(reloaded);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        LOGGER.info("Format {} wrote {} bytes for {} triples.", format, Files.size(reloaded), graph.size());
+        Files.deleteIfExists(written);
+        Files.deleteIfExists(reloaded);
+        Files.deleteIfExists(directory);
+    }
+
+    private void writeTo(Path file) throws IOException {
+        StreamOps.graphToStream(graph, new RDFFileSystem(file, format.getFormat()).openStream());
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        writeTo(written);
+    }
+
+    @Benchmark
+    public long reload() {
+        long[] triples = new long[1];
+        RDFDataMgr.parse(new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                triples[0]++;
+            }
+
+            @Override
+            public void quad(Quad quad) {
+                triples[0]++;
+            }
+        }, reloaded.toString(), format.getFormat().getLang());
+        return triples[0];
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.fuseki.embedded.FusekiEmbeddedServer;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark class for the upload of {@link FusekiTDBRemote} to a local
+ * embedded Fuseki server holding an in-memory dataset.
+ * <p>
+ * Scores are in triples per second. Compare the scores of the batch sizes
+ * and upload threads against the server the graph is uploaded to, as the
+ * best settings depend on its cores and on the network in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(FusekiUploadBenchmark.TRIPLES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FusekiUploadBenchmark {
+
+    static final int TRIPLES = 200000;
+    private static final String BASE = "ds";
+    @Param({"10000", "50000"}) private int batchSize;
+    @Param({"1", "4"}) private int threads;
+    private FusekiEmbeddedServer server;
+    private FusekiTDBRemote remote;
+    private Model model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, URISyntaxException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = FusekiEmbeddedServer.make(port, "/" + BASE, DatasetGraphFactory.createTxnMem());
+        server.start();
+        model = ModelFactory.createDefaultModel();
+        Property id = ResourceFactory.createProperty("http://example.com/id");
+        for (int i = 0; i < TRIPLES; i++) {
+            model.add(ResourceFactory.createResource("http://example.com/row/" + i), id,
+                    ResourceFactory.createStringLiteral("VALUE_" + i));
+        }
+        remote = new FusekiTDBRemote.Builder(InetAddress.getLoopbackAddress(), port, BASE)
+                .graphName("http://example.com/graph")
+                .upload(batchSize, threads)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void save() {
+        remote.save(model);
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark class for the N-Triples write of {@link NTriplesEncoder} through
+ * {@link RDFFileSystem} against the N-Triples writer of Jena, on generated
+ * rows with IRIs, plain, language tagged and typed literals, some of them
+ * with characters outside ASCII or needing an escape.
+ * <p>
+ * Scores are in milliseconds per write of all rows to a file, either
+ * streamed in the order they are generated as while mapping, or saved from
+ * a graph. Both writers write the same bytes. Saving walks the graph in the
+ * order of its indexes, which is bound by the memory access to its nodes
+ * and shows less of the difference between the writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class NTriplesEncoderBenchmark {
+
+    private static final int ROWS = 50000;
+    private List<Triple> triples;
+    private Model model;
+    private Path directory;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        triples = new ArrayList<>();
+        Node name = NodeFactory.createURI("http://example.com/name");
+        Node label = NodeFactory.createURI("http://example.com/label");
+        Node count = NodeFactory.createURI("http://example.com/count");
+        Node link = NodeFactory.createURI("http://example.com/link");
+        for (int i = 0; i < ROWS; i++) {
+            Node row = NodeFactory.createURI("http://example.com/row/" + i);
+            triples.add(Triple.create(row, name, NodeFactory.createLiteral("Name of row " + i)));
+            triples.add(Triple.create(row, label, NodeFactory.createLiteral(i % 10 == 0
+                    ? "Caf\u00e9 \"" + i + "\"\n" : "Label " + i, "en")));
+            triples.add(Triple.create(row, count, NodeFactory.createLiteral(String.valueOf(i),
+                    XSDDatatype.XSDinteger)));
+            triples.add(Triple.create(row, link, NodeFactory.createURI("http://example.com/row/" + (i + 1))));
+        }
+        model = ModelFactory.createDefaultModel();
+        triples.forEach(model.getGraph()::add);
+        directory = Files.createTempDirectory("rdfweaver-ntriples-");
+        file = directory.resolve("written.nt");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void streamJena() throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file.toFile()))) {
+            StreamRDF stream = StreamRDFWriter.getWriterStream(outputStream, RDFFormat.NT);
+            stream.start();
+            triples.forEach(stream::triple);
+            stream.finish();
+        }
+    }
+
+    @Benchmark
+    public void streamEncoder() throws IOException {
+        StreamRDF stream = new RDFFileSystem(file, RDFFormat.NT).openStream();
+        stream.start();
+        triples.forEach(stream::triple);
+        stream.finish();
+    }
+
+    @Benchmark
+    public void saveJena() throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(file.toFile())) {
+            RDFDataMgr.write(outputStream, model, RDFFormat.NT);
+        }
+    }
+
+    @Benchmark
+    public void saveEncoder() throws IOException {
+        new RDFFileSystem(file, RDFFormat.NT).save(model);
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark class for row access of {@link SQLAdapter}.
+ * <p>
+ * Scores are per row. Run with the GC profiler (as the {@code jmh} task does)
+ * and check {@code gc.alloc.rate.norm}; the budget for the adapter is under
+ * 16 bytes per row, which only leaves room for the column layout resolved
+ * once per result set and amortised over its rows.
+ * <p>
+ * The {@code BIGINT} variant reads its columns as primitives, so only the
+ * two properties consumed per row are formatted into strings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SQLAdapterBenchmark {
+
+    private static final int ROWS = 1000;
+    @Param({"8", "80"}) private int columns;
+    @Param({"VARCHAR", "BIGINT"}) private String columnType;
+    private CachedRowSet resultSet;
+    private String firstColumn;
+    private String lastColumn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns);
+        for (int i = 1; i <= columns; i++) {
+            metaData.setColumnName(i, "COLUMN_" + i);
+            metaData.setColumnType(i, "BIGINT".equals(columnType) ? Types.BIGINT : Types.VARCHAR);
+        }
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.moveToInsertRow();
+            for (int i = 1; i <= columns; i++) {
+                if ("BIGINT".equals(columnType)) {
+                    resultSet.updateLong(i, (long) row * columns + i);
+                } else {
+                    resultSet.updateString(i, "VALUE_" + row + "_" + i);
+                }
+            }
+            resultSet.insertRow();
+            resultSet.moveToCurrentRow();
+        }
+        firstColumn = "COLUMN_1";
+        lastColumn = "COLUMN_" + columns;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readRows(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        SQLAdapter sqlAdapter = new SQLAdapter(resultSet);
+        while (sqlAdapter.hasNext()) {
+            Entity entity = sqlAdapter.nextEntity();
+            blackhole.consume(entity.getPropertyValue(firstColumn));
+            blackhole.consume(entity.getPropertyValue(lastColumn));
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package io.github.jiefenn8.rdfweaver;
 
+import io.github.jiefenn8.rdfweaver.mapping.ChangeFeedMapper;
+import io.github.jiefenn8.rdfweaver.mapping.ChangeFeedSource;
+import io.github.jiefenn8.rdfweaver.mapping.Checkpoint;
+import io.github.jiefenn8.rdfweaver.mapping.DictionaryGraph;
+import io.github.jiefenn8.rdfweaver.mapping.IncrementalSource;
+import io.github.jiefenn8.rdfweaver.mapping.InterningStream;
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
+import io.github.jiefenn8.rdfweaver.mapping.SessionSource;
+import io.github.jiefenn8.rdfweaver.mapping.StreamingMapper;
+import io.github.jiefenn8.rdfweaver.mapping.TermCache;
+import io.github.jiefenn8.rdfweaver.output.ChangeStream;
+import io.github.jiefenn8.rdfweaver.output.DedupOutput;
+import io.github.jiefenn8.rdfweaver.output.FanOutOutput;
+import io.github.jiefenn8.rdfweaver.output.RDFFileSystem;
 import io.github.jiefenn8.rdfweaver.output.RDFOutput;
 import io.github.jiefenn8.rdfweaver.server.ServerOption;
 import io.github.jiefenn8.graphloom.api.ConfigMaps;
 import io.github.jiefenn8.graphloom.api.InputSource;
 import io.github.jiefenn8.graphloom.rdf.RDFMapper;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.ParseResult;
 import picocli.CommandLine.RunAll;
 import picocli.CommandLine.Spec;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -30,8 +50,47 @@ import java.util.concurrent.Callable;
 public class RDFWeaver implements Callable<Boolean> {
 
     private static final Logger LOGGER = LogManager.getLogger(RDFWeaver.class);
+    private static final String STREAM_DESC = "Stream mapped triples to output without holding the whole graph "
+            + "in memory.";
+    private static final String DEFAULT_BATCH_SIZE = "10000";
+    private static final String BATCH_DESC = "Number of records mapped per batch when streaming. "
+            + "(default: ${DEFAULT-VALUE})";
+    private static final String DEFAULT_PARALLELISM = "1";
+    private static final String PARALLEL_DESC = "Number of TriplesMaps to map concurrently, each on its own "
+            + "database connection. (default: ${DEFAULT-VALUE})";
+    private static final String RESUME_DESC = "Record completed TriplesMaps and partitions in a checkpoint next to "
+            + "the output, and skip those completed by an earlier failed run.";
+    private static final String DEFAULT_RETRIES = "3";
+    private static final String RETRIES_DESC = "Times to retry a query, mapping task or upload request failing "
+            + "on a transient error. (default: ${DEFAULT-VALUE})";
+    private static final String DEFAULT_RETRY_DELAY = "1000";
+    private static final String RETRY_DELAY_DESC = "Milliseconds to wait before the first retry, doubled after "
+            + "every retry. (default: ${DEFAULT-VALUE})";
+    private static final String DEFAULT_TERM_CACHE = "0";
+    private static final String TERM_CACHE_DESC = "IRIs and literals kept to share between the triples of the "
+            + "in-memory graph, 0 to not share them. (default: ${DEFAULT-VALUE})";
+    private static final String COMPACT_GRAPH_DESC = "Hold the in-memory graph as dictionary encoded triples "
+            + "outside the heap, to fit larger graphs in memory.";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String DEFAULT_CHECKPOINT_DIR = "rdfweaver" + CHECKPOINT_SUFFIX;
     private final RDFMapper rdfMapper;
     private final ServerOption serverOption;
+    @Option(names = {"-s", "--stream"}, description = STREAM_DESC)
+    private boolean stream;
+    @Option(names = {"--batch-size"}, defaultValue = DEFAULT_BATCH_SIZE, description = BATCH_DESC)
+    private int batchSize;
+    @Option(names = {"-P", "--parallelism"}, defaultValue = DEFAULT_PARALLELISM, description = PARALLEL_DESC)
+    private int parallelism;
+    @Option(names = {"--resume"}, description = RESUME_DESC)
+    private boolean resume;
+    @Option(names = {"--retries"}, defaultValue = DEFAULT_RETRIES, description = RETRIES_DESC)
+    private int retries;
+    @Option(names = {"--retry-delay"}, defaultValue = DEFAULT_RETRY_DELAY, description = RETRY_DELAY_DESC)
+    private long retryDelay;
+    @Option(names = {"--term-cache"}, defaultValue = DEFAULT_TERM_CACHE, description = TERM_CACHE_DESC)
+    private int termCacheSize;
+    @Option(names = {"--compact-graph"}, description = COMPACT_GRAPH_DESC)
+    private boolean compactGraph;
     @Spec private CommandSpec spec;
     private CommandLine cmd;
 
@@ -66,6 +125,22 @@ public class RDFWeaver implements Callable<Boolean> {
     public Boolean call() {
         LOGGER.debug("Checking for all required commands before mapping execution.");
         cmd = spec.commandLine();
+        if (batchSize < 1) {
+            LOGGER.info("Batch size must be a positive number, given {}.", batchSize);
+            return false;
+        }
+        if (parallelism < 1) {
+            LOGGER.info("Parallelism must be a positive number, given {}.", parallelism);
+            return false;
+        }
+        if (retries < 0 || retryDelay < 0) {
+            LOGGER.info("Retries and retry delay must not be negative, given {} and {}.", retries, retryDelay);
+            return false;
+        }
+        if (termCacheSize < 0) {
+            LOGGER.info("Term cache size must not be negative, given {}.", termCacheSize);
+            return false;
+        }
         if (hasRequiredSubcommands()) {
             return true;
         }
@@ -159,13 +234,69 @@ public class RDFWeaver implements Callable<Boolean> {
         LOGGER.debug("ConfigMaps result found and set for mapping usage.");
         RDFOutput rdfOutput = ((RDFOutput) results.get("output"));
         LOGGER.debug("RDFOutput result found and set for output usage.");
-        Model rdfModel = initMapping(source, config);
-        return outputRDFModel(rdfOutput, rdfModel);
+        try {
+            int code;
+            if (source instanceof ChangeFeedSource && ((ChangeFeedSource) source).hasChangeFeed()) {
+                code = changeMapping((ChangeFeedSource) source, config, rdfOutput);
+            } else if (stream || resume) {
+                code = streamMapping(source, config, rdfOutput);
+            } else {
+                Model rdfModel = initMapping(source, config);
+                code = outputRDFModel(rdfOutput, rdfModel);
+            }
+            return code == spec.exitCodeOnSuccess() ? commitSource(source) : code;
+        } finally {
+            closeSource(source);
+        }
+    }
+
+    /**
+     * Commits the position reached by the given {@link InputSource} if it is
+     * an {@link IncrementalSource}, once its output is complete.
+     *
+     * @param source the input source to commit
+     * @return exit code of this method
+     */
+    private int commitSource(InputSource source) {
+        if (!(source instanceof IncrementalSource)) {
+            return spec.exitCodeOnSuccess();
+        }
+        try {
+            ((IncrementalSource) source).commit();
+            return spec.exitCodeOnSuccess();
+        } catch (IOException ex) {
+            LOGGER.fatal("Error while saving the position of the incremental run.", ex);
+            return spec.exitCodeOnExecutionException();
+        }
+    }
+
+    /**
+     * Closes the given {@link InputSource} if it holds resources such as a
+     * pool of connections.
+     *
+     * @param source the input source to close
+     */
+    private void closeSource(InputSource source) {
+        if (!(source instanceof AutoCloseable)) {
+            return;
+        }
+        try {
+            ((AutoCloseable) source).close();
+        } catch (Exception ex) {
+            LOGGER.warn("Failed to close input source.", ex);
+        }
     }
 
     /**
      * Returns a RDF {@link Model} generated from the mapping of data from the
      * {@link InputSource} using the configurations from {@link ConfigMaps}.
+     * With a parallelism above one, the TriplesMaps are mapped concurrently
+     * into the model. With a term cache, the triples are mapped in batches
+     * into the model and their repeated terms are interned. With a compact
+     * graph, the triples are mapped in batches into a model over a
+     * {@link DictionaryGraph}, which holds every term once by itself so the
+     * term cache is not used. The prefixes of the mapping are set on the
+     * model so that the output can be written with them.
      *
      * @param source the input source for the mapper
      * @param config the config data for the mapper
@@ -173,11 +304,116 @@ public class RDFWeaver implements Callable<Boolean> {
      */
     private Model initMapping(InputSource source, ConfigMaps config) {
         LOGGER.debug("ConfigMaps result found and set for mapping usage.");
-        Model rdfModel = rdfMapper.mapToGraph(source, config);
+        Model rdfModel;
+        TermCache termCache = termCacheSize > 0 && !compactGraph ? new TermCache(termCacheSize) : null;
+        if (parallelism > 1 || termCache != null || compactGraph) {
+            rdfModel = compactGraph ? ModelFactory.createModelForGraph(new DictionaryGraph())
+                    : ModelFactory.createDefaultModel();
+            StreamRDF modelStream = StreamRDFLib.graph(rdfModel.getGraph());
+            if (termCache != null) {
+                modelStream = new InterningStream(modelStream, termCache);
+            }
+            new StreamingMapper(rdfMapper, batchSize, parallelism).mapToStream(source, config, modelStream);
+        } else if (source instanceof SessionSource) {
+            SessionSource.Session session = ((SessionSource) source).openSession();
+            try (session) {
+                rdfModel = rdfMapper.mapToGraph(source, config);
+            }
+        } else {
+            rdfModel = rdfMapper.mapToGraph(source, config);
+        }
+        rdfModel.setNsPrefixes(config.getNamespaceMap());
         LOGGER.info("RDF model generated from mapping, total triples: " + rdfModel.size());
+        if (termCache != null) {
+            termCache.logStats();
+        }
+        if (compactGraph) {
+            DictionaryGraph graph = (DictionaryGraph) rdfModel.getGraph();
+            LOGGER.info("Compact graph holds {} terms, {} MB outside the heap.", graph.getTermCount(),
+                    graph.getOffHeapBytes() >> 20);
+        }
         return rdfModel;
     }
 
+    /**
+     * Maps the data from the {@link InputSource} using the configurations from
+     * {@link ConfigMaps} and streams the generated triples straight into the
+     * given {@link RDFOutput} without generating the whole RDF model. When
+     * resuming, the run is mapped through a checkpoint next to the output,
+     * which is deleted once the output is complete.
+     *
+     * @param source the input source for the mapper
+     * @param config the config data for the mapper
+     * @param output the implementation that will store the RDF triples
+     * @return exit code of this method
+     */
+    private int streamMapping(InputSource source, ConfigMaps config, RDFOutput output) {
+        try {
+            Checkpoint checkpoint = resume ? new Checkpoint(getCheckpointDirectory(output)) : null;
+            RetryPolicy retryPolicy = new RetryPolicy(retries, retryDelay);
+            StreamRDF outputStream = output.openStream();
+            StreamingMapper streamingMapper = new StreamingMapper(rdfMapper, batchSize, parallelism, checkpoint,
+                    retryPolicy);
+            long total = streamingMapper.mapToStream(source, config, outputStream);
+            LOGGER.info("RDF triples streamed to output, total triples: {}", total);
+            if (checkpoint != null) {
+                checkpoint.delete();
+            }
+            return spec.exitCodeOnSuccess();
+        } catch (IOException ex) {
+            LOGGER.fatal("Error while outputting RDF results.", ex);
+            return spec.exitCodeOnExecutionException();
+        }
+    }
+
+    /**
+     * Returns the directory of the checkpoint of a resumable run, next to the
+     * output file, or the first output file of several outputs, or in the
+     * working directory if no output is a file. An output removing duplicates
+     * is looked into for its output.
+     *
+     * @param output the output of the run
+     * @return the directory to keep the checkpoint in
+     */
+    private Path getCheckpointDirectory(RDFOutput output) {
+        if (output instanceof RDFFileSystem) {
+            return Paths.get(((RDFFileSystem) output).getPath() + CHECKPOINT_SUFFIX);
+        }
+        if (output instanceof DedupOutput) {
+            return getCheckpointDirectory(((DedupOutput) output).getOutput());
+        }
+        if (output instanceof FanOutOutput) {
+            for (RDFOutput fanOutput : ((FanOutOutput) output).getOutputs()) {
+                if (fanOutput instanceof RDFFileSystem) {
+                    return getCheckpointDirectory(fanOutput);
+                }
+            }
+        }
+        return Paths.get(DEFAULT_CHECKPOINT_DIR);
+    }
+
+    /**
+     * Maps only the rows changed in the feed of the {@link ChangeFeedSource}
+     * using the configurations from {@link ConfigMaps} and sends the changed
+     * triples to the given {@link RDFOutput}.
+     *
+     * @param source the source of the changes for the mapper
+     * @param config the config data for the mapper
+     * @param output the implementation that will apply the RDF changes
+     * @return exit code of this method
+     */
+    private int changeMapping(ChangeFeedSource source, ConfigMaps config, RDFOutput output) {
+        try {
+            ChangeStream changeStream = output.openChangeStream();
+            long total = new ChangeFeedMapper(rdfMapper, batchSize).mapChanges(source, config, changeStream);
+            LOGGER.info("RDF changes sent to output, total changes: {}", total);
+            return spec.exitCodeOnSuccess();
+        } catch (IOException ex) {
+            LOGGER.fatal("Error while outputting RDF changes.", ex);
+            return spec.exitCodeOnExecutionException();
+        }
+    }
+
     /**
      * Outputs the generated RDF model with the given {@link RDFOutput}
      * implementations that will store the RDF model in a persistent state.
@@ -0,0 +1,96 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.ConfigMaps;
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import io.github.jiefenn8.graphloom.rdf.RDFMapper;
+import org.apache.jena.rdf.model.Model;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * This class implements {@link InputSource} as a wrapper that hands the
+ * entities of an entity map to the mapper in batches of a fixed size.
+ * <p>
+ * The first query received opens the underlying result and keeps it open
+ * while the mapper is invoked again for every remaining batch. Each batch
+ * is mapped into its own {@link Model} and handed to the batch consumer
+ * straight away, so only a single batch is held in memory at a time. Any
+ * other query received while a result is open, such as a join query, is
+ * passed to the wrapped source unchanged. Mapping stops between batches if
+ * the mapping thread is interrupted.
+ */
+class BatchedSource implements InputSource {
+
+    private static final Logger LOGGER = LogManager.getLogger(BatchedSource.class);
+    private final InputSource source;
+    private final RDFMapper rdfMapper;
+    private final ConfigMaps config;
+    private final int batchSize;
+    private final Consumer<Model> batchConsumer;
+    private EntityReference openReference;
+    private EntityResult openResult;
+
+    /**
+     * Constructs a {@code BatchedSource} instance wrapping the specified
+     * source for the mapping of the given single entity map config.
+     *
+     * @param source        the source to retrieve the entities from
+     * @param rdfMapper     the mapper to map each remaining batch with
+     * @param config        the config containing the entity map to batch
+     * @param batchSize     the maximum number of entities in a batch
+     * @param batchConsumer the consumer to receive each remaining batch
+     */
+    BatchedSource(@NonNull InputSource source, @NonNull RDFMapper rdfMapper, @NonNull ConfigMaps config,
+                  @Positive int batchSize, @NonNull Consumer<Model> batchConsumer) {
+        this.source = source;
+        this.rdfMapper = rdfMapper;
+        this.config = config;
+        this.batchSize = batchSize;
+        this.batchConsumer = batchConsumer;
+    }
+
+    @Override
+    public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+        if (openResult == null) {
+            source.executeEntityQuery(entityReference, (result) -> mapInBatches(entityReference, result, action));
+            return;
+        }
+        if (entityReference.equals(openReference)) {
+            action.accept(new BoundedEntityResult(openResult, batchSize));
+            return;
+        }
+        source.executeEntityQuery(entityReference, action);
+    }
+
+    /**
+     * Hands the first batch of the result to the action of the initial
+     * mapping call, then maps every remaining batch with a new mapping call
+     * until the result is exhausted.
+     */
+    private void mapInBatches(EntityReference entityReference, EntityResult result, Consumer<EntityResult> action) {
+        openReference = entityReference;
+        openResult = result;
+        try {
+            action.accept(new BoundedEntityResult(result, batchSize));
+            int batches = 1;
+            while (result.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Mapping of '" + entityReference.getPayload() + "' cancelled.");
+                }
+                batchConsumer.accept(rdfMapper.mapToGraph(this, config));
+                batches++;
+            }
+            LOGGER.debug("Mapped '{}' in {} batch(es).", entityReference.getPayload(), batches);
+        } finally {
+            openReference = null;
+            openResult = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * This class implements {@link EntityResult} as a view over another result
+ * that ends after a fixed number of entities have been read, leaving any
+ * remaining entities unread in the underlying result.
+ */
+class BoundedEntityResult implements EntityResult {
+
+    private final EntityResult entityResult;
+    private final int limit;
+    private int count = 0;
+
+    /**
+     * Constructs a {@code BoundedEntityResult} instance over the specified
+     * result that will return at most the given number of entities.
+     *
+     * @param entityResult the result to read the entities from
+     * @param limit        the maximum number of entities to return
+     */
+    BoundedEntityResult(@NonNull EntityResult entityResult, @Positive int limit) {
+        this.entityResult = entityResult;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return count < limit && entityResult.hasNext();
+    }
+
+    @Override
+    public Entity nextEntity() {
+        count++;
+        return entityResult.nextEntity();
+    }
+}
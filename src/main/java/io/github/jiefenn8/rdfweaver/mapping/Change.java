@@ -0,0 +1,97 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * This class defines a single change recorded for a row of a table, in the
+ * order given by its sequence number.
+ */
+public final class Change {
+
+    private final long sequence;
+    private final Operation operation;
+    private final String table;
+    private final String key;
+
+    /**
+     * Constructs a {@code Change} instance with the specified sequence number,
+     * operation and the table and key of the changed row.
+     *
+     * @param sequence  the position of the change in the order of changes
+     * @param operation the operation that changed the row
+     * @param table     the name of the table of the row
+     * @param key       the primary key value of the row
+     */
+    public Change(long sequence, @NonNull Operation operation, @NonNull String table, @NonNull String key) {
+        this.sequence = sequence;
+        this.operation = operation;
+        this.table = table;
+        this.key = key;
+    }
+
+    /**
+     * Returns the position of this change in the order of changes.
+     *
+     * @return the sequence number of this change
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the operation that changed the row.
+     *
+     * @return the operation of this change
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the name of the table of the changed row.
+     *
+     * @return the table of this change
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the primary key value of the changed row.
+     *
+     * @return the key of this change
+     */
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return sequence + ":" + operation + " " + table + "(" + key + ")";
+    }
+
+    /**
+     * The operations that can change a row.
+     */
+    public enum Operation {
+        INSERT, UPDATE, DELETE;
+
+        /**
+         * Returns the operation of the given code, matched by the first
+         * letter of the operation name such as {@code I} or {@code INSERT}.
+         *
+         * @param code the code of the operation
+         * @return the operation of the code
+         * @throws IllegalArgumentException if the code matches no operation
+         */
+        public static Operation of(@NonNull String code) {
+            String trimmed = code.trim().toUpperCase();
+            for (Operation operation : values()) {
+                if (!trimmed.isEmpty() && operation.name().startsWith(trimmed)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown change operation: " + code);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.ConfigMaps;
+import io.github.jiefenn8.graphloom.api.EntityMap;
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.rdf.RDFMapper;
+import io.github.jiefenn8.graphloom.rdf.r2rml.DatabaseType;
+import io.github.jiefenn8.rdfweaver.output.ChangeStream;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class handles the mapping of the changes read from a
+ * {@link ChangeFeedSource} into a {@link ChangeStream}, so that a graph is
+ * kept in sync at a cost proportional to the changes instead of the tables.
+ * <p>
+ * Changes are read in sequence order and sent in batches. Within a batch,
+ * the changes of the same row are reduced to one, as every change is mapped
+ * from the current state of the row: the triples that the entity map
+ * generates from the key of the row are deleted, and the triples of its
+ * current values are added if the row still exists. Subjects must therefore
+ * be generated from the primary key of the table to be deleted once the row
+ * is gone.
+ * <p>
+ * The triples to delete are found by mapping the row with only its key
+ * known. A triple whose object depends on the other values of the row is
+ * deleted as every triple of its subject and predicate, and any other
+ * triple is deleted as it is, so the triples that other entity maps give the
+ * same subject are kept.
+ */
+public class ChangeFeedMapper {
+
+    private static final Logger LOGGER = LogManager.getLogger(ChangeFeedMapper.class);
+    private final RDFMapper rdfMapper;
+    private final int batchSize;
+
+    /**
+     * Constructs a {@code ChangeFeedMapper} instance with the specified
+     * {@link RDFMapper} and number of changes sent per batch.
+     *
+     * @param rdfMapper the mapper to map each changed row with
+     * @param batchSize the maximum number of changes sent in a batch
+     */
+    public ChangeFeedMapper(@NonNull RDFMapper rdfMapper, @Positive int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, given: " + batchSize);
+        }
+        this.rdfMapper = rdfMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Maps every change left in the feed of the source using the
+     * configurations from {@link ConfigMaps} and sends the changed triples
+     * to the given stream. The stream is started before the first change and
+     * finished after the last, or aborted if mapping fails. Returns the number
+     * of changes read.
+     *
+     * @param source the source to read the changes and changed rows from
+     * @param config the config data for the mapper
+     * @param stream the stream to send the changed triples to
+     * @return the number of changes read from the feed
+     */
+    public long mapChanges(@NonNull ChangeFeedSource source, @NonNull ConfigMaps config,
+                           @NonNull ChangeStream stream) {
+        stream.start();
+        try {
+            Map<String, Map<EntityMap, EntityReference>> tables = findTables(config);
+            long total = 0;
+            List<Change> changes = source.readChanges(batchSize);
+            while (!changes.isEmpty()) {
+                Map<String, Change> rows = new LinkedHashMap<>();
+                changes.forEach((change) -> rows.put(change.getTable() + '\u0000' + change.getKey(), change));
+                for (Change change : rows.values()) {
+                    Map<EntityMap, EntityReference> entityMaps = findEntityMaps(tables, change.getTable());
+                    entityMaps.forEach((entityMap, entityReference) ->
+                            mapChange(source, new EntityMapConfig(config, entityMap), entityReference, change, stream));
+                }
+                stream.commit();
+                total += changes.size();
+                LOGGER.debug("Mapped {} changes of {} rows.", changes.size(), rows.size());
+                changes = source.readChanges(batchSize);
+            }
+            stream.finish();
+            LOGGER.info("Mapped {} changes from the change feed.", total);
+            return total;
+        } catch (RuntimeException | Error ex) {
+            LOGGER.warn("Aborting change stream after failure.");
+            stream.abort();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the entity maps of the config grouped by the table they are
+     * mapped from. Entity maps of a query instead of a table can't be mapped
+     * by row and are left out.
+     */
+    private Map<String, Map<EntityMap, EntityReference>> findTables(ConfigMaps config) {
+        Map<String, Map<EntityMap, EntityReference>> tables = new LinkedHashMap<>();
+        for (EntityMap entityMap : config.getEntityMaps()) {
+            ReferenceProbe probe = new ReferenceProbe();
+            rdfMapper.mapToGraph(probe, new EntityMapConfig(config, entityMap));
+            EntityReference entityReference = probe.getEntityReference();
+            if (entityReference == null || entityReference.getPayloadType() != DatabaseType.TABLE_NAME) {
+                LOGGER.warn("Entity map {} is not mapped from a table, its changes will not be mapped.", entityMap);
+                continue;
+            }
+            tables.computeIfAbsent(entityReference.getPayload(), (k) -> new LinkedHashMap<>())
+                    .put(entityMap, entityReference);
+        }
+        return tables;
+    }
+
+    /**
+     * Returns the entity maps of the given table, matched by its full or
+     * bare table name ignoring case and delimiters.
+     */
+    private Map<EntityMap, EntityReference> findEntityMaps(Map<String, Map<EntityMap, EntityReference>> tables,
+                                                          String table) {
+        Map<EntityMap, EntityReference> entityMaps = tables.get(table);
+        if (entityMaps != null) {
+            return entityMaps;
+        }
+        String bareTable = toBareName(table);
+        for (Map.Entry<String, Map<EntityMap, EntityReference>> entry : tables.entrySet()) {
+            if (toBareName(entry.getKey()).equalsIgnoreCase(bareTable)) {
+                return entry.getValue();
+            }
+        }
+        return Map.of();
+    }
+
+    /**
+     * Returns the table name without its schema, catalog or delimiters.
+     */
+    private static String toBareName(String table) {
+        return table.substring(table.lastIndexOf('.') + 1).replaceAll("[\\[\\]\"`]", "");
+    }
+
+    /**
+     * Maps a single changed row with the entity map of the given config and
+     * sends its deleted patterns and added triples to the stream.
+     */
+    private void mapChange(ChangeFeedSource source, ConfigMaps entityConfig, EntityReference entityReference,
+                           Change change, ChangeStream stream) {
+        String keyColumn = source.getKeyColumn(entityReference);
+        if (keyColumn == null) {
+            LOGGER.warn("Table '{}' has no single column key, change {} will not be mapped.",
+                    entityReference.getPayload(), change);
+            return;
+        }
+        Model keyModel = rdfMapper.mapToGraph(new KeySource(entityReference, keyColumn, change.getKey()), entityConfig);
+        Set<Triple> patterns = new LinkedHashSet<>();
+        for (Triple triple : listTriples(keyModel)) {
+            Triple pattern = toDeletePattern(triple);
+            if (pattern != null) {
+                patterns.add(pattern);
+            }
+        }
+        EntityReference row = source.rowEntityQuery(entityReference, change.getKey());
+        Model rowModel = rdfMapper.mapToGraph(new PartitionSource(source, entityReference, row), entityConfig);
+        patterns.forEach(stream::delete);
+        listTriples(rowModel).forEach(stream::add);
+    }
+
+    /**
+     * Returns the pattern deleting the given triple mapped from a row with
+     * only its key known, or null if its subject or predicate was generated
+     * from an unknown value and can't be addressed.
+     */
+    private Triple toDeletePattern(Triple triple) {
+        Node subject = triple.getSubject();
+        Node predicate = triple.getPredicate();
+        if (!subject.isURI() || isUnbound(subject) || isUnbound(predicate)) {
+            return null;
+        }
+        Node object = triple.getObject();
+        return object.isBlank() || isUnbound(object) ? Triple.create(subject, predicate, Node.ANY) : triple;
+    }
+
+    /**
+     * Returns true if the term was generated from a value of the row that
+     * was not known.
+     */
+    private static boolean isUnbound(Node node) {
+        if (node.isURI()) {
+            return node.getURI().contains(KeySource.UNBOUND);
+        }
+        return node.isLiteral() && node.getLiteralLexicalForm().contains(KeySource.UNBOUND);
+    }
+
+    /**
+     * Returns every triple of the model.
+     */
+    private List<Triple> listTriples(Model model) {
+        List<Triple> triples = new ArrayList<>();
+        ExtendedIterator<Triple> iterator = GraphUtil.findAll(model.getGraph());
+        try {
+            iterator.forEachRemaining(triples::add);
+        } finally {
+            iterator.close();
+        }
+        return triples;
+    }
+}
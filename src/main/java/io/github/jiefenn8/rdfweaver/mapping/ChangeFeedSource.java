@@ -0,0 +1,50 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+
+/**
+ * This interface defines the base methods of an {@link IncrementalSource}
+ * that records every changed row in a feed of changes, so that only the
+ * changed rows are mapped again instead of whole tables.
+ */
+public interface ChangeFeedSource extends IncrementalSource {
+
+    /**
+     * Returns true if this source has a feed of changes to read.
+     *
+     * @return true if this source has a feed of changes
+     */
+    boolean hasChangeFeed();
+
+    /**
+     * Returns the next changes of the feed in sequence order, after those
+     * already read or committed, or an empty list if none are left.
+     *
+     * @param limit the maximum number of changes to return
+     * @return the next changes of the feed
+     */
+    List<Change> readChanges(@Positive int limit);
+
+    /**
+     * Returns the single primary key column of the table of the given
+     * reference, or null if the table has no key or a key of many columns.
+     *
+     * @param entityReference the reference of the table
+     * @return the key column of the table
+     */
+    String getKeyColumn(@NonNull EntityReference entityReference);
+
+    /**
+     * Returns a reference that queries only the row of the given key from
+     * the table of the given reference.
+     *
+     * @param entityReference the reference of the table
+     * @param key             the primary key value of the row
+     * @return the reference to the row
+     */
+    EntityReference rowEntityQuery(@NonNull EntityReference entityReference, @NonNull String key);
+}
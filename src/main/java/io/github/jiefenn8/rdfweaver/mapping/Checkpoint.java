@@ -0,0 +1,136 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * This class handles the checkpoint of a resumable mapping run, kept in a
+ * directory of its own next to the output.
+ * <p>
+ * Each mapping task writes its triples to a segment file named by the key of
+ * the task. Once the segment is complete, the task is recorded in the journal
+ * of the checkpoint. The journal is only appended to and is synced to disk
+ * after every record, so a task is either recorded with its whole segment or
+ * not at all. A run resumed from the checkpoint skips the recorded tasks and
+ * reuses their segments.
+ */
+public class Checkpoint {
+
+    private static final Logger LOGGER = LogManager.getLogger(Checkpoint.class);
+    private static final String JOURNAL_FILE = "journal";
+    private static final String SEGMENT_SUFFIX = ".nt";
+    private final Path directory;
+    private final Path journal;
+    private final Map<String, Long> completed = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@code Checkpoint} instance in the specified directory,
+     * reading the tasks recorded by an earlier run if the directory exists.
+     *
+     * @param directory the directory holding the journal and segments
+     * @throws IOException if the directory or journal can't be read
+     */
+    public Checkpoint(@NonNull Path directory) throws IOException {
+        this.directory = directory;
+        this.journal = directory.resolve(JOURNAL_FILE);
+        Files.createDirectories(directory);
+        if (!Files.exists(journal)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            String[] record = line.split(" ");
+            if (record.length != 2 || !Files.exists(getSegment(record[0]))) {
+                LOGGER.warn("Ignoring incomplete checkpoint record '{}'.", line);
+                continue;
+            }
+            completed.put(record[0], Long.parseLong(record[1]));
+        }
+        String content = Files.readString(journal, StandardCharsets.UTF_8);
+        if (!content.isEmpty() && !content.endsWith("\n")) {
+            append("\n");
+        }
+        LOGGER.info("Resuming from checkpoint {} with {} completed tasks.", directory, completed.size());
+    }
+
+    /**
+     * Returns true if the task of the given key was completed.
+     *
+     * @param key the key of the task
+     * @return true if the task is recorded in the journal
+     */
+    public boolean isCompleted(@NonNull String key) {
+        return completed.containsKey(key);
+    }
+
+    /**
+     * Returns the number of tasks completed so far.
+     *
+     * @return the number of tasks recorded in the journal
+     */
+    public int getCompletedCount() {
+        return completed.size();
+    }
+
+    /**
+     * Returns the segment file holding the triples of the task of the given
+     * key, in N-Triples.
+     *
+     * @param key the key of the task
+     * @return the path of the segment of the task
+     */
+    public Path getSegment(@NonNull String key) {
+        return directory.resolve(key + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Records the task of the given key as completed, once its segment has
+     * been written whole.
+     *
+     * @param key     the key of the completed task
+     * @param triples the number of triples in the segment of the task
+     * @throws IOException if the record can't be written to the journal
+     */
+    public synchronized void complete(@NonNull String key, @NonNegative long triples) throws IOException {
+        append(key + " " + triples + "\n");
+        completed.put(key, triples);
+    }
+
+    /**
+     * Deletes the journal, every segment and the directory of this
+     * checkpoint, once the output of the run is complete.
+     *
+     * @throws IOException if a file of the checkpoint can't be deleted
+     */
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        completed.clear();
+    }
+
+    private void append(String record) throws IOException {
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+    }
+}
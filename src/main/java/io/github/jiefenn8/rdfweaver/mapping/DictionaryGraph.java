@@ -0,0 +1,335 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.NullIterator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a {@code Graph} that holds its triples compactly
+ * for a mapping too large for the object indexes of the default graph of
+ * Jena.
+ * <p>
+ * Every term is given an id by a {@link TermDictionary} holding the terms
+ * outside the heap, and every triple is held as the three ids of its terms
+ * in direct buffers outside the heap. The triples are told apart by an open
+ * addressing table of triple numbers, so the graph is a set as the default
+ * graph is. The terms of the found triples are turned back into nodes as
+ * the triples are iterated.
+ * <p>
+ * Triples with a given subject, predicate or object are found through a
+ * permutation of the triple numbers sorted by that term, built on the first
+ * find that needs it and built again if triples were added since. A find
+ * with no given term reads the triples in the order they were added.
+ * <p>
+ * The graph is built once and read after: triples can't be deleted, and a
+ * triple added while iterating is not seen by the iteration. Once built, the
+ * graph can be read by several threads at once, such as an output saving it
+ * to several outputs, the indexes being built under the lock of the graph.
+ */
+public class DictionaryGraph extends GraphBase {
+
+    private static final Logger LOGGER = LogManager.getLogger(DictionaryGraph.class);
+    private static final int PAGE_SHIFT = 18;
+    private static final int PAGE_TRIPLES = 1 << PAGE_SHIFT;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int MAX_TRIPLES = 3 << 28;
+    private static final int SUBJECT = 0;
+    private static final int PREDICATE = 1;
+    private static final int OBJECT = 2;
+    private final TermDictionary dictionary = new TermDictionary();
+    private final List<LongBuffer> pages = new ArrayList<>();
+    private final int[][] indexes = new int[3][];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int count;
+
+    /**
+     * Constructs a {@code DictionaryGraph} instance holding no triples.
+     */
+    public DictionaryGraph() {
+    }
+
+    /**
+     * Returns the number of distinct terms of the triples.
+     *
+     * @return the number of terms
+     */
+    public int getTermCount() {
+        return dictionary.size();
+    }
+
+    /**
+     * Returns the number of bytes held outside the heap by the terms and
+     * the triples.
+     *
+     * @return the number of bytes held outside the heap
+     */
+    public long getOffHeapBytes() {
+        return dictionary.getByteSize() + (long) pages.size() * PAGE_TRIPLES * 3 * Long.BYTES;
+    }
+
+    @Override
+    public void performAdd(Triple triple) {
+        long subject = dictionary.getOrAdd(triple.getSubject());
+        long predicate = dictionary.getOrAdd(triple.getPredicate());
+        long object = dictionary.getOrAdd(triple.getObject());
+        int mask = slots.length - 1;
+        int slot = hash(subject, predicate, object) & mask;
+        while (slots[slot] != 0) {
+            if (matches(slots[slot] - 1, subject, predicate, object)) {
+                return;
+            }
+            slot = slot + 1 & mask;
+        }
+        if (count == MAX_TRIPLES) {
+            throw new IllegalStateException("Graph can't hold more than " + MAX_TRIPLES + " triples.");
+        }
+        if (count >>> PAGE_SHIFT == pages.size()) {
+            pages.add(ByteBuffer.allocateDirect(PAGE_TRIPLES * 3 * Long.BYTES).asLongBuffer());
+        }
+        int offset = (count & PAGE_TRIPLES - 1) * 3;
+        LongBuffer page = pages.get(count >>> PAGE_SHIFT);
+        page.put(offset, subject);
+        page.put(offset + 1, predicate);
+        page.put(offset + 2, object);
+        slots[slot] = ++count;
+        if (count > slots.length / 4 * 3) {
+            grow();
+        }
+    }
+
+    @Override
+    protected boolean graphBaseContains(Triple triple) {
+        if (!triple.isConcrete()) {
+            return super.graphBaseContains(triple);
+        }
+        long subject = dictionary.get(triple.getSubject());
+        long predicate = dictionary.get(triple.getPredicate());
+        long object = dictionary.get(triple.getObject());
+        if (subject < 0 || predicate < 0 || object < 0) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        for (int slot = hash(subject, predicate, object) & mask; slots[slot] != 0; slot = slot + 1 & mask) {
+            if (matches(slots[slot] - 1, subject, predicate, object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return count;
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+        long[] terms = new long[3];
+        Node[] nodes = {pattern.getSubject(), pattern.getPredicate(), pattern.getObject()};
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = nodes[i].isConcrete() ? dictionary.get(nodes[i]) : -1;
+            if (nodes[i].isConcrete() && terms[i] < 0) {
+                return NullIterator.instance();
+            }
+        }
+        int component = terms[SUBJECT] >= 0 ? SUBJECT : terms[OBJECT] >= 0 ? OBJECT
+                : terms[PREDICATE] >= 0 ? PREDICATE : -1;
+        if (component < 0) {
+            return new TripleIterator(null, 0, count, terms);
+        }
+        int[] index = getIndex(component);
+        int from = lowerBound(index, component, terms[component]);
+        int to = lowerBound(index, component, terms[component] + 1);
+        return new TripleIterator(index, from, to, terms);
+    }
+
+    @Override
+    public void close() {
+        pages.clear();
+        dictionary.close();
+        slots = new int[0];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = null;
+        }
+        super.close();
+    }
+
+    @Override
+    public String toString() {
+        return "{\"triples\":" + count + ",\"terms\":" + dictionary.size() + ",\"offHeapBytes\":"
+                + getOffHeapBytes() + "}";
+    }
+
+    private long get(int triple, int component) {
+        return pages.get(triple >>> PAGE_SHIFT).get((triple & PAGE_TRIPLES - 1) * 3 + component);
+    }
+
+    private boolean matches(int triple, long subject, long predicate, long object) {
+        LongBuffer page = pages.get(triple >>> PAGE_SHIFT);
+        int offset = (triple & PAGE_TRIPLES - 1) * 3;
+        return page.get(offset) == subject && page.get(offset + 1) == predicate && page.get(offset + 2) == object;
+    }
+
+    private static int hash(long subject, long predicate, long object) {
+        long hash = (subject * 31 + predicate) * 31 + object;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    /**
+     * Doubles the table of triple numbers, placing every triple again by
+     * the hash of its terms.
+     */
+    private void grow() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int triple = 0; triple < count; triple++) {
+            int slot = hash(get(triple, SUBJECT), get(triple, PREDICATE), get(triple, OBJECT)) & mask;
+            while (slots[slot] != 0) {
+                slot = slot + 1 & mask;
+            }
+            slots[slot] = triple + 1;
+        }
+    }
+
+    /**
+     * Returns the triple numbers sorted by the given term, building them if
+     * missing or older than the last added triple.
+     */
+    private synchronized int[] getIndex(int component) {
+        int[] index = indexes[component];
+        if (index != null && index.length == count) {
+            return index;
+        }
+        long[] keys = new long[count];
+        index = new int[count];
+        for (int triple = 0; triple < count; triple++) {
+            keys[triple] = get(triple, component);
+            index[triple] = triple;
+        }
+        sort(keys, index, 0, count - 1);
+        indexes[component] = index;
+        LOGGER.debug("Built index of {} triples by term {}.", count, component);
+        return index;
+    }
+
+    /**
+     * Returns the first position of the index whose term is at or above the
+     * given id.
+     */
+    private int lowerBound(int[] index, int component, long id) {
+        int from = 0;
+        int to = index.length;
+        while (from < to) {
+            int middle = from + to >>> 1;
+            if (get(index[middle], component) < id) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Sorts the keys between the given positions along with their triple
+     * numbers.
+     */
+    private static void sort(long[] keys, int[] index, int from, int to) {
+        while (from < to) {
+            long pivot = keys[from + to >>> 1];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    long key = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = key;
+                    int triple = index[i];
+                    index[i] = index[j];
+                    index[j] = triple;
+                    i++;
+                    j--;
+                }
+            }
+            if (j - from < to - i) {
+                sort(keys, index, from, j);
+                from = i;
+            } else {
+                sort(keys, index, i, to);
+                to = j;
+            }
+        }
+    }
+
+    /**
+     * Iterator over the triples between two positions of an index, or of
+     * the order the triples were added, that match the given term ids.
+     */
+    private class TripleIterator extends NiceIterator<Triple> {
+
+        private final int[] index;
+        private final int to;
+        private final long[] terms;
+        private int position;
+        private int next = -1;
+
+        private TripleIterator(int[] index, int from, int to, long[] terms) {
+            this.index = index;
+            this.position = from;
+            this.to = to;
+            this.terms = terms;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next < 0 && position < to) {
+                int triple = index == null ? position : index[position];
+                position++;
+                if (isMatch(triple)) {
+                    next = triple;
+                }
+            }
+            return next >= 0;
+        }
+
+        @Override
+        public Triple next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int triple = next;
+            next = -1;
+            return Triple.create(dictionary.getNode(get(triple, SUBJECT)),
+                    dictionary.getNode(get(triple, PREDICATE)), dictionary.getNode(get(triple, OBJECT)));
+        }
+
+        private boolean isMatch(int triple) {
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i] >= 0 && get(triple, i) != terms[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.ConfigMaps;
+import io.github.jiefenn8.graphloom.api.EntityMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class implements {@link ConfigMaps} as a view of a parent config that
+ * contains only a single {@link EntityMap}, so that the mapper can be driven
+ * one entity map at a time.
+ */
+class EntityMapConfig implements ConfigMaps {
+
+    private final ConfigMaps config;
+    private final EntityMap entityMap;
+
+    /**
+     * Constructs an {@code EntityMapConfig} instance with the parent config
+     * and the entity map that this view will contain.
+     *
+     * @param config    the parent config containing the entity map
+     * @param entityMap the single entity map of this view
+     */
+    EntityMapConfig(@NonNull ConfigMaps config, @NonNull EntityMap entityMap) {
+        this.config = config;
+        this.entityMap = entityMap;
+    }
+
+    @Override
+    public Map<String, String> getNamespaceMap() {
+        return config.getNamespaceMap();
+    }
+
+    @Override
+    public Set<EntityMap> getEntityMaps() {
+        return Set.of(entityMap);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.InputSource;
+
+import java.io.IOException;
+
+/**
+ * This interface defines an {@link InputSource} that only returns the data
+ * changed since its last committed run.
+ */
+public interface IncrementalSource extends InputSource {
+
+    /**
+     * Saves the position reached by this run, so that the next run only
+     * returns data changed after it. Must only be called once the output
+     * of this run is complete.
+     *
+     * @throws IOException if the position can't be saved
+     */
+    void commit() throws IOException;
+}
@@ -0,0 +1,40 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Stream that interns the terms of received triples and quads through a
+ * {@link TermCache} before passing them on, so that a graph built from the
+ * stream holds every repeated term once.
+ */
+public class InterningStream extends StreamRDFWrapper {
+
+    private final TermCache termCache;
+
+    /**
+     * Constructs a {@code InterningStream} instance passing the interned
+     * triples on to the given stream.
+     *
+     * @param stream    the stream to pass the interned triples to
+     * @param termCache the cache to intern the terms through
+     */
+    public InterningStream(@NonNull StreamRDF stream, @NonNull TermCache termCache) {
+        super(stream);
+        this.termCache = termCache;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        super.triple(termCache.intern(triple));
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        Triple triple = termCache.intern(quad.asTriple());
+        super.quad(Quad.create(termCache.intern(quad.getGraph()), triple));
+    }
+}
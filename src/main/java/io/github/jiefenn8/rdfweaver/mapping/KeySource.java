@@ -0,0 +1,63 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * This class implements {@link InputSource} that answers the query of an
+ * entity reference with a single entity knowing only its key, to find the
+ * subjects the mapper generates from the key of a row that no longer exists.
+ * <p>
+ * Every other property of the entity has the {@link #UNBOUND} value, so that
+ * a generated term containing it can be told apart from a term generated from
+ * the key alone. Any other query is answered with an empty result.
+ */
+class KeySource implements InputSource {
+
+    static final String UNBOUND = "rdfweaver-unbound-value";
+    private final EntityReference entityReference;
+    private final String keyColumn;
+    private final String key;
+
+    /**
+     * Constructs a {@code KeySource} instance with the reference to answer
+     * and the key column and value of its single entity.
+     *
+     * @param entityReference the reference to answer with the entity
+     * @param keyColumn       the name of the key column
+     * @param key             the key value of the entity
+     */
+    KeySource(@NonNull EntityReference entityReference, @NonNull String keyColumn, @NonNull String key) {
+        this.entityReference = entityReference;
+        this.keyColumn = keyColumn;
+        this.key = key;
+    }
+
+    @Override
+    public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+        boolean answer = entityReference.equals(this.entityReference);
+        action.accept(new EntityResult() {
+            private boolean read = !answer;
+
+            @Override
+            public boolean hasNext() {
+                return !read;
+            }
+
+            @Override
+            public Entity nextEntity() {
+                if (read) {
+                    throw new NoSuchElementException();
+                }
+                read = true;
+                return (name) -> keyColumn.equalsIgnoreCase(name) ? key : UNBOUND;
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.function.Consumer;
+
+/**
+ * This class implements {@link InputSource} as a wrapper that queries a
+ * single partition in place of the entity reference it was split from. Any
+ * other query is passed to the wrapped source unchanged.
+ */
+class PartitionSource implements InputSource {
+
+    private final InputSource source;
+    private final EntityReference entityReference;
+    private final EntityReference partition;
+
+    /**
+     * Constructs a {@code PartitionSource} instance wrapping the specified
+     * source that will query the partition in place of the given reference.
+     *
+     * @param source          the source to query the partition from
+     * @param entityReference the reference that the partition was split from
+     * @param partition       the reference to the partition to query
+     */
+    PartitionSource(@NonNull InputSource source, @NonNull EntityReference entityReference,
+                    @NonNull EntityReference partition) {
+        this.source = source;
+        this.entityReference = entityReference;
+        this.partition = partition;
+    }
+
+    @Override
+    public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+        if (entityReference.equals(this.entityReference)) {
+            source.executeEntityQuery(partition, action);
+            return;
+        }
+        source.executeEntityQuery(entityReference, action);
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+
+/**
+ * This interface defines the base methods of an {@link InputSource} that can
+ * split the entities of an entity reference into partitions which can be
+ * queried independently and concurrently.
+ * <p>
+ * The string form of each partition reference should describe the entities
+ * it selects, as a resumed run matches the partitions completed by an earlier
+ * run by it.
+ */
+public interface PartitionableSource extends InputSource {
+
+    /**
+     * Returns the references to the partitions of the given entity reference.
+     * Together the partitions contain every entity of the reference exactly
+     * once. Returns a list containing only the given reference if it should
+     * not be partitioned.
+     *
+     * @param entityReference the reference to split into partitions
+     * @return the list of references to each partition
+     */
+    List<EntityReference> partitionEntityQuery(@NonNull EntityReference entityReference);
+}
@@ -0,0 +1,47 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * This class implements {@link InputSource} that records the first entity
+ * reference queried by the mapper and answers every query with an empty
+ * result, to find the reference of an entity map without reading any data.
+ */
+class ReferenceProbe implements InputSource {
+
+    private static final EntityResult EMPTY_RESULT = new EntityResult() {
+        @Override
+        public boolean hasNext() {
+            return false;
+        }
+
+        @Override
+        public Entity nextEntity() {
+            throw new NoSuchElementException();
+        }
+    };
+    private EntityReference entityReference;
+
+    @Override
+    public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+        if (this.entityReference == null) {
+            this.entityReference = entityReference;
+        }
+        action.accept(EMPTY_RESULT);
+    }
+
+    /**
+     * Returns the first entity reference queried, or null if there was none.
+     *
+     * @return the first entity reference queried
+     */
+    EntityReference getEntityReference() {
+        return entityReference;
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.index.qual.Positive;
+
+/**
+ * This class defines how many times a read that failed for a reason that may
+ * pass, such as a dropped connection, is retried and how long to wait before
+ * each retry. The wait doubles after every failed attempt, up to a minute.
+ */
+public final class RetryPolicy {
+
+    /**
+     * The policy that never retries.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0);
+    private static final long MAX_DELAY_MILLIS = 60000;
+    private final int retries;
+    private final long delayMillis;
+
+    /**
+     * Constructs a {@code RetryPolicy} instance with the specified number of
+     * retries and the wait before the first retry.
+     *
+     * @param retries     the number of times to retry a failed attempt
+     * @param delayMillis the time to wait before the first retry in milliseconds
+     */
+    public RetryPolicy(@NonNegative int retries, @NonNegative long delayMillis) {
+        if (retries < 0) {
+            throw new IllegalArgumentException("Retries must not be negative, given: " + retries);
+        }
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Retry delay must not be negative, given: " + delayMillis);
+        }
+        this.retries = retries;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Returns the number of times a failed attempt is retried.
+     *
+     * @return the number of retries
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    /**
+     * Returns true if the given failed attempt can be retried.
+     *
+     * @param attempt the number of the attempt that failed, starting from one
+     * @return true if there are retries left after the attempt
+     */
+    public boolean canRetry(@Positive int attempt) {
+        return attempt <= retries;
+    }
+
+    /**
+     * Returns the time to wait before retrying the given failed attempt.
+     *
+     * @param attempt the number of the attempt that failed, starting from one
+     * @return the time to wait in milliseconds
+     */
+    public long getDelay(@Positive int attempt) {
+        long delay = delayMillis << Math.min(attempt - 1, 20);
+        return delay < 0 || delay > MAX_DELAY_MILLIS ? MAX_DELAY_MILLIS : delay;
+    }
+
+    /**
+     * Waits before retrying the given failed attempt.
+     *
+     * @param attempt the number of the attempt that failed, starting from one
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    public void backoff(@Positive int attempt) {
+        try {
+            Thread.sleep(getDelay(attempt));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry.", ex);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.InputSource;
+
+/**
+ * This interface defines the base methods of an {@link InputSource} that can
+ * keep resources, such as connections and prepared statements, open across
+ * the entity queries made from a thread until the session is closed.
+ */
+public interface SessionSource extends InputSource {
+
+    /**
+     * Opens a session for the entity queries made from the current thread.
+     * If a session is already open on the thread, that session is used and
+     * closing the returned session does nothing.
+     *
+     * @return the session to close once the queries are done
+     */
+    Session openSession();
+
+    /**
+     * A session of queries that releases its resources when closed.
+     */
+    interface Session extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * This class implements {@link InputSource} that answers every query with a
+ * single entity whose properties are named after themselves, to tell entity
+ * maps apart across runs when they have no identity of their own.
+ * <p>
+ * The triples an entity map generates from this entity depend only on its
+ * references, templates and constants, so together with the references it
+ * queried they form a signature of the entity map that is the same in every
+ * run of the same mapping.
+ */
+class SignatureSource implements InputSource {
+
+    private final List<String> references = new ArrayList<>();
+
+    @Override
+    public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+        references.add(entityReference.getPayloadType() + ":" + entityReference.getPayload());
+        action.accept(new EntityResult() {
+            private boolean read = false;
+
+            @Override
+            public boolean hasNext() {
+                return !read;
+            }
+
+            @Override
+            public Entity nextEntity() {
+                if (read) {
+                    throw new NoSuchElementException();
+                }
+                read = true;
+                return (name) -> "v_" + name;
+            }
+        });
+    }
+
+    /**
+     * Returns the signature of the entity map that generated the given model
+     * from this source, as sixteen hexadecimal digits.
+     *
+     * @param model the triples generated from the entity of this source
+     * @return the signature of the entity map
+     */
+    String sign(@NonNull Model model) {
+        List<String> lines = new ArrayList<>(references);
+        GraphUtil.findAll(model.getGraph()).forEachRemaining((triple) -> lines.add(toLine(triple)));
+        lines.sort(null);
+        return digest(lines);
+    }
+
+    /**
+     * Returns the first sixteen hexadecimal digits of the SHA-256 digest of
+     * the given lines.
+     *
+     * @param lines the lines to digest in order
+     * @return the digest of the lines
+     */
+    static String digest(@NonNull List<String> lines) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : lines) {
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return String.format("%016x", ByteBuffer.wrap(digest.digest()).getLong());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+    }
+
+    /**
+     * Returns the triple as a line with every blank node written the same,
+     * as blank node labels differ between runs.
+     */
+    private static String toLine(Triple triple) {
+        return toTerm(triple.getSubject()) + " " + toTerm(triple.getPredicate()) + " " + toTerm(triple.getObject());
+    }
+
+    private static String toTerm(Node node) {
+        return node.isBlank() ? "[]" : node.toString();
+    }
+}
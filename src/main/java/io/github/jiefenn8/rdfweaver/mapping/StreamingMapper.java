@@ -0,0 +1,498 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.ConfigMaps;
+import io.github.jiefenn8.graphloom.api.EntityMap;
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.rdf.RDFMapper;
+import io.github.jiefenn8.rdfweaver.output.AbortableStream;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class handles the mapping of an {@link InputSource} into a
+ * {@link StreamRDF} without generating the whole RDF graph in memory.
+ * <p>
+ * Each entity map is mapped separately and its entities are read in batches,
+ * with the triples of each batch sent to the stream as soon as the batch has
+ * been mapped. Memory use is bounded by the batch size instead of the size of
+ * the data source.
+ * <p>
+ * With a parallelism above one, entity maps are mapped concurrently on a
+ * bounded pool of threads. Each batch is sent to the stream whole while
+ * holding the lock of the stream, so the stream itself does not need to be
+ * thread-safe. The first failing entity map cancels all the others.
+ * <p>
+ * If the source is a {@link PartitionableSource}, an entity map over a
+ * partitioned reference is mapped as one task per partition, so that a
+ * single large table can be read concurrently as well.
+ * <p>
+ * If the source is a {@link SessionSource}, each task is mapped within a
+ * session of the source, and entity maps over the same reference are mapped
+ * one after another in the same task so that they share its connection.
+ * <p>
+ * With a {@link Checkpoint}, each entity map or partition is mapped into its
+ * own segment of the checkpoint and recorded as completed, and the segments
+ * are sent to the stream in order once every one is complete. Entity maps and
+ * partitions completed by an earlier run are skipped. A task failing with a
+ * {@link TransientSourceException} is mapped again from the start of its
+ * segment, as allowed by the {@link RetryPolicy}.
+ */
+public class StreamingMapper {
+
+    private static final int DEFAULT_BATCH_SIZE = 10000;
+    private static final int SEGMENT_BUFFER_SIZE = 1 << 16;
+    private static final Logger LOGGER = LogManager.getLogger(StreamingMapper.class);
+    private final RDFMapper rdfMapper;
+    private final int batchSize;
+    private final int parallelism;
+    private final Checkpoint checkpoint;
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Constructs a {@code StreamingMapper} instance with default
+     * {@link RDFMapper} and batch size.
+     */
+    public StreamingMapper() {
+        this(new RDFMapper(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a {@code StreamingMapper} instance with the specified
+     * {@link RDFMapper} and batch size that maps one entity map at a time.
+     *
+     * @param rdfMapper the mapper to map each batch with
+     * @param batchSize the maximum number of entities mapped in a batch
+     */
+    public StreamingMapper(@NonNull RDFMapper rdfMapper, @Positive int batchSize) {
+        this(rdfMapper, batchSize, 1);
+    }
+
+    /**
+     * Constructs a {@code StreamingMapper} instance with the specified
+     * {@link RDFMapper}, batch size and number of entity maps to map
+     * concurrently.
+     *
+     * @param rdfMapper   the mapper to map each batch with
+     * @param batchSize   the maximum number of entities mapped in a batch
+     * @param parallelism the maximum number of entity maps mapped at a time
+     */
+    public StreamingMapper(@NonNull RDFMapper rdfMapper, @Positive int batchSize, @Positive int parallelism) {
+        this(rdfMapper, batchSize, parallelism, null, RetryPolicy.NONE);
+    }
+
+    /**
+     * Constructs a {@code StreamingMapper} instance with the specified
+     * {@link RDFMapper}, batch size and number of entity maps to map
+     * concurrently, that maps through the given {@link Checkpoint} and
+     * retries tasks failing on a transient error.
+     *
+     * @param rdfMapper   the mapper to map each batch with
+     * @param batchSize   the maximum number of entities mapped in a batch
+     * @param parallelism the maximum number of entity maps mapped at a time
+     * @param checkpoint  the checkpoint to record completed tasks in, or null
+     *                    to map straight into the stream
+     * @param retryPolicy the policy to retry failed tasks with
+     */
+    public StreamingMapper(@NonNull RDFMapper rdfMapper, @Positive int batchSize, @Positive int parallelism,
+                           Checkpoint checkpoint, @NonNull RetryPolicy retryPolicy) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, given: " + batchSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, given: " + parallelism);
+        }
+        this.rdfMapper = rdfMapper;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.checkpoint = checkpoint;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Maps the data from the {@link InputSource} using the configurations
+     * from {@link ConfigMaps} and sends the generated triples to the given
+     * stream. The stream is started before the first triple and finished
+     * after the last. If mapping fails, the stream is not finished, and is
+     * aborted if it is an {@link AbortableStream} so the output does not keep
+     * the triples sent so far. Returns the number of triples sent to the
+     * stream.
+     *
+     * @param source the input source for the mapper
+     * @param config the config data for the mapper
+     * @param stream the stream to send the generated triples to
+     * @return the number of triples sent to the stream
+     */
+    public long mapToStream(@NonNull InputSource source, @NonNull ConfigMaps config, @NonNull StreamRDF stream) {
+        stream.start();
+        try {
+            config.getNamespaceMap().forEach(stream::prefix);
+            List<List<MappingUnit>> tasks = planTasks(source, config);
+            long total;
+            if (parallelism > 1 && tasks.size() > 1) {
+                List<Callable<Long>> sessionTasks = new ArrayList<>();
+                for (List<MappingUnit> task : tasks) {
+                    sessionTasks.add(() -> callInSession(source, () -> mapUnits(task, config, stream)));
+                }
+                total = mapInParallel(sessionTasks);
+            } else {
+                total = callInSession(source, () -> {
+                    long sum = 0;
+                    for (List<MappingUnit> task : tasks) {
+                        sum += mapUnits(task, config, stream);
+                    }
+                    return sum;
+                });
+            }
+            if (checkpoint != null) {
+                total = sendSegments(tasks, stream);
+            }
+            stream.finish();
+            return total;
+        } catch (RuntimeException ex) {
+            abort(stream);
+            throw ex;
+        } catch (Exception ex) {
+            abort(stream);
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Aborts the stream of a failed mapping if it can be aborted.
+     */
+    private static void abort(StreamRDF stream) {
+        if (stream instanceof AbortableStream) {
+            LOGGER.warn("Mapping failed, aborting output stream.");
+            ((AbortableStream) stream).abort();
+        }
+    }
+
+    /**
+     * Returns the mapping tasks for every entity map of the config, each task
+     * holding the units to map one after another. If the source is a
+     * {@link PartitionableSource}, an entity map whose reference is split into
+     * partitions gets a task for each partition instead. If the source is a
+     * {@link SessionSource}, entity maps of the same reference share a single
+     * task so they are mapped on the same session.
+     */
+    private List<List<MappingUnit>> planTasks(InputSource source, ConfigMaps config) {
+        Map<Object, List<MappingUnit>> groups = new LinkedHashMap<>();
+        Map<String, Integer> signatures = new HashMap<>();
+        boolean probe = source instanceof PartitionableSource || source instanceof SessionSource;
+        for (EntityMap entityMap : config.getEntityMaps()) {
+            String key = checkpoint == null ? null : signEntityMap(config, entityMap, signatures);
+            EntityReference entityReference = probe ? probeEntityReference(config, entityMap) : null;
+            List<EntityReference> partitions = List.of();
+            if (entityReference != null && source instanceof PartitionableSource) {
+                partitions = ((PartitionableSource) source).partitionEntityQuery(entityReference);
+            }
+            if (partitions.size() > 1) {
+                LOGGER.info("Mapping '{}' in {} partitions.", entityReference.getPayload(), partitions.size());
+                for (EntityReference partition : partitions) {
+                    InputSource partitionSource = new PartitionSource(source, entityReference, partition);
+                    String partitionKey = key == null ? null
+                            : key + "-" + SignatureSource.digest(List.of(partition.toString()));
+                    groups.put(new Object(), List.of(new MappingUnit(partitionKey, partitionSource, entityMap)));
+                }
+                continue;
+            }
+            Object group = entityMap;
+            if (entityReference != null && source instanceof SessionSource) {
+                group = entityReference.getPayloadType() + ":" + entityReference.getPayload();
+            }
+            groups.computeIfAbsent(group, (k) -> new ArrayList<>()).add(new MappingUnit(key, source, entityMap));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Returns the key of the entity map that is the same in every run of the
+     * same mapping. Entity maps with the same signature generate the same
+     * triples, and are told apart by the order they are planned in.
+     */
+    private String signEntityMap(ConfigMaps config, EntityMap entityMap, Map<String, Integer> signatures) {
+        SignatureSource signatureSource = new SignatureSource();
+        Model model = rdfMapper.mapToGraph(signatureSource, new EntityMapConfig(config, entityMap));
+        String signature = signatureSource.sign(model);
+        int repeat = signatures.merge(signature, 1, Integer::sum);
+        return repeat == 1 ? signature : signature + "-" + repeat;
+    }
+
+    /**
+     * Maps each unit of a task one after another and returns the number of
+     * triples mapped.
+     */
+    private long mapUnits(List<MappingUnit> task, ConfigMaps config, StreamRDF stream) {
+        long total = 0;
+        for (MappingUnit unit : task) {
+            total += checkpoint == null
+                    ? mapEntityMap(unit.source, config, unit.entityMap, stream)
+                    : mapToSegment(unit, config);
+        }
+        return total;
+    }
+
+    /**
+     * Maps the unit into its segment of the checkpoint and records it as
+     * completed, unless an earlier run completed it already. The unit is
+     * mapped again from the start on a transient failure of the source while
+     * retries are left.
+     */
+    private long mapToSegment(MappingUnit unit, ConfigMaps config) {
+        if (checkpoint.isCompleted(unit.key)) {
+            LOGGER.debug("Skipping task {} completed by an earlier run.", unit.key);
+            return 0;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeSegment(unit, config);
+            } catch (TransientSourceException ex) {
+                if (!retryPolicy.canRetry(attempt)) {
+                    throw ex;
+                }
+                LOGGER.warn("Task {} failed on a transient error, retry {} of {} in {} ms.", unit.key, attempt,
+                        retryPolicy.getRetries(), retryPolicy.getDelay(attempt), ex);
+                retryPolicy.backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Maps the unit into a partial segment file, then moves the segment into
+     * place and records the unit in the checkpoint once it is synced to disk.
+     */
+    private long writeSegment(MappingUnit unit, ConfigMaps config) {
+        Path segment = checkpoint.getSegment(unit.key);
+        Path partial = segment.resolveSibling(segment.getFileName() + ".partial");
+        try {
+            long count;
+            try (FileOutputStream fileStream = new FileOutputStream(partial.toFile())) {
+                OutputStream outputStream = new BufferedOutputStream(fileStream, SEGMENT_BUFFER_SIZE);
+                StreamRDF segmentStream = StreamRDFWriter.getWriterStream(outputStream, RDFFormat.NTRIPLES);
+                segmentStream.start();
+                count = mapEntityMap(unit.source, config, unit.entityMap, segmentStream);
+                segmentStream.finish();
+                outputStream.flush();
+                fileStream.getFD().sync();
+            }
+            Files.move(partial, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpoint.complete(unit.key, count);
+            return count;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write checkpoint segment " + segment, ex);
+        }
+    }
+
+    /**
+     * Sends the triples of every segment to the stream in the order of the
+     * tasks and returns the number of triples sent.
+     */
+    private long sendSegments(List<List<MappingUnit>> tasks, StreamRDF stream) {
+        long total = 0;
+        for (List<MappingUnit> task : tasks) {
+            for (MappingUnit unit : task) {
+                SegmentStream segmentStream = new SegmentStream(stream);
+                RDFDataMgr.parse(segmentStream, checkpoint.getSegment(unit.key).toUri().toString(), Lang.NTRIPLES);
+                total += segmentStream.count;
+            }
+        }
+        LOGGER.info("Sent {} checkpoint segments to output.", checkpoint.getCompletedCount());
+        return total;
+    }
+
+    /**
+     * Calls the task within a session of the source if the source is a
+     * {@link SessionSource}, otherwise calls the task as it is.
+     */
+    private long callInSession(InputSource source, Callable<Long> task) throws Exception {
+        if (!(source instanceof SessionSource)) {
+            return task.call();
+        }
+        SessionSource.Session session = ((SessionSource) source).openSession();
+        try (session) {
+            return task.call();
+        }
+    }
+
+    /**
+     * Returns the entity reference that the mapper queries for the entity map
+     * by mapping it over a source without any data.
+     */
+    private EntityReference probeEntityReference(ConfigMaps config, EntityMap entityMap) {
+        ReferenceProbe probe = new ReferenceProbe();
+        rdfMapper.mapToGraph(probe, new EntityMapConfig(config, entityMap));
+        return probe.getEntityReference();
+    }
+
+    /**
+     * Maps a single entity map of the config in batches and sends the
+     * generated triples to the given stream. The stream is not started or
+     * finished by this method. Returns the number of triples sent.
+     *
+     * @param source    the input source for the mapper
+     * @param config    the config containing the entity map
+     * @param entityMap the entity map to map
+     * @param stream    the stream to send the generated triples to
+     * @return the number of triples sent to the stream
+     */
+    public long mapEntityMap(@NonNull InputSource source, @NonNull ConfigMaps config,
+                             @NonNull EntityMap entityMap, @NonNull StreamRDF stream) {
+        ConfigMaps entityConfig = new EntityMapConfig(config, entityMap);
+        long[] count = {0};
+        BatchedSource batchedSource = new BatchedSource(source, rdfMapper, entityConfig, batchSize,
+                (batch) -> count[0] += sendToStream(batch, stream));
+        Model firstBatch = rdfMapper.mapToGraph(batchedSource, entityConfig);
+        count[0] += sendToStream(firstBatch, stream);
+        LOGGER.debug("Entity map streamed, {} triples sent.", count[0]);
+        return count[0];
+    }
+
+    /**
+     * Runs every mapping task on a bounded pool of threads and waits for all
+     * to complete. On the first failure, every other task is cancelled and
+     * the failure is thrown.
+     */
+    private long mapInParallel(List<Callable<Long>> tasks) {
+        int threads = Math.min(parallelism, tasks.size());
+        LOGGER.info("Running {} mapping tasks with {} threads.", tasks.size(), threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new MapperThreadFactory());
+        CompletionService<Long> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Long>> futures = new ArrayList<>();
+        try {
+            for (Callable<Long> task : tasks) {
+                futures.add(completionService.submit(task));
+            }
+            long total = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                total += completionService.take().get();
+            }
+            return total;
+        } catch (ExecutionException ex) {
+            futures.forEach((future) -> future.cancel(true));
+            LOGGER.error("Mapping task failed, cancelled all remaining tasks.", ex.getCause());
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        } catch (InterruptedException ex) {
+            futures.forEach((future) -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while mapping.", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends every triple of the model to the stream while holding the lock
+     * of the stream and returns the number of triples sent.
+     */
+    private long sendToStream(Model model, StreamRDF stream) {
+        long count = 0;
+        ExtendedIterator<Triple> iterator = GraphUtil.findAll(model.getGraph());
+        try {
+            synchronized (stream) {
+                while (iterator.hasNext()) {
+                    stream.triple(iterator.next());
+                    count++;
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+        return count;
+    }
+
+    /**
+     * An entity map, or a partition of one, mapped as one unit of a task and
+     * recorded in the checkpoint by its key.
+     */
+    private static class MappingUnit {
+
+        private final String key;
+        private final InputSource source;
+        private final EntityMap entityMap;
+
+        private MappingUnit(String key, InputSource source, EntityMap entityMap) {
+            this.key = key;
+            this.source = source;
+            this.entityMap = entityMap;
+        }
+    }
+
+    /**
+     * Stream that passes the triples of a segment on to the output stream
+     * without starting or finishing it, counting the triples passed.
+     */
+    private static class SegmentStream extends StreamRDFWrapper {
+
+        private long count;
+
+        private SegmentStream(StreamRDF stream) {
+            super(stream);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            super.triple(triple);
+            count++;
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    /**
+     * Thread factory that names the mapping threads for logging.
+     */
+    private static class MapperThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "mapper-" + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class interns the terms of the mapped triples, so that the same IRI
+ * or literal generated again and again by the mapping, such as a predicate,
+ * a class or a low cardinality column value, is held once by the graph
+ * instead of once for every row.
+ * <p>
+ * The cache keeps up to a maximum number of terms and evicts the least
+ * recently used term once full, so terms seen often stay kept while terms
+ * seen once, such as the subject of a single row, pass through. Terms longer
+ * than {@value #MAX_TERM_LENGTH} characters are never kept. The hits and
+ * misses of the cache are counted to tell how much it is worth.
+ * <p>
+ * The cache is thread-safe, so it can be shared by the concurrent mapping
+ * tasks of a run.
+ */
+public class TermCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(TermCache.class);
+    private static final int MAX_TERM_LENGTH = 256;
+    private final Map<Node, Node> terms;
+    private final int maxSize;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a {@code TermCache} instance that keeps up to the given
+     * number of terms.
+     *
+     * @param maxSize the maximum number of terms to keep
+     */
+    public TermCache(@Positive int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Term cache size must be positive, given: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.terms = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Node, Node> eldest) {
+                return size() > TermCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the kept node equal to the given node, or keeps and returns
+     * the given node if no equal node is kept.
+     *
+     * @param node the node to intern
+     * @return the kept node equal to the given node
+     */
+    public Node intern(@NonNull Node node) {
+        if (!isKeepable(node)) {
+            return node;
+        }
+        synchronized (this) {
+            Node kept = terms.get(node);
+            if (kept != null) {
+                hits++;
+                return kept;
+            }
+            misses++;
+            terms.put(node, node);
+            return node;
+        }
+    }
+
+    /**
+     * Returns the given triple with its terms interned, or the same triple
+     * if all its terms are already the kept ones.
+     *
+     * @param triple the triple to intern the terms of
+     * @return the triple with its terms interned
+     */
+    public Triple intern(@NonNull Triple triple) {
+        Node subject = intern(triple.getSubject());
+        Node predicate = intern(triple.getPredicate());
+        Node object = intern(triple.getObject());
+        if (subject == triple.getSubject() && predicate == triple.getPredicate() && object == triple.getObject()) {
+            return triple;
+        }
+        return Triple.create(subject, predicate, object);
+    }
+
+    private static boolean isKeepable(Node node) {
+        if (node.isURI()) {
+            return node.getURI().length() <= MAX_TERM_LENGTH;
+        }
+        if (node.isLiteral()) {
+            return node.getLiteralLexicalForm().length() <= MAX_TERM_LENGTH;
+        }
+        return node.isBlank();
+    }
+
+    /**
+     * Returns the number of terms found already kept.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of terms not found kept, and kept in turn.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the share of the interned terms found already kept, between
+     * zero and one.
+     *
+     * @return the hit rate of the cache
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the number of terms kept.
+     *
+     * @return the number of terms kept
+     */
+    public synchronized int size() {
+        return terms.size();
+    }
+
+    /**
+     * Logs the hits, misses and hit rate of the cache.
+     */
+    public void logStats() {
+        LOGGER.info("Term cache kept {} of up to {} terms, {} hits, {} misses, {}% hit rate.", size(), maxSize,
+                getHits(), getMisses(), Math.round(getHitRate() * 1000) / 10.0);
+    }
+}
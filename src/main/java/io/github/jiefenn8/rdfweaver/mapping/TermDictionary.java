@@ -0,0 +1,424 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dictionary that gives every distinct term a long id, holding each term
+ * once as bytes in direct buffers outside the heap.
+ * <p>
+ * A term is encoded as its kind followed by its text, each text led by its
+ * length in bytes, with every character put as one to three bytes so that
+ * any string, unpaired surrogates included, is given back as it was. The
+ * datatype of a literal is put as the id of its IRI, or left out for a plain
+ * string or a literal with a language, so it is held once however many
+ * literals have it. Lengths and ids are put in as few bytes as they fit, 7
+ * bits to a byte. The id of a term is the page of its bytes in the high 32
+ * bits and its offset in the page in the low 32 bits. The ids are found by
+ * the hash of the bytes in an open addressing table of primitive arrays, the
+ * only part of the dictionary growing on the heap.
+ * <p>
+ * The last terms looked up and the last ids turned back into nodes are kept
+ * in small tables indexed by their hash, so the repeated terms of a mapping,
+ * such as its predicates, are neither encoded nor decoded again.
+ * <p>
+ * Terms are looked up and added under the lock of the dictionary, as they
+ * share its scratch bytes. Ids are turned back into nodes without it, each
+ * call reading from a position of its own and keeping the node decoded in
+ * an immutable entry, so a dictionary no longer added to can be read by
+ * several threads at once.
+ */
+class TermDictionary {
+
+    private static final int PAGE_SIZE = 1 << 24;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int RECENT_SIZE = 1 << 12;
+    private static final byte URI = 1;
+    private static final byte BLANK = 2;
+    private static final byte LITERAL = 3;
+    private static final String XSD_STRING = XSDDatatype.XSDstring.getURI();
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private final Node[] recentNodes = new Node[RECENT_SIZE];
+    private final long[] recentIds = new long[RECENT_SIZE];
+    private final DecodedTerm[] decodedTerms = new DecodedTerm[RECENT_SIZE];
+    private ByteBuffer page;
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+    private long bytes;
+    private byte[] scratch = new byte[256];
+    private int length;
+    private String lastDatatype;
+    private long lastDatatypeId;
+
+    /**
+     * Constructs a {@code TermDictionary} instance holding no terms.
+     */
+    TermDictionary() {
+    }
+
+    /**
+     * Returns the id of the term, giving it a new id if the dictionary does
+     * not hold it yet.
+     *
+     * @param node the term to return the id of
+     * @return the id of the term
+     */
+    synchronized long getOrAdd(@NonNull Node node) {
+        return lookup(node, true);
+    }
+
+    /**
+     * Returns the id of the term, or -1 if the dictionary does not hold it.
+     *
+     * @param node the term to return the id of
+     * @return the id of the term, or -1 if not held
+     */
+    synchronized long get(@NonNull Node node) {
+        return lookup(node, false);
+    }
+
+    /**
+     * Returns the term of the given id.
+     *
+     * @param id the id of the term
+     * @return the term of the id
+     */
+    Node getNode(long id) {
+        int recent = (int) mix(id) & RECENT_SIZE - 1;
+        DecodedTerm decoded = decodedTerms[recent];
+        if (decoded != null && decoded.id == id) {
+            return decoded.node;
+        }
+        Node node = decode(id);
+        decodedTerms[recent] = new DecodedTerm(id, node);
+        return node;
+    }
+
+    /**
+     * Returns the number of terms held.
+     *
+     * @return the number of terms
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes of the terms held outside the heap.
+     *
+     * @return the number of bytes of the terms
+     */
+    synchronized long getByteSize() {
+        return bytes;
+    }
+
+    /**
+     * Releases the buffers of the terms. The dictionary can't be used after.
+     */
+    synchronized void close() {
+        pages.clear();
+        page = null;
+        Arrays.fill(recentNodes, null);
+        Arrays.fill(decodedTerms, null);
+    }
+
+    private long lookup(Node node, boolean add) {
+        int recent = node.hashCode() & RECENT_SIZE - 1;
+        if (node.equals(recentNodes[recent])) {
+            return recentIds[recent];
+        }
+        if (!encode(node, add)) {
+            return -1;
+        }
+        int hash = hashScratch();
+        int mask = slots.length - 1;
+        int slot = (int) mix(hash) & mask;
+        while (slots[slot] != 0) {
+            long id = slots[slot] - 1;
+            if (hashes[slot] == hash && matches(id)) {
+                return remember(recent, node, id);
+            }
+            slot = slot + 1 & mask;
+        }
+        if (!add) {
+            return -1;
+        }
+        long id = store();
+        slots[slot] = id + 1;
+        hashes[slot] = hash;
+        if (++size > slots.length / 4 * 3) {
+            grow();
+        }
+        return remember(recent, node, id);
+    }
+
+    private long remember(int recent, Node node, long id) {
+        recentNodes[recent] = node;
+        recentIds[recent] = id;
+        return id;
+    }
+
+    /**
+     * Doubles the table of ids, placing every id again by its kept hash.
+     */
+    private void grow() {
+        long[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new long[oldSlots.length * 2];
+        hashes = new int[oldSlots.length * 2];
+        int mask = slots.length - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                int slot = (int) mix(oldHashes[i]) & mask;
+                while (slots[slot] != 0) {
+                    slot = slot + 1 & mask;
+                }
+                slots[slot] = oldSlots[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    /**
+     * Copies the encoded term into the current page, opening a new page if
+     * it does not fit, and returns its id.
+     */
+    private long store() {
+        int recordSize = 5 + length;
+        if (page == null || page.remaining() < recordSize) {
+            page = ByteBuffer.allocateDirect(Math.max(PAGE_SIZE, recordSize));
+            pages.add(page);
+        }
+        int start = page.position();
+        long id = (long) (pages.size() - 1) << 32 | start;
+        long value = length;
+        while (value >= 0x80) {
+            page.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        page.put((byte) value);
+        page.put(scratch, 0, length);
+        bytes += page.position() - start;
+        return id;
+    }
+
+    private boolean matches(long id) {
+        TermReader reader = new TermReader(pages.get((int) (id >>> 32)), (int) id);
+        if (reader.readNumber() != length) {
+            return false;
+        }
+        ByteBuffer idPage = reader.page;
+        int offset = reader.position;
+        for (int i = 0; i < length; i++) {
+            if (idPage.get(offset + i) != scratch[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hashScratch() {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + scratch[i];
+        }
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Encodes the term into the scratch bytes, returning false if it is a
+     * literal whose datatype is not held and is not to be added.
+     */
+    private boolean encode(Node node, boolean add) {
+        long datatypeId = 0;
+        if (node.isLiteral()) {
+            datatypeId = getDatatypeId(node, add);
+            if (datatypeId < 0) {
+                return false;
+            }
+        }
+        length = 0;
+        if (node.isURI()) {
+            putKind(URI);
+            putText(node.getURI());
+        } else if (node.isBlank()) {
+            putKind(BLANK);
+            putText(node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            putKind(LITERAL);
+            putText(node.getLiteralLexicalForm());
+            putText(node.getLiteralLanguage());
+            putNumber(datatypeId);
+        } else {
+            throw new IllegalArgumentException("Node " + node + " can't be held by the dictionary.");
+        }
+        return true;
+    }
+
+    /**
+     * Returns the id of the datatype IRI of the literal plus one, zero if it
+     * has none to hold, or -1 if it is not held and is not to be added.
+     */
+    private long getDatatypeId(Node literal, boolean add) {
+        String datatype = literal.getLiteralDatatypeURI();
+        if (datatype == null || !literal.getLiteralLanguage().isEmpty() || datatype.equals(XSD_STRING)) {
+            return 0;
+        }
+        if (datatype.equals(lastDatatype)) {
+            return lastDatatypeId + 1;
+        }
+        long id = lookup(NodeFactory.createURI(datatype), add);
+        if (id < 0) {
+            return -1;
+        }
+        lastDatatype = datatype;
+        lastDatatypeId = id;
+        return id + 1;
+    }
+
+    private void putKind(byte kind) {
+        scratch[length++] = kind;
+    }
+
+    private void putNumber(long value) {
+        if (length + 10 > scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        while (value >= 0x80) {
+            scratch[length++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        scratch[length++] = (byte) value;
+    }
+
+    /**
+     * Puts the length in bytes of the text and the text, every character as
+     * one to three bytes.
+     */
+    private void putText(String text) {
+        String value = text == null ? "" : text;
+        int textLength = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            textLength += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        putNumber(textLength);
+        if (length + textLength > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length + textLength, scratch.length * 2));
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                scratch[length++] = (byte) c;
+            } else if (c < 0x800) {
+                scratch[length++] = (byte) (0xC0 | c >> 6);
+                scratch[length++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                scratch[length++] = (byte) (0xE0 | c >> 12);
+                scratch[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                scratch[length++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private Node decode(long id) {
+        TermReader reader = new TermReader(pages.get((int) (id >>> 32)), (int) id);
+        reader.readNumber();
+        byte kind = reader.page.get(reader.position++);
+        switch (kind) {
+            case URI:
+                return NodeFactory.createURI(reader.readText());
+            case BLANK:
+                return NodeFactory.createBlankNode(reader.readText());
+            default:
+                String lexicalForm = reader.readText();
+                String language = reader.readText();
+                long datatypeId = reader.readNumber();
+                if (!language.isEmpty()) {
+                    return NodeFactory.createLiteral(lexicalForm, language);
+                }
+                if (datatypeId == 0) {
+                    return NodeFactory.createLiteral(lexicalForm);
+                }
+                String datatype = getNode(datatypeId - 1).getURI();
+                return NodeFactory.createLiteral(lexicalForm, TypeMapper.getInstance().getSafeTypeByName(datatype));
+        }
+    }
+
+    /**
+     * A term decoded from its id, kept whole so that a thread reading the
+     * table of decoded terms sees both or neither.
+     */
+    private static class DecodedTerm {
+
+        private final long id;
+        private final Node node;
+
+        private DecodedTerm(long id, Node node) {
+            this.id = id;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Reader of the bytes of a term from a page, from a position of its
+     * own so that terms can be read by several threads at once.
+     */
+    private static class TermReader {
+
+        private final ByteBuffer page;
+        private int position;
+
+        private TermReader(ByteBuffer page, int position) {
+            this.page = page;
+            this.position = position;
+        }
+
+        private long readNumber() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = page.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private String readText() {
+            int textLength = (int) readNumber();
+            char[] chars = new char[textLength];
+            int end = position + textLength;
+            int count = 0;
+            while (position < end) {
+                int b = page.get(position++) & 0xFF;
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                } else if (b < 0xE0) {
+                    chars[count++] = (char) ((b & 0x1F) << 6 | page.get(position++) & 0x3F);
+                } else {
+                    int second = page.get(position++) & 0x3F;
+                    chars[count++] = (char) ((b & 0x0F) << 12 | second << 6 | page.get(position++) & 0x3F);
+                }
+            }
+            return new String(chars, 0, count);
+        }
+    }
+}
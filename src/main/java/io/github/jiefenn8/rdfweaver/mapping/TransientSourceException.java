@@ -0,0 +1,22 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.InputSource;
+
+/**
+ * Thrown by an {@link InputSource} when reading entities failed for a reason
+ * that may pass on its own, such as a dropped connection. The entities read
+ * so far may be incomplete, so the read can only be retried from the start.
+ */
+public class TransientSourceException extends RuntimeException {
+
+    /**
+     * Constructs a {@code TransientSourceException} instance with the
+     * specified message and cause.
+     *
+     * @param message the detail message
+     * @param cause   the failure of the source
+     */
+    public TransientSourceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * This interface defines a {@link StreamRDF} that can be aborted instead of
+ * finished, so that a failed run does not leave what was sent so far in the
+ * output as if it were complete.
+ */
+public interface AbortableStream extends StreamRDF {
+
+    /**
+     * Aborts the stream in place of {@link #finish()}, discarding what was
+     * sent so far where the output allows it and releasing the resources of
+     * the stream. Aborting never throws, as it is called while handling the
+     * failure that caused it.
+     */
+    void abort();
+}
@@ -0,0 +1,78 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+
+/**
+ * Filter that tells whether a hash was added before with a Bloom filter
+ * taking up the memory given. A hash never added is found as added with a
+ * chance growing with the number of hashes added, and the chance reached is
+ * logged once the filter is closed.
+ * <p>
+ * The bit positions are derived from the two halves of the hash by double
+ * hashing, so no other hash is computed.
+ */
+class BloomDedupFilter implements DedupFilter {
+
+    private static final Logger LOGGER = LogManager.getLogger(BloomDedupFilter.class);
+    private static final int HASHES = 7;
+    private static final double WARN_FALSE_POSITIVE_RATE = 0.01;
+    private final long[] bits;
+    private final long bitCount;
+    private long added;
+
+    /**
+     * Constructs a {@code BloomDedupFilter} instance with as many bits as
+     * fit the given number of bytes.
+     *
+     * @param memoryBytes the bytes of memory the bits may take
+     */
+    BloomDedupFilter(@Positive long memoryBytes) {
+        bits = new long[(int) Math.min(Math.max(memoryBytes / Long.BYTES, 1), Integer.MAX_VALUE - 8)];
+        bitCount = (long) bits.length * Long.SIZE;
+    }
+
+    @Override
+    public boolean add(long high, long low) {
+        boolean added = false;
+        long hash = high;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = (hash & Long.MAX_VALUE) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                added = true;
+            }
+            hash += low;
+        }
+        if (added) {
+            this.added++;
+        }
+        return added;
+    }
+
+    /**
+     * Returns the chance of a hash never added being found as added, for the
+     * number of hashes added so far.
+     *
+     * @return the false positive rate of the filter
+     */
+    double getFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-HASHES * (double) added / bitCount), HASHES);
+    }
+
+    @Override
+    public void close() {
+        double rate = getFalsePositiveRate();
+        if (rate > WARN_FALSE_POSITIVE_RATE) {
+            LOGGER.warn("Bloom filter of {} bytes filled to a {}% false positive rate by {} triples, "
+                    + "distinct triples may have been dropped. Give more memory or use exact mode.",
+                    bits.length * (long) Long.BYTES, Math.round(rate * 10000) / 100.0, added);
+        } else {
+            LOGGER.info("Bloom filter held {} triples at a {}% false positive rate.", added,
+                    Math.round(rate * 10000) / 100.0);
+        }
+    }
+}
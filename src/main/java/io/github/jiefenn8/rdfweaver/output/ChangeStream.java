@@ -0,0 +1,52 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+
+/**
+ * This interface defines the base methods of a stream of changes to an RDF
+ * graph, sent in batches. Within a batch, the triples matching every deleted
+ * pattern are removed before any added triple is added.
+ */
+public interface ChangeStream {
+
+    /**
+     * Starts the stream before the first change.
+     */
+    void start();
+
+    /**
+     * Removes every triple matching the given pattern in the current batch.
+     * The subject and predicate of the pattern are concrete, and its object
+     * is either concrete or {@link Node#ANY} to match any object.
+     *
+     * @param pattern the pattern of the triples to remove
+     */
+    void delete(Triple pattern);
+
+    /**
+     * Adds the given triple in the current batch.
+     *
+     * @param triple the triple to add
+     */
+    void add(Triple triple);
+
+    /**
+     * Ends the current batch of changes and applies it.
+     */
+    void commit();
+
+    /**
+     * Finishes the stream after the last change, applying any changes not
+     * yet committed.
+     */
+    void finish();
+
+    /**
+     * Aborts the stream in place of {@link #finish()}, dropping the changes
+     * not yet committed and releasing the resources of the stream. Aborting
+     * never throws, as it is called while handling the failure that caused
+     * it.
+     */
+    void abort();
+}
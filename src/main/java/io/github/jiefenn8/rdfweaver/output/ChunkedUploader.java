@@ -0,0 +1,266 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * This class handles the upload of triples to a graph of a remote Fuseki
+ * server in chunks, each sent as its own Graph Store Protocol POST request
+ * over a number of concurrent connections.
+ * <p>
+ * Chunks are uploaded on a bounded pool of threads, each thread holding its
+ * own connection. At most twice as many chunks as there are threads are held
+ * at a time, and submitting a chunk waits while that many are pending. A
+ * chunk failing on a network or server error is uploaded again as allowed by
+ * the {@link RetryPolicy}. The first chunk that can't be uploaded fails the
+ * upload, and is thrown by the next submit or by {@link #finish()}. An
+ * aborted upload stops the chunks not yet sent and waits a short time for
+ * the chunks being sent.
+ * <p>
+ * The number of triples uploaded and the throughput are logged every ten
+ * seconds and once the upload is finished.
+ */
+class ChunkedUploader {
+
+    private static final Logger LOGGER = LogManager.getLogger(ChunkedUploader.class);
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long ABORT_WAIT_SECONDS = 30;
+    private final Supplier<RDFConnection> connector;
+    private final String graphName;
+    private final RetryPolicy retryPolicy;
+    private final ExecutorService executor;
+    private final Semaphore pending;
+    private final ThreadLocal<RDFConnection> connections = new ThreadLocal<>();
+    private final Queue<RDFConnection> openConnections = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private final AtomicLong uploaded = new AtomicLong();
+    private final AtomicInteger chunks = new AtomicInteger();
+    private final AtomicLong lastLog;
+    private final long startNanos;
+
+    /**
+     * Constructs a {@code ChunkedUploader} instance uploading to the given
+     * graph over connections from the connector.
+     *
+     * @param connector   the supplier of new connections to the server
+     * @param graphName   the graph to upload to, or null for the default graph
+     * @param concurrency the number of chunks to upload at a time
+     * @param retryPolicy the policy to retry failed chunks with
+     */
+    ChunkedUploader(@NonNull Supplier<RDFConnection> connector, String graphName, @Positive int concurrency,
+                    @NonNull RetryPolicy retryPolicy) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive, given: " + concurrency);
+        }
+        this.connector = connector;
+        this.graphName = graphName;
+        this.retryPolicy = retryPolicy;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency,
+                (runnable) -> new Thread(runnable, "uploader-" + threads.incrementAndGet()));
+        this.pending = new Semaphore(concurrency * 2);
+        this.startNanos = System.nanoTime();
+        this.lastLog = new AtomicLong(startNanos);
+    }
+
+    /**
+     * Sends the SPARQL Update request over a connection of its own, retrying
+     * it as a chunk is. It can be sent before or after the chunks.
+     *
+     * @param update the update request to send
+     */
+    void update(@NonNull String update) {
+        callWithRetry(() -> {
+            try (RDFConnection conn = connector.get()) {
+                conn.update(update);
+            }
+        });
+    }
+
+    /**
+     * Uploads the triples of the N-Triples file in one request over a
+     * connection of its own, retrying it as a chunk is. The file is read as
+     * it is sent, so its triples are never held in memory.
+     *
+     * @param file the file of triples to upload
+     */
+    void uploadFile(@NonNull Path file) {
+        callWithRetry(() -> {
+            try (RDFConnection conn = connector.get()) {
+                conn.load(graphName, file.toString());
+            }
+        });
+    }
+
+    /**
+     * Submits the chunk to be uploaded, waiting while the limit of pending
+     * chunks is reached. The chunk must not be changed after it is submitted.
+     *
+     * @param chunk the triples to upload in one request
+     * @throws RuntimeException the failure of an earlier chunk, if any
+     */
+    void submit(@NonNull Graph chunk) {
+        throwFailure();
+        try {
+            pending.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to upload.", ex);
+        }
+        executor.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    upload(chunk);
+                }
+            } catch (RuntimeException ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    /**
+     * Waits for every submitted chunk to be uploaded and closes the
+     * connections of this uploader. Returns the number of triples uploaded.
+     *
+     * @return the number of triples uploaded
+     * @throws RuntimeException the failure of a chunk, if any
+     */
+    long finish() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upload.", ex);
+        } finally {
+            openConnections.forEach(RDFConnection::close);
+            openConnections.clear();
+        }
+        throwFailure();
+        logThroughput("Finished upload");
+        return uploaded.get();
+    }
+
+    /**
+     * Stops the upload, dropping the chunks not yet sent and waiting a short
+     * time for the chunks being sent, and closes the connections of this
+     * uploader. Aborting never throws.
+     */
+    void abort() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(ABORT_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Chunks still uploading {} seconds after abort.", ABORT_WAIT_SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (RDFConnection conn : openConnections) {
+                try {
+                    conn.close();
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Failed to close upload connection.", ex);
+                }
+            }
+            openConnections.clear();
+        }
+        LOGGER.info("Aborted upload after {} triples in {} chunks.", uploaded.get(), chunks.get());
+    }
+
+    private void upload(Graph chunk) {
+        Model model = ModelFactory.createModelForGraph(chunk);
+        callWithRetry(() -> getConnection().load(graphName, model));
+        uploaded.addAndGet(chunk.size());
+        chunks.incrementAndGet();
+        long now = System.nanoTime();
+        long last = lastLog.get();
+        if (now - last >= LOG_INTERVAL_NANOS && lastLog.compareAndSet(last, now)) {
+            logThroughput("Uploading");
+        }
+    }
+
+    /**
+     * Runs the request, running it again on a network or server error while
+     * retries are left.
+     */
+    private void callWithRetry(Runnable request) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                request.run();
+                return;
+            } catch (HttpException ex) {
+                if (!isTransient(ex) || !retryPolicy.canRetry(attempt)) {
+                    throw ex;
+                }
+                LOGGER.warn("Upload request failed, retry {} of {} in {} ms.", attempt, retryPolicy.getRetries(),
+                        retryPolicy.getDelay(attempt), ex);
+                discardConnection();
+                retryPolicy.backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the request failed before getting a response, or got a
+     * server error, timeout or too many requests response.
+     */
+    private static boolean isTransient(HttpException ex) {
+        int code = ex.getResponseCode();
+        return code < 400 || code >= 500 || code == 408 || code == 429;
+    }
+
+    private RDFConnection getConnection() {
+        RDFConnection conn = connections.get();
+        if (conn == null) {
+            conn = connector.get();
+            connections.set(conn);
+            openConnections.add(conn);
+        }
+        return conn;
+    }
+
+    private void discardConnection() {
+        RDFConnection conn = connections.get();
+        if (conn != null) {
+            connections.remove();
+            openConnections.remove(conn);
+            conn.close();
+        }
+    }
+
+    private void throwFailure() {
+        RuntimeException ex = failure.get();
+        if (ex != null) {
+            throw ex;
+        }
+    }
+
+    private void logThroughput(String message) {
+        double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+        LOGGER.info("{}: {} triples in {} chunks, {} triples/s.", message, uploaded.get(), chunks.get(),
+                Math.round(uploaded.get() / seconds));
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+/**
+ * This interface defines the base methods of a filter that tells whether
+ * the 128-bit hash of a triple was added to it before, within a bounded
+ * amount of memory.
+ */
+interface DedupFilter extends AutoCloseable {
+
+    /**
+     * Adds the hash to this filter and returns true if it was not added
+     * before, or false if it was, or may have been for an approximate
+     * filter.
+     *
+     * @param high the high 64 bits of the hash
+     * @param low  the low 64 bits of the hash
+     * @return true if the hash was not added before
+     */
+    boolean add(long high, long low);
+
+    /**
+     * Releases the memory and files held by this filter.
+     */
+    @Override
+    void close();
+}
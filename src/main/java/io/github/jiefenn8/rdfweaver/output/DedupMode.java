@@ -0,0 +1,45 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.file.Path;
+
+/**
+ * Enum class that contains the supported modes of removing the duplicate
+ * triples streamed to an output.
+ */
+public enum DedupMode {
+
+    /**
+     * Removes every duplicate, spilling the hashes seen to disk once they no
+     * longer fit the memory given.
+     */
+    EXACT {
+        @Override
+        DedupFilter createFilter(@Positive long memoryBytes, @NonNull Path spillDirectory) {
+            return new ExactDedupFilter(memoryBytes, spillDirectory);
+        }
+    },
+
+    /**
+     * Removes every duplicate within the memory given, but may also remove a
+     * small share of distinct triples once the filter fills up.
+     */
+    BLOOM {
+        @Override
+        DedupFilter createFilter(@Positive long memoryBytes, @NonNull Path spillDirectory) {
+            return new BloomDedupFilter(memoryBytes);
+        }
+    };
+
+    /**
+     * Returns a new filter of this mode using up to the given number of
+     * bytes of memory, and spilling to the given directory if it spills.
+     *
+     * @param memoryBytes    the bytes of memory the filter may use
+     * @param spillDirectory the directory to spill the hashes seen to
+     * @return the filter of this mode
+     */
+    abstract DedupFilter createFilter(@Positive long memoryBytes, @NonNull Path spillDirectory);
+}
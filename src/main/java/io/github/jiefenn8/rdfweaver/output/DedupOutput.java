@@ -0,0 +1,95 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class removes the duplicate triples streamed to another
+ * {@link RDFOutput} before they reach it, within a bounded amount of memory.
+ * <p>
+ * A saved model is a set of triples already, and is saved by the output as
+ * it is. Changes are sent to the output as they are, as a triple added again
+ * after the delete of its subject is no duplicate.
+ */
+public class DedupOutput implements RDFOutput {
+
+    private static final Logger LOGGER = LogManager.getLogger(DedupOutput.class);
+    private final RDFOutput output;
+    private final DedupMode mode;
+    private final long memoryBytes;
+    private final Path spillDirectory;
+
+    /**
+     * Constructs a {@code DedupOutput} instance removing the duplicates
+     * streamed to the given output in the given mode, within the given
+     * number of bytes of memory and spilling to the temporary directory of
+     * the system.
+     *
+     * @param output      the output to pass the triples not seen before to
+     * @param mode        the mode to tell the duplicates in
+     * @param memoryBytes the bytes of memory to tell the duplicates with
+     */
+    public DedupOutput(@NonNull RDFOutput output, @NonNull DedupMode mode, @Positive long memoryBytes) {
+        this(output, mode, memoryBytes, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Constructs a {@code DedupOutput} instance removing the duplicates
+     * streamed to the given output in the given mode, within the given
+     * number of bytes of memory and spilling to the given directory.
+     *
+     * @param output         the output to pass the triples not seen before to
+     * @param mode           the mode to tell the duplicates in
+     * @param memoryBytes    the bytes of memory to tell the duplicates with
+     * @param spillDirectory the directory to spill the hashes seen to
+     */
+    public DedupOutput(@NonNull RDFOutput output, @NonNull DedupMode mode, @Positive long memoryBytes,
+                       @NonNull Path spillDirectory) {
+        if (memoryBytes < 1) {
+            throw new IllegalArgumentException("Dedup memory must be positive, given: " + memoryBytes);
+        }
+        this.output = output;
+        this.mode = mode;
+        this.memoryBytes = memoryBytes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Returns the output that this instance passes the triples to.
+     *
+     * @return the output without duplicates
+     */
+    public RDFOutput getOutput() {
+        return output;
+    }
+
+    @Override
+    public String toString() {
+        return "{\"output\":" + output + ",\"mode\":\"" + mode + "\",\"memoryBytes\":" + memoryBytes
+                + ",\"spillDirectory\":\"" + spillDirectory + "\"}";
+    }
+
+    @Override
+    public void save(@NonNull Model model) throws IOException {
+        output.save(model);
+    }
+
+    @Override
+    public StreamRDF openStream() throws IOException {
+        StreamRDF stream = output.openStream();
+        LOGGER.info("Removing duplicate triples in {} mode within {} bytes.", mode, memoryBytes);
+        return new DedupStream(stream, mode.createFilter(memoryBytes, spillDirectory));
+    }
+
+    @Override
+    public ChangeStream openChangeStream() throws IOException {
+        return output.openChangeStream();
+    }
+}
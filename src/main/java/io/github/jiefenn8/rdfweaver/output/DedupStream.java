@@ -0,0 +1,142 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Stream that passes on only the triples and quads it has not received
+ * before, as told by a {@link DedupFilter} given the 128-bit murmur3 hash of
+ * each triple or quad. The filter is closed once the stream is finished or
+ * aborted, and aborting aborts the wrapped stream if it can be aborted.
+ */
+class DedupStream extends StreamRDFWrapper implements AbortableStream {
+
+    private static final Logger LOGGER = LogManager.getLogger(DedupStream.class);
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private final DedupFilter filter;
+    private final ByteBuffer hash = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+    private long received;
+    private long dropped;
+
+    /**
+     * Constructs a {@code DedupStream} instance passing the triples not
+     * received before on to the given stream.
+     *
+     * @param stream the stream to pass the triples to
+     * @param filter the filter to tell the triples received before with
+     */
+    DedupStream(@NonNull StreamRDF stream, @NonNull DedupFilter filter) {
+        super(stream);
+        this.filter = filter;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        putNode(hasher, triple.getSubject());
+        putNode(hasher, triple.getPredicate());
+        putNode(hasher, triple.getObject());
+        if (isNew(hasher)) {
+            super.triple(triple);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        putNode(hasher, quad.getSubject());
+        putNode(hasher, quad.getPredicate());
+        putNode(hasher, quad.getObject());
+        putNode(hasher, quad.getGraph());
+        if (isNew(hasher)) {
+            super.quad(quad);
+        }
+    }
+
+    @Override
+    public void finish() {
+        try {
+            super.finish();
+        } finally {
+            filter.close();
+        }
+        LOGGER.info("Dropped {} duplicate triples of {} received.", dropped, received);
+    }
+
+    @Override
+    public void abort() {
+        try {
+            if (other instanceof AbortableStream) {
+                ((AbortableStream) other).abort();
+            }
+        } finally {
+            filter.close();
+        }
+    }
+
+    /**
+     * Returns the number of triples and quads dropped as duplicates.
+     *
+     * @return the number of duplicates dropped
+     */
+    long getDropped() {
+        return dropped;
+    }
+
+    private boolean isNew(Hasher hasher) {
+        received++;
+        HashCode hashCode = hasher.hash();
+        hashCode.writeBytesTo(hash.array(), 0, 16);
+        if (filter.add(hash.getLong(8), hash.getLong(0))) {
+            return true;
+        }
+        dropped++;
+        return false;
+    }
+
+    /**
+     * Puts the kind and the text of the node, each text led by its length
+     * so that no two different nodes put the same input.
+     */
+    private static void putNode(Hasher hasher, Node node) {
+        if (node == null) {
+            hasher.putByte((byte) 0);
+        } else if (node.isURI()) {
+            hasher.putByte((byte) 'U');
+            putText(hasher, node.getURI());
+        } else if (node.isBlank()) {
+            hasher.putByte((byte) 'B');
+            putText(hasher, node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            hasher.putByte((byte) 'L');
+            putText(hasher, node.getLiteralLexicalForm());
+            putText(hasher, node.getLiteralLanguage());
+            putText(hasher, node.getLiteralDatatypeURI());
+        } else {
+            hasher.putByte((byte) 'O');
+            putText(hasher, node.toString());
+        }
+    }
+
+    private static void putText(Hasher hasher, String text) {
+        if (text == null) {
+            hasher.putInt(-1);
+            return;
+        }
+        hasher.putInt(text.length());
+        hasher.putUnencodedChars(text);
+    }
+}
@@ -0,0 +1,471 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filter that tells exactly whether a hash was added before, holding the
+ * hashes in an open addressing table of two primitive arrays that takes up
+ * the memory given.
+ * <p>
+ * Once the table is three quarters full, its hashes are sorted and spilled
+ * to a run file in a temporary directory made in the spill directory given,
+ * and the table is emptied. A hash not in the table is then searched for in
+ * every run. As the hashes are uniform, each run keeps on the heap where the
+ * hashes of each prefix of their high bits start, a prefix for about every
+ * {@value #BUCKET_SIZE} hashes and taking 1/256 of the size of the run, so
+ * a lookup reads only the block of its prefix from the run file in a single
+ * positional read, served by the page cache rather than the heap, and
+ * bisects that block. The runs are read through their open file channel
+ * rather than mapped, so nothing is left mapped once a run is merged or the
+ * filter is closed.
+ * <p>
+ * The runs are merged by size tiers: a spilled run is of level 0, and once a
+ * level holds {@value #MERGE_FAN_IN} runs they are merged into one run of the
+ * next level, as long as it holds at most {@code Integer.MAX_VALUE} hashes.
+ * Each hash is then rewritten once per level, a number of times growing with
+ * the logarithm of the number of spills, and a lookup searches at most
+ * {@value #MERGE_FAN_IN} - 1 runs of each level. The runs are deleted once
+ * the filter is closed.
+ */
+class ExactDedupFilter implements DedupFilter {
+
+    private static final Logger LOGGER = LogManager.getLogger(ExactDedupFilter.class);
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 27;
+    private static final int MERGE_FAN_IN = 4;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int BUCKET_SIZE = 64;
+    private final long[] highs;
+    private final long[] lows;
+    private final int mask;
+    private final int maxSize;
+    private final Path spillDirectory;
+    private final List<Run> runs = new ArrayList<>();
+    private Path directory;
+    private int size;
+    private int runFiles;
+    private long writtenBytes;
+
+    /**
+     * Constructs a {@code ExactDedupFilter} instance with a table of as many
+     * entries as fit the given number of bytes, rounded down to a power of
+     * two and of at most 2 GiB, spilling its hashes to the given directory.
+     *
+     * @param memoryBytes    the bytes of memory the table may take
+     * @param spillDirectory the directory to spill the hashes to
+     */
+    ExactDedupFilter(@Positive long memoryBytes, @NonNull Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+        long entries = Math.min(Math.max(memoryBytes / ENTRY_BYTES, MIN_CAPACITY), MAX_CAPACITY);
+        int capacity = Integer.highestOneBit((int) entries);
+        highs = new long[capacity];
+        lows = new long[capacity];
+        mask = capacity - 1;
+        maxSize = capacity / 4 * 3;
+    }
+
+    @Override
+    public boolean add(long high, long low) {
+        if (high == 0 && low == 0) {
+            low = 1;
+        }
+        int slot = (int) high & mask;
+        while (highs[slot] != 0 || lows[slot] != 0) {
+            if (highs[slot] == high && lows[slot] == low) {
+                return false;
+            }
+            slot = slot + 1 & mask;
+        }
+        for (Run run : runs) {
+            if (run.contains(high, low)) {
+                return false;
+            }
+        }
+        highs[slot] = high;
+        lows[slot] = low;
+        if (++size > maxSize) {
+            spill();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of run files the hashes are spilled to.
+     *
+     * @return the number of runs
+     */
+    int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Returns the number of bytes written to the run files, by spills and
+     * merges alike.
+     *
+     * @return the number of bytes written
+     */
+    long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /**
+     * Sorts the hashes of the table into a new run file and empties the
+     * table, merging the runs of every level that is full.
+     */
+    private void spill() {
+        int count = 0;
+        for (int i = 0; i < highs.length; i++) {
+            if (highs[i] != 0 || lows[i] != 0) {
+                highs[count] = highs[i];
+                lows[count] = lows[i];
+                count++;
+            }
+        }
+        sort(0, count - 1);
+        Path file = nextRunFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            for (int i = 0; i < count; i++) {
+                if (buffer.remaining() < ENTRY_BYTES) {
+                    write(channel, buffer);
+                }
+                buffer.putLong(highs[i]).putLong(lows[i]);
+            }
+            write(channel, buffer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to spill triple hashes to " + file, ex);
+        }
+        Arrays.fill(highs, 0);
+        Arrays.fill(lows, 0);
+        size = 0;
+        runs.add(Run.open(file, count, 0));
+        LOGGER.debug("Spilled {} triple hashes to run {}.", count, file);
+        int level = 0;
+        while (mergeLevel(level)) {
+            level++;
+        }
+    }
+
+    /**
+     * Merges the runs of the level into one run of the next level if the
+     * level holds {@value #MERGE_FAN_IN} runs holding at most
+     * {@code Integer.MAX_VALUE} hashes together, returning true if merged.
+     */
+    private boolean mergeLevel(int level) {
+        List<Run> merged = new ArrayList<>();
+        long total = 0;
+        for (Run run : runs) {
+            if (run.level == level) {
+                merged.add(run);
+                total += run.count;
+            }
+        }
+        if (merged.size() < MERGE_FAN_IN || total > Integer.MAX_VALUE) {
+            return false;
+        }
+        Path file = nextRunFile();
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            List<RunReader> readers = new ArrayList<>();
+            for (Run run : merged) {
+                readers.add(new RunReader(run));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            while (true) {
+                RunReader next = null;
+                for (RunReader reader : readers) {
+                    if (reader.hasNext() && (next == null || reader.compareTo(next) < 0)) {
+                        next = reader;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                if (buffer.remaining() < ENTRY_BYTES) {
+                    write(channel, buffer);
+                }
+                buffer.putLong(next.high).putLong(next.low);
+                next.advance();
+                count++;
+            }
+            write(channel, buffer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to merge triple hashes to " + file, ex);
+        }
+        runs.removeAll(merged);
+        merged.forEach(Run::delete);
+        runs.add(Run.open(file, count, level + 1));
+        LOGGER.debug("Merged {} runs of triple hashes into run {}.", merged.size(), file);
+        return true;
+    }
+
+    private Path nextRunFile() {
+        try {
+            if (directory == null) {
+                Files.createDirectories(spillDirectory);
+                directory = Files.createTempDirectory(spillDirectory, "rdfweaver-dedup-");
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create directory to spill triple hashes to in "
+                    + spillDirectory, ex);
+        }
+        return directory.resolve("run-" + ++runFiles + ".bin");
+    }
+
+    private void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writtenBytes += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Sorts the hashes between the given indexes of the table, by their high
+     * then low bits.
+     */
+    private void sort(int from, int to) {
+        while (from < to) {
+            int middle = from + to >>> 1;
+            long pivotHigh = highs[middle];
+            long pivotLow = lows[middle];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (compareAt(i, pivotHigh, pivotLow) < 0) {
+                    i++;
+                }
+                while (compareAt(j, pivotHigh, pivotLow) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (j - from < to - i) {
+                sort(from, j);
+                from = i;
+            } else {
+                sort(i, to);
+                to = j;
+            }
+        }
+    }
+
+    private int compareAt(int index, long high, long low) {
+        int compare = Long.compare(highs[index], high);
+        return compare != 0 ? compare : Long.compare(lows[index], low);
+    }
+
+    private void swap(int i, int j) {
+        long high = highs[i];
+        long low = lows[i];
+        highs[i] = highs[j];
+        lows[i] = lows[j];
+        highs[j] = high;
+        lows[j] = low;
+    }
+
+    @Override
+    public void close() {
+        runs.forEach(Run::delete);
+        runs.clear();
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to delete directory of spilled triple hashes {}.", directory, ex);
+            }
+        }
+    }
+
+    /**
+     * A run file of sorted hashes, kept open to be searched through
+     * positional reads, with the index of the first hash of each prefix of
+     * their high bits.
+     */
+    private static class Run {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final int count;
+        private final int level;
+        private final int prefixShift;
+        private final int[] buckets;
+        private ByteBuffer block = ByteBuffer.allocate(BUCKET_SIZE * 4 * ENTRY_BYTES);
+
+        private Run(Path file, FileChannel channel, int count, int level) throws IOException {
+            this.file = file;
+            this.channel = channel;
+            this.count = count;
+            this.level = level;
+            int prefixBits = Math.max(32 - Integer.numberOfLeadingZeros(count / BUCKET_SIZE), 1);
+            this.prefixShift = Long.SIZE - prefixBits;
+            this.buckets = new int[(1 << prefixBits) + 1];
+            RunReader reader = new RunReader(this);
+            for (int prefix = 0; prefix < buckets.length; prefix++) {
+                while (reader.hasNext() && prefix(reader.high) < prefix) {
+                    reader.advance();
+                }
+                buckets[prefix] = reader.index;
+            }
+        }
+
+        private static Run open(Path file, int count, int level) {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+                return new Run(file, channel, count, level);
+            } catch (IOException ex) {
+                closeQuietly(channel, file);
+                throw new UncheckedIOException("Failed to read triple hashes of " + file, ex);
+            }
+        }
+
+        /**
+         * Reads the hashes from the given index into the buffer, filling it
+         * up to its limit.
+         */
+        private void read(ByteBuffer buffer, int index) throws IOException {
+            long position = index * (long) ENTRY_BYTES;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of run " + file);
+                }
+                position += read;
+            }
+            buffer.flip();
+        }
+
+        /**
+         * Returns the prefix of the high bits, in the order of the signed
+         * high bits the run is sorted by.
+         */
+        private int prefix(long high) {
+            return (int) ((high ^ Long.MIN_VALUE) >>> prefixShift);
+        }
+
+        /**
+         * Returns true if the run holds the hash, reading and bisecting only
+         * the block of the prefix of its high bits.
+         */
+        private boolean contains(long high, long low) {
+            int prefix = prefix(high);
+            int first = buckets[prefix];
+            int size = buckets[prefix + 1] - first;
+            if (size == 0) {
+                return false;
+            }
+            if (block.capacity() < size * ENTRY_BYTES) {
+                block = ByteBuffer.allocate(size * ENTRY_BYTES);
+            }
+            block.clear().limit(size * ENTRY_BYTES);
+            try {
+                read(block, first);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read triple hashes of " + file, ex);
+            }
+            int from = 0;
+            int to = size - 1;
+            while (from <= to) {
+                int middle = from + to >>> 1;
+                int compare = Long.compare(block.getLong(middle * ENTRY_BYTES), high);
+                if (compare == 0) {
+                    compare = Long.compare(block.getLong(middle * ENTRY_BYTES + Long.BYTES), low);
+                }
+                if (compare == 0) {
+                    return true;
+                }
+                if (compare < 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle - 1;
+                }
+            }
+            return false;
+        }
+
+        private void delete() {
+            closeQuietly(channel, file);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to delete run of triple hashes {}.", file, ex);
+            }
+        }
+
+        private static void closeQuietly(FileChannel channel, Path file) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to close run of triple hashes {}.", file, ex);
+            }
+        }
+    }
+
+    /**
+     * Reader of the hashes of a run in their sorted order, a buffer at a
+     * time, holding the hash it is at.
+     */
+    private static class RunReader {
+
+        private final Run run;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        private int index;
+        private long high;
+        private long low;
+
+        private RunReader(Run run) throws IOException {
+            this.run = run;
+            this.buffer.limit(0);
+            this.index = -1;
+            advance();
+        }
+
+        private boolean hasNext() {
+            return index < run.count;
+        }
+
+        /**
+         * Moves to the next hash of the run, reading the next buffer of the
+         * run once the current one is used up.
+         */
+        private void advance() throws IOException {
+            if (++index >= run.count) {
+                return;
+            }
+            if (!buffer.hasRemaining()) {
+                int entries = Math.min(WRITE_BUFFER_SIZE / ENTRY_BYTES, run.count - index);
+                buffer.clear().limit(entries * ENTRY_BYTES);
+                run.read(buffer, index);
+            }
+            high = buffer.getLong();
+            low = buffer.getLong();
+        }
+
+        private int compareTo(RunReader other) {
+            int compare = Long.compare(high, other.high);
+            return compare != 0 ? compare : Long.compare(low, other.low);
+        }
+    }
+}
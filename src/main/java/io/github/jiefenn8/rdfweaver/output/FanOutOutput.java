@@ -0,0 +1,181 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class handles the output of the same RDF result to several
+ * {@link RDFOutput} at once, such as a file and a Fuseki server, from a
+ * single mapping of the data.
+ * <p>
+ * A saved model is saved by every output on a thread of its own. Streamed
+ * triples are written by every output on a thread of its own through a
+ * bounded queue, so a slow output holds back the mapping, and with it the
+ * other outputs, only once its queue is full. Changes are sent to every
+ * output in turn on the thread sending them.
+ */
+public class FanOutOutput implements RDFOutput {
+
+    private static final Logger LOGGER = LogManager.getLogger(FanOutOutput.class);
+    private static final int QUEUE_SIZE = 64;
+    private final List<RDFOutput> outputs;
+    private final int queueSize;
+
+    /**
+     * Constructs a {@code FanOutOutput} instance with the specified outputs
+     * and the default number of blocks of triples queued for each output.
+     *
+     * @param outputs the outputs to output the RDF result to
+     */
+    public FanOutOutput(@NonNull List<RDFOutput> outputs) {
+        this(outputs, QUEUE_SIZE);
+    }
+
+    /**
+     * Constructs a {@code FanOutOutput} instance with the specified outputs
+     * and number of blocks of triples queued for each output when streamed.
+     *
+     * @param outputs   the outputs to output the RDF result to
+     * @param queueSize the number of blocks of triples waiting to be written
+     *                  by each output
+     */
+    public FanOutOutput(@NonNull List<RDFOutput> outputs, @Positive int queueSize) {
+        if (outputs.isEmpty()) {
+            throw new IllegalArgumentException("At least one output is required.");
+        }
+        this.outputs = List.copyOf(outputs);
+        this.queueSize = Math.max(queueSize, 1);
+    }
+
+    /**
+     * Returns the outputs that this instance outputs to.
+     *
+     * @return the list of outputs
+     */
+    public List<RDFOutput> getOutputs() {
+        return outputs;
+    }
+
+    @Override
+    public String toString() {
+        return "{\"outputs\":" + outputs + "}";
+    }
+
+    @Override
+    public void save(@NonNull Model model) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(outputs.size());
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (RDFOutput output : outputs) {
+                saves.add(executor.submit(() -> {
+                    output.save(model);
+                    return null;
+                }));
+            }
+            for (Future<?> save : saves) {
+                save.get();
+            }
+            LOGGER.info("Saved model to {} outputs.", outputs.size());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while saving to outputs.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("Failed to save to outputs.", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public StreamRDF openStream() throws IOException {
+        List<StreamRDF> streams = new ArrayList<>();
+        try {
+            for (RDFOutput output : outputs) {
+                streams.add(output.openStream());
+            }
+        } catch (IOException | RuntimeException ex) {
+            for (StreamRDF stream : streams) {
+                if (stream instanceof AbortableStream) {
+                    abortQuietly(((AbortableStream) stream)::abort);
+                }
+            }
+            throw ex;
+        }
+        return new FanOutStream(streams, queueSize);
+    }
+
+    @Override
+    public ChangeStream openChangeStream() throws IOException {
+        List<ChangeStream> streams = new ArrayList<>();
+        try {
+            for (RDFOutput output : outputs) {
+                streams.add(output.openChangeStream());
+            }
+        } catch (IOException | RuntimeException ex) {
+            streams.forEach((stream) -> abortQuietly(stream::abort));
+            throw ex;
+        }
+        return new ChangeStream() {
+            @Override
+            public void start() {
+                streams.forEach(ChangeStream::start);
+            }
+
+            @Override
+            public void delete(Triple pattern) {
+                streams.forEach((stream) -> stream.delete(pattern));
+            }
+
+            @Override
+            public void add(Triple triple) {
+                streams.forEach((stream) -> stream.add(triple));
+            }
+
+            @Override
+            public void commit() {
+                streams.forEach(ChangeStream::commit);
+            }
+
+            @Override
+            public void finish() {
+                streams.forEach(ChangeStream::finish);
+            }
+
+            @Override
+            public void abort() {
+                streams.forEach((stream) -> abortQuietly(stream::abort));
+            }
+        };
+    }
+
+    /**
+     * Runs the abort of a stream, logging rather than throwing its failure
+     * so that the streams after it are still aborted.
+     */
+    private static void abortQuietly(Runnable abort) {
+        try {
+            abort.run();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to abort output stream.", ex);
+        }
+    }
+}
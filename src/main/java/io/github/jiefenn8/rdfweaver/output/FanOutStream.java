@@ -0,0 +1,238 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Stream that sends received triples to several streams, each written on a
+ * thread of its own.
+ * <p>
+ * Triples are handed to every stream in the same blocks, through a bounded
+ * queue for each stream. A stream writing faster than the others runs ahead
+ * of them by up to its queue, and once the queue of the slowest stream is
+ * full, sending a triple waits for that stream to catch up, so the memory
+ * held does not grow with the size of the graph. A failure of any stream
+ * stops the others and fails this stream.
+ * <p>
+ * When this stream is aborted, or a stream fails, the threads of the streams
+ * are stopped first and every stream that can be aborted is then aborted,
+ * so that no output is left waiting for triples that will never come.
+ */
+class FanOutStream implements AbortableStream {
+
+    private static final Logger LOGGER = LogManager.getLogger(FanOutStream.class);
+    private static final int BLOCK_SIZE = 1000;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final long STOP_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final Consumer<StreamRDF> END_OF_STREAM = (stream) -> {
+    };
+    private final List<Sink> sinks = new ArrayList<>();
+    private List<Triple> triples = new ArrayList<>(BLOCK_SIZE);
+    private List<Quad> quads = new ArrayList<>();
+    private boolean aborted;
+
+    /**
+     * Constructs a {@code FanOutStream} instance sending to the given
+     * streams, each through a queue of the given number of blocks.
+     *
+     * @param streams   the streams to send the triples to
+     * @param queueSize the number of blocks of triples waiting to be written
+     *                  by each stream
+     */
+    FanOutStream(@NonNull List<StreamRDF> streams, @Positive int queueSize) {
+        for (StreamRDF stream : streams) {
+            sinks.add(new Sink(stream, queueSize, "fan-out-" + (sinks.size() + 1)));
+        }
+    }
+
+    @Override
+    public void start() {
+        sinks.forEach((sink) -> sink.thread.start());
+        put(StreamRDF::start);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (!quads.isEmpty()) {
+            putBlock();
+        }
+        triples.add(triple);
+        if (triples.size() >= BLOCK_SIZE) {
+            putBlock();
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (!triples.isEmpty()) {
+            putBlock();
+        }
+        quads.add(quad);
+        if (quads.size() >= BLOCK_SIZE) {
+            putBlock();
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        putBlock();
+        put((stream) -> stream.base(base));
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        putBlock();
+        put((stream) -> stream.prefix(prefix, iri));
+    }
+
+    @Override
+    public void finish() {
+        putBlock();
+        put(StreamRDF::finish);
+        put(END_OF_STREAM);
+        for (Sink sink : sinks) {
+            try {
+                sink.thread.join();
+            } catch (InterruptedException ex) {
+                abort();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for outputs.", ex);
+            }
+        }
+        throwFailure();
+        LOGGER.info("Finished writing to {} outputs.", sinks.size());
+    }
+
+    /**
+     * Hands the triples or quads received since the last block to every
+     * stream as one block.
+     */
+    private void putBlock() {
+        if (!triples.isEmpty()) {
+            List<Triple> block = triples;
+            triples = new ArrayList<>(BLOCK_SIZE);
+            put((stream) -> block.forEach(stream::triple));
+        }
+        if (!quads.isEmpty()) {
+            List<Quad> block = quads;
+            quads = new ArrayList<>(BLOCK_SIZE);
+            put((stream) -> block.forEach(stream::quad));
+        }
+    }
+
+    /**
+     * Hands the action to every stream, waiting while the queue of a stream
+     * is full and throwing the failure of any stream if one failed.
+     */
+    private void put(Consumer<StreamRDF> action) {
+        try {
+            for (Sink sink : sinks) {
+                do {
+                    throwFailure();
+                } while (!sink.queue.offer(action, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            }
+        } catch (InterruptedException ex) {
+            abort();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for outputs.", ex);
+        }
+    }
+
+    /**
+     * Throws the failure of the first stream that failed, once the others
+     * have been stopped.
+     */
+    private void throwFailure() {
+        for (Sink sink : sinks) {
+            if (sink.failure != null) {
+                abort();
+                throw sink.failure;
+            }
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (aborted) {
+            return;
+        }
+        aborted = true;
+        for (Sink sink : sinks) {
+            sink.stopped = true;
+            sink.thread.interrupt();
+        }
+        for (Sink sink : sinks) {
+            try {
+                sink.thread.join(STOP_WAIT_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (sink.thread.isAlive()) {
+                LOGGER.warn("Output on '{}' still running {} ms after abort.", sink.thread.getName(),
+                        STOP_WAIT_MILLIS);
+            }
+            if (sink.stream instanceof AbortableStream) {
+                try {
+                    ((AbortableStream) sink.stream).abort();
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Failed to abort output on '{}'.", sink.thread.getName(), ex);
+                }
+            }
+        }
+        LOGGER.info("Aborted writing to {} outputs.", sinks.size());
+    }
+
+    /**
+     * A stream and the queue and thread it is written from.
+     */
+    private static class Sink {
+
+        private final StreamRDF stream;
+        private final BlockingQueue<Consumer<StreamRDF>> queue;
+        private final Thread thread;
+        private volatile RuntimeException failure;
+        private volatile boolean stopped;
+
+        private Sink(StreamRDF stream, int queueSize, String name) {
+            this.stream = stream;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.thread = new Thread(this::write, name);
+            thread.setDaemon(true);
+        }
+
+        /**
+         * Writes the queued actions to the stream until the end of the
+         * stream, keeping the failure of the stream for the mapping thread
+         * to throw.
+         */
+        private void write() {
+            try {
+                for (Consumer<StreamRDF> action = queue.take(); action != END_OF_STREAM; action = queue.take()) {
+                    action.accept(stream);
+                }
+            } catch (InterruptedException ex) {
+                LOGGER.debug("Output on '{}' stopped.", thread.getName());
+            } catch (RuntimeException ex) {
+                if (stopped) {
+                    LOGGER.debug("Output on '{}' stopped.", thread.getName(), ex);
+                    return;
+                }
+                LOGGER.error("Output on '{}' failed.", thread.getName(), ex);
+                failure = ex;
+                queue.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Enum class that contains the supported compressions of an output file,
+ * each with the file name extension it is known by.
+ */
+public enum FileCompression {
+
+    /**
+     * List of all supported file compression below.
+     */
+    NONE(""),
+    GZIP(".gz");
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final String extension;
+
+    /**
+     * Constructs an instance of this enum that is known by the specified
+     * file name extension.
+     */
+    FileCompression(@NonNull String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the compression known by the extension of the given file name,
+     * or {@link #NONE} if the extension is of no supported compression.
+     *
+     * @param filename the name of the file
+     * @return the compression of the file
+     */
+    public static FileCompression fromFilename(@NonNull String filename) {
+        return filename.endsWith(GZIP.extension) ? GZIP : NONE;
+    }
+
+    /**
+     * Returns the file name extension of this compression, or an empty
+     * string if none.
+     *
+     * @return the file name extension of this compression
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns a stream that compresses what is written to it into the given
+     * stream, using the given number of threads if the compression can be
+     * done in parallel. Closing the returned stream closes the given stream.
+     *
+     * @param outputStream the stream to write the compressed data to
+     * @param threads      the number of threads to compress with
+     * @return the stream to write the data to compress to
+     * @throws IOException if an I/O error occurs writing a header
+     */
+    public OutputStream wrap(@NonNull OutputStream outputStream, @Positive int threads) throws IOException {
+        switch (this) {
+            case GZIP:
+                return threads > 1
+                        ? new ParallelGzipOutputStream(outputStream, threads)
+                        : new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            default:
+                return outputStream;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.jiefenn8.rdfweaver.output;
 
 import org.apache.commons.io.FilenameUtils;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.index.qual.Positive;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.io.IOException;
@@ -34,7 +35,8 @@ public class FileResolver {
      * Checks of the file with the given path and filename parameter exists.
      * Returns a {@code Path} of combined path and filename if the file
      * exists, otherwise increment the filename to unused name before returning
-     * the combined path.
+     * the combined path. A filename is also taken if the first segment named
+     * after it exists.
      *
      * @param path     the output directory of the file
      * @param filename the name of the output file
@@ -43,13 +45,36 @@ public class FileResolver {
     protected static Path resolveFilename(@NonNull Path path, @NonNull String filename) {
         Path absolute = path.resolve(filename);
         int increment = 1;
-        while (Files.exists(absolute)) {
+        while (isTaken(absolute)) {
             absolute = path.resolve(incrementFileName(filename, increment));
             increment++;
         }
         return absolute;
     }
 
+    /**
+     * Returns true if the file, or the first segment named after it, exists.
+     */
+    private static boolean isTaken(Path file) {
+        return Files.exists(file) || Files.exists(file.resolveSibling(segmentName(file.getFileName().toString(), 1)));
+    }
+
+    /**
+     * Returns the name of the segment of the given index of a file written in
+     * segments, numbered before the extensions of the filename, such as
+     * {@code rdfOutput-00001.nt.gz} for {@code rdfOutput.nt.gz}.
+     *
+     * @param filename the name of the file written in segments
+     * @param index    the index of the segment, starting from one
+     * @return the name of the segment file
+     */
+    protected static String segmentName(@NonNull String filename, @Positive int index) {
+        int dot = filename.indexOf('.');
+        String stem = dot > 0 ? filename.substring(0, dot) : filename;
+        String extensions = dot > 0 ? filename.substring(dot) : "";
+        return String.format("%s-%05d%s", stem, index, extensions);
+    }
+
     /**
      * Returns a new filename {@code String} by combining the filename with the
      * increment parameter.
@@ -1,23 +1,70 @@
 package io.github.jiefenn8.rdfweaver.output;
 
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdfconnection.RDFConnection;
 import org.apache.jena.rdfconnection.RDFConnectionFactory;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.FmtUtils;
 import org.apache.jena.system.Txn;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.InetAddress;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
 
 /**
  * This class implements {@link RDFOutput} for mapping of RDF mapping results
- * to a remote Fuseki TDB database.
+ * to a remote Fuseki TDB database. The graph is replaced by the results,
+ * unless appending is set, such as when uploading the changes of an
+ * incremental run. Changes from a change feed are sent as SPARQL Update
+ * requests, one per batch.
+ * <p>
+ * Triples are uploaded in chunks of a set size, each chunk sent as its own
+ * request over a number of concurrent connections, so that the server never
+ * has to buffer the whole graph and a failed chunk can be sent again alone.
+ * The chunks are uploaded to a staging graph that is moved or added to the
+ * graph in one update once every chunk is uploaded, so the graph is never
+ * seen partly replaced, and dropped if the upload is aborted. Triples with a
+ * blank node are written to a temporary file instead and uploaded together
+ * in a last request read from that file, as the blank nodes of separate
+ * requests are never the same node, so they are not held in memory however
+ * many there are. When streaming
+ * upload is set instead, the triples are sent in a single request opened
+ * when mapping starts and written to while it runs.
  */
 public class FusekiTDBRemote implements RDFOutput {
 
+    private static final Logger LOGGER = LogManager.getLogger(FusekiTDBRemote.class);
+    private static final int DEFAULT_BATCH_SIZE = 50000;
+    private static final int STREAM_QUEUE_SIZE = 64;
+    private static final String GRAPH_STORE_SERVICE = "/data";
+    private static final String STAGING_GRAPH_PREFIX = "urn:rdfweaver:staging:";
     private final String connStr;
     private final String graphName;
+    private final boolean append;
+    private final int batchSize;
+    private final int concurrency;
+    private final RetryPolicy retryPolicy;
+    private final RDFFormat streamFormat;
 
     /**
      * Constructs a {@code FusekiTDBRemote} instance with the specified Builder
@@ -28,12 +75,183 @@ public class FusekiTDBRemote implements RDFOutput {
     public FusekiTDBRemote(Builder builder) {
         connStr = builder.connStr;
         graphName = builder.graphName;
+        append = builder.append;
+        batchSize = builder.batchSize;
+        concurrency = builder.concurrency;
+        retryPolicy = builder.retryPolicy;
+        streamFormat = builder.streamFormat;
     }
 
     @Override
     public void save(@NonNull Model model) {
-        try (RDFConnection conn = RDFConnectionFactory.connect(connStr)) {
-            Txn.executeWrite(conn, () -> conn.put(graphName, model));
+        StreamRDF stream = openStream();
+        stream.start();
+        try {
+            StreamOps.sendTriplesToStream(model.getGraph(), stream);
+            stream.finish();
+        } catch (RuntimeException ex) {
+            if (stream instanceof AbortableStream) {
+                ((AbortableStream) stream).abort();
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public StreamRDF openStream() {
+        if (streamFormat != null) {
+            return new StreamingUploadStream(connStr + GRAPH_STORE_SERVICE, graphName, !append, streamFormat,
+                    STREAM_QUEUE_SIZE);
+        }
+        return new BatchUploadStream();
+    }
+
+    @Override
+    public ChangeStream openChangeStream() {
+        String graph = graphName == null || graphName.equals("default") ? null : graphName;
+        return new SparqlUpdateStream(graph) {
+            private RDFConnection conn;
+
+            @Override
+            public void start() {
+                conn = RDFConnectionFactory.connect(connStr);
+            }
+
+            @Override
+            protected void send(String update) {
+                Txn.executeWrite(conn, () -> conn.update(update));
+            }
+
+            @Override
+            public void finish() {
+                try {
+                    super.finish();
+                } finally {
+                    conn.close();
+                }
+            }
+
+            @Override
+            public void abort() {
+                super.abort();
+                try {
+                    conn.close();
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Failed to close connection to '{}'.", connStr, ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the update moving the staging graph to the graph, or adding it
+     * to the graph if appending, and dropping the staging graph.
+     */
+    private String publishUpdate(String stagingGraph) {
+        String staging = "GRAPH " + FmtUtils.stringForURI(stagingGraph);
+        String target = graphName == null || graphName.equals("default") ? "DEFAULT"
+                : "GRAPH " + FmtUtils.stringForURI(graphName);
+        if (append) {
+            return "ADD SILENT " + staging + " TO " + target + " ;\nDROP SILENT " + staging;
+        }
+        return "CLEAR SILENT " + target + " ;\nMOVE SILENT " + staging + " TO " + target;
+    }
+
+    /**
+     * Stream that collects received triples into batches and submits each
+     * full batch to a {@link ChunkedUploader} uploading to a staging graph.
+     * The triples with a blank node are written to a temporary N-Triples
+     * file, uploaded in one request once every batch is uploaded. The
+     * staging graph is published to the graph once every triple is uploaded,
+     * or dropped if the stream is aborted.
+     */
+    private class BatchUploadStream extends StreamRDFBase implements AbortableStream {
+
+        private final String stagingGraph = STAGING_GRAPH_PREFIX + UUID.randomUUID();
+        private Graph batch = GraphFactory.createDefaultGraph();
+        private ChunkedUploader uploader;
+        private Path blankFile;
+        private OutputStream blankOutput;
+        private StreamRDF blankWriter;
+        private long blankTriples;
+
+        @Override
+        public void start() {
+            uploader = new ChunkedUploader(() -> RDFConnectionFactory.connect(connStr), stagingGraph, concurrency,
+                    retryPolicy);
+            LOGGER.debug("Uploading to staging graph '{}'.", stagingGraph);
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            if (triple.getSubject().isBlank() || triple.getObject().isBlank()) {
+                if (blankWriter == null) {
+                    openBlankFile();
+                }
+                blankWriter.triple(triple);
+                blankTriples++;
+                return;
+            }
+            batch.add(triple);
+            if (batch.size() >= batchSize) {
+                uploader.submit(batch);
+                batch = GraphFactory.createDefaultGraph();
+            }
+        }
+
+        @Override
+        public void finish() {
+            if (!batch.isEmpty()) {
+                uploader.submit(batch);
+                batch = GraphFactory.createDefaultGraph();
+            }
+            long uploaded = uploader.finish();
+            if (blankWriter != null) {
+                blankWriter.finish();
+                blankWriter = null;
+                IO.close(blankOutput);
+                uploader.uploadFile(blankFile);
+                uploaded += blankTriples;
+                deleteBlankFile();
+            }
+            uploader.update(publishUpdate(stagingGraph));
+            LOGGER.debug("Finished upload to '{}', {} triples sent.", connStr, uploaded);
+        }
+
+        @Override
+        public void abort() {
+            uploader.abort();
+            if (blankFile != null) {
+                IO.closeSilent(blankOutput);
+                deleteBlankFile();
+            }
+            try {
+                uploader.update("DROP SILENT GRAPH " + FmtUtils.stringForURI(stagingGraph));
+                LOGGER.info("Dropped staging graph '{}' of aborted upload.", stagingGraph);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Failed to drop staging graph '{}' of aborted upload.", stagingGraph, ex);
+            }
+        }
+
+        private void openBlankFile() {
+            try {
+                blankFile = Files.createTempFile("rdfweaver-blank-", ".nt");
+                blankOutput = new BufferedOutputStream(Files.newOutputStream(blankFile));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to create file to hold triples with blank nodes.", ex);
+            }
+            blankWriter = StreamRDFWriter.getWriterStream(blankOutput, RDFFormat.NTRIPLES);
+            blankWriter.start();
+            LOGGER.debug("Holding triples with blank nodes in '{}' for the last request.", blankFile);
+        }
+
+        private void deleteBlankFile() {
+            try {
+                Files.deleteIfExists(blankFile);
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to delete file of triples with blank nodes '{}'.", blankFile, ex);
+            }
+            blankFile = null;
         }
     }
 
@@ -45,6 +263,11 @@ public class FusekiTDBRemote implements RDFOutput {
         private final URIBuilder uriBuilder = new URIBuilder();
         private String graphName;
         private String connStr;
+        private boolean append;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int concurrency = 1;
+        private RetryPolicy retryPolicy = RetryPolicy.NONE;
+        private RDFFormat streamFormat;
 
         public Builder(@NonNull InetAddress host, int port, @NonNull String baseName) {
             uriBuilder.setScheme("http")
@@ -58,6 +281,53 @@ public class FusekiTDBRemote implements RDFOutput {
             return this;
         }
 
+        public Builder append(boolean append) {
+            this.append = append;
+            return this;
+        }
+
+        /**
+         * Sets the number of triples uploaded per request and the number of
+         * requests sent at a time.
+         *
+         * @param batchSize   the number of triples per request
+         * @param concurrency the number of concurrent requests
+         * @return this builder
+         */
+        public Builder upload(@Positive int batchSize, @Positive int concurrency) {
+            if (batchSize < 1 || concurrency < 1) {
+                throw new IllegalArgumentException("Upload batch size and concurrency must be positive.");
+            }
+            this.batchSize = batchSize;
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets how often a request failing on a network or server error is
+         * sent again and how long to wait before the first retry.
+         *
+         * @param retryPolicy the policy to retry failed requests with
+         * @return this builder
+         */
+        public Builder retry(@NonNull RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the triples to be uploaded in a single streamed request in the
+         * given format, instead of in chunks. A streamed request can't be
+         * retried.
+         *
+         * @param format the streamable format to send the triples in
+         * @return this builder
+         */
+        public Builder streamUpload(@NonNull RDFFormat format) {
+            streamFormat = format;
+            return this;
+        }
+
         public FusekiTDBRemote build() throws URISyntaxException {
             connStr = uriBuilder.build().toASCIIString();
             return new FusekiTDBRemote(this);
@@ -0,0 +1,338 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stream that encodes received triples and quads as N-Triples and N-Quads
+ * straight into UTF-8 bytes, without building a string for every term.
+ * <p>
+ * The bytes are put in a reused array, copied in bulk once full into a
+ * reused direct buffer that a file channel writes without another copy.
+ * The bytes of the IRIs of predicates, datatypes and graphs, which repeat
+ * through the output, are kept for up to {@value #MAX_KEPT_IRIS} IRIs, as
+ * are those of the last subject, and copied instead of encoded again.
+ * <p>
+ * A term of only ASCII characters is put a byte per character; other
+ * characters are encoded as UTF-8, and text with an unpaired surrogate
+ * fails the stream as it does with the UTF-8 writers of Jena. Only
+ * backslash, double quote, line feed, carriage return, tab and form feed
+ * are escaped in literals, which makes the output the same bytes as the
+ * UTF-8 N-Triples and N-Quads writers of Jena.
+ */
+class NTriplesEncoder extends StreamRDFBase {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_CHAR_BYTES = 4;
+    private static final int MAX_KEPT_IRIS = 1024;
+    private static final String XSD_STRING = XSDDatatype.XSDstring.getURI();
+    private final Map<String, byte[]> iris = new HashMap<>();
+    private final WritableByteChannel channel;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private int position;
+    private Node subject;
+    private byte[] subjectBytes;
+
+    /**
+     * Constructs a {@code NTriplesEncoder} instance writing to the given
+     * channel through a buffer of the default size. The channel is not
+     * closed once the stream is finished.
+     *
+     * @param channel the channel to write the encoded triples to
+     */
+    NTriplesEncoder(@NonNull WritableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a {@code NTriplesEncoder} instance writing to the given
+     * channel through a buffer of the given size. The channel is not closed
+     * once the stream is finished.
+     *
+     * @param channel    the channel to write the encoded triples to
+     * @param bufferSize the number of bytes to buffer before writing
+     */
+    NTriplesEncoder(@NonNull WritableByteChannel channel, @Positive int bufferSize) {
+        this.channel = channel;
+        this.bytes = new byte[Math.max(bufferSize, MAX_CHAR_BYTES)];
+        this.buffer = ByteBuffer.allocateDirect(bytes.length);
+    }
+
+    /**
+     * Returns true if the given format is written by this encoder, which is
+     * UTF-8 N-Triples or N-Quads.
+     *
+     * @param format the format to check
+     * @return true if the format can be written by this encoder
+     */
+    static boolean supports(@NonNull RDFFormat format) {
+        return format.equals(RDFFormat.NTRIPLES_UTF8) || format.equals(RDFFormat.NQUADS_UTF8);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        putSubject(triple.getSubject());
+        putKeptTerm(triple.getPredicate());
+        putTerm(triple.getObject());
+        putEnd();
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        putSubject(quad.getSubject());
+        putKeptTerm(quad.getPredicate());
+        putTerm(quad.getObject());
+        if (!quad.isTriple()) {
+            putKeptTerm(quad.getGraph());
+        }
+        putEnd();
+    }
+
+    @Override
+    public void finish() {
+        drain();
+    }
+
+    /**
+     * Puts the subject, with the bytes kept from the last subject if it is
+     * the same.
+     */
+    private void putSubject(Node node) {
+        if (!node.isURI()) {
+            putTerm(node);
+            return;
+        }
+        if (!node.equals(subject)) {
+            subject = node;
+            subjectBytes = encodeIRI(node.getURI());
+        }
+        putIRI(node.getURI(), subjectBytes);
+        putByte(' ');
+    }
+
+    /**
+     * Puts the term, with the bytes kept for it if it is an IRI.
+     */
+    private void putKeptTerm(Node node) {
+        if (!node.isURI()) {
+            putTerm(node);
+            return;
+        }
+        putKeptIRI(node.getURI());
+        putByte(' ');
+    }
+
+    private void putTerm(Node node) {
+        if (node.isURI()) {
+            putIRI(node.getURI());
+        } else if (node.isBlank()) {
+            putAscii("_:");
+            putText(NodeFmtLib.encodeBNodeLabel(node.getBlankNodeLabel()), false);
+        } else if (node.isLiteral()) {
+            putLiteral(node);
+        } else {
+            throw new IllegalArgumentException("Node " + node + " can't be written as N-Triples.");
+        }
+        putByte(' ');
+    }
+
+    private void putIRI(String iri) {
+        putByte('<');
+        putText(iri, false);
+        putByte('>');
+    }
+
+    private void putLiteral(Node node) {
+        putByte('"');
+        putText(node.getLiteralLexicalForm(), true);
+        putByte('"');
+        String language = node.getLiteralLanguage();
+        if (language != null && !language.isEmpty()) {
+            putByte('@');
+            putText(language, false);
+            return;
+        }
+        String datatype = node.getLiteralDatatypeURI();
+        if (datatype != null && !datatype.equals(XSD_STRING)) {
+            putAscii("^^");
+            putKeptIRI(datatype);
+        }
+    }
+
+    private void putKeptIRI(String iri) {
+        byte[] encoded = iris.get(iri);
+        if (encoded == null && iris.size() < MAX_KEPT_IRIS) {
+            encoded = encodeIRI(iri);
+            if (encoded != null) {
+                iris.put(iri, encoded);
+            }
+        }
+        putIRI(iri, encoded);
+    }
+
+    private void putIRI(String iri, byte[] encoded) {
+        if (encoded == null) {
+            putIRI(iri);
+            return;
+        }
+        if (remaining() < encoded.length) {
+            drain();
+        }
+        System.arraycopy(encoded, 0, bytes, position, encoded.length);
+        position += encoded.length;
+    }
+
+    /**
+     * Returns the bytes the IRI is put as, or null if they may take more
+     * than a quarter of the array and are not worth keeping.
+     */
+    private byte[] encodeIRI(String iri) {
+        int maxLength = iri.length() * 3 + 2;
+        if (maxLength > bytes.length / 4) {
+            return null;
+        }
+        if (remaining() < maxLength) {
+            drain();
+        }
+        int start = position;
+        putIRI(iri);
+        byte[] encoded = Arrays.copyOfRange(bytes, start, position);
+        position = start;
+        return encoded;
+    }
+
+    private void putEnd() {
+        putByte('.');
+        putByte('\n');
+    }
+
+    /**
+     * Puts the text as UTF-8, escaped for a literal if set. Text that fits
+     * the array and is only ASCII needing no escape is put a byte per
+     * character.
+     */
+    private void putText(String text, boolean literal) {
+        int length = text.length();
+        if (remaining() < length) {
+            drain();
+        }
+        int i = 0;
+        if (remaining() >= length) {
+            while (i < length) {
+                char c = text.charAt(i);
+                if (c >= 0x80 || (literal && needsEscape(c))) {
+                    break;
+                }
+                bytes[position++] = (byte) c;
+                i++;
+            }
+        }
+        for (; i < length; i++) {
+            if (remaining() < MAX_CHAR_BYTES) {
+                drain();
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (literal && needsEscape(c)) {
+                    putEscape(c);
+                } else {
+                    bytes[position++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                throw new IllegalArgumentException("Unpaired surrogate in '" + text + "' can't be encoded as UTF-8.");
+            }
+        }
+    }
+
+    private static boolean needsEscape(char c) {
+        return c == '\\' || c == '"' || c < 0x20 && (c == '\n' || c == '\r' || c == '\t' || c == '\f');
+    }
+
+    private void putEscape(char c) {
+        bytes[position++] = (byte) '\\';
+        switch (c) {
+            case '\n':
+                bytes[position++] = (byte) 'n';
+                break;
+            case '\r':
+                bytes[position++] = (byte) 'r';
+                break;
+            case '\t':
+                bytes[position++] = (byte) 't';
+                break;
+            case '\f':
+                bytes[position++] = (byte) 'f';
+                break;
+            default:
+                bytes[position++] = (byte) c;
+        }
+    }
+
+    private void putAscii(String text) {
+        if (remaining() < text.length()) {
+            drain();
+        }
+        for (int i = 0; i < text.length(); i++) {
+            bytes[position++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void putByte(char c) {
+        if (remaining() == 0) {
+            drain();
+        }
+        bytes[position++] = (byte) c;
+    }
+
+    private int remaining() {
+        return bytes.length - position;
+    }
+
+    /**
+     * Writes the bytes put so far to the channel through the direct buffer.
+     */
+    private void drain() {
+        buffer.put(bytes, 0, position);
+        position = 0;
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            buffer.clear();
+        }
+    }
+}
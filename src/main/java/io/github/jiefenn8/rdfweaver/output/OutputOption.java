@@ -1,5 +1,6 @@
 package io.github.jiefenn8.rdfweaver.output;
 
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
 import org.apache.jena.riot.RDFFormat;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,7 +12,12 @@ import picocli.CommandLine.Model.CommandSpec;
 import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.URISyntaxException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 
@@ -26,11 +32,28 @@ import java.util.concurrent.Callable;
 public class OutputOption implements Callable<RDFOutput> {
 
     private static final Logger LOGGER = LogManager.getLogger(OutputOption.class);
+    private static final String DEDUP_DESC = "Remove duplicate triples streamed to the output, EXACT or BLOOM. "
+            + "BLOOM may also remove a few distinct triples once its memory fills up.";
+    private static final String DEFAULT_DEDUP_MEMORY = "64M";
+    private static final String DEDUP_MEMORY_DESC = "Bytes of memory to remove duplicates with, with an optional "
+            + "K, M or G suffix. EXACT spills to disk beyond it. (default: ${DEFAULT-VALUE})";
+    private static final String DEFAULT_DEDUP_DIRECTORY = "${sys:java.io.tmpdir}";
+    private static final String DEDUP_DIRECTORY_DESC = "Directory EXACT spills the hashes of the triples seen to. "
+            + "(default: ${DEFAULT-VALUE})";
     private final RDFOutputFactory rdfOutputFactory;
-    @ArgGroup(exclusive = false)
-    private final FileSystem fileSystem = new FileSystem();
+    @ArgGroup(exclusive = false, multiplicity = "0..*")
+    private List<FileSystem> fileSystems;
     @ArgGroup(exclusive = false)
     private FusekiTDB fuseki;
+    @ArgGroup(exclusive = false)
+    private LocalTDB2 tdb2;
+    @Option(names = {"--dedup"}, description = DEDUP_DESC)
+    private DedupMode dedup;
+    @Option(names = {"--dedup-memory"}, defaultValue = DEFAULT_DEDUP_MEMORY, converter = SizeConverter.class,
+            description = DEDUP_MEMORY_DESC)
+    private long dedupMemory;
+    @Option(names = {"--dedup-dir"}, defaultValue = DEFAULT_DEDUP_DIRECTORY, description = DEDUP_DIRECTORY_DESC)
+    private File dedupDirectory;
     @Spec
     private CommandSpec spec;
 
@@ -56,28 +79,43 @@ public class OutputOption implements Callable<RDFOutput> {
     public RDFOutput call() {
         CommandLine cmd = spec.commandLine();
         cmd.setCaseInsensitiveEnumValuesAllowed(false);
+        Path dir = null;
         try {
-            RDFOutput output;
+            List<RDFOutput> outputs = new ArrayList<>();
             if (fuseki != null) {
-                InetAddress host = fuseki.address;
-                int port = fuseki.port;
-                output = rdfOutputFactory.createFusekiBuilder(host, port, fuseki.baseName)
-                        .graphName(fuseki.graphName)
-                        .build();
-                LOGGER.info("Output as Fuseki remote set to '{}:{}'.", host.getHostName(), port);
-                return output;
+                outputs.add(createFusekiOutput());
+            }
+            if (tdb2 != null) {
+                dir = tdb2.location.toPath();
+                outputs.add(createTDB2Output());
+            }
+            List<FileSystem> files = fileSystems;
+            if (files == null) {
+                files = outputs.isEmpty() ? List.of(CommandLine.populateCommand(new FileSystem())) : List.of();
+            }
+            Set<Path> filePaths = new HashSet<>();
+            for (FileSystem file : files) {
+                dir = file.path.toPath();
+                outputs.add(createFileOutput(file, filePaths));
+            }
+            RDFOutput output = outputs.get(0);
+            if (outputs.size() > 1) {
+                output = rdfOutputFactory.createFanOutput(outputs);
+                LOGGER.info("Output to {} outputs at once.", outputs.size());
+            }
+            if (dedup != null) {
+                output = rdfOutputFactory.createDedupOutput(output, dedup, Math.max(dedupMemory, 1),
+                        dedupDirectory.toPath());
+                LOGGER.info("Duplicate triples removed in {} mode within {} bytes.", dedup, dedupMemory);
             }
-            Path path = fileSystem.path.toPath();
-            String filename = fileSystem.filename;
-            RDFFormat format = fileSystem.format.getFormat();
-            output = rdfOutputFactory.createFileSystem(path, filename, format);
-            LOGGER.info("Output as file set to '{}' path, name '{}', format '{}'.", path, filename, format);
             return output;
         } catch (IOException ex) {
-            String msg = "I/O error: Failed to create directory path: " + fileSystem.path.toPath();
+            String msg = "I/O error: Failed to create directory path: " + dir;
             cmd.getOut().println(msg);
             LOGGER.fatal(msg, ex);
             throw new ExecutionException(cmd, msg, ex);
+        } catch (ParameterException ex) {
+            throw ex;
         } catch (Exception ex) {
             String msg = "Unhandled exception occurred during runtime. Aborting.";
             LOGGER.fatal(msg, ex);
@@ -86,10 +124,82 @@ public class OutputOption implements Callable<RDFOutput> {
         }
     }
 
+    private RDFOutput createFusekiOutput() throws URISyntaxException {
+        InetAddress host = fuseki.address;
+        int port = fuseki.port;
+        FusekiTDBRemote.Builder builder = rdfOutputFactory.createFusekiBuilder(host, port, fuseki.baseName);
+        builder.append(fuseki.append);
+        builder.upload(Math.max(fuseki.uploadBatchSize, 1), Math.max(fuseki.uploadThreads, 1));
+        builder.retry(getRetryPolicy());
+        if (fuseki.streamUpload) {
+            builder.streamUpload(fuseki.uploadFormat.getFormat());
+        }
+        RDFOutput output = builder.graphName(fuseki.graphName).build();
+        LOGGER.info("Output as Fuseki remote set to '{}:{}'.", host.getHostName(), port);
+        return output;
+    }
+
+    private RDFOutput createTDB2Output() throws IOException {
+        Path location = tdb2.location.toPath();
+        TDB2Local.Builder builder = rdfOutputFactory.createTDB2Builder(location);
+        builder.append(tdb2.append);
+        builder.load(Math.max(tdb2.loadBatchSize, 1), tdb2.parallel);
+        RDFOutput output = builder.graphName(tdb2.graphName).build();
+        LOGGER.info("Output as TDB2 dataset set to '{}'.", location);
+        return output;
+    }
+
+    /**
+     * Returns the file output of the given file options, failing if another
+     * file output of this command already writes to the same file.
+     */
+    private RDFOutput createFileOutput(FileSystem fileSystem, Set<Path> filePaths) throws IOException {
+        Path path = fileSystem.path.toPath();
+        String filename = fileSystem.filename;
+        RDFFormat format = fileSystem.format.getFormat();
+        FileCompression compression = fileSystem.compression;
+        if (compression == null) {
+            compression = FileCompression.fromFilename(filename);
+        } else if (!filename.endsWith(compression.getExtension())) {
+            filename = filename + compression.getExtension();
+        }
+        if (!filePaths.add(path.resolve(filename).toAbsolutePath().normalize())) {
+            throw new ParameterException(spec.commandLine(), "Output file '" + path.resolve(filename)
+                    + "' is given more than once, give each file output its own --file.");
+        }
+        int threads = Math.max(fileSystem.compressThreads, 1);
+        Rollover rollover = new Rollover(Math.max(fileSystem.maxFileSize, 0), Math.max(fileSystem.maxFileTriples, 0));
+        RDFOutput output = rdfOutputFactory.createFileSystem(path, filename, format, compression, threads, rollover);
+        LOGGER.info("Output as file set to '{}' path, name '{}', format '{}', compression '{}'.", path, filename,
+                format, compression);
+        return output;
+    }
+
+    /**
+     * Returns the policy to retry failed uploads with, from the retry options
+     * given to the parent command, or a policy that never retries if this
+     * command has no parent with those options.
+     */
+    private RetryPolicy getRetryPolicy() {
+        CommandSpec parent = spec.parent();
+        if (parent == null || parent.findOption("--retries") == null || parent.findOption("--retry-delay") == null) {
+            return RetryPolicy.NONE;
+        }
+        Integer retries = parent.findOption("--retries").getValue();
+        Long retryDelay = parent.findOption("--retry-delay").getValue();
+        if (retries == null || retryDelay == null) {
+            return RetryPolicy.NONE;
+        }
+        return new RetryPolicy(Math.max(retries, 0), Math.max(retryDelay, 0));
+    }
+
     /**
      * FileSystem related options.
      * <p>
-     * This is the default if no other arg group is initialised.
+     * This is the default if no other arg group is initialised. The group
+     * can be given more than once for a file output each, a new group
+     * starting where an option of the group is given again. Every group
+     * given is output to along with the Fuseki and TDB2 outputs, if any.
      */
     static class FileSystem {
         private static final String DEFAULT_DIR = "output";
@@ -98,12 +208,55 @@ public class OutputOption implements Callable<RDFOutput> {
         private static final String FORMAT_DESC = "File format to serialise RDF to. (default: ${DEFAULT-VALUE})";
         private static final String DEFAULT_FILENAME = "rdfOutput.nt";
         private static final String FILENAME_DESC = "File name for RDF output. (default: ${DEFAULT-VALUE})";
+        private static final String COMPRESS_DESC = "Compression of the file, NONE or GZIP. (default: from file name)";
+        private static final String COMPRESS_THREADS_DESC = "Threads to compress with. (default: number of processors)";
+        private static final String MAX_SIZE_DESC = "Bytes per output segment file, with an optional K, M or G "
+                + "suffix, or 0 for a single file. (default: ${DEFAULT-VALUE})";
+        private static final String MAX_TRIPLES_DESC = "Triples per output segment file, or 0 for any. "
+                + "(default: ${DEFAULT-VALUE})";
         @Option(names = {"-d", "--dir"}, defaultValue = DEFAULT_DIR, description = DIR_DESC)
         private File path;
         @Option(names = {"-n", "--file"}, defaultValue = DEFAULT_FILENAME, description = FILENAME_DESC)
         private String filename;
         @Option(names = {"-f", "--format"}, defaultValue = DEFAULT_FORMAT, description = FORMAT_DESC)
         private RDFFileFormat format;
+        @Option(names = {"-c", "--compress"}, description = COMPRESS_DESC)
+        private FileCompression compression;
+        @Option(names = {"--compress-threads"}, description = COMPRESS_THREADS_DESC)
+        private int compressThreads = Runtime.getRuntime().availableProcessors();
+        @Option(names = {"--max-file-size"}, defaultValue = "0", converter = SizeConverter.class,
+                description = MAX_SIZE_DESC)
+        private long maxFileSize;
+        @Option(names = {"--max-file-triples"}, defaultValue = "0", description = MAX_TRIPLES_DESC)
+        private long maxFileTriples;
+    }
+
+    /**
+     * Converts a number of bytes with an optional K, M or G suffix, in
+     * powers of 1024.
+     */
+    static class SizeConverter implements ITypeConverter<Long> {
+
+        @Override
+        public Long convert(String value) {
+            String size = value.trim().toUpperCase();
+            int shift = 0;
+            if (size.endsWith("K")) {
+                shift = 10;
+            } else if (size.endsWith("M")) {
+                shift = 20;
+            } else if (size.endsWith("G")) {
+                shift = 30;
+            }
+            if (shift > 0) {
+                size = size.substring(0, size.length() - 1);
+            }
+            try {
+                return Long.parseLong(size) << shift;
+            } catch (NumberFormatException ex) {
+                throw new TypeConversionException("Invalid size: " + value);
+            }
+        }
     }
 
     /**
@@ -114,6 +267,14 @@ public class OutputOption implements Callable<RDFOutput> {
         private static final String PORT_DESC = "Port that the Fuseki server is listening to.";
         private static final String BASE_DESC = "Base name that exists on Fuseki that can be used.";
         private static final String GRAPH_DESC = "Graph name to upload the mapped RDF result under.";
+        private static final String APPEND_DESC = "Add the mapped RDF result to the graph instead of replacing it.";
+        private static final String DEFAULT_UPLOAD_BATCH_SIZE = "50000";
+        private static final String UPLOAD_BATCH_DESC = "Triples uploaded per request. (default: ${DEFAULT-VALUE})";
+        private static final String DEFAULT_UPLOAD_THREADS = "4";
+        private static final String UPLOAD_THREADS_DESC = "Upload requests sent at a time. (default: ${DEFAULT-VALUE})";
+        private static final String STREAM_UPLOAD_DESC = "Upload in a single request streamed while mapping runs.";
+        private static final String DEFAULT_UPLOAD_FORMAT = "NTRIPLES";
+        private static final String UPLOAD_FORMAT_DESC = "Format of a streamed upload. (default: ${DEFAULT-VALUE})";
         @Option(names = {"-h", "--host"}, required = true, description = HOST_DESC)
         private InetAddress address;
         @Option(names = {"-p", "--port"}, required = true, description = PORT_DESC)
@@ -122,5 +283,55 @@ public class OutputOption implements Callable<RDFOutput> {
         private String baseName;
         @Option(names = {"-g", "--graph"}, description = GRAPH_DESC)
         private String graphName;
+        @Option(names = {"--append"}, description = APPEND_DESC)
+        private boolean append;
+        @Option(names = {"--upload-batch-size"}, defaultValue = DEFAULT_UPLOAD_BATCH_SIZE, description = UPLOAD_BATCH_DESC)
+        private int uploadBatchSize;
+        @Option(names = {"--upload-threads"}, defaultValue = DEFAULT_UPLOAD_THREADS, description = UPLOAD_THREADS_DESC)
+        private int uploadThreads;
+        @Option(names = {"--stream-upload"}, description = STREAM_UPLOAD_DESC)
+        private boolean streamUpload;
+        @Option(names = {"--upload-format"}, defaultValue = DEFAULT_UPLOAD_FORMAT, description = UPLOAD_FORMAT_DESC)
+        private UploadFormat uploadFormat;
+    }
+
+    /**
+     * Local TDB2 dataset options.
+     */
+    static class LocalTDB2 {
+        private static final String LOCATION_DESC = "Directory of the TDB2 dataset to load the mapped RDF result into.";
+        private static final String GRAPH_DESC = "Graph name to load the mapped RDF result under.";
+        private static final String APPEND_DESC = "Add the mapped RDF result to the graph instead of replacing it.";
+        private static final String DEFAULT_LOAD_BATCH_SIZE = "500000";
+        private static final String LOAD_BATCH_DESC = "Triples loaded per batch. (default: ${DEFAULT-VALUE})";
+        private static final String PARALLEL_DESC = "Keep mapping while batches load instead of waiting for each.";
+        @Option(names = {"--tdb2"}, required = true, description = LOCATION_DESC)
+        private File location;
+        @Option(names = {"--tdb2-graph"}, description = GRAPH_DESC)
+        private String graphName;
+        @Option(names = {"--tdb2-append"}, description = APPEND_DESC)
+        private boolean append;
+        @Option(names = {"--load-batch-size"}, defaultValue = DEFAULT_LOAD_BATCH_SIZE, description = LOAD_BATCH_DESC)
+        private int loadBatchSize;
+        @Option(names = {"--load-parallel"}, description = PARALLEL_DESC)
+        private boolean parallel;
+    }
+
+    /**
+     * Formats a streamed upload can be sent in.
+     */
+    enum UploadFormat {
+        NTRIPLES(RDFFormat.NT),
+        THRIFT(RDFFormat.RDF_THRIFT);
+
+        private final RDFFormat format;
+
+        UploadFormat(@NonNull RDFFormat format) {
+            this.format = format;
+        }
+
+        RDFFormat getFormat() {
+            return format;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stream that compresses what is written to it as gzip on a number of
+ * threads, in the manner of pigz.
+ * <p>
+ * Data is cut into blocks of a fixed size, and each block is compressed on
+ * its own into a complete gzip member. Members are written in the order of
+ * their blocks, and a file of concatenated members is a valid gzip file that
+ * decompresses to the data as a whole. As no block shares the dictionary of
+ * the block before it, the output is slightly larger than that of a single
+ * gzip stream. At most twice as many blocks as there are threads are held at
+ * a time, and writing waits for the oldest block while that many are held.
+ */
+class ParallelGzipOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private final OutputStream outputStream;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Queue<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int count;
+    private boolean written;
+    private boolean closed;
+
+    /**
+     * Constructs a {@code ParallelGzipOutputStream} instance writing the
+     * compressed data to the given stream, compressing on the given number
+     * of threads.
+     *
+     * @param outputStream the stream to write the gzip members to
+     * @param threads      the number of threads to compress with
+     */
+    ParallelGzipOutputStream(@NonNull OutputStream outputStream, @Positive int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive, given: " + threads);
+        }
+        this.outputStream = outputStream;
+        this.maxPending = threads * 2;
+        AtomicInteger names = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, (runnable) -> {
+            Thread thread = new Thread(runnable, "gzip-" + names.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == BLOCK_SIZE) {
+            submitBlock();
+        }
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == BLOCK_SIZE) {
+                submitBlock();
+            }
+            int length = Math.min(len, BLOCK_SIZE - count);
+            System.arraycopy(b, off, block, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Compresses the data written so far as a member of its own and writes
+     * every pending member before flushing the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (count > 0 || !written) {
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+        } finally {
+            executor.shutdownNow();
+            outputStream.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] data = block;
+        int length = count;
+        block = new byte[BLOCK_SIZE];
+        count = 0;
+        written = true;
+        pending.add(executor.submit(() -> compress(data, length)));
+        while (pending.size() > maxPending) {
+            writeNext();
+        }
+    }
+
+    /**
+     * Waits for the oldest pending member and writes it.
+     */
+    private void writeNext() throws IOException {
+        try {
+            outputStream.write(pending.remove().get());
+        } catch (ExecutionException ex) {
+            throw new IOException("Failed to compress block.", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing.", ex);
+        }
+    }
+
+    private static byte[] compress(byte[] data, int length) throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(member)) {
+            gzip.write(data, 0, length);
+        }
+        return member.toByteArray();
+    }
+}
@@ -10,6 +10,11 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  * This class maps defined {@code RDFFormat} constants in this class to their
  * own enum equivalent; to be used when their original constants usage is not
  * desired.
+ * <p>
+ * {@link #THRIFT} and {@link #THRIFT_VALUES} are binary RDF Thrift, which
+ * carries triples and quads alike and reloads much faster than the text
+ * formats. The values variant writes numeric literals as binary values
+ * instead of their lexical form.
  */
 public enum RDFFileFormat {
 
@@ -22,7 +27,9 @@ public enum RDFFileFormat {
     TRIG(RDFFormat.TRIG),
     JSONLD(RDFFormat.JSONLD),
     RDFXML(RDFFormat.RDFXML),
-    RDFJSON(RDFFormat.RDFJSON);
+    RDFJSON(RDFFormat.RDFJSON),
+    THRIFT(RDFFormat.RDF_THRIFT),
+    THRIFT_VALUES(RDFFormat.RDF_THRIFT_VALUES);
 
     private final RDFFormat format;
 
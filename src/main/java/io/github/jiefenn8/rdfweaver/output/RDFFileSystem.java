@@ -1,29 +1,87 @@
 package io.github.jiefenn8.rdfweaver.output;
 
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Graph;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * This class extends the {@code File} class with RDF specific methods.
+ * Changes to a graph are written as a SPARQL Update script, regardless of
+ * the format of the file. Whatever is written is compressed with the
+ * {@link FileCompression} of the file, if any. With a {@link Rollover}, the
+ * triples are written to numbered segment files named after the file,
+ * listed in a manifest next to them, instead of to the file itself.
+ * <p>
+ * A graph of more than {@value #PRETTY_LIMIT} triples is written with the
+ * streaming variant of a format whose writer needs the whole graph, such as
+ * Turtle in blocks of the same subject for pretty Turtle, so that large
+ * outputs are not held in memory. N-Triples and N-Quads are encoded
+ * straight to bytes by {@link NTriplesEncoder}, through a file channel if
+ * the file is not compressed.
+ * <p>
+ * The streams opened by this file are {@link AbortableStream}s, deleting
+ * the partly written file, or segments and manifest, when aborted.
  */
 public class RDFFileSystem extends File implements RDFOutput {
 
+    private static final Logger LOGGER = LogManager.getLogger(RDFFileSystem.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long PRETTY_LIMIT = 100000;
     private final RDFFormat format;
+    private final FileCompression compression;
+    private final int compressThreads;
+    private final Rollover rollover;
 
     /**
      * Constructs a {@code RDFFile} instance with the specified {@code Path}
      * and {@link RDFFormat} of the file.
      */
     protected RDFFileSystem(@NonNull Path path, @NonNull RDFFormat format) {
+        this(path, format, FileCompression.NONE, 1, Rollover.NONE);
+    }
+
+    /**
+     * Constructs a {@code RDFFile} instance with the specified {@code Path},
+     * {@link RDFFormat} and {@link FileCompression} of the file, the number
+     * of threads to compress it with and the {@link Rollover} to write it in
+     * segments with.
+     */
+    protected RDFFileSystem(@NonNull Path path, @NonNull RDFFormat format, @NonNull FileCompression compression,
+                            @Positive int compressThreads, @NonNull Rollover rollover) {
         super(path.toString());
         this.format = format;
+        this.compression = compression;
+        this.compressThreads = Math.max(compressThreads, 1);
+        this.rollover = rollover;
     }
 
     /**
@@ -44,15 +102,205 @@ public class RDFFileSystem extends File implements RDFOutput {
         return format;
     }
 
+    /**
+     * Returns the {@code FileCompression} that this file instance is written
+     * with.
+     *
+     * @return the compression of this file instance
+     */
+    public FileCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Returns the {@code Rollover} that this file instance is written in
+     * segments with.
+     *
+     * @return the rollover of this file instance
+     */
+    public Rollover getRollover() {
+        return rollover;
+    }
+
     @Override
     public String toString() {
-        return "{\"path\":\"" + getPath() + "\", \"format\":\"" + format + "\"}";
+        return "{\"path\":\"" + getPath() + "\", \"format\":\"" + format + "\", \"compression\":\""
+                + compression + "\", \"rollover\":" + rollover + "}";
     }
 
     @Override
     public void save(@NonNull Model model) throws IOException {
-        try (FileOutputStream outputStream = new FileOutputStream(this)) {
+        RDFFormat streamingFormat = StreamingFormats.getStreamingFormat(format);
+        if (isSegmented() || NTriplesEncoder.supports(format)
+                || (streamingFormat != null && model.size() > PRETTY_LIMIT)) {
+            StreamRDF stream = openStream();
+            try {
+                StreamOps.graphToStream(model.getGraph(), stream);
+            } catch (RuntimeException ex) {
+                ((AbortableStream) stream).abort();
+                throw ex;
+            }
+            return;
+        }
+        try (OutputStream outputStream = openFile()) {
             RDFDataMgr.write(outputStream, model, getFormat());
         }
     }
+
+    @Override
+    public StreamRDF openStream() throws IOException {
+        RDFFormat streamingFormat = StreamingFormats.getStreamingFormat(format);
+        if (isSegmented()) {
+            return new SegmentedFileStream(toPath(), streamingFormat, compression, compressThreads, rollover);
+        }
+        if (NTriplesEncoder.supports(format)) {
+            WritableByteChannel channel = openChannel();
+            return new ClosingStream(new NTriplesEncoder(channel), channel, toPath());
+        }
+        OutputStream outputStream = openFile();
+        if (format.equals(streamingFormat)) {
+            return new ClosingStream(StreamingFormats.getWriterStream(outputStream, format), outputStream,
+                    toPath());
+        }
+        if (streamingFormat != null) {
+            return new ClosingStream(new ThresholdWriterStream(outputStream, format, streamingFormat, PRETTY_LIMIT),
+                    outputStream, toPath());
+        }
+        LOGGER.warn("Format '{}' has no streaming writer, triples will be held in memory until finish.", format);
+        Graph graph = GraphFactory.createDefaultGraph();
+        return new ClosingStream(StreamRDFLib.graph(graph), outputStream, toPath()) {
+            @Override
+            protected void beforeClose() {
+                RDFDataMgr.write(outputStream, graph, format);
+            }
+        };
+    }
+
+    @Override
+    public ChangeStream openChangeStream() throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(openFile(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        return new SparqlUpdateStream(null) {
+            @Override
+            protected void send(String update) {
+                try {
+                    writer.write(update);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+
+            @Override
+            public void finish() {
+                try {
+                    super.finish();
+                } finally {
+                    IO.close(writer);
+                }
+            }
+
+            @Override
+            public void abort() {
+                super.abort();
+                IO.closeSilent(writer);
+                try {
+                    Files.deleteIfExists(toPath());
+                    LOGGER.info("Deleted partly written update script '{}'.", toPath());
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to delete partly written update script '{}'.", toPath(), ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns true if this file is written in segments, which can only be
+     * done in a format with a streaming writer.
+     */
+    private boolean isSegmented() {
+        if (!rollover.isEnabled()) {
+            return false;
+        }
+        if (StreamingFormats.getStreamingFormat(format) == null) {
+            LOGGER.warn("Format '{}' has no streaming writer, writing a single file instead of segments.", format);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a buffered stream to this file, compressing what is written to
+     * it with the compression of this file.
+     */
+    private OutputStream openFile() throws IOException {
+        OutputStream fileStream = new FileOutputStream(this);
+        try {
+            OutputStream outputStream = compression.wrap(new BufferedOutputStream(fileStream, BUFFER_SIZE),
+                    compressThreads);
+            return new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        } catch (IOException ex) {
+            IO.close(fileStream);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns a channel to this file, writing straight to the file if it is
+     * not compressed.
+     */
+    private WritableByteChannel openChannel() throws IOException {
+        if (compression == FileCompression.NONE) {
+            return FileChannel.open(toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        }
+        return Channels.newChannel(openFile());
+    }
+
+    /**
+     * Stream wrapper that closes the file output stream once the wrapped
+     * stream has finished, or closes it and deletes the file if aborted.
+     */
+    private static class ClosingStream extends StreamRDFWrapper implements AbortableStream {
+
+        private final Closeable outputStream;
+        private final Path file;
+
+        /**
+         * Constructs a {@code ClosingStream} instance wrapping the specified
+         * stream that writes to the given output stream or channel of the
+         * given file.
+         */
+        private ClosingStream(@NonNull StreamRDF stream, @NonNull Closeable outputStream, @NonNull Path file) {
+            super(stream);
+            this.outputStream = outputStream;
+            this.file = file;
+        }
+
+        @Override
+        public void finish() {
+            try {
+                super.finish();
+                beforeClose();
+            } finally {
+                IO.close(outputStream);
+            }
+        }
+
+        @Override
+        public void abort() {
+            IO.closeSilent(outputStream);
+            try {
+                Files.deleteIfExists(file);
+                LOGGER.info("Deleted partly written file '{}'.", file);
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to delete partly written file '{}'.", file, ex);
+            }
+        }
+
+        /**
+         * Called after the wrapped stream has finished and before the file
+         * output stream is closed.
+         */
+        protected void beforeClose() {
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package io.github.jiefenn8.rdfweaver.output;
 
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDF;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.io.IOException;
@@ -19,4 +20,26 @@ public interface RDFOutput {
      * @throws IOException if any IO error occur for FileSystem implementation
      */
     void save(@NonNull Model model) throws IOException;
+
+    /**
+     * Opens a {@link StreamRDF} that saves each triple it receives into an
+     * FileSystem or Database implementation for persistent storage. The
+     * output is complete once {@link StreamRDF#finish()} has been called
+     * on the returned stream.
+     *
+     * @return the stream to send RDF triples to for saving
+     * @throws IOException if any IO error occur for FileSystem implementation
+     */
+    StreamRDF openStream() throws IOException;
+
+    /**
+     * Opens a {@link ChangeStream} that applies each batch of changes it
+     * receives to the stored RDF graph, or records the batches for it to be
+     * applied later. The output is complete once
+     * {@link ChangeStream#finish()} has been called on the returned stream.
+     *
+     * @return the stream to send RDF changes to
+     * @throws IOException if any IO error occur for FileSystem implementation
+     */
+    ChangeStream openChangeStream() throws IOException;
 }
@@ -3,11 +3,13 @@ package io.github.jiefenn8.rdfweaver.output;
 import org.apache.jena.riot.RDFFormat;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.io.IOException;
 import java.net.InetAddress;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * This class handles the preparation and instantiation of implementations using
@@ -29,9 +31,29 @@ public class RDFOutputFactory {
      *                     does not exist
      */
     protected RDFFileSystem createFileSystem(@NonNull Path dir, @NonNull String name, @NonNull RDFFormat format) throws IOException {
+        return createFileSystem(dir, name, format, FileCompression.NONE, 1, Rollover.NONE);
+    }
+
+    /**
+     * Constructs a {@code RDFFileSystem} instance with the specified
+     * destination, filename, format, compression and rollover of the file.
+     *
+     * @param dir             the output destination of the file
+     * @param name            the string name of the filename
+     * @param format          the RDF format to output data as
+     * @param compression     the compression to write the file with
+     * @param compressThreads the number of threads to compress with
+     * @param rollover        the limits of a segment of the file
+     * @return the file to output RDF result into
+     * @throws IOException if an I/O error occurs or the parent directory
+     *                     does not exist
+     */
+    protected RDFFileSystem createFileSystem(@NonNull Path dir, @NonNull String name, @NonNull RDFFormat format,
+                                             @NonNull FileCompression compression, @Positive int compressThreads,
+                                             @NonNull Rollover rollover) throws IOException {
         LOGGER.debug("Creating RDFFileSystem for output.");
         Path filePath = FileResolver.resolveFilename(dir, name);
-        RDFFileSystem rdfOutput = new RDFFileSystem(filePath, format);
+        RDFFileSystem rdfOutput = new RDFFileSystem(filePath, format, compression, compressThreads, rollover);
         FileResolver.prepareDir(dir);
         LOGGER.debug(rdfOutput);
         return rdfOutput;
@@ -49,4 +71,44 @@ public class RDFOutputFactory {
     protected FusekiTDBRemote.Builder createFusekiBuilder(@NonNull InetAddress host, int port, @NonNull String baseName) {
         return new FusekiTDBRemote.Builder(host, port, baseName);
     }
+
+    /**
+     * Constructs a {@code FanOutOutput} instance with the specified outputs
+     * to output the same RDF result to.
+     *
+     * @param outputs the outputs to output the RDF result to
+     * @return the output sending the RDF result to every given output
+     */
+    protected FanOutOutput createFanOutput(@NonNull List<RDFOutput> outputs) {
+        return new FanOutOutput(outputs);
+    }
+
+    /**
+     * Constructs a {@code DedupOutput} instance with the specified output,
+     * mode, memory and spill directory to remove the duplicate triples
+     * streamed to the output.
+     *
+     * @param output         the output to remove the duplicates of
+     * @param mode           the mode to tell the duplicates in
+     * @param memoryBytes    the bytes of memory to tell the duplicates with
+     * @param spillDirectory the directory to spill the hashes seen to
+     * @return the output passing on only the triples not seen before
+     */
+    protected DedupOutput createDedupOutput(@NonNull RDFOutput output, @NonNull DedupMode mode,
+                                            @Positive long memoryBytes, @NonNull Path spillDirectory) {
+        return new DedupOutput(output, mode, memoryBytes, spillDirectory);
+    }
+
+    /**
+     * Constructs a {@code TDB2Local.Builder} instance with the specified
+     * dataset directory, creating the directory if it does not exist.
+     *
+     * @param location the directory of the TDB2 dataset
+     * @return the builder instance with the provided location
+     * @throws IOException if an I/O error occurs creating the directory
+     */
+    protected TDB2Local.Builder createTDB2Builder(@NonNull Path location) throws IOException {
+        FileResolver.prepareDir(location);
+        return new TDB2Local.Builder(location);
+    }
 }
@@ -0,0 +1,195 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.impl.Util;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.RDF;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stream that writes received triples as plain RDF/XML as they arrive,
+ * without holding the graph, as Jena has no streaming RDF/XML writer.
+ * <p>
+ * Consecutive triples of the same subject are written in one
+ * {@code rdf:Description}. The prefixes received before the first triple
+ * are declared on the root element. The namespace of a predicate with no
+ * prefix is declared on every element of the predicate under a generated
+ * prefix. A predicate that can't be split into a namespace and an XML local
+ * name can't be written in RDF/XML and fails the stream.
+ */
+class RDFXMLStreamWriter extends StreamRDFBase {
+
+    private static final String RDF_PREFIX = "rdf";
+    private static final String GENERATED_PREFIX = "ns";
+    private final Writer writer;
+    private final Map<String, String> namespaces = new LinkedHashMap<>();
+    private final Map<String, String> declared = new HashMap<>();
+    private final Map<String, String> undeclared = new HashMap<>();
+    private boolean opened;
+    private Node subject;
+    private int generated;
+
+    /**
+     * Constructs a {@code RDFXMLStreamWriter} instance writing UTF-8 encoded
+     * RDF/XML to the given stream. The stream is flushed but not closed once
+     * the stream is finished.
+     *
+     * @param outputStream the stream to write the RDF/XML to
+     */
+    RDFXMLStreamWriter(@NonNull OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        if (!opened && !prefix.isEmpty() && !prefix.equals(RDF_PREFIX) && !namespaces.containsKey(iri)) {
+            namespaces.put(iri, prefix);
+        }
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        try {
+            if (!opened) {
+                openRoot();
+            }
+            if (!triple.getSubject().equals(subject)) {
+                if (subject != null) {
+                    writer.write("  </rdf:Description>\n");
+                }
+                subject = triple.getSubject();
+                writer.write("  <rdf:Description ");
+                writer.write(subject.isBlank() ? "rdf:nodeID=\"" + blankLabel(subject) + "\""
+                        : "rdf:about=\"" + escape(subject.getURI(), true) + "\"");
+                writer.write(">\n");
+            }
+            writeProperty(triple.getPredicate(), triple.getObject());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void finish() {
+        try {
+            if (!opened) {
+                openRoot();
+            }
+            if (subject != null) {
+                writer.write("  </rdf:Description>\n");
+            }
+            writer.write("</rdf:RDF>\n");
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void openRoot() throws IOException {
+        opened = true;
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rdf:RDF xmlns:rdf=\"" + RDF.getURI() + "\"");
+        for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+            writer.write("\n    xmlns:" + namespace.getValue() + "=\"" + escape(namespace.getKey(), true) + "\"");
+            declared.put(namespace.getKey(), namespace.getValue());
+        }
+        declared.put(RDF.getURI(), RDF_PREFIX);
+        writer.write(">\n");
+    }
+
+    private void writeProperty(Node predicate, Node object) throws IOException {
+        String uri = predicate.getURI();
+        int split = Util.splitNamespaceXML(uri);
+        if (split == 0 || split >= uri.length()) {
+            throw new IllegalArgumentException("Predicate <" + uri + "> can't be written as RDF/XML.");
+        }
+        String namespace = uri.substring(0, split);
+        String prefix = declared.get(namespace);
+        String declaration = "";
+        if (prefix == null) {
+            prefix = undeclared.computeIfAbsent(namespace, (key) -> nextPrefix());
+            declaration = " xmlns:" + prefix + "=\"" + escape(namespace, true) + "\"";
+        }
+        String name = prefix + ":" + uri.substring(split);
+        writer.write("    <" + name + declaration);
+        if (object.isURI()) {
+            writer.write(" rdf:resource=\"" + escape(object.getURI(), true) + "\"/>\n");
+        } else if (object.isBlank()) {
+            writer.write(" rdf:nodeID=\"" + blankLabel(object) + "\"/>\n");
+        } else {
+            String language = object.getLiteralLanguage();
+            String datatype = object.getLiteralDatatypeURI();
+            if (language != null && !language.isEmpty()) {
+                writer.write(" xml:lang=\"" + escape(language, true) + "\"");
+            } else if (datatype != null && !datatype.equals(XSDDatatype.XSDstring.getURI())) {
+                writer.write(" rdf:datatype=\"" + escape(datatype, true) + "\"");
+            }
+            writer.write(">" + escape(object.getLiteralLexicalForm(), false) + "</" + name + ">\n");
+        }
+    }
+
+    /**
+     * Returns a generated prefix not declared on the root element.
+     */
+    private String nextPrefix() {
+        String prefix;
+        do {
+            prefix = GENERATED_PREFIX + generated++;
+        } while (declared.containsValue(prefix));
+        return prefix;
+    }
+
+    private static String blankLabel(Node node) {
+        return NodeFmtLib.encodeBNodeLabel(node.getBlankNodeLabel());
+    }
+
+    /**
+     * Returns the text escaped for XML content, or for a double quoted
+     * attribute value if set.
+     */
+    private static String escape(String text, boolean attribute) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '"':
+                    escaped.append(attribute ? "&quot;" : "\"");
+                    break;
+                case '\r':
+                    escaped.append("&#xD;");
+                    break;
+                case '\n':
+                    escaped.append(attribute ? "&#xA;" : "\n");
+                    break;
+                case '\t':
+                    escaped.append(attribute ? "&#x9;" : "\t");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
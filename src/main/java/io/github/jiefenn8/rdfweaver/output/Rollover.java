@@ -0,0 +1,78 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * This class defines when an output file is closed and the output goes on
+ * in the next segment file, once the file has reached a number of bytes or
+ * a number of triples. A limit of zero is no limit.
+ */
+public final class Rollover {
+
+    /**
+     * The rollover that never rolls over, writing a single file.
+     */
+    public static final Rollover NONE = new Rollover(0, 0);
+    private final long maxBytes;
+    private final long maxTriples;
+
+    /**
+     * Constructs a {@code Rollover} instance with the specified limits of a
+     * segment file.
+     *
+     * @param maxBytes   the number of bytes of a segment, or zero for any
+     * @param maxTriples the number of triples of a segment, or zero for any
+     */
+    public Rollover(@NonNegative long maxBytes, @NonNegative long maxTriples) {
+        if (maxBytes < 0 || maxTriples < 0) {
+            throw new IllegalArgumentException("Rollover limits must not be negative.");
+        }
+        this.maxBytes = maxBytes;
+        this.maxTriples = maxTriples;
+    }
+
+    /**
+     * Returns the number of bytes of a segment, or zero for any.
+     *
+     * @return the byte limit of a segment
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the number of triples of a segment, or zero for any.
+     *
+     * @return the triple limit of a segment
+     */
+    public long getMaxTriples() {
+        return maxTriples;
+    }
+
+    /**
+     * Returns true if this rollover has any limit, so that the output is
+     * written in segments.
+     *
+     * @return true if the output is written in segments
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0 || maxTriples > 0;
+    }
+
+    /**
+     * Returns true if a segment of the given size is full and the next
+     * triple goes to the next segment.
+     *
+     * @param bytes   the number of bytes written to the segment
+     * @param triples the number of triples written to the segment
+     * @return true if the segment has reached a limit
+     */
+    public boolean isReached(@NonNegative long bytes, @NonNegative long triples) {
+        return (maxBytes > 0 && bytes >= maxBytes) || (maxTriples > 0 && triples >= maxTriples);
+    }
+
+    @Override
+    public String toString() {
+        return "{\"maxBytes\":" + maxBytes + ", \"maxTriples\":" + maxTriples + "}";
+    }
+}
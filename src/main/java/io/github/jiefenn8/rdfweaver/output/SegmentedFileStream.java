@@ -0,0 +1,264 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stream that writes received triples to a series of segment files, going
+ * on to the next segment once the current one reaches the limits of its
+ * {@link Rollover}. A segment is only closed between two triples, so every
+ * segment is a whole document of the format of its own, and the prefixes
+ * and base seen so far are written again at the start of every segment.
+ * <p>
+ * Each closed segment is recorded in a manifest with its number of triples,
+ * its number of bytes and the SHA-256 checksum of the file, one segment per
+ * line separated by tabs. The manifest is flushed after every segment, so a
+ * segment listed in the manifest is complete and can be read while later
+ * segments are still being written. As the byte size of a segment is only
+ * counted once written out of the buffers of the writer and the compression,
+ * a segment may go somewhat past its byte limit.
+ * <p>
+ * Aborting the stream deletes every segment written and the manifest.
+ */
+class SegmentedFileStream implements AbortableStream {
+
+    private static final Logger LOGGER = LogManager.getLogger(SegmentedFileStream.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    private static final String MANIFEST_HEADER = "#segment\ttriples\tbytes\tsha256\n";
+    private final Path file;
+    private final RDFFormat format;
+    private final FileCompression compression;
+    private final int compressThreads;
+    private final Rollover rollover;
+    private final Map<String, String> prefixes = new LinkedHashMap<>();
+    private String base;
+    private Writer manifest;
+    private StreamRDF writer;
+    private OutputStream outputStream;
+    private SegmentOutputStream segment;
+    private Path segmentPath;
+    private long segmentTriples;
+    private int segments;
+
+    /**
+     * Constructs a {@code SegmentedFileStream} instance writing segments
+     * named after the given file, in the given format and compression.
+     *
+     * @param file            the file to name the segments and manifest by
+     * @param format          the streamable format of the segments
+     * @param compression     the compression of the segments
+     * @param compressThreads the number of threads to compress with
+     * @param rollover        the limits of a segment
+     */
+    SegmentedFileStream(@NonNull Path file, @NonNull RDFFormat format, @NonNull FileCompression compression,
+                        @Positive int compressThreads, @NonNull Rollover rollover) {
+        this.file = file;
+        this.format = format;
+        this.compression = compression;
+        this.compressThreads = compressThreads;
+        this.rollover = rollover;
+    }
+
+    /**
+     * Returns the manifest listing the segments written for the given file.
+     *
+     * @param file the file the segments are named by
+     * @return the path of the manifest of the segments
+     */
+    static Path getManifest(@NonNull Path file) {
+        return file.resolveSibling(file.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    @Override
+    public void start() {
+        try {
+            manifest = Files.newBufferedWriter(getManifest(file), StandardCharsets.UTF_8);
+            manifest.write(MANIFEST_HEADER);
+            manifest.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        openSegment().triple(triple);
+        afterWrite();
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        openSegment().quad(quad);
+        afterWrite();
+    }
+
+    @Override
+    public void base(String base) {
+        this.base = base;
+        if (writer != null) {
+            writer.base(base);
+        }
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        prefixes.put(prefix, iri);
+        if (writer != null) {
+            writer.prefix(prefix, iri);
+        }
+    }
+
+    @Override
+    public void finish() {
+        try {
+            if (writer != null || segments == 0) {
+                openSegment();
+                closeSegment();
+            }
+        } finally {
+            IO.close(manifest);
+        }
+        LOGGER.info("Finished writing {} segments of '{}'.", segments, file);
+    }
+
+    @Override
+    public void abort() {
+        writer = null;
+        IO.closeSilent(outputStream);
+        IO.closeSilent(manifest);
+        try {
+            for (int i = 1; i <= segments; i++) {
+                Files.deleteIfExists(file.resolveSibling(FileResolver.segmentName(file.getFileName().toString(), i)));
+            }
+            Files.deleteIfExists(getManifest(file));
+            LOGGER.info("Deleted {} partly written segments of '{}'.", segments, file);
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to delete partly written segments of '{}'.", file, ex);
+        }
+    }
+
+    private void afterWrite() {
+        segmentTriples++;
+        if (rollover.isReached(segment.getCount(), segmentTriples)) {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Returns the writer of the current segment, opening the next segment
+     * with the prefixes and base seen so far if none is open.
+     */
+    private StreamRDF openSegment() {
+        if (writer != null) {
+            return writer;
+        }
+        segments++;
+        segmentPath = file.resolveSibling(FileResolver.segmentName(file.getFileName().toString(), segments));
+        try {
+            segment = new SegmentOutputStream(new FileOutputStream(segmentPath.toFile()));
+            OutputStream compressed = compression.wrap(new BufferedOutputStream(segment, BUFFER_SIZE),
+                    compressThreads);
+            outputStream = new BufferedOutputStream(compressed, BUFFER_SIZE);
+        } catch (IOException ex) {
+            IO.close(segment);
+            throw new UncheckedIOException(ex);
+        }
+        writer = StreamingFormats.getWriterStream(outputStream, format);
+        writer.start();
+        if (base != null) {
+            writer.base(base);
+        }
+        prefixes.forEach(writer::prefix);
+        segmentTriples = 0;
+        return writer;
+    }
+
+    /**
+     * Closes the current segment and records it in the manifest.
+     */
+    private void closeSegment() {
+        try {
+            writer.finish();
+        } finally {
+            writer = null;
+            IO.close(outputStream);
+        }
+        String checksum = segment.getChecksum();
+        try {
+            manifest.write(segmentPath.getFileName() + "\t" + segmentTriples + "\t" + segment.getCount() + "\t"
+                    + checksum + "\n");
+            manifest.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        LOGGER.debug("Closed segment '{}', {} triples, {} bytes.", segmentPath, segmentTriples, segment.getCount());
+    }
+
+    /**
+     * Stream that counts the bytes written to the segment file and digests
+     * them as they are written.
+     */
+    private static class SegmentOutputStream extends DigestOutputStream {
+
+        private long count;
+
+        private SegmentOutputStream(OutputStream outputStream) {
+            super(outputStream, newDigest());
+        }
+
+        private static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is not available.", ex);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            super.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            count += len;
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        private String getChecksum() {
+            StringBuilder checksum = new StringBuilder();
+            for (byte b : getMessageDigest().digest()) {
+                checksum.append(String.format("%02x", b));
+            }
+            return checksum.toString();
+        }
+    }
+}
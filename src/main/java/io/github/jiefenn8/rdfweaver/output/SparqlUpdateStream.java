@@ -0,0 +1,121 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class implements {@link ChangeStream} by writing each batch of
+ * changes as a SPARQL Update request. The triples of each deleted pattern
+ * are removed with {@code DELETE WHERE}, followed by an {@code INSERT DATA}
+ * of every added triple, in the graph given or the default graph.
+ * <p>
+ * Patterns of a blank subject can't be addressed by an update and are not
+ * deleted.
+ */
+abstract class SparqlUpdateStream implements ChangeStream {
+
+    private static final Logger LOGGER = LogManager.getLogger(SparqlUpdateStream.class);
+    private final String graphName;
+    private final Set<Triple> deletes = new LinkedHashSet<>();
+    private final List<Triple> adds = new ArrayList<>();
+
+    /**
+     * Constructs a {@code SparqlUpdateStream} instance that changes the given
+     * named graph, or the default graph if null.
+     *
+     * @param graphName the name of the graph to change
+     */
+    SparqlUpdateStream(String graphName) {
+        this.graphName = graphName;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void delete(Triple pattern) {
+        if (pattern.getSubject().isBlank()) {
+            LOGGER.debug("Pattern {} of a blank subject can't be deleted by an update.", pattern);
+            return;
+        }
+        deletes.add(pattern);
+    }
+
+    @Override
+    public void add(Triple triple) {
+        adds.add(triple);
+    }
+
+    @Override
+    public void commit() {
+        if (deletes.isEmpty() && adds.isEmpty()) {
+            return;
+        }
+        StringBuilder update = new StringBuilder();
+        for (Triple pattern : deletes) {
+            Node object = pattern.getObject();
+            update.append("DELETE WHERE { ").append(openGraph())
+                    .append(FmtUtils.stringForNode(pattern.getSubject())).append(' ')
+                    .append(FmtUtils.stringForNode(pattern.getPredicate())).append(' ')
+                    .append(object.isConcrete() ? FmtUtils.stringForNode(object) : "?o").append(' ')
+                    .append(closeGraph()).append("} ;\n");
+        }
+        if (!adds.isEmpty()) {
+            update.append("INSERT DATA {\n").append(openGraph());
+            for (Triple triple : adds) {
+                update.append(FmtUtils.stringForNode(triple.getSubject())).append(' ')
+                        .append(FmtUtils.stringForNode(triple.getPredicate())).append(' ')
+                        .append(FmtUtils.stringForNode(triple.getObject())).append(" .\n");
+            }
+            update.append(closeGraph()).append("} ;\n");
+        }
+        LOGGER.debug("Sending update of {} deleted patterns and {} added triples.", deletes.size(), adds.size());
+        send(update.toString());
+        deletes.clear();
+        adds.clear();
+    }
+
+    @Override
+    public void finish() {
+        commit();
+    }
+
+    @Override
+    public void abort() {
+        LOGGER.debug("Dropping {} deleted patterns and {} added triples not committed.", deletes.size(), adds.size());
+        deletes.clear();
+        adds.clear();
+    }
+
+    /**
+     * Sends the update request of a batch of changes.
+     *
+     * @param update the SPARQL Update request to send
+     */
+    protected abstract void send(String update);
+
+    /**
+     * Returns the opening of the graph block, or nothing for the default
+     * graph.
+     */
+    private String openGraph() {
+        return graphName == null ? "" : "GRAPH <" + graphName + "> { ";
+    }
+
+    /**
+     * Returns the closing of the graph block, or nothing for the default
+     * graph.
+     */
+    private String closeGraph() {
+        return graphName == null ? "" : "} ";
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+/**
+ * This class handles the choice of a writer that writes triples as they
+ * arrive for an {@link RDFFormat}, in place of a pretty writer that needs
+ * the whole graph in memory.
+ * <p>
+ * Pretty Turtle and TriG are written in blocks of the same subject instead,
+ * and RDF/XML as plain RDF/XML with {@link RDFXMLStreamWriter}. UTF-8
+ * N-Triples and N-Quads are written with {@link NTriplesEncoder}. JSON-LD
+ * and RDF/JSON have no streaming writer.
+ */
+final class StreamingFormats {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private StreamingFormats() {
+    }
+
+    /**
+     * Returns the format itself if it has a streaming writer, the streaming
+     * variant of its language if it has none, or null if its language can't
+     * be streamed.
+     *
+     * @param format the format to stream
+     * @return the streaming format to write instead, or null
+     */
+    static RDFFormat getStreamingFormat(@NonNull RDFFormat format) {
+        if (StreamRDFWriter.registered(format) || format.equals(RDFFormat.RDFXML_PLAIN)) {
+            return format;
+        }
+        Lang lang = format.getLang();
+        if (Lang.TURTLE.equals(lang)) {
+            return RDFFormat.TURTLE_BLOCKS;
+        }
+        if (Lang.TRIG.equals(lang)) {
+            return RDFFormat.TRIG_BLOCKS;
+        }
+        if (Lang.RDFXML.equals(lang)) {
+            return RDFFormat.RDFXML_PLAIN;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a stream that writes received triples to the output stream in
+     * the given streaming format.
+     *
+     * @param outputStream the stream to write to
+     * @param format       a format returned by {@link #getStreamingFormat}
+     * @return the stream to send triples to
+     */
+    static StreamRDF getWriterStream(@NonNull OutputStream outputStream, @NonNull RDFFormat format) {
+        if (format.equals(RDFFormat.RDFXML_PLAIN)) {
+            return new RDFXMLStreamWriter(outputStream);
+        }
+        if (NTriplesEncoder.supports(format)) {
+            return new NTriplesEncoder(Channels.newChannel(outputStream), BUFFER_SIZE);
+        }
+        return StreamRDFWriter.getWriterStream(outputStream, format);
+    }
+}
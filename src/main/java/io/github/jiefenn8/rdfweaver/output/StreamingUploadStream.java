@@ -0,0 +1,235 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.riot.web.HttpOp;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream that uploads received triples to a graph of a remote Fuseki server
+ * in a single Graph Store Protocol request, opened when the stream starts and
+ * sent with chunked transfer encoding while the triples are still being
+ * mapped.
+ * <p>
+ * Triples are handed to the upload thread in blocks through a bounded queue.
+ * Once the queue is full, sending a triple waits for the upload to catch up,
+ * so the memory held does not grow with the size of the graph. The graph is
+ * replaced with a PUT request, or added to with a POST request when
+ * appending. The request body can't be sent again, so a failed upload fails
+ * the stream.
+ * <p>
+ * Aborting the stream cuts the request body off before its last chunk, so
+ * the server drops the request and the graph is left as it was.
+ */
+class StreamingUploadStream extends StreamRDFBase implements AbortableStream {
+
+    private static final Logger LOGGER = LogManager.getLogger(StreamingUploadStream.class);
+    private static final int BLOCK_SIZE = 1000;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final long ABORT_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final List<Triple> END_OF_STREAM = List.of();
+    private static final List<Triple> ABORT = Collections.unmodifiableList(new ArrayList<>());
+    private final String url;
+    private final boolean replace;
+    private final RDFFormat format;
+    private final BlockingQueue<List<Triple>> queue;
+    private List<Triple> block = new ArrayList<>(BLOCK_SIZE);
+    private Thread uploader;
+    private volatile RuntimeException failure;
+    private volatile boolean aborted;
+    private long sent;
+
+    /**
+     * Constructs a {@code StreamingUploadStream} instance uploading to the
+     * given graph store endpoint.
+     *
+     * @param graphStore the URL of the graph store endpoint of the dataset
+     * @param graphName  the graph to upload to, or null or "default" for the
+     *                   default graph
+     * @param replace    true to replace the graph, false to add to it
+     * @param format     the streamable format to send the triples in
+     * @param queueSize  the number of blocks of triples waiting to be sent
+     */
+    StreamingUploadStream(@NonNull String graphStore, String graphName, boolean replace, @NonNull RDFFormat format,
+                          @Positive int queueSize) {
+        this.url = graphStore + (graphName == null || graphName.equals("default")
+                ? "?default" : "?graph=" + URLEncoder.encode(graphName, StandardCharsets.UTF_8));
+        this.replace = replace;
+        this.format = format;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    @Override
+    public void start() {
+        uploader = new Thread(this::upload, "stream-upload");
+        uploader.start();
+        LOGGER.debug("Opened streaming upload to '{}' as {}.", url, format);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        block.add(triple);
+        if (block.size() >= BLOCK_SIZE) {
+            put(block);
+            block = new ArrayList<>(BLOCK_SIZE);
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (!block.isEmpty()) {
+            put(block);
+            block = new ArrayList<>(BLOCK_SIZE);
+        }
+        put(END_OF_STREAM);
+        try {
+            uploader.join();
+        } catch (InterruptedException ex) {
+            uploader.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upload.", ex);
+        }
+        throwFailure();
+        LOGGER.info("Finished streaming upload to '{}', {} triples sent.", url, sent);
+    }
+
+    @Override
+    public void abort() {
+        aborted = true;
+        block = new ArrayList<>(BLOCK_SIZE);
+        if (uploader == null) {
+            return;
+        }
+        queue.clear();
+        queue.offer(ABORT);
+        try {
+            uploader.join(ABORT_WAIT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (uploader.isAlive()) {
+            LOGGER.warn("Streaming upload to '{}' still running {} ms after abort.", url, ABORT_WAIT_MILLIS);
+            uploader.interrupt();
+        }
+        LOGGER.info("Aborted streaming upload to '{}' after {} triples.", url, sent);
+    }
+
+    /**
+     * Hands the block to the upload thread, waiting while the queue is full
+     * and throwing the failure of the upload if it failed.
+     */
+    private void put(List<Triple> triples) {
+        try {
+            do {
+                throwFailure();
+            } while (!queue.offer(triples, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to upload.", ex);
+        }
+    }
+
+    private void throwFailure() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Sends the request with the queued triples as its body, keeping the
+     * failure of the request for the mapping thread to throw.
+     */
+    private void upload() {
+        try {
+            QueueEntity entity = new QueueEntity();
+            if (replace) {
+                HttpOp.execHttpPut(url, entity);
+            } else {
+                HttpOp.execHttpPost(url, entity);
+            }
+        } catch (RuntimeException ex) {
+            if (aborted) {
+                LOGGER.debug("Streaming upload to '{}' cut off by abort.", url, ex);
+            } else {
+                LOGGER.error("Streaming upload to '{}' failed.", url, ex);
+            }
+            failure = ex;
+            queue.clear();
+        }
+    }
+
+    /**
+     * Entity that writes the blocks of the queue in the format of the stream
+     * until the end of the stream, with no length known beforehand. The body
+     * is cut off with an exception if the stream is aborted.
+     */
+    private class QueueEntity extends AbstractHttpEntity {
+
+        private QueueEntity() {
+            setChunked(true);
+            String contentType = RDFLanguages.NTRIPLES.equals(format.getLang())
+                    ? format.getLang().getContentType().getContentType() + "; charset=utf-8"
+                    : format.getLang().getContentType().getContentType();
+            setContentType(contentType);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException("Streamed entity can only be written.");
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            StreamRDF writer = StreamRDFWriter.getWriterStream(outputStream, format);
+            writer.start();
+            try {
+                for (List<Triple> triples = queue.take(); triples != END_OF_STREAM; triples = queue.take()) {
+                    if (triples == ABORT) {
+                        throw new IOException("Streaming upload aborted.");
+                    }
+                    triples.forEach(writer::triple);
+                    sent += triples.size();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while streaming upload.", ex);
+            }
+            writer.finish();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class implements {@link RDFOutput} for mapping of RDF mapping results
+ * directly into a local TDB2 dataset directory, such as one to be served by
+ * Fuseki once loaded. The graph is replaced by the results, unless appending
+ * is set. Changes from a change feed are applied in one write transaction
+ * per batch.
+ * <p>
+ * Triples are loaded in large batches within a single write transaction,
+ * which clears the graph first unless appending and is committed once the
+ * output is finished, so the graph is never seen partly loaded and is left
+ * as it was if the output is aborted. Every step of the transaction runs on
+ * a loader thread of the stream, which holds the transaction, so triples may
+ * be sent and the stream aborted from any thread. Mapping waits for each
+ * batch to be loaded, unless parallel loading is set, in which case mapping
+ * goes on with at most two batches held by the loader thread at a time.
+ * <p>
+ * The dataset stays open until the process ends, so another process can
+ * open it once the run is over.
+ */
+public class TDB2Local implements RDFOutput {
+
+    private static final Logger LOGGER = LogManager.getLogger(TDB2Local.class);
+    private static final int DEFAULT_BATCH_SIZE = 500000;
+    private static final int PENDING_BATCHES = 2;
+    private final Path location;
+    private final Node graphName;
+    private final boolean append;
+    private final int batchSize;
+    private final boolean parallel;
+
+    /**
+     * Constructs a {@code TDB2Local} instance with the specified Builder
+     * containing the properties to populate and initialise this instance.
+     *
+     * @param builder the builder to construct this instance
+     */
+    public TDB2Local(Builder builder) {
+        location = builder.location;
+        graphName = builder.graphName == null || builder.graphName.equals("default")
+                ? null : NodeFactory.createURI(builder.graphName);
+        append = builder.append;
+        batchSize = builder.batchSize;
+        parallel = builder.parallel;
+    }
+
+    /**
+     * Returns the directory of the dataset this output loads into.
+     *
+     * @return the location of the dataset
+     */
+    public Path getLocation() {
+        return location;
+    }
+
+    @Override
+    public void save(@NonNull Model model) {
+        AbortableStream stream = new BulkLoadStream();
+        stream.start();
+        try {
+            StreamOps.sendTriplesToStream(model.getGraph(), stream);
+            stream.finish();
+        } catch (RuntimeException ex) {
+            stream.abort();
+            throw ex;
+        }
+    }
+
+    @Override
+    public StreamRDF openStream() {
+        return new BulkLoadStream();
+    }
+
+    @Override
+    public ChangeStream openChangeStream() {
+        return new TransactionChangeStream();
+    }
+
+    @Override
+    public String toString() {
+        return "{\"location\":\"" + location + "\", \"graph\":\"" + graphName + "\"}";
+    }
+
+    /**
+     * Returns the graph of the dataset to load into.
+     */
+    private Graph getGraph(DatasetGraph dataset) {
+        return graphName == null ? dataset.getDefaultGraph() : dataset.getGraph(graphName);
+    }
+
+    /**
+     * Stream that collects received triples into batches and loads them in
+     * one write transaction, begun when the stream starts and committed when
+     * it finishes. Unless appending, the graph is cleared at the start of the
+     * transaction so that the batches replace it. Every step of the
+     * transaction runs on the loader thread, as a transaction belongs to the
+     * thread that began it, whichever threads send the triples or abort.
+     */
+    private class BulkLoadStream extends StreamRDFBase implements AbortableStream {
+
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final Semaphore pending = new Semaphore(PENDING_BATCHES);
+        private List<Triple> batch = new ArrayList<>();
+        private DatasetGraph dataset;
+        private volatile ExecutorService loader;
+        private volatile boolean aborted;
+        private long loaded;
+        private long startNanos;
+
+        @Override
+        public void start() {
+            dataset = DatabaseMgr.connectDatasetGraph(location.toString());
+            startNanos = System.nanoTime();
+            loader = Executors.newSingleThreadExecutor((runnable) -> new Thread(runnable, "tdb2-loader"));
+            submit(this::begin, false);
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            batch.add(triple);
+            if (batch.size() >= batchSize) {
+                List<Triple> triples = batch;
+                submit(() -> load(triples), false);
+                batch = new ArrayList<>();
+            }
+        }
+
+        @Override
+        public void finish() {
+            if (!batch.isEmpty()) {
+                List<Triple> triples = batch;
+                submit(() -> load(triples), false);
+                batch = new ArrayList<>();
+            }
+            submit(this::commit, true);
+            awaitLoader();
+            throwFailure();
+            double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+            LOGGER.info("Finished loading into '{}', {} triples, {} triples/s.", location, loaded,
+                    Math.round(loaded / seconds));
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+            if (loader == null || loader.isShutdown()) {
+                LOGGER.info("Aborted loading into '{}' after its transaction ended.", location);
+                return;
+            }
+            try {
+                submit(this::rollback, true);
+                awaitLoader();
+                LOGGER.info("Aborted loading into '{}', {} loaded triples rolled back.", location, loaded);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Failed to roll back loading into '{}'.", location, ex);
+            }
+        }
+
+        /**
+         * Hands the step of the transaction to the loader thread, waiting
+         * for it to run unless parallel, and otherwise waiting only while the
+         * limit of pending batches is reached. Once the load has failed or is
+         * aborted, only the steps that end the transaction are run.
+         */
+        private void submit(Runnable step, boolean ending) {
+            if (!ending) {
+                throwFailure();
+            }
+            try {
+                pending.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting to load.", ex);
+            }
+            Future<?> result = loader.submit(() -> {
+                try {
+                    if (ending || failure.get() == null && !aborted) {
+                        step.run();
+                    }
+                } catch (RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                } finally {
+                    pending.release();
+                }
+            });
+            if (!parallel && !ending) {
+                await(result);
+                throwFailure();
+            }
+        }
+
+        private void await(Future<?> result) {
+            try {
+                result.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for load.", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Failed to load into '" + location + "'.", ex.getCause());
+            }
+        }
+
+        private void begin() {
+            dataset.begin(ReadWrite.WRITE);
+            if (!append) {
+                getGraph(dataset).clear();
+            }
+        }
+
+        private void load(List<Triple> triples) {
+            Graph graph = getGraph(dataset);
+            triples.forEach(graph::add);
+            loaded += triples.size();
+            LOGGER.debug("Loaded batch of {} triples into '{}'.", triples.size(), location);
+        }
+
+        /**
+         * Commits the transaction, or rolls it back if a batch failed to
+         * load.
+         */
+        private void commit() {
+            if (failure.get() != null) {
+                rollback();
+                return;
+            }
+            dataset.commit();
+            dataset.end();
+        }
+
+        private void rollback() {
+            if (dataset.isInTransaction()) {
+                dataset.abort();
+                dataset.end();
+            }
+        }
+
+        private void awaitLoader() {
+            loader.shutdown();
+            try {
+                loader.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                loader.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for load.", ex);
+            }
+        }
+
+        private void throwFailure() {
+            RuntimeException ex = failure.get();
+            if (ex != null) {
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Stream that applies each batch of changes in a write transaction of its
+     * own, removing the triples of every deleted pattern before adding the
+     * added triples.
+     */
+    private class TransactionChangeStream implements ChangeStream {
+
+        private final Set<Triple> deletes = new LinkedHashSet<>();
+        private final List<Triple> adds = new ArrayList<>();
+        private DatasetGraph dataset;
+
+        @Override
+        public void start() {
+            dataset = DatabaseMgr.connectDatasetGraph(location.toString());
+        }
+
+        @Override
+        public void delete(Triple pattern) {
+            deletes.add(pattern);
+        }
+
+        @Override
+        public void add(Triple triple) {
+            adds.add(triple);
+        }
+
+        @Override
+        public void commit() {
+            if (deletes.isEmpty() && adds.isEmpty()) {
+                return;
+            }
+            Txn.executeWrite(dataset, () -> {
+                Graph graph = getGraph(dataset);
+                deletes.forEach((pattern) -> graph.remove(pattern.getSubject(), pattern.getPredicate(),
+                        pattern.getObject()));
+                adds.forEach(graph::add);
+            });
+            LOGGER.debug("Applied {} deleted patterns and {} added triples.", deletes.size(), adds.size());
+            deletes.clear();
+            adds.clear();
+        }
+
+        @Override
+        public void finish() {
+            commit();
+        }
+
+        @Override
+        public void abort() {
+            LOGGER.debug("Dropping {} deleted patterns and {} added triples not committed.", deletes.size(),
+                    adds.size());
+            deletes.clear();
+            adds.clear();
+        }
+    }
+
+    /**
+     * Builder class for {@link TDB2Local}.
+     */
+    public static class Builder {
+
+        private final Path location;
+        private String graphName;
+        private boolean append;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private boolean parallel;
+
+        public Builder(@NonNull Path location) {
+            this.location = location;
+        }
+
+        public Builder graphName(String name) {
+            graphName = name;
+            return this;
+        }
+
+        public Builder append(boolean append) {
+            this.append = append;
+            return this;
+        }
+
+        /**
+         * Sets the number of triples loaded per batch and whether mapping
+         * goes on while the batches are loaded instead of waiting for each.
+         *
+         * @param batchSize the number of triples per batch
+         * @param parallel  true to load batches alongside mapping
+         * @return this builder
+         */
+        public Builder load(@Positive int batchSize, boolean parallel) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Load batch size must be positive, given: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            this.parallel = parallel;
+            return this;
+        }
+
+        public TDB2Local build() {
+            return new TDB2Local(this);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.OutputStream;
+
+/**
+ * Stream that holds received triples in memory to write them with a pretty
+ * writer once finished, until more than a set number of triples has been
+ * received. Past that, the triples held and every triple after them are
+ * written as they arrive in a streaming variant of the format, with the
+ * prefixes received so far written first.
+ */
+class ThresholdWriterStream implements StreamRDF {
+
+    private static final Logger LOGGER = LogManager.getLogger(ThresholdWriterStream.class);
+    private final OutputStream outputStream;
+    private final RDFFormat prettyFormat;
+    private final RDFFormat streamingFormat;
+    private final long threshold;
+    private Graph graph = GraphFactory.createDefaultGraph();
+    private String base;
+    private StreamRDF writer;
+
+    /**
+     * Constructs a {@code ThresholdWriterStream} instance writing to the
+     * given stream in the pretty format, or in the streaming format once
+     * more than the threshold of triples has been received.
+     *
+     * @param outputStream    the stream to write to
+     * @param prettyFormat    the format to write a small graph in
+     * @param streamingFormat the format to write a large graph in
+     * @param threshold       the number of triples to hold at most
+     */
+    ThresholdWriterStream(@NonNull OutputStream outputStream, @NonNull RDFFormat prettyFormat,
+                          @NonNull RDFFormat streamingFormat, @NonNegative long threshold) {
+        this.outputStream = outputStream;
+        this.prettyFormat = prettyFormat;
+        this.streamingFormat = streamingFormat;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (writer != null) {
+            writer.triple(triple);
+            return;
+        }
+        graph.add(triple);
+        if (graph.size() > threshold) {
+            startStreaming();
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (writer == null) {
+            startStreaming();
+        }
+        writer.quad(quad);
+    }
+
+    @Override
+    public void base(String base) {
+        this.base = base;
+        if (writer != null) {
+            writer.base(base);
+        }
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        if (writer != null) {
+            writer.prefix(prefix, iri);
+            return;
+        }
+        graph.getPrefixMapping().setNsPrefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        if (writer != null) {
+            writer.finish();
+            return;
+        }
+        RDFDataMgr.write(outputStream, graph, prettyFormat);
+    }
+
+    /**
+     * Writes the prefixes and triples held so far with the streaming writer
+     * and sends it every triple from then on.
+     */
+    private void startStreaming() {
+        LOGGER.info("More than {} triples, writing {} instead of {} to not hold the graph.", threshold,
+                streamingFormat, prettyFormat);
+        writer = StreamingFormats.getWriterStream(outputStream, streamingFormat);
+        writer.start();
+        if (base != null) {
+            writer.base(base);
+        }
+        graph.getPrefixMapping().getNsPrefixMap().forEach(writer::prefix);
+        StreamOps.sendTriplesToStream(graph, writer);
+        graph = null;
+    }
+}
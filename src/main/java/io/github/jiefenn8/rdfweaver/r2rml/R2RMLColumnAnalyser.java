@@ -0,0 +1,167 @@
+package io.github.jiefenn8.rdfweaver.r2rml;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.riot.RDFDataMgr;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class handles the analysis of an R2RML file to find the columns of
+ * each logical table that its TriplesMaps reference, so that only those
+ * columns need to be read from the database.
+ * <p>
+ * Columns are collected from the {@code rr:column} and {@code rr:template}
+ * of every term map, and from the join conditions of referencing object
+ * maps, where the parent columns belong to the table of the parent
+ * TriplesMap. Only logical tables given by {@code rr:tableName} are
+ * analysed, as the columns of a {@code rr:sqlQuery} are defined by the query.
+ */
+public class R2RMLColumnAnalyser {
+
+    private static final String RR = "http://www.w3.org/ns/r2rml#";
+    private static final Property LOGICAL_TABLE = property("logicalTable");
+    private static final Property TABLE_NAME = property("tableName");
+    private static final Property COLUMN = property("column");
+    private static final Property TEMPLATE = property("template");
+    private static final Property PARENT_TRIPLES_MAP = property("parentTriplesMap");
+    private static final Property JOIN_CONDITION = property("joinCondition");
+    private static final Property CHILD = property("child");
+    private static final Property PARENT = property("parent");
+
+    /**
+     * Returns an {@link Property} in the R2RML namespace with the given name.
+     */
+    private static Property property(String name) {
+        return ResourceFactory.createProperty(RR, name);
+    }
+
+    /**
+     * Returns the columns referenced for each table name of the R2RML file at
+     * the given path. If a table is used by more than one TriplesMap, the
+     * columns of all of them are returned for the table.
+     *
+     * @param path the path of the R2RML file to analyse
+     * @return the map of table name to the columns referenced from it
+     */
+    public Map<String, Set<String>> analyse(@NonNull String path) {
+        return analyse(RDFDataMgr.loadModel(path));
+    }
+
+    /**
+     * Returns the columns referenced for each table name of the given R2RML
+     * model.
+     *
+     * @param model the model containing the R2RML mapping
+     * @return the map of table name to the columns referenced from it
+     */
+    public Map<String, Set<String>> analyse(@NonNull Model model) {
+        Map<String, Set<String>> columns = new HashMap<>();
+        StmtIterator triplesMaps = model.listStatements(null, LOGICAL_TABLE, (RDFNode) null);
+        while (triplesMaps.hasNext()) {
+            Statement statement = triplesMaps.next();
+            String table = getTableName(statement.getObject());
+            if (table != null) {
+                collectColumns(statement.getSubject(), columns.computeIfAbsent(table, (k) -> new LinkedHashSet<>()));
+            }
+        }
+        StmtIterator joins = model.listStatements(null, JOIN_CONDITION, (RDFNode) null);
+        while (joins.hasNext()) {
+            Statement statement = joins.next();
+            Resource parentMap = statement.getSubject().getPropertyResourceValue(PARENT_TRIPLES_MAP);
+            if (parentMap == null || !statement.getObject().isResource()) {
+                continue;
+            }
+            String table = getTableName(parentMap.getPropertyResourceValue(LOGICAL_TABLE));
+            Statement parent = statement.getObject().asResource().getProperty(PARENT);
+            if (table != null && parent != null) {
+                columns.computeIfAbsent(table, (k) -> new LinkedHashSet<>()).add(parent.getString());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the table name of the logical table, or null if the logical
+     * table is not given by a table name.
+     */
+    private String getTableName(RDFNode logicalTable) {
+        if (logicalTable == null || !logicalTable.isResource()) {
+            return null;
+        }
+        Statement tableName = logicalTable.asResource().getProperty(TABLE_NAME);
+        return tableName == null ? null : tableName.getString();
+    }
+
+    /**
+     * Collects the columns referenced by the term maps of the TriplesMap. Only
+     * R2RML properties are followed, and never into the logical table or a
+     * parent TriplesMap, so that only this TriplesMap is visited.
+     */
+    private void collectColumns(Resource triplesMap, Set<String> columns) {
+        Set<Resource> visited = new HashSet<>();
+        Deque<Resource> pending = new ArrayDeque<>();
+        pending.push(triplesMap);
+        while (!pending.isEmpty()) {
+            Resource node = pending.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            StmtIterator statements = node.listProperties();
+            while (statements.hasNext()) {
+                Statement statement = statements.next();
+                Property predicate = statement.getPredicate();
+                RDFNode object = statement.getObject();
+                if (predicate.equals(COLUMN) || predicate.equals(CHILD)) {
+                    columns.add(object.asLiteral().getString());
+                } else if (predicate.equals(TEMPLATE)) {
+                    columns.addAll(parseTemplate(object.asLiteral().getString()));
+                } else if (object.isResource() && RR.equals(predicate.getNameSpace())
+                        && !predicate.equals(LOGICAL_TABLE) && !predicate.equals(PARENT_TRIPLES_MAP)) {
+                    pending.push(object.asResource());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the column names enclosed in curly braces in the template.
+     * Braces escaped with a backslash are not column references.
+     *
+     * @param template the template string of a term map
+     * @return the column names referenced in the template
+     */
+    static Set<String> parseTemplate(@NonNull String template) {
+        Set<String> columns = new LinkedHashSet<>();
+        StringBuilder column = null;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '\\' && i + 1 < template.length()) {
+                i++;
+                if (column != null) {
+                    column.append(template.charAt(i));
+                }
+            } else if (c == '{' && column == null) {
+                column = new StringBuilder();
+            } else if (c == '}' && column != null) {
+                columns.add(column.toString());
+                column = null;
+            } else if (column != null) {
+                column.append(c);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import io.github.jiefenn8.rdfweaver.mapping.Change;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class handles the reading of a journal table that records every
+ * changed row, such as one filled by triggers on the mapped tables.
+ * <p>
+ * The journal table must have the columns {@code SEQ}, an increasing
+ * positive number giving the order of the changes, {@code OP}, the
+ * operation as {@code I}, {@code U} or {@code D}, {@code TABLE_NAME}, the
+ * table of the changed row, and {@code ROW_KEY}, the primary key value of
+ * the changed row.
+ */
+class ChangeJournal {
+
+    static final String SEQUENCE_COLUMN = "SEQ";
+    private final String query;
+
+    /**
+     * Constructs a {@code ChangeJournal} instance reading from the specified
+     * journal table.
+     *
+     * @param dialect the dialect of the database holding the journal
+     * @param table   the name of the journal table
+     */
+    ChangeJournal(@NonNull SQLDialect dialect, @NonNull String table) {
+        String sequence = dialect.quoteIdentifier(SEQUENCE_COLUMN);
+        query = "SELECT " + sequence + ", " + dialect.quoteIdentifier("OP") + ", "
+                + dialect.quoteIdentifier("TABLE_NAME") + ", " + dialect.quoteIdentifier("ROW_KEY")
+                + " FROM " + dialect.quoteQualifiedName(table)
+                + " WHERE " + sequence + " > ? ORDER BY " + sequence;
+    }
+
+    /**
+     * Returns the changes recorded after the given sequence number, in
+     * sequence order.
+     *
+     * @param conn  the connection to read the journal with
+     * @param after the sequence number of the last change already read
+     * @param limit the maximum number of changes to return
+     * @return the changes after the sequence number
+     * @throws SQLException if the journal can't be read
+     */
+    List<Change> read(@NonNull Connection conn, long after, @Positive int limit) throws SQLException {
+        List<Change> changes = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setMaxRows(limit);
+            stmt.setLong(1, after);
+            try (ResultSet results = stmt.executeQuery()) {
+                while (results.next()) {
+                    changes.add(new Change(results.getLong(1), Change.Operation.of(results.getString(2)),
+                            results.getString(3), results.getString(4)));
+                }
+            }
+        }
+        return changes;
+    }
+}
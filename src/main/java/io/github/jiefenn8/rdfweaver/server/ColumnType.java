@@ -0,0 +1,279 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * This enum defines how each SQL column type is read from a result set and
+ * the canonical lexical form of its values, as defined by the R2RML natural
+ * mapping of SQL values.
+ * <p>
+ * Integer, floating point and boolean columns are read as primitives, every
+ * other column is read as an object. A single precision column is read as a
+ * float, and its lexical form is the shortest one that reads back as the
+ * same float, so {@code 1.1} is not given the digits of its double
+ * widening. The canonical lexical form of a value is only produced when it
+ * is asked for, and can be parsed back into the value it was produced from.
+ */
+enum ColumnType {
+
+    INTEGER,
+    DECIMAL,
+    DOUBLE,
+    REAL,
+    BOOLEAN,
+    DATE,
+    TIME,
+    TIMESTAMP,
+    BINARY,
+    STRING;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Returns the column type for the given SQL type from
+     * {@link java.sql.Types}, precision and scale. A numeric or decimal
+     * column of scale 0 with at most {@value #MAX_LONG_DIGITS} digits, such
+     * as an Oracle {@code NUMBER(4)}, is read as an integer so that its
+     * values are given without a fraction.
+     *
+     * @param sqlType   the SQL type of the column
+     * @param precision the number of digits of the column
+     * @param scale     the number of digits after the decimal point
+     * @return the column type to read the column as
+     */
+    static ColumnType of(int sqlType, int precision, int scale) {
+        boolean decimal = sqlType == Types.NUMERIC || sqlType == Types.DECIMAL;
+        if (decimal && scale == 0 && precision > 0 && precision <= MAX_LONG_DIGITS) {
+            return INTEGER;
+        }
+        return of(sqlType);
+    }
+
+    /**
+     * Returns the column type for the given SQL type from
+     * {@link java.sql.Types}. Any type without a natural mapping is read as
+     * a string.
+     *
+     * @param sqlType the SQL type of the column
+     * @return the column type to read the column as
+     */
+    static ColumnType of(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return INTEGER;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return DECIMAL;
+            case Types.REAL:
+                return REAL;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+                return TIME;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return BINARY;
+            default:
+                return STRING;
+        }
+    }
+
+    /**
+     * Reads the value of the given column of the current row as an object of
+     * the Java type this column type is bound with, or null if it is null.
+     *
+     * @param resultSet the result set positioned on the row to read
+     * @param column    the index of the column to read, starting from 1
+     * @return the value of the column
+     * @throws SQLException if the value can't be read
+     */
+    Object read(ResultSet resultSet, int column) throws SQLException {
+        Object value;
+        switch (this) {
+            case INTEGER:
+                value = resultSet.getLong(column);
+                break;
+            case DECIMAL:
+                value = resultSet.getBigDecimal(column);
+                break;
+            case DOUBLE:
+                value = resultSet.getDouble(column);
+                break;
+            case REAL:
+                value = resultSet.getFloat(column);
+                break;
+            case BOOLEAN:
+                value = resultSet.getBoolean(column);
+                break;
+            case DATE:
+                value = resultSet.getDate(column);
+                break;
+            case TIME:
+                value = resultSet.getTime(column);
+                break;
+            case TIMESTAMP:
+                value = resultSet.getTimestamp(column);
+                break;
+            case BINARY:
+                value = resultSet.getBytes(column);
+                break;
+            default:
+                value = resultSet.getString(column);
+                break;
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Returns the value of the given canonical lexical form as an object of
+     * the Java type this column type is bound with.
+     *
+     * @param lexicalForm the lexical form to parse
+     * @return the value of the lexical form
+     * @throws IllegalArgumentException if the lexical form is not valid
+     */
+    Object parse(String lexicalForm) {
+        switch (this) {
+            case INTEGER:
+                return Long.parseLong(lexicalForm);
+            case DECIMAL:
+                return new BigDecimal(lexicalForm);
+            case DOUBLE:
+                return "INF".equals(lexicalForm) ? Double.POSITIVE_INFINITY
+                        : "-INF".equals(lexicalForm) ? Double.NEGATIVE_INFINITY : Double.parseDouble(lexicalForm);
+            case REAL:
+                return "INF".equals(lexicalForm) ? Float.POSITIVE_INFINITY
+                        : "-INF".equals(lexicalForm) ? Float.NEGATIVE_INFINITY : Float.parseFloat(lexicalForm);
+            case BOOLEAN:
+                return Boolean.parseBoolean(lexicalForm);
+            case DATE:
+                return Date.valueOf(lexicalForm);
+            case TIME:
+                return Time.valueOf(LocalTime.parse(lexicalForm));
+            case TIMESTAMP:
+                return Timestamp.valueOf(LocalDateTime.parse(lexicalForm));
+            case BINARY:
+                return fromHex(lexicalForm);
+            default:
+                return lexicalForm;
+        }
+    }
+
+    /**
+     * Returns the canonical lexical form of an integer or boolean value read
+     * as a primitive.
+     *
+     * @param value the value of the column
+     * @return the lexical form of the value
+     */
+    String toLexicalForm(long value) {
+        if (this == BOOLEAN) {
+            return value != 0 ? "true" : "false";
+        }
+        return Long.toString(value);
+    }
+
+    /**
+     * Returns the canonical lexical form of a floating point value, which is
+     * always in scientific notation such as {@code 1.5E2}. The value of a
+     * single precision column is formatted as a float.
+     *
+     * @param value the value of the column
+     * @return the lexical form of the value
+     */
+    String toLexicalForm(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "INF" : "-INF";
+        }
+        if (value == 0) {
+            return "0.0E0";
+        }
+        BigDecimal decimal = this == REAL ? new BigDecimal(Float.toString((float) value)) : BigDecimal.valueOf(value);
+        int exponent = decimal.precision() - decimal.scale() - 1;
+        String mantissa = decimal.movePointLeft(exponent).stripTrailingZeros().toPlainString();
+        return (mantissa.indexOf('.') < 0 ? mantissa + ".0" : mantissa) + "E" + exponent;
+    }
+
+    /**
+     * Returns the canonical lexical form of a value read as an object.
+     *
+     * @param value the value of the column
+     * @return the lexical form of the value
+     */
+    String toLexicalForm(Object value) {
+        switch (this) {
+            case INTEGER:
+                return toLexicalForm(((Number) value).longValue());
+            case DOUBLE:
+            case REAL:
+                return toLexicalForm(((Number) value).doubleValue());
+            case BOOLEAN:
+                return toLexicalForm((Boolean) value ? 1L : 0L);
+            case DECIMAL:
+                String decimal = ((BigDecimal) value).stripTrailingZeros().toPlainString();
+                return decimal.indexOf('.') < 0 ? decimal + ".0" : decimal;
+            case DATE:
+                return ((Date) value).toLocalDate().toString();
+            case TIME:
+                return DateTimeFormatter.ISO_LOCAL_TIME.format(((Time) value).toLocalTime());
+            case TIMESTAMP:
+                return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(((Timestamp) value).toLocalDateTime());
+            case BINARY:
+                return toHex((byte[]) value);
+            default:
+                return value.toString();
+        }
+    }
+
+    /**
+     * Returns the bytes as upper case hexadecimal digits.
+     */
+    private static String toHex(byte[] bytes) {
+        char[] digits = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            digits[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            digits[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Returns the bytes of the given hexadecimal digits.
+     */
+    private static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Hex value must have an even number of digits: " + hex);
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}
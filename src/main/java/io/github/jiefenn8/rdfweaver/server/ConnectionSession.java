@@ -0,0 +1,172 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import io.github.jiefenn8.rdfweaver.mapping.SessionSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements {@link SessionSource.Session} that leases pooled
+ * connections for the queries of a single thread and keeps them, with their
+ * prepared statements, until the session is closed.
+ * <p>
+ * A connection is only reused once the results of its last query have been
+ * closed, as most drivers can't read two streamed results on one connection
+ * at a time. A query made while another query of the session is still being
+ * read, such as the parent of a join, leases a second connection instead.
+ */
+class ConnectionSession implements SessionSource.Session {
+
+    private static final Logger LOGGER = LogManager.getLogger(ConnectionSession.class);
+    private final DataSource dataSource;
+    private final int statementCacheSize;
+    private final Runnable onClose;
+    private final Deque<Lease> idle = new ArrayDeque<>();
+    private final List<Lease> leases = new ArrayList<>();
+
+    /**
+     * Constructs a {@code ConnectionSession} instance leasing connections from
+     * the specified data source.
+     *
+     * @param dataSource         the pool to lease connections from
+     * @param statementCacheSize the number of statements to keep per connection
+     * @param onClose            the action to run once the session is closed
+     */
+    ConnectionSession(@NonNull DataSource dataSource, @Positive int statementCacheSize, @NonNull Runnable onClose) {
+        this.dataSource = dataSource;
+        this.statementCacheSize = statementCacheSize;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Returns an idle connection of this session, leasing a new one from the
+     * pool if every connection of this session is in use.
+     *
+     * @return the lease of the connection to query with
+     * @throws SQLException if a connection can't be leased from the pool
+     */
+    Lease acquire() throws SQLException {
+        Lease lease = idle.pollFirst();
+        if (lease == null) {
+            lease = new Lease(dataSource.getConnection());
+            leases.add(lease);
+            LOGGER.debug("Session leased connection {} of this thread.", leases.size());
+        }
+        return lease;
+    }
+
+    /**
+     * Returns the connection to this session for the next query to reuse.
+     *
+     * @param lease the lease of the connection that is no longer in use
+     */
+    void release(@NonNull Lease lease) {
+        idle.addFirst(lease);
+    }
+
+    /**
+     * Closes the connection of a failed query instead of returning it to
+     * this session, as the connection may be broken. The pool replaces a
+     * broken connection with a new one.
+     *
+     * @param lease the lease of the connection that failed
+     */
+    void discard(@NonNull Lease lease) {
+        leases.remove(lease);
+        idle.remove(lease);
+        lease.close();
+    }
+
+    @Override
+    public void close() {
+        for (Lease lease : leases) {
+            lease.close();
+        }
+        leases.clear();
+        idle.clear();
+        onClose.run();
+    }
+
+    /**
+     * A connection leased by the session with the prepared statements of the
+     * most recent queries on it.
+     */
+    class Lease {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements;
+
+        private Lease(Connection connection) {
+            this.connection = connection;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= statementCacheSize) {
+                        return false;
+                    }
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        /**
+         * Returns the connection of this lease.
+         *
+         * @return the leased connection
+         */
+        Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Returns the statement for the query on this connection, preparing it
+         * only the first time the query is made in this session.
+         *
+         * @param query     the query to get the statement of
+         * @param fetchSize the number of rows to fetch per round trip
+         * @return the statement with the parameters of the query set
+         * @throws SQLException if the statement can't be prepared
+         */
+        PreparedStatement prepare(@NonNull PreparedQuery query, int fetchSize) throws SQLException {
+            PreparedStatement stmt = statements.get(query.getSql());
+            if (stmt == null || stmt.isClosed()) {
+                stmt = query.prepare(connection, fetchSize);
+                statements.put(query.getSql(), stmt);
+                return stmt;
+            }
+            query.bind(stmt, fetchSize);
+            return stmt;
+        }
+
+        private void close() {
+            statements.values().forEach(ConnectionSession::closeQuietly);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ex) {
+                LOGGER.warn("Failed to return session connection to pool.", ex);
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException ex) {
+            LOGGER.debug("Failed to close cached statement.", ex);
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package io.github.jiefenn8.rdfweaver.server;
 
 import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.pool.HikariPool.PoolInitializationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class handles the base configuration and creation of {@link DataSource} using
  * connection pooling for SQL databases.
+ * <p>
+ * The pool size and connection timeout can be given with the Hikari property
+ * names in the server configuration, otherwise the defaults are used. The
+ * pool is capped to the connection limit reported by the database and every
+ * connection is opened in parallel before the data source is returned.
  */
 public class DataSourceFactory {
 
+    private static final Logger LOGGER = LogManager.getLogger(DataSourceFactory.class);
     private static final int POOL_SIZE = 5;
     private static final int TIMEOUT_DURATION = 10000;
+    private static final String POOL_NAME = "rdfweaver-pool";
 
     /**
      * Returns a DataSource with a established connection with a database with the
@@ -29,8 +47,85 @@ public class DataSourceFactory {
      */
     protected DataSource getDataSource(@NonNull Properties config) {
         HikariConfig serverConfig = new HikariConfig(config);
-        serverConfig.setMaximumPoolSize(POOL_SIZE);
-        serverConfig.setConnectionTimeout(TIMEOUT_DURATION);
-        return new HikariDataSource(serverConfig);
+        if (!config.containsKey("maximumPoolSize")) {
+            serverConfig.setMaximumPoolSize(POOL_SIZE);
+        }
+        if (!config.containsKey("connectionTimeout")) {
+            serverConfig.setConnectionTimeout(TIMEOUT_DURATION);
+        }
+        serverConfig.setPoolName(POOL_NAME);
+        PoolWaitTracker waitTracker = new PoolWaitTracker(POOL_NAME);
+        serverConfig.setMetricsTrackerFactory((poolName, poolStats) -> waitTracker);
+        HikariDataSource dataSource = new HikariDataSource(serverConfig);
+        capToDatabaseLimit(dataSource);
+        prewarm(dataSource);
+        waitTracker.reset();
+        return dataSource;
+    }
+
+    /**
+     * Lowers the pool size to the maximum number of connections reported by
+     * the database, if the database reports one below the pool size.
+     */
+    private void capToDatabaseLimit(HikariDataSource dataSource) {
+        try (Connection conn = dataSource.getConnection()) {
+            int limit = conn.getMetaData().getMaxConnections();
+            if (limit > 0 && limit < dataSource.getMaximumPoolSize()) {
+                LOGGER.warn("Database allows {} connections, lowering pool size from {}.",
+                        limit, dataSource.getMaximumPoolSize());
+                HikariConfigMXBean poolConfig = dataSource.getHikariConfigMXBean();
+                poolConfig.setMaximumPoolSize(limit);
+                poolConfig.setMinimumIdle(Math.min(poolConfig.getMinimumIdle(), limit));
+            }
+        } catch (SQLException ex) {
+            LOGGER.warn("Could not read connection limit of database, keeping pool size.", ex);
+        }
+    }
+
+    /**
+     * Opens every connection of the pool in parallel and returns them to the
+     * pool, so that mapping does not wait on connections being opened one at
+     * a time by the pool. A failure only leaves the pool partly warmed.
+     */
+    private void prewarm(HikariDataSource dataSource) {
+        int size = dataSource.getMaximumPoolSize();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(size, (runnable) -> {
+            Thread thread = new Thread(runnable, "pool-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Connection>> futures = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < size; i++) {
+                futures.add(executor.submit(() -> dataSource.getConnection()));
+            }
+            for (Future<Connection> future : futures) {
+                try {
+                    connections.add(future.get());
+                } catch (ExecutionException ex) {
+                    LOGGER.warn("Could not open pooled connection in advance.", ex.getCause());
+                }
+            }
+            LOGGER.info("Opened {} of {} pooled connections in {} ms.", connections.size(), size,
+                    (System.nanoTime() - start) / 1000000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+            connections.forEach(this::closeQuietly);
+        }
+    }
+
+    /**
+     * Returns the connection to the pool, ignoring any failure to do so.
+     */
+    private void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ex) {
+            LOGGER.debug("Failed to return connection to pool.", ex);
+        }
     }
 }
@@ -1,7 +1,11 @@
 package io.github.jiefenn8.rdfweaver.server;
 
+import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.List;
+import java.util.Properties;
+
 /**
  * Enum class that defines all the supported JDBC driver and their classes.
  */
@@ -10,19 +14,23 @@ public enum JDBCDriver {
     /**
      * All supported JDBC driver class listed below.
      */
-    UNDEFINED(""),
-    MSSQL("com.microsoft.sqlserver.jdbc.SQLServerDataSource"),
-    MYSQL("com.mysql.cj.jdbc.MysqlDataSource"),
-    ORACLE("oracle.jdbc.pool.OracleDataSource");
+    UNDEFINED("", new SQLDialect('"', '"', false)),
+    MSSQL("com.microsoft.sqlserver.jdbc.SQLServerDataSource", new SQLDialect('[', ']', false)),
+    MYSQL("com.mysql.cj.jdbc.MysqlDataSource", new SQLDialect('`', '`', false)),
+    ORACLE("oracle.jdbc.pool.OracleDataSource", new SQLDialect('"', '"', true));
 
+    private static final String LOB_PREFETCH_SIZE = "32768";
+    private static final String PREP_STMT_SQL_LIMIT = "2048";
     private final String driverClass;
+    private final SQLDialect dialect;
 
     /**
      * Constructs a driver class enum with the specified name of the class that will
-     * handle this driver.
+     * handle this driver and the SQL dialect of its database.
      */
-    JDBCDriver(@NonNull String driverClass) {
+    JDBCDriver(@NonNull String driverClass, @NonNull SQLDialect dialect) {
         this.driverClass = driverClass;
+        this.dialect = dialect;
     }
 
     /**
@@ -33,4 +41,120 @@ public enum JDBCDriver {
     public String getClassName() {
         return this.driverClass;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the SQL dialect of the database of this driver.
+     *
+     * @return the SQL dialect for this driver
+     */
+    public SQLDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Returns the data source properties of this driver that make query results
+     * stream from the database in round trips of the given fetch size, instead
+     * of being buffered whole by the driver. A fetch size of zero leaves the
+     * fetching to the driver default.
+     * <p>
+     * SQL Server uses adaptive response buffering, which streams results with
+     * the default direct select method. MySQL uses server side cursors. Oracle
+     * uses row prefetch together with LOB prefetch so that LOB columns do not
+     * need a round trip of their own.
+     *
+     * @param fetchSize   the number of rows to fetch per round trip
+     * @param compression true to compress network traffic if the driver can
+     * @return the data source properties for this driver
+     */
+    public Properties getStreamingProperties(@NonNegative int fetchSize, boolean compression) {
+        Properties properties = new Properties();
+        switch (this) {
+            case MSSQL:
+                properties.setProperty("responseBuffering", "adaptive");
+                break;
+            case MYSQL:
+                if (fetchSize > 0) {
+                    properties.setProperty("useCursorFetch", "true");
+                    properties.setProperty("defaultFetchSize", String.valueOf(fetchSize));
+                }
+                properties.setProperty("useCompression", String.valueOf(compression));
+                break;
+            case ORACLE:
+                Properties connectionProperties = new Properties();
+                if (fetchSize > 0) {
+                    connectionProperties.setProperty("defaultRowPrefetch", String.valueOf(fetchSize));
+                }
+                connectionProperties.setProperty("oracle.jdbc.defaultLobPrefetchSize", LOB_PREFETCH_SIZE);
+                if (compression) {
+                    connectionProperties.setProperty("oracle.net.networkCompression", "on");
+                }
+                properties.put("connectionProperties", connectionProperties);
+                break;
+            case UNDEFINED:
+            default:
+                break;
+        }
+        return properties;
+    }
+
+    /**
+     * Returns the data source properties of this driver that cache prepared
+     * statements per connection, so that repeated queries skip parsing and
+     * planning on the database. A cache size of zero disables the cache.
+     *
+     * @param cacheSize the number of statements to cache per connection
+     * @return the data source properties for this driver
+     */
+    public Properties getStatementCacheProperties(@NonNegative int cacheSize) {
+        Properties properties = new Properties();
+        if (cacheSize == 0) {
+            return properties;
+        }
+        switch (this) {
+            case MSSQL:
+                properties.setProperty("disableStatementPooling", "false");
+                properties.setProperty("statementPoolingCacheSize", String.valueOf(cacheSize));
+                break;
+            case MYSQL:
+                properties.setProperty("cachePrepStmts", "true");
+                properties.setProperty("useServerPrepStmts", "true");
+                properties.setProperty("prepStmtCacheSize", String.valueOf(cacheSize));
+                properties.setProperty("prepStmtCacheSqlLimit", PREP_STMT_SQL_LIMIT);
+                break;
+            case ORACLE:
+                Properties connectionProperties = new Properties();
+                connectionProperties.setProperty("oracle.jdbc.implicitStatementCacheSize", String.valueOf(cacheSize));
+                properties.put("connectionProperties", connectionProperties);
+                break;
+            case UNDEFINED:
+            default:
+                break;
+        }
+        return properties;
+    }
+
+    /**
+     * Returns a SQL predicate that is true for the rows whose hash of the given
+     * columns falls into the given bucket out of the total number of buckets.
+     * Every row falls into exactly one bucket. Returns null if this driver has
+     * no hash function to use.
+     *
+     * @param columns the columns to hash, usually the key of the table
+     * @param buckets the total number of buckets
+     * @param bucket  the bucket the predicate is true for, starting from zero
+     * @return the SQL predicate for the bucket, or null if not supported
+     */
+    public String getHashBucketPredicate(@NonNull List<String> columns, int buckets, @NonNegative int bucket) {
+        switch (this) {
+            case MSSQL:
+                return "ABS(CAST(CHECKSUM(" + String.join(", ", columns) + ") AS BIGINT)) % " + buckets + " = " + bucket;
+            case MYSQL:
+                return "CRC32(CONCAT_WS('|', " + String.join(", ", columns) + ")) % " + buckets + " = " + bucket;
+            case ORACLE:
+                return "ORA_HASH(" + String.join(" || '|' || ", columns) + ", " + (buckets - 1) + ") = " + bucket;
+            case UNDEFINED:
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements {@link IMetricsTracker} and records how long the
+ * connection pool made callers wait for a connection. The totals are logged
+ * when the pool is closed, to show whether the pool is too small for the
+ * work given to it.
+ */
+class PoolWaitTracker implements IMetricsTracker {
+
+    private static final Logger LOGGER = LogManager.getLogger(PoolWaitTracker.class);
+    private final String poolName;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Constructs a {@code PoolWaitTracker} instance for the pool of the
+     * specified name.
+     *
+     * @param poolName the name of the pool to track
+     */
+    PoolWaitTracker(@NonNull String poolName) {
+        this.poolName = poolName;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquired.increment();
+        waitNanos.add(elapsedAcquiredNanos);
+        maxWaitNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Returns the number of connections handed out by the pool.
+     *
+     * @return the number of connections handed out
+     */
+    long getAcquired() {
+        return acquired.sum();
+    }
+
+    /**
+     * Returns the total time spent waiting for a connection in milliseconds.
+     *
+     * @return the total wait time in milliseconds
+     */
+    long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    /**
+     * Returns the longest time spent waiting for a connection in milliseconds.
+     *
+     * @return the longest wait time in milliseconds
+     */
+    long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * Returns the number of requests that timed out waiting for a connection.
+     *
+     * @return the number of timed out requests
+     */
+    long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Clears every recorded value, such as after warming up the pool.
+     */
+    void reset() {
+        acquired.reset();
+        waitNanos.reset();
+        maxWaitNanos.reset();
+        timeouts.reset();
+    }
+
+    @Override
+    public void close() {
+        LOGGER.info("Pool '{}' handed out {} connections, waited {} ms in total and {} ms at most, {} timeouts.",
+                poolName, getAcquired(), getTotalWaitMillis(), getMaxWaitMillis(), getTimeouts());
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * This class holds a query that is ready to be executed, with its SQL text
+ * and the values of its parameters, and creates the forward only
+ * {@link PreparedStatement} to execute it with.
+ */
+class PreparedQuery {
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    /**
+     * Constructs a {@code PreparedQuery} instance with the specified SQL text
+     * and values of its parameters, in order.
+     *
+     * @param sql        the SQL text of the query
+     * @param parameters the values of the parameters of the query
+     */
+    PreparedQuery(@NonNull String sql, @NonNull List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = List.copyOf(parameters);
+    }
+
+    /**
+     * Returns the SQL text of this query.
+     *
+     * @return the SQL text of this query
+     */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the values of the parameters of this query, in order.
+     *
+     * @return the values of the parameters
+     */
+    List<Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns a forward only, read only statement for this query on the given
+     * connection, with its parameters set and the given fetch size.
+     *
+     * @param conn      the connection to prepare the statement on
+     * @param fetchSize the number of rows to fetch per round trip
+     * @return the prepared statement ready to execute
+     * @throws SQLException if the statement can't be prepared
+     */
+    PreparedStatement prepare(@NonNull Connection conn, @NonNegative int fetchSize) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            bind(stmt, fetchSize);
+            return stmt;
+        } catch (SQLException ex) {
+            stmt.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Sets the parameters of this query and the given fetch size on a
+     * statement already prepared for this query, so it can be executed again.
+     *
+     * @param stmt      the statement prepared for this query
+     * @param fetchSize the number of rows to fetch per round trip
+     * @throws SQLException if the parameters can't be set
+     */
+    void bind(@NonNull PreparedStatement stmt, @NonNegative int fetchSize) throws SQLException {
+        stmt.setFetchSize(fetchSize);
+        for (int i = 0; i < parameters.size(); i++) {
+            stmt.setObject(i + 1, parameters.get(i));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return parameters.isEmpty() ? sql : sql + " " + parameters;
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class handles the planning of the select list of a table query from
+ * the columns that the mapping references from the table.
+ * <p>
+ * Only the referenced columns are selected if every one of them exists in
+ * the table. If the referenced columns do not cover the primary key of the
+ * table, rows can repeat the same values and so the same triples. When asked
+ * to, the duplicates are then removed by the database with {@code DISTINCT}.
+ * {@code DISTINCT} is not used on large object columns, which most databases
+ * can't compare.
+ */
+class ProjectionPlanner {
+
+    private static final Logger LOGGER = LogManager.getLogger(ProjectionPlanner.class);
+    private static final String ALL_COLUMNS = "*";
+    private static final Set<Integer> LOB_TYPES = Set.of(
+            Types.BLOB, Types.CLOB, Types.NCLOB, Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.LONGVARBINARY,
+            Types.SQLXML
+    );
+    private final SQLDialect dialect;
+    private final boolean distinct;
+
+    /**
+     * Constructs a {@code ProjectionPlanner} instance that delimits the
+     * selected columns with the specified dialect, and selects distinct rows
+     * when the columns do not cover the primary key if asked to.
+     *
+     * @param dialect  the dialect of the database holding the tables
+     * @param distinct true to select distinct rows when the key isn't covered
+     */
+    ProjectionPlanner(@NonNull SQLDialect dialect, boolean distinct) {
+        this.dialect = dialect;
+        this.distinct = distinct;
+    }
+
+    /**
+     * Returns the select list for a query of the table that reads only the
+     * given referenced columns. Returns all columns if any referenced column
+     * is not found in the table.
+     *
+     * @param conn       the connection to read the table metadata with
+     * @param table      the name of the table as written in a query
+     * @param referenced the columns referenced from the table by the mapping
+     * @return the select list for the table query
+     * @throws SQLException if the table metadata can't be read
+     */
+    String planSelectList(@NonNull Connection conn, @NonNull String table, @NonNull Set<String> referenced)
+            throws SQLException {
+        if (referenced.isEmpty()) {
+            return ALL_COLUMNS;
+        }
+        DatabaseMetaData metaData = conn.getMetaData();
+        Map<String, Integer> columnTypes = TableMetadata.getColumnTypes(metaData, conn.getCatalog(), table);
+        List<String> columns = new ArrayList<>();
+        boolean hasLob = false;
+        for (String column : referenced) {
+            Integer type = findType(columnTypes, column);
+            if (type == null) {
+                LOGGER.debug("Column '{}' not found in '{}', selecting all columns.", column, table);
+                return ALL_COLUMNS;
+            }
+            hasLob |= LOB_TYPES.contains(type);
+            columns.add(dialect.quoteIdentifier(column));
+        }
+        String selectList = String.join(", ", columns);
+        if (!distinct || hasLob) {
+            LOGGER.info("Selecting {} of {} columns from '{}'.", columns.size(), columnTypes.size(), table);
+            return selectList;
+        }
+        List<String> keys = TableMetadata.getPrimaryKey(metaData, conn.getCatalog(), table);
+        if (!keys.isEmpty() && !coversKey(referenced, keys)) {
+            LOGGER.debug("Columns of '{}' do not cover its key, selecting distinct rows.", table);
+            selectList = "DISTINCT " + selectList;
+        }
+        LOGGER.info("Selecting {} of {} columns from '{}'.", columns.size(), columnTypes.size(), table);
+        return selectList;
+    }
+
+    /**
+     * Returns the SQL type of the given column, matching names without their
+     * delimiters and case, or null if the table has no such column.
+     */
+    private Integer findType(Map<String, Integer> columnTypes, String column) {
+        String name = TableMetadata.undelimit(column);
+        for (Map.Entry<String, Integer> entry : columnTypes.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if every key column is one of the referenced columns.
+     */
+    private boolean coversKey(Set<String> referenced, List<String> keys) {
+        for (String key : keys) {
+            boolean found = referenced.stream()
+                    .anyMatch((column) -> TableMetadata.undelimit(column).equalsIgnoreCase(key));
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
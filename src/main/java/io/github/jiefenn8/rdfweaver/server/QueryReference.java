@@ -0,0 +1,82 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.rdf.r2rml.DatabaseType;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements {@link EntityReference} for a SQL query generated by
+ * this application in place of the query of another entity reference. The
+ * query is complete and already delimited, and may have parameters.
+ */
+public class QueryReference implements EntityReference {
+
+    private final String query;
+    private final List<Object> parameters;
+
+    /**
+     * Constructs a {@code QueryReference} instance with the specified SQL
+     * query as its payload.
+     *
+     * @param query the SQL query to locate the entities with
+     */
+    public QueryReference(@NonNull String query) {
+        this(query, List.of());
+    }
+
+    /**
+     * Constructs a {@code QueryReference} instance with the specified SQL
+     * query as its payload and the values of its parameters, in order.
+     *
+     * @param query      the SQL query to locate the entities with
+     * @param parameters the values of the parameters of the query
+     */
+    public QueryReference(@NonNull String query, @NonNull List<Object> parameters) {
+        this.query = query;
+        this.parameters = List.copyOf(parameters);
+    }
+
+    @Override
+    public String getPayload() {
+        return query;
+    }
+
+    @Override
+    public PayloadType getPayloadType() {
+        return DatabaseType.QUERY;
+    }
+
+    /**
+     * Returns the values of the parameters of the query, in order.
+     *
+     * @return the values of the parameters
+     */
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        QueryReference that = (QueryReference) o;
+        return query.equals(that.query) && parameters.equals(that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(query, parameters);
+    }
+
+    @Override
+    public String toString() {
+        return parameters.isEmpty() ? query : query + " " + parameters;
+    }
+}
@@ -1,30 +1,94 @@
 package io.github.jiefenn8.rdfweaver.server;
 
+import com.zaxxer.hikari.HikariDataSource;
 import io.github.jiefenn8.graphloom.api.EntityReference;
 import io.github.jiefenn8.graphloom.api.InputSource;
 import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import io.github.jiefenn8.graphloom.rdf.r2rml.DatabaseType;
+import io.github.jiefenn8.rdfweaver.mapping.Change;
+import io.github.jiefenn8.rdfweaver.mapping.ChangeFeedSource;
+import io.github.jiefenn8.rdfweaver.mapping.PartitionableSource;
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
+import io.github.jiefenn8.rdfweaver.mapping.SessionSource;
+import io.github.jiefenn8.rdfweaver.mapping.TransientSourceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.index.qual.Positive;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.InetAddress;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 /**
  * This class implements {@link InputSource} and handles the retrieval of data
- * from relational data source.
+ * from relational data source. Tables can be split into partitions by their
+ * primary key so that each partition can be retrieved on its own connection.
+ * Closing this source closes its pool of connections.
+ * <p>
+ * The catalog and session settings are applied by the pool once per
+ * connection. Within a session, the queries of a thread reuse the
+ * connections and prepared statements leased for the session.
+ * <p>
+ * A table with a watermark column is read incrementally, selecting only the
+ * rows whose watermark is above the mark committed by the last run and up to
+ * the highest watermark found when the table is first queried. The highest
+ * watermark is read once per table in a run and shared by every query of the
+ * table, so that all of them read the same rows.
+ * <p>
+ * With a journal table, the changed rows recorded in the journal are read as
+ * a feed of changes after the last committed change, and each changed row is
+ * queried by its primary key with a query planned once per table. As a
+ * change can be committed to the journal after a change with a higher
+ * sequence number, a window of changes before the last committed change is
+ * read again, and mapped again as a change is mapped from the current state
+ * of its row.
+ * <p>
+ * A query failing on a transient error, such as a dropped connection or a
+ * deadlock, is retried with backoff as long as none of its results were read.
  */
-public class RelationalSource implements InputSource {
+public class RelationalSource implements PartitionableSource, SessionSource, ChangeFeedSource, AutoCloseable {
 
     private static final Logger LOGGER = LogManager.getLogger(RelationalSource.class);
     private final DataSource dataSource;
-    private final String database;
+    private final int fetchSize;
+    private final JDBCDriver driver;
+    private final int partitions;
+    private final Map<String, Integer> tablePartitions;
+    private final Map<String, Set<String>> columnReferences;
+    private final boolean distinct;
+    private final boolean canonicalValues;
+    private final Map<String, String> selectLists = new ConcurrentHashMap<>();
+    private final Map<String, PreparedQuery> queryPlans = new ConcurrentHashMap<>();
+    private final ThreadLocal<ConnectionSession> sessions = new ThreadLocal<>();
+    private final int statementCacheSize;
+    private final Map<String, String> watermarkColumns;
+    private final WatermarkStore watermarks;
+    private final Map<String, HighMark> highMarks = new HashMap<>();
+    private final String journalTable;
+    private final long journalWindow;
+    private final Map<String, String> rowQueries = new ConcurrentHashMap<>();
+    private final Map<String, String> keyColumns = new ConcurrentHashMap<>();
+    private final RetryPolicy retryPolicy;
+    private Long journalPosition;
+    private long journalMark;
 
     /**
      * Constructs a {@code RelationalSource} instance with the specified Builder
@@ -33,41 +97,367 @@ public class RelationalSource implements InputSource {
      * @param builder the builder to construct this instance
      */
     protected RelationalSource(@NonNull Builder builder) {
-        database = builder.database;
         dataSource = builder.dataSource;
+        fetchSize = builder.fetchSize;
+        driver = builder.driver;
+        partitions = builder.partitions;
+        tablePartitions = builder.tablePartitions;
+        columnReferences = builder.columnReferences;
+        distinct = builder.distinct;
+        canonicalValues = builder.canonicalValues;
+        statementCacheSize = builder.statementCacheSize;
+        watermarkColumns = builder.watermarkColumns;
+        watermarks = builder.watermarks;
+        journalTable = builder.journalTable;
+        journalWindow = builder.journalWindow;
+        retryPolicy = builder.retryPolicy;
     }
 
+    @Override
+    public Session openSession() {
+        if (sessions.get() != null) {
+            return () -> {
+            };
+        }
+        ConnectionSession session = new ConnectionSession(dataSource, Math.max(statementCacheSize, 1), sessions::remove);
+        sessions.set(session);
+        return session;
+    }
+
+    @Override
+    public List<EntityReference> partitionEntityQuery(EntityReference entityReference) {
+        int count = getPartitionCount(entityReference);
+        if (count <= 1 || entityReference.getPayloadType() != DatabaseType.TABLE_NAME) {
+            return List.of(entityReference);
+        }
+        if (findTableSetting(watermarkColumns, entityReference.getPayload()) != null) {
+            LOGGER.debug("Table '{}' is read incrementally and will not be partitioned.", entityReference.getPayload());
+            return List.of(entityReference);
+        }
+        return callWithRetry("table partitioning", () -> {
+            try (Connection conn = dataSource.getConnection()) {
+                String selectList = getSelectList(conn, entityReference);
+                List<EntityReference> references = new TablePartitioner(driver)
+                        .partition(conn, entityReference, count, selectList);
+                LOGGER.info("Split '{}' into {} partitions.", entityReference.getPayload(), references.size());
+                return references;
+            }
+        });
+    }
+
+    @Override
+    public boolean hasChangeFeed() {
+        return journalTable != null;
+    }
+
+    @Override
+    public synchronized List<Change> readChanges(@Positive int limit) {
+        if (journalTable == null) {
+            throw new IllegalStateException("No journal table given to read changes from.");
+        }
+        if (journalPosition == null) {
+            Object mark = watermarks.get(journalTable, ChangeJournal.SEQUENCE_COLUMN);
+            journalMark = mark instanceof Long ? (Long) mark : 0L;
+            journalPosition = Math.max(journalMark - journalWindow, 0);
+            LOGGER.info("Reading changes from '{}' after {}, {} before the last committed change.", journalTable,
+                    journalPosition, journalMark - journalPosition);
+        }
+        List<Change> changes = callWithRetry("journal retrieval", () -> {
+            try (Connection conn = dataSource.getConnection()) {
+                return new ChangeJournal(driver.getDialect(), journalTable).read(conn, journalPosition, limit);
+            }
+        });
+        if (!changes.isEmpty()) {
+            journalPosition = changes.get(changes.size() - 1).getSequence();
+            journalMark = Math.max(journalMark, journalPosition);
+            watermarks.update(journalTable, ChangeJournal.SEQUENCE_COLUMN, ColumnType.INTEGER, journalMark);
+        }
+        return changes;
+    }
+
+    @Override
+    public String getKeyColumn(@NonNull EntityReference entityReference) {
+        String table = entityReference.getPayload();
+        String keyColumn = keyColumns.get(table);
+        if (keyColumn != null) {
+            return keyColumn.isEmpty() ? null : keyColumn;
+        }
+        List<String> keys = callWithRetry("key retrieval", () -> {
+            try (Connection conn = dataSource.getConnection()) {
+                return TableMetadata.getPrimaryKey(conn.getMetaData(), conn.getCatalog(), table);
+            }
+        });
+        keyColumn = keys.size() == 1 ? keys.get(0) : "";
+        keyColumns.put(table, keyColumn);
+        return keyColumn.isEmpty() ? null : keyColumn;
+    }
+
+    @Override
+    public EntityReference rowEntityQuery(@NonNull EntityReference entityReference, @NonNull String key) {
+        String keyColumn = getKeyColumn(entityReference);
+        if (keyColumn == null) {
+            throw new IllegalArgumentException("Table has no single column key: " + entityReference.getPayload());
+        }
+        String rowQuery = rowQueries.get(entityReference.getPayload());
+        if (rowQuery == null) {
+            SQLDialect dialect = driver.getDialect();
+            rowQuery = callWithRetry("row query planning", () -> {
+                try (Connection conn = dataSource.getConnection()) {
+                    String selectList = getSelectList(conn, entityReference);
+                    String selectQuery = dialect.selectFrom(selectList, entityReference.getPayload());
+                    return selectQuery + " WHERE " + dialect.quoteIdentifier(keyColumn) + " = ?";
+                }
+            });
+            rowQueries.put(entityReference.getPayload(), rowQuery);
+        }
+        return new QueryReference(rowQuery, List.of(key));
+    }
+
+    @Override
+    public void commit() throws IOException {
+        if (watermarks != null) {
+            watermarks.commit();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+
+    /**
+     * Returns the number of partitions for the table of the given reference.
+     */
+    private int getPartitionCount(EntityReference entityReference) {
+        Integer count = findTableSetting(tablePartitions, entityReference.getPayload());
+        return count == null ? partitions : count;
+    }
+
+    /**
+     * Returns the table specific setting of the given table, or null if it
+     * has none. A setting can be given by the full or bare table name.
+     */
+    private static <V> V findTableSetting(Map<String, V> settings, String table) {
+        String bareTable = table.substring(table.lastIndexOf('.') + 1).replaceAll("[\\[\\]\"`]", "");
+        for (Map.Entry<String, V> entry : settings.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(table) || entry.getKey().equalsIgnoreCase(bareTable)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A query failing on a transient error before any result was given to the
+     * action is retried as allowed by the retry policy of this source. Once
+     * results are being read, a transient failure is thrown as a
+     * {@link TransientSourceException} for the caller to retry the whole read.
+     */
     @Override
     public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
-        try (Connection conn = dataSource.getConnection()) {
-            LOGGER.debug("Starting retrieval task for records.");
-            conn.setCatalog(database);
-            if (!database.isEmpty()) {
-                LOGGER.debug("Database property found. Setting catalog as {}.", database);
-                conn.setCatalog(database);
+        LOGGER.debug("Starting retrieval task for records.");
+        boolean[] started = {false};
+        Consumer<EntityResult> trackedAction = (entityResult) -> {
+            started[0] = true;
+            action.accept(entityResult);
+        };
+        callWithRetry("data retrieval", () -> !started[0], () -> {
+            ConnectionSession session = sessions.get();
+            if (session == null) {
+                try (Connection conn = dataSource.getConnection()) {
+                    PreparedQuery query = getQueryPlan(conn, entityReference);
+                    LOGGER.debug("Executing query: {}", query);
+                    try (PreparedStatement stmt = query.prepare(conn, fetchSize)) {
+                        handleResults(stmt, trackedAction);
+                    }
+                }
+            } else {
+                ConnectionSession.Lease lease = session.acquire();
+                boolean discarded = false;
+                try {
+                    PreparedQuery query = getQueryPlan(lease.getConnection(), entityReference);
+                    LOGGER.debug("Executing query in session: {}", query);
+                    handleResults(lease.prepare(query, fetchSize), trackedAction);
+                } catch (SQLException | TransientSourceException ex) {
+                    discarded = true;
+                    session.discard(lease);
+                    throw ex;
+                } finally {
+                    if (!discarded) {
+                        session.release(lease);
+                    }
+                }
+            }
+            return null;
+        });
+        LOGGER.debug("Finished retrieving all data.");
+    }
+
+    /**
+     * Returns the result of the call, retrying it on a transient failure as
+     * allowed by the retry policy of this source.
+     */
+    private <T> T callWithRetry(String task, SQLCall<T> call) {
+        return callWithRetry(task, () -> true, call);
+    }
+
+    /**
+     * Returns the result of the call, retrying it on a transient failure as
+     * allowed by the retry policy of this source while the call can still be
+     * retried. Any other failure is thrown as a {@code RuntimeException}.
+     */
+    private <T> T callWithRetry(String task, BooleanSupplier retryable, SQLCall<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.call();
+            } catch (SQLException ex) {
+                if (!retryable.getAsBoolean() || !retryPolicy.canRetry(attempt) || !TransientErrors.isTransient(ex)) {
+                    LOGGER.error("SQLException occurred during {}.", task, ex);
+                    throw new RuntimeException(ex);
+                }
+                LOGGER.warn("Transient SQLException during {}, retry {} of {} in {} ms.", task, attempt,
+                        retryPolicy.getRetries(), retryPolicy.getDelay(attempt), ex);
+                retryPolicy.backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Returns the query for the given reference. A generated
+     * {@link QueryReference} is used as it is. A table, selected from with its
+     * select list, and any other query, delimited for the dialect of the
+     * database, are planned once per table name or query text of the mapping.
+     */
+    private PreparedQuery getQueryPlan(Connection conn, EntityReference entityReference) throws SQLException {
+        String payload = Objects.requireNonNull(entityReference.getPayload());
+        if (entityReference instanceof QueryReference) {
+            return new PreparedQuery(payload, ((QueryReference) entityReference).getParameters());
+        }
+        String planKey = entityReference.getPayloadType() + ":" + payload;
+        PreparedQuery query = queryPlans.get(planKey);
+        if (query != null) {
+            return query;
+        }
+        SQLDialect dialect = driver.getDialect();
+        if (entityReference.getPayloadType() == DatabaseType.TABLE_NAME) {
+            String selectQuery = dialect.selectFrom(getSelectList(conn, entityReference), payload);
+            String column = findTableSetting(watermarkColumns, payload);
+            query = column == null
+                    ? new PreparedQuery(selectQuery, List.of())
+                    : planDeltaQuery(conn, payload, column, selectQuery);
+        } else {
+            query = new PreparedQuery(dialect.delimitQuery(payload), List.of());
+        }
+        queryPlans.put(planKey, query);
+        return query;
+    }
+
+    /**
+     * Returns the query selecting only the rows of the table changed since
+     * the last committed run, bounded above by the highest watermark of this
+     * run so that rows changed during this run are read by the next. The
+     * highest watermark becomes the mark of this run. All rows are selected
+     * if the table has no mark yet.
+     */
+    private PreparedQuery planDeltaQuery(Connection conn, String table, String column, String selectQuery)
+            throws SQLException {
+        String key = driver.getDialect().quoteIdentifier(column);
+        HighMark highMark = getHighMark(conn, table, column);
+        ColumnType columnType = highMark.columnType;
+        Object high = highMark.value;
+        Object low = watermarks.get(table, column);
+        if (high == null) {
+            LOGGER.info("No watermark found in '{}', table has no rows to map.", table);
+            return new PreparedQuery(low == null ? selectQuery : selectQuery + " WHERE 1 = 0", List.of());
+        }
+        if (low == null) {
+            LOGGER.info("No previous watermark for '{}', mapping all rows.", table);
+            return new PreparedQuery(selectQuery, List.of());
+        }
+        LOGGER.info("Mapping rows of '{}' with '{}' after {}.", table, column, columnType.toLexicalForm(low));
+        return new PreparedQuery(selectQuery + " WHERE " + key + " > ? AND " + key + " <= ?", List.of(low, high));
+    }
+
+    /**
+     * Returns the column type and the highest watermark of the table in this
+     * run, reading it on the first call for the table and returning the same
+     * mark to every call after. The mark is null if the table has no rows.
+     */
+    private HighMark getHighMark(Connection conn, String table, String column) throws SQLException {
+        String markKey = table + "#" + column;
+        synchronized (highMarks) {
+            HighMark highMark = highMarks.get(markKey);
+            if (highMark != null) {
+                return highMark;
+            }
+            SQLDialect dialect = driver.getDialect();
+            String maxQuery = "SELECT MAX(" + dialect.quoteIdentifier(column) + ") FROM " + dialect.tableName(table);
+            try (Statement stmt = conn.createStatement(); ResultSet results = stmt.executeQuery(maxQuery)) {
+                ColumnType columnType = ColumnType.of(results.getMetaData().getColumnType(1));
+                highMark = new HighMark(columnType, results.next() ? columnType.read(results, 1) : null);
             }
-            try (Statement stmt = conn.createStatement()) {
-                String query = SQLHelper.prepareQuery(entityReference);
-                handleResults(stmt, query, action);
+            if (highMark.value != null) {
+                watermarks.update(table, column, highMark.columnType, highMark.value);
             }
-            LOGGER.debug("Finished retrieving all data.");
-        } catch (SQLException ex) {
-            LOGGER.error("SQLException occurred during data retrieval.", ex);
-            throw new RuntimeException(ex);
+            highMarks.put(markKey, highMark);
+            return highMark;
         }
     }
 
+    /**
+     * Returns the select list for the query of the given reference. A table
+     * with columns referenced by the mapping is planned once to select only
+     * those columns; anything else selects all columns.
+     */
+    private String getSelectList(Connection conn, EntityReference entityReference) throws SQLException {
+        Set<String> columns = columnReferences.get(entityReference.getPayload());
+        if (columns == null || entityReference.getPayloadType() != DatabaseType.TABLE_NAME) {
+            return "*";
+        }
+        String selectList = selectLists.get(entityReference.getPayload());
+        if (selectList == null) {
+            selectList = new ProjectionPlanner(driver.getDialect(), distinct)
+                    .planSelectList(conn, entityReference.getPayload(), columns);
+            selectLists.put(entityReference.getPayload(), selectList);
+        }
+        return selectList;
+    }
+
     /**
      * Get results and handle the data.
      */
-    private void handleResults(@NonNull Statement stmt, @NonNull String query, Consumer<EntityResult> action) throws SQLException {
-        try (ResultSet results = stmt.executeQuery(query)) {
+    private void handleResults(@NonNull PreparedStatement stmt, Consumer<EntityResult> action) throws SQLException {
+        try (ResultSet results = stmt.executeQuery()) {
             LOGGER.debug("Applying actions to query results.");
-            EntityResult entityResult = new SQLAdapter(results);
+            EntityResult entityResult = new SQLAdapter(results, canonicalValues);
             action.accept(entityResult);
         }
     }
 
+    /**
+     * The highest watermark of a table in a run and the type it was read as.
+     */
+    private static final class HighMark {
+
+        private final ColumnType columnType;
+        private final Object value;
+
+        private HighMark(ColumnType columnType, Object value) {
+            this.columnType = columnType;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A call to the database that may fail with a {@link SQLException}.
+     */
+    private interface SQLCall<T> {
+        T call() throws SQLException;
+    }
 
     /**
      * Builder class for {@link RelationalSource}.
@@ -76,7 +466,19 @@ public class RelationalSource implements InputSource {
 
         private final DataSourceFactory dataSourceFactory;
         private DataSource dataSource;
-        private String database;
+        private int fetchSize;
+        private JDBCDriver driver;
+        private int partitions;
+        private Map<String, Integer> tablePartitions;
+        private Map<String, Set<String>> columnReferences;
+        private boolean distinct;
+        private boolean canonicalValues;
+        private int statementCacheSize;
+        private Map<String, String> watermarkColumns;
+        private WatermarkStore watermarks;
+        private String journalTable;
+        private long journalWindow;
+        private RetryPolicy retryPolicy;
 
         /**
          * Constructs a {@code Builder} with default {@link DataSourceFactory}.
@@ -120,6 +522,117 @@ public class RelationalSource implements InputSource {
          */
         public interface OptionalConfig extends BuildConfig {
             OptionalConfig database(@NonNull String name);
+
+            /**
+             * Sets the number of rows fetched from the database per round trip
+             * and applies the streaming properties of the driver for it, so
+             * that query results are not buffered whole by the driver. Zero
+             * leaves the fetching to the driver default.
+             *
+             * @param rows        the number of rows to fetch per round trip
+             * @param compression true to compress network traffic if supported
+             * @return this step builder
+             */
+            OptionalConfig streaming(@NonNegative int rows, boolean compression);
+
+            /**
+             * Sets the number of partitions to split each table into by its
+             * primary key, so that a table can be retrieved over several
+             * connections at once. A table specific number of partitions can
+             * be given by its name.
+             *
+             * @param count     the default number of partitions per table
+             * @param overrides the number of partitions for specific tables
+             * @return this step builder
+             */
+            OptionalConfig partitions(@Positive int count, @NonNull Map<String, Integer> overrides);
+
+            /**
+             * Sets the maximum number of pooled connections and how long to
+             * wait for a free connection before failing.
+             *
+             * @param size          the maximum number of pooled connections
+             * @param timeoutMillis the time to wait for a connection in milliseconds
+             * @return this step builder
+             */
+            OptionalConfig pool(@Positive int size, @Positive long timeoutMillis);
+
+            /**
+             * Sets the SQL statement to run on every new connection before it
+             * is added to the pool, such as to set session options.
+             *
+             * @param sql the statement to run on every new connection
+             * @return this step builder
+             */
+            OptionalConfig connectionInitSql(@NonNull String sql);
+
+            /**
+             * Sets the number of prepared statements the driver caches per
+             * connection. Zero disables the cache.
+             *
+             * @param size the number of statements to cache per connection
+             * @return this step builder
+             */
+            OptionalConfig statementCache(@NonNegative int size);
+
+            /**
+             * Sets the columns that the mapping references from each table,
+             * so that queries of a table select only those columns, and
+             * whether to select distinct rows when those columns do not cover
+             * the primary key of the table.
+             *
+             * @param columns  the map of table name to its referenced columns
+             * @param distinct true to select distinct rows of such tables
+             * @return this step builder
+             */
+            OptionalConfig projection(@NonNull Map<String, Set<String>> columns, boolean distinct);
+
+            /**
+             * Sets whether column values are given in the canonical lexical
+             * form of their SQL type, such as {@code 1.5E2} for a double,
+             * instead of the form the driver gives. Integer values are given
+             * in the same form either way.
+             *
+             * @param canonical true to give values in canonical form
+             * @return this step builder
+             */
+            OptionalConfig canonicalValues(boolean canonical);
+
+            /**
+             * Sets the watermark column of each table to read incrementally,
+             * such as a last updated timestamp or a row version, and the file
+             * holding the marks reached by the last committed run.
+             *
+             * @param columns   the map of table name to its watermark column
+             * @param stateFile the file to read and save the marks with
+             * @return this step builder
+             */
+            OptionalConfig incremental(@NonNull Map<String, String> columns, @NonNull Path stateFile);
+
+            /**
+             * Sets the journal table recording the changed rows to read as a
+             * feed of changes, the number of sequence numbers before the last
+             * committed change to read again for changes committed out of
+             * order, and the file holding the last change read by the last
+             * committed run.
+             *
+             * @param journalTable the name of the journal table
+             * @param window       the sequence numbers to read again
+             * @param stateFile    the file to read and save the position with
+             * @return this step builder
+             */
+            OptionalConfig changeFeed(@NonNull String journalTable, @NonNegative long window,
+                                      @NonNull Path stateFile);
+
+            /**
+             * Sets how often a query failing on a transient error, such as a
+             * dropped connection or a deadlock, is retried and how long to
+             * wait before the first retry.
+             *
+             * @param retryPolicy the policy to retry failed queries with
+             * @return this step builder
+             */
+            OptionalConfig retry(@NonNull RetryPolicy retryPolicy);
         }
 
         /**
@@ -141,7 +654,21 @@ public class RelationalSource implements InputSource {
 
             private final Builder builder;
             private final Properties serverConfig = new Properties();
+            private JDBCDriver driver = JDBCDriver.UNDEFINED;
             private String database;
+            private int fetchSize;
+            private boolean compression;
+            private int partitions = 1;
+            private Map<String, Integer> tablePartitions = Map.of();
+            private int statementCacheSize;
+            private Map<String, Set<String>> columnReferences = Map.of();
+            private boolean distinct;
+            private boolean canonicalValues;
+            private Map<String, String> watermarkColumns = Map.of();
+            private Path stateFile;
+            private String journalTable;
+            private long journalWindow;
+            private RetryPolicy retryPolicy = RetryPolicy.NONE;
 
             /**
              * Constructs an {@link InstanceConfig} step builder with its parent
@@ -155,6 +682,7 @@ public class RelationalSource implements InputSource {
 
             @Override
             public ServerConfig serverHost(@NonNull JDBCDriver driver, @NonNull InetAddress host, int port) {
+                this.driver = driver;
                 serverConfig.setProperty("dataSourceClassName", driver.getClassName());
                 serverConfig.setProperty("dataSource.serverName", host.getHostName());
                 serverConfig.setProperty("dataSource.portNumber", String.valueOf(port));
@@ -167,6 +695,76 @@ public class RelationalSource implements InputSource {
                 return this;
             }
 
+            @Override
+            public OptionalConfig streaming(@NonNegative int rows, boolean compression) {
+                fetchSize = rows;
+                this.compression = compression;
+                return this;
+            }
+
+            @Override
+            public OptionalConfig partitions(@Positive int count, @NonNull Map<String, Integer> overrides) {
+                partitions = count;
+                tablePartitions = Map.copyOf(overrides);
+                return this;
+            }
+
+            @Override
+            public OptionalConfig pool(@Positive int size, @Positive long timeoutMillis) {
+                serverConfig.setProperty("maximumPoolSize", String.valueOf(size));
+                serverConfig.setProperty("connectionTimeout", String.valueOf(timeoutMillis));
+                return this;
+            }
+
+            @Override
+            public OptionalConfig connectionInitSql(@NonNull String sql) {
+                if (!sql.isEmpty()) {
+                    serverConfig.setProperty("connectionInitSql", sql);
+                }
+                return this;
+            }
+
+            @Override
+            public OptionalConfig statementCache(@NonNegative int size) {
+                statementCacheSize = size;
+                return this;
+            }
+
+            @Override
+            public OptionalConfig projection(@NonNull Map<String, Set<String>> columns, boolean distinct) {
+                columnReferences = Map.copyOf(columns);
+                this.distinct = distinct;
+                return this;
+            }
+
+            @Override
+            public OptionalConfig canonicalValues(boolean canonical) {
+                canonicalValues = canonical;
+                return this;
+            }
+
+            @Override
+            public OptionalConfig incremental(@NonNull Map<String, String> columns, @NonNull Path stateFile) {
+                watermarkColumns = Map.copyOf(columns);
+                this.stateFile = stateFile;
+                return this;
+            }
+
+            @Override
+            public OptionalConfig changeFeed(@NonNull String journalTable, @NonNegative long window,
+                                             @NonNull Path stateFile) {
+                this.journalTable = journalTable;
+                journalWindow = window;
+                this.stateFile = stateFile;
+                return this;
+            }
+
+            @Override
+            public OptionalConfig retry(@NonNull RetryPolicy retryPolicy) {
+                this.retryPolicy = retryPolicy;
+                return this;
+            }
+
             @Override
             public OptionalConfig credential(@NonNull String user, char[] pass) {
                 serverConfig.setProperty("dataSource.user", user);
@@ -176,10 +774,56 @@ public class RelationalSource implements InputSource {
 
             @Override
             public RelationalSource build() {
+                putDataSourceProperties(driver.getStreamingProperties(fetchSize, compression));
+                putDataSourceProperties(driver.getStatementCacheProperties(statementCacheSize));
+                serverConfig.setProperty("readOnly", "true");
+                serverConfig.setProperty("autoCommit", "false");
+                if (database != null && !database.isEmpty()) {
+                    serverConfig.setProperty("catalog", database);
+                }
                 builder.dataSource = builder.dataSourceFactory.getDataSource(serverConfig);
-                builder.database = database;
+                builder.fetchSize = fetchSize;
+                builder.driver = driver;
+                builder.partitions = partitions;
+                builder.tablePartitions = tablePartitions;
+                builder.columnReferences = columnReferences;
+                builder.distinct = distinct;
+                builder.canonicalValues = canonicalValues;
+                builder.statementCacheSize = statementCacheSize;
+                builder.watermarkColumns = watermarkColumns;
+                builder.journalTable = journalTable;
+                builder.journalWindow = journalWindow;
+                builder.retryPolicy = retryPolicy;
+                builder.watermarks = watermarkColumns.isEmpty() && journalTable == null ? null : loadWatermarks();
                 return new RelationalSource(builder);
             }
+
+            /**
+             * Returns the store of the marks saved in the state file.
+             */
+            private WatermarkStore loadWatermarks() {
+                try {
+                    return new WatermarkStore(stateFile);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Failed to read watermarks from " + stateFile, ex);
+                }
+            }
+
+            /**
+             * Adds the given driver properties to the data source properties.
+             * Nested properties, such as the connection properties of Oracle,
+             * are merged with any already added.
+             */
+            private void putDataSourceProperties(Properties properties) {
+                properties.forEach((key, value) -> {
+                    Object current = serverConfig.get("dataSource." + key);
+                    if (current instanceof Properties && value instanceof Properties) {
+                        ((Properties) current).putAll((Properties) value);
+                        return;
+                    }
+                    serverConfig.put("dataSource." + key, value);
+                });
+            }
         }
     }
 }
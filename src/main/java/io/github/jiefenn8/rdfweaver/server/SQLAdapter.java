@@ -2,33 +2,73 @@ package io.github.jiefenn8.rdfweaver.server;
 
 import io.github.jiefenn8.graphloom.api.inputsource.Entity;
 import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import io.github.jiefenn8.rdfweaver.mapping.TransientSourceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class defines the base methods in wrapping the functionality of SQL
  * for the {@link EntityResult} and {@link Entity} interfaces.
+ * <p>
+ * The column layout of the result set is resolved once on the first entity
+ * into a table of column name to column index. Every row after is read into
+ * the same reusable array, so that retrieving the next entity and its
+ * property values does not allocate beyond what the driver itself returns.
+ * <p>
+ * Each column is read by its {@link ColumnType}, resolved from the SQL type
+ * of the column. Integer values are read as primitives and only formatted
+ * when the property is asked for, so unused cells are never turned into
+ * strings. Other columns are read as the strings the driver gives, as used
+ * in IRI templates before, unless canonical forms are asked for, in which
+ * case floating point and boolean values are also read as primitives and
+ * every value is given in its canonical lexical form, such as
+ * {@code 1.5E2}.
+ * <p>
+ * A transient failure while reading, such as a dropped connection, is thrown
+ * as a {@link TransientSourceException} so that the read can be retried.
  */
 public class SQLAdapter implements EntityResult, Entity {
 
     private static final Logger LOGGER = LogManager.getLogger(SQLAdapter.class);
     private final ResultSet resultSet;
+    private final boolean canonicalForms;
     private boolean calledNext = false;
     private boolean hasNext = false;
-    private final Map<String, String> entity = new LinkedHashMap<>();
+    private Map<String, Integer> columnIndexes;
+    private ColumnType[] columnTypes;
+    private long[] longs;
+    private double[] doubles;
+    private Object[] objects;
+    private String[] row;
+    private boolean[] nulls;
 
     /**
-     * Constructs an instance of SQLAdapter with the given ResultSet.
+     * Constructs an instance of SQLAdapter with the given ResultSet, giving
+     * the values of columns other than integers as the driver gives them.
      *
      * @param resultSet to wrap its functionality
      */
     protected SQLAdapter(ResultSet resultSet) {
+        this(resultSet, false);
+    }
+
+    /**
+     * Constructs an instance of SQLAdapter with the given ResultSet, and
+     * whether to give every value in its canonical lexical form.
+     *
+     * @param resultSet      to wrap its functionality
+     * @param canonicalForms true to give values in canonical lexical form
+     */
+    protected SQLAdapter(ResultSet resultSet, boolean canonicalForms) {
         this.resultSet = resultSet;
+        this.canonicalForms = canonicalForms;
     }
 
     @Override
@@ -41,7 +81,7 @@ public class SQLAdapter implements EntityResult, Entity {
             return hasNext;
         } catch (SQLException ex) {
             LOGGER.fatal("SQL error checking for the next row.");
-            throw new RuntimeException(ex);
+            throw toReadException(ex);
         }
     }
 
@@ -52,20 +92,134 @@ public class SQLAdapter implements EntityResult, Entity {
                 resultSet.next();
             }
             calledNext = false;
-            ResultSetMetaData metaData = resultSet.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            for(int i = 1; i <= columnCount; i++){
-                entity.put(metaData.getColumnName(i), resultSet.getString(i));
+            if (row == null) {
+                resolveColumnLayout();
+            }
+            for (int i = 0; i < row.length; i++) {
+                readColumn(i);
             }
             return this;
         } catch (SQLException ex) {
             LOGGER.fatal("SQL error retrieving the next row.");
-            throw new RuntimeException(ex);
+            throw toReadException(ex);
+        }
+    }
+
+    /**
+     * Returns the exception to throw for a failure while reading the rows,
+     * telling a transient failure apart so that the read can be retried.
+     */
+    private static RuntimeException toReadException(SQLException ex) {
+        if (TransientErrors.isTransient(ex)) {
+            return new TransientSourceException("Transient SQL error while reading rows.", ex);
         }
+        return new RuntimeException(ex);
+    }
+
+    /**
+     * Reads the value of the column at the given index of the row buffer
+     * into the buffer matching its column type.
+     *
+     * @param index the index of the column in the row buffer
+     * @throws SQLException if the value can't be read
+     */
+    private void readColumn(int index) throws SQLException {
+        int column = index + 1;
+        row[index] = null;
+        switch (columnTypes[index]) {
+            case INTEGER:
+                longs[index] = resultSet.getLong(column);
+                break;
+            case BOOLEAN:
+                longs[index] = resultSet.getBoolean(column) ? 1 : 0;
+                break;
+            case DOUBLE:
+                doubles[index] = resultSet.getDouble(column);
+                break;
+            case REAL:
+                doubles[index] = resultSet.getFloat(column);
+                break;
+            case DECIMAL:
+                objects[index] = resultSet.getBigDecimal(column);
+                break;
+            case DATE:
+                objects[index] = resultSet.getDate(column);
+                break;
+            case TIME:
+                objects[index] = resultSet.getTime(column);
+                break;
+            case TIMESTAMP:
+                objects[index] = resultSet.getTimestamp(column);
+                break;
+            case BINARY:
+                objects[index] = resultSet.getBytes(column);
+                break;
+            default:
+                row[index] = resultSet.getString(column);
+                nulls[index] = row[index] == null;
+                return;
+        }
+        nulls[index] = resultSet.wasNull();
+    }
+
+    /**
+     * Resolves the column names of the result set into their index in the
+     * row buffer and the type to read each column as. Unless canonical
+     * forms are asked for, columns other than integers are read as strings.
+     * If a column name is repeated, the last column is used.
+     *
+     * @throws SQLException if the metadata of the result set can't be read
+     */
+    private void resolveColumnLayout() throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        columnIndexes = new HashMap<>(columnCount * 2);
+        columnTypes = new ColumnType[columnCount];
+        for (int i = 1; i <= columnCount; i++) {
+            columnIndexes.put(metaData.getColumnName(i), i - 1);
+            ColumnType columnType = ColumnType.of(metaData.getColumnType(i), metaData.getPrecision(i),
+                    metaData.getScale(i));
+            columnTypes[i - 1] = canonicalForms || columnType == ColumnType.INTEGER ? columnType : ColumnType.STRING;
+        }
+        longs = new long[columnCount];
+        doubles = new double[columnCount];
+        objects = new Object[columnCount];
+        row = new String[columnCount];
+        nulls = new boolean[columnCount];
+        Arrays.fill(nulls, true);
+        LOGGER.debug("Resolved column layout of {} columns.", columnCount);
     }
 
     @Override
     public String getPropertyValue(String name) {
-        return entity.get(name);
+        if (columnIndexes == null) {
+            return null;
+        }
+        Integer index = columnIndexes.get(name);
+        if (index == null || nulls[index]) {
+            return null;
+        }
+        if (row[index] == null) {
+            row[index] = toLexicalForm(index);
+        }
+        return row[index];
+    }
+
+    /**
+     * Returns the canonical lexical form of the current value of the column
+     * at the given index of the row buffer.
+     */
+    private String toLexicalForm(int index) {
+        ColumnType columnType = columnTypes[index];
+        switch (columnType) {
+            case INTEGER:
+            case BOOLEAN:
+                return columnType.toLexicalForm(longs[index]);
+            case DOUBLE:
+            case REAL:
+                return columnType.toLexicalForm(doubles[index]);
+            default:
+                return columnType.toLexicalForm(objects[index]);
+        }
     }
 }
@@ -0,0 +1,258 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class defines how SQL identifiers are delimited for a database vendor
+ * and builds the queries of this application with it.
+ * <p>
+ * Queries are tokenized in a single pass. String literals, comments and
+ * identifiers that are already delimited are copied unchanged, and only
+ * chains of bare identifiers such as {@code schema.table} are delimited,
+ * part by part, so that no other identifier or literal can be rewritten.
+ * Dialects that fold bare identifiers to upper case delimit them in upper
+ * case, so a delimited identifier refers to the same object as before.
+ * <p>
+ * The table name of a mapping is written into a query as it was given, with
+ * only its delimited parts delimited again for this dialect, so that its bare
+ * parts are folded by the database as the mapping expects.
+ */
+public class SQLDialect {
+
+    private final char openQuote;
+    private final char closeQuote;
+    private final boolean upperCaseFolding;
+
+    /**
+     * Constructs a {@code SQLDialect} instance with the specified characters
+     * to delimit identifiers with.
+     *
+     * @param openQuote        the character to open a delimited identifier
+     * @param closeQuote       the character to close a delimited identifier
+     * @param upperCaseFolding true if bare identifiers are folded to upper case
+     */
+    public SQLDialect(char openQuote, char closeQuote, boolean upperCaseFolding) {
+        this.openQuote = openQuote;
+        this.closeQuote = closeQuote;
+        this.upperCaseFolding = upperCaseFolding;
+    }
+
+    /**
+     * Returns the given identifier delimited for this dialect. An identifier
+     * that is already delimited, in any dialect, is delimited again with the
+     * characters of this dialect and keeps its case.
+     *
+     * @param identifier the identifier to delimit
+     * @return the delimited identifier
+     */
+    public String quoteIdentifier(@NonNull String identifier) {
+        String name = identifier;
+        if (isDelimited(identifier)) {
+            String close = identifier.substring(identifier.length() - 1);
+            name = identifier.substring(1, identifier.length() - 1).replace(close + close, close);
+        } else if (upperCaseFolding) {
+            name = identifier.toUpperCase();
+        }
+        String escaped = name.replace(String.valueOf(closeQuote), String.valueOf(closeQuote) + closeQuote);
+        return openQuote + escaped + closeQuote;
+    }
+
+    /**
+     * Returns the given name, which may be prefixed by its schema and
+     * catalog, with every part delimited for this dialect.
+     *
+     * @param name the qualified name to delimit
+     * @return the delimited qualified name
+     */
+    public String quoteQualifiedName(@NonNull String name) {
+        StringBuilder quoted = new StringBuilder();
+        for (String part : splitQualifiedName(name)) {
+            if (quoted.length() > 0) {
+                quoted.append('.');
+            }
+            quoted.append(quoteIdentifier(part));
+        }
+        return quoted.toString();
+    }
+
+    /**
+     * Returns the given table name, which may be prefixed by its schema and
+     * catalog, as written in a query. Delimited parts are delimited again for
+     * this dialect and bare parts are left as they are.
+     *
+     * @param name the qualified name of the table
+     * @return the name of the table for a query
+     */
+    public String tableName(@NonNull String name) {
+        StringBuilder table = new StringBuilder();
+        for (String part : splitQualifiedName(name)) {
+            if (table.length() > 0) {
+                table.append('.');
+            }
+            table.append(isDelimited(part) ? quoteIdentifier(part) : part);
+        }
+        return table.toString();
+    }
+
+    /**
+     * Returns a query selecting the given select list from the table.
+     *
+     * @param selectList the columns to select, already delimited
+     * @param table      the name of the table to select from
+     * @return the query selecting from the table
+     */
+    public String selectFrom(@NonNull String selectList, @NonNull String table) {
+        return "SELECT " + selectList + " FROM " + tableName(table);
+    }
+
+    /**
+     * Returns the parts of the given qualified name, a delimited part kept
+     * whole even if it holds a dot.
+     */
+    private List<String> splitQualifiedName(String name) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        char quote = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '[') {
+                quote = ']';
+            } else if (c == '.') {
+                parts.add(name.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(name.substring(start).trim());
+        return parts;
+    }
+
+    /**
+     * Returns the query with every chain of bare identifiers delimited for
+     * this dialect, so that any conflict with SQL keywords is unlikely during
+     * execution. Everything else in the query is copied unchanged.
+     *
+     * @param query the query to delimit
+     * @return the delimited query
+     */
+    public String delimitQuery(@NonNull String query) {
+        StringBuilder out = new StringBuilder(query.length() + 16);
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            char next = i + 1 < query.length() ? query.charAt(i + 1) : 0;
+            int end;
+            if (c == '\'' || c == '"' || c == '`') {
+                end = skipQuoted(query, i, c);
+            } else if (c == '[') {
+                end = skipQuoted(query, i, ']');
+            } else if (c == '-' && next == '-') {
+                end = query.indexOf('\n', i);
+                end = end < 0 ? query.length() : end;
+            } else if (c == '/' && next == '*') {
+                end = query.indexOf("*/", i + 2);
+                end = end < 0 ? query.length() : end + 2;
+            } else if (Character.isDigit(c) || c == '@' || c == '#' || c == '$') {
+                end = skipWord(query, i + 1);
+            } else if (isIdentifierStart(c)) {
+                i = appendChain(query, i, out);
+                continue;
+            } else {
+                end = i + 1;
+            }
+            out.append(query, i, end);
+            i = end;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Appends the identifier chain starting at the given index to the output,
+     * delimiting each part if the chain has more than one part, and returns
+     * the index after the chain.
+     */
+    private int appendChain(String query, int start, StringBuilder out) {
+        List<String> parts = new ArrayList<>();
+        int i = start;
+        while (true) {
+            int end = skipWord(query, i);
+            parts.add(query.substring(i, end));
+            i = end;
+            if (i + 1 < query.length() && query.charAt(i) == '.' && isIdentifierStart(query.charAt(i + 1))) {
+                i++;
+                continue;
+            }
+            break;
+        }
+        if (parts.size() == 1) {
+            out.append(parts.get(0));
+            return i;
+        }
+        for (int p = 0; p < parts.size(); p++) {
+            if (p > 0) {
+                out.append('.');
+            }
+            out.append(quoteIdentifier(parts.get(p)));
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index after the delimited token starting at the given index.
+     * A doubled closing character is part of the token.
+     */
+    private int skipQuoted(String query, int start, char close) {
+        int i = start + 1;
+        while (i < query.length()) {
+            if (query.charAt(i) == close) {
+                if (i + 1 < query.length() && query.charAt(i + 1) == close) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return query.length();
+    }
+
+    /**
+     * Returns the index after the word characters starting at the given index.
+     */
+    private int skipWord(String query, int start) {
+        int i = start;
+        while (i < query.length() && isIdentifierPart(query.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '@';
+    }
+
+    /**
+     * Returns true if the identifier is enclosed in the delimiters of any of
+     * the supported dialects.
+     */
+    private boolean isDelimited(String identifier) {
+        if (identifier.length() < 2) {
+            return false;
+        }
+        char first = identifier.charAt(0);
+        char last = identifier.charAt(identifier.length() - 1);
+        return (first == '"' && last == '"') || (first == '`' && last == '`') || (first == '[' && last == ']');
+    }
+}
@@ -5,30 +5,16 @@ import io.github.jiefenn8.graphloom.rdf.r2rml.DatabaseType;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * This class defines common methods dealing with any SQL related features
- * within this app package.
+ * within this app package. Identifiers are delimited with the brackets of the
+ * {@link JDBCDriver#MSSQL} dialect; use the {@link SQLDialect} of a driver to
+ * delimit for other databases.
  */
 public class SQLHelper {
 
-    private static final Pattern DB_OBJ_CHAIN_PATTERN = Pattern.compile("([\\w]+[.][\\w]+)");
-
-    /**
-     * Enclose all identifiers found in this String with a bracket.
-     *
-     * @param identifiers the string containing identifiers chained together
-     * @return the delimited chain enclosed by brackets: [foo].[foo]
-     */
-    private static String delimitIdentifier(@NonNull String identifiers) {
-        String[] objects = identifiers.split("[.]");
-        for (String obj : objects) {
-            identifiers = identifiers.replace(obj, "[" + obj + "]");
-        }
-        return identifiers;
-    }
+    private static final SQLDialect DIALECT = JDBCDriver.MSSQL.getDialect();
 
     /**
      * Checks the query string and delimit any objects or identifiers
@@ -39,12 +25,7 @@ public class SQLHelper {
      * @return the delimited query string ready for use
      */
     protected static String delimitQueryIdentifiers(@NonNull String query) {
-        Matcher matcher = DB_OBJ_CHAIN_PATTERN.matcher(query);
-        while (matcher.find()) {
-            String replace = delimitIdentifier(matcher.group(1));
-            query = query.replace(matcher.group(1), replace);
-        }
-        return query;
+        return DIALECT.delimitQuery(query);
     }
 
     /**
@@ -55,11 +36,24 @@ public class SQLHelper {
      * @return string of the prepared query
      */
     protected static String prepareQuery(EntityReference entityReference) {
+        return prepareQuery(entityReference, "*");
+    }
+
+    /**
+     * Returns a query string that is prepared to be executed over a SQL
+     * connection, selecting the given select list if the reference is a
+     * table.
+     *
+     * @param entityReference containing information to locate a specific entity
+     * @param selectList      the columns to select from a table
+     * @return string of the prepared query
+     */
+    protected static String prepareQuery(EntityReference entityReference, @NonNull String selectList) {
         String query = Objects.requireNonNull(entityReference.getPayload());
         EntityReference.PayloadType type = entityReference.getPayloadType();
         if (type.equals(DatabaseType.TABLE_NAME)) {
-            query = "SELECT * FROM " + query;
+            return DIALECT.delimitQuery("SELECT " + selectList + " FROM " + query);
         }
-        return SQLHelper.delimitQueryIdentifiers(query);
+        return DIALECT.delimitQuery(query);
     }
 }
@@ -1,5 +1,7 @@
 package io.github.jiefenn8.rdfweaver.server;
 
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
+import io.github.jiefenn8.rdfweaver.r2rml.R2RMLColumnAnalyser;
 import io.github.jiefenn8.rdfweaver.r2rml.R2RMLOption;
 import com.zaxxer.hikari.pool.HikariPool;
 import org.apache.logging.log4j.LogManager;
@@ -9,11 +11,17 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.ExecutionException;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.ParseResult;
 import picocli.CommandLine.Spec;
 
+import java.io.File;
 import java.net.InetAddress;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 /**
@@ -34,6 +42,42 @@ public class ServerOption implements Callable<RelationalSource> {
     private static final String PORT_DESC = "Port that the relational database is listening to.";
     private static final String USER_DESC = "User/login to access the database as.";
     private static final String PASS_DESC = "Password to authenticate with user/login.";
+    private static final String DEFAULT_FETCH_SIZE = "1000";
+    private static final String FETCH_DESC = "Rows to fetch per round trip, 0 for driver default. (default: ${DEFAULT-VALUE})";
+    private static final String COMPRESS_DESC = "Compress network traffic with the database if the driver supports it.";
+    private static final String DEFAULT_PARTITIONS = "1";
+    private static final String PARTITIONS_DESC = "Partitions to split each table into by primary key. (default: ${DEFAULT-VALUE})";
+    private static final String TABLE_PARTITIONS_DESC = "Partitions to split a specific table into, e.g. EMP=8.";
+    private static final String DEFAULT_POOL_SIZE = "auto";
+    private static final String POOL_SIZE_DESC = "Maximum pooled connections, or auto to size from the parallelism. "
+            + "(default: ${DEFAULT-VALUE})";
+    private static final String DEFAULT_MAX_CONNECTIONS = "0";
+    private static final String MAX_CONNECTIONS_DESC = "Most connections the database allows this application, "
+            + "0 for no limit. (default: ${DEFAULT-VALUE})";
+    private static final String DEFAULT_POOL_TIMEOUT = "10000";
+    private static final String POOL_TIMEOUT_DESC = "Milliseconds to wait for a pooled connection. (default: ${DEFAULT-VALUE})";
+    private static final String INIT_SQL_DESC = "SQL to run on every new connection, e.g. to set session options.";
+    private static final String DEFAULT_STATEMENT_CACHE = "64";
+    private static final String STATEMENT_CACHE_DESC = "Prepared statements cached per connection, 0 to disable. "
+            + "(default: ${DEFAULT-VALUE})";
+    private static final String NO_PUSHDOWN_DESC = "Select all columns of each table instead of only the columns "
+            + "the R2RML file references.";
+    private static final String DISTINCT_DESC = "Select distinct rows when the columns a table query selects do not "
+            + "cover the primary key of the table.";
+    private static final String CANONICAL_VALUES_DESC = "Give column values in the canonical form of their SQL "
+            + "type, such as 1.5E2 or true, instead of the form the driver gives.";
+    private static final String WATERMARK_DESC = "Watermark column of a table to map incrementally, "
+            + "e.g. EMP=UPDATED_AT.";
+    private static final String DEFAULT_WATERMARK_FILE = "watermarks.properties";
+    private static final String WATERMARK_FILE_DESC = "File holding the watermark reached by the last run of each "
+            + "table. (default: ${DEFAULT-VALUE})";
+    private static final String JOURNAL_DESC = "Journal table recording the changed rows, to map only the rows "
+            + "changed since the last run.";
+    private static final String DEFAULT_JOURNAL_WINDOW = "1000";
+    private static final String JOURNAL_WINDOW_DESC = "Journal sequence numbers before the last committed change to "
+            + "read again, for changes committed out of order. (default: ${DEFAULT-VALUE})";
+    private static final int CONNECTIONS_PER_TASK = 2;
+    private static final int MIN_AUTO_POOL_SIZE = 5;
     private final RelationalSource.Builder rdbSourceBuilder;
     @Option(names = {"-d", "--driver"}, required = true, description = DRIVER_DESC)
     private JDBCDriver driver;
@@ -47,6 +91,38 @@ public class ServerOption implements Callable<RelationalSource> {
     private String username;
     @Option(names = {"-k", "--pass"}, required = true, description = PASS_DESC, interactive = true)
     private char[] password;
+    @Option(names = {"-f", "--fetch-size"}, defaultValue = DEFAULT_FETCH_SIZE, description = FETCH_DESC)
+    private int fetchSize;
+    @Option(names = {"-c", "--compression"}, description = COMPRESS_DESC)
+    private boolean compression;
+    @Option(names = {"--partitions"}, defaultValue = DEFAULT_PARTITIONS, description = PARTITIONS_DESC)
+    private int partitions;
+    @Option(names = {"--table-partitions"}, split = ",", paramLabel = "TABLE=N", description = TABLE_PARTITIONS_DESC)
+    private Map<String, Integer> tablePartitions = new HashMap<>();
+    @Option(names = {"--pool-size"}, defaultValue = DEFAULT_POOL_SIZE, description = POOL_SIZE_DESC)
+    private String poolSize;
+    @Option(names = {"--max-connections"}, defaultValue = DEFAULT_MAX_CONNECTIONS, description = MAX_CONNECTIONS_DESC)
+    private int maxConnections;
+    @Option(names = {"--pool-timeout"}, defaultValue = DEFAULT_POOL_TIMEOUT, description = POOL_TIMEOUT_DESC)
+    private long poolTimeout;
+    @Option(names = {"--init-sql"}, defaultValue = "", description = INIT_SQL_DESC)
+    private String initSql;
+    @Option(names = {"--statement-cache"}, defaultValue = DEFAULT_STATEMENT_CACHE, description = STATEMENT_CACHE_DESC)
+    private int statementCache;
+    @Option(names = {"--no-pushdown"}, description = NO_PUSHDOWN_DESC)
+    private boolean noPushdown;
+    @Option(names = {"--distinct"}, description = DISTINCT_DESC)
+    private boolean distinct;
+    @Option(names = {"--canonical-values"}, description = CANONICAL_VALUES_DESC)
+    private boolean canonicalValues;
+    @Option(names = {"--watermark"}, split = ",", paramLabel = "TABLE=COLUMN", description = WATERMARK_DESC)
+    private Map<String, String> watermarks = new HashMap<>();
+    @Option(names = {"--watermark-file"}, defaultValue = DEFAULT_WATERMARK_FILE, description = WATERMARK_FILE_DESC)
+    private File watermarkFile;
+    @Option(names = {"--journal"}, description = JOURNAL_DESC)
+    private String journalTable;
+    @Option(names = {"--journal-window"}, defaultValue = DEFAULT_JOURNAL_WINDOW, description = JOURNAL_WINDOW_DESC)
+    private long journalWindow;
     @Spec private CommandSpec spec;
 
     /**
@@ -73,11 +149,23 @@ public class ServerOption implements Callable<RelationalSource> {
         cmd.setCaseInsensitiveEnumValuesAllowed(false);
         try {
             LOGGER.info("Connecting to database...");
-            RelationalSource source = rdbSourceBuilder.newInstance()
+            RelationalSource.Builder.OptionalConfig config = rdbSourceBuilder.newInstance()
                     .serverHost(driver, address, port)
                     .credential(username, password)
-                    .database(dbName)
-                    .build();
+                    .database(dbName);
+            config.streaming(Math.max(fetchSize, 0), compression);
+            config.partitions(Math.max(partitions, 1), tablePartitions);
+            config.pool(getPoolSize(), Math.max(poolTimeout, 1));
+            config.connectionInitSql(initSql);
+            config.statementCache(Math.max(statementCache, 0));
+            config.projection(findColumnReferences(), distinct);
+            config.canonicalValues(canonicalValues);
+            config.incremental(watermarks, watermarkFile.toPath());
+            if (journalTable != null && !journalTable.isEmpty()) {
+                config.changeFeed(journalTable, Math.max(journalWindow, 0), watermarkFile.toPath());
+            }
+            config.retry(getRetryPolicy());
+            RelationalSource source = config.build();
             LOGGER.info("Connection to database '{}:{}' as '{}' established.", address.getHostName(), port, username);
             return source;
         } catch (HikariPool.PoolInitializationException ex) {
@@ -90,6 +178,8 @@ public class ServerOption implements Callable<RelationalSource> {
             LOGGER.fatal(msg, ex);
             cmd.getOut().println(msg);
             throw new ExecutionException(cmd, msg, ex);
+        } catch (ParameterException ex) {
+            throw ex;
         } catch (Exception ex) {
             String msg = "Unhandled exception occurred during server command execution. Aborting.";
             LOGGER.fatal(msg, ex);
@@ -100,6 +190,92 @@ public class ServerOption implements Callable<RelationalSource> {
         }
     }
 
+    /**
+     * Returns the maximum number of pooled connections. In auto mode, the pool
+     * is sized so that every concurrent mapping task can hold its result open
+     * while querying the parent of a join, capped to the connection limit.
+     *
+     * @return the maximum number of pooled connections
+     */
+    private int getPoolSize() {
+        int size;
+        if (DEFAULT_POOL_SIZE.equalsIgnoreCase(poolSize)) {
+            size = Math.max(getParallelism() * CONNECTIONS_PER_TASK, MIN_AUTO_POOL_SIZE);
+            LOGGER.debug("Pool size set to {} for parallelism of {}.", size, getParallelism());
+        } else {
+            try {
+                size = Integer.parseInt(poolSize);
+            } catch (NumberFormatException ex) {
+                throw new ParameterException(spec.commandLine(),
+                        "Invalid value for option '--pool-size': '" + poolSize + "' is not auto or a number.", ex);
+            }
+        }
+        if (maxConnections > 0 && size > maxConnections) {
+            LOGGER.info("Pool size of {} capped to the connection limit of {}.", size, maxConnections);
+            size = maxConnections;
+        }
+        return Math.max(size, 1);
+    }
+
+    /**
+     * Returns the columns referenced from each table by the R2RML file given
+     * to the r2rml subcommand, or an empty map if there is none or it can't
+     * be read. The r2rml subcommand reports any problem with the file itself.
+     *
+     * @return the map of table name to its referenced columns
+     */
+    private Map<String, Set<String>> findColumnReferences() {
+        ParseResult r2rmlResult = spec.commandLine().getParseResult().subcommand();
+        if (noPushdown || r2rmlResult == null || !r2rmlResult.hasMatchedOption("--file")) {
+            return Map.of();
+        }
+        File file = r2rmlResult.matchedOptionValue("--file", null);
+        if (file == null || !file.isFile()) {
+            return Map.of();
+        }
+        try {
+            return new R2RMLColumnAnalyser().analyse(file.getPath());
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not analyse R2RML file for column references, selecting all columns.", ex);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Returns the mapping parallelism given to the parent command, or one if
+     * this command has no parent with that option.
+     */
+    private int getParallelism() {
+        Integer parallelism = getParentOption("--parallelism");
+        return parallelism == null ? 1 : Math.max(parallelism, 1);
+    }
+
+    /**
+     * Returns the policy to retry queries failing on a transient error with,
+     * from the retry options given to the parent command, or a policy that
+     * never retries if this command has no parent with those options.
+     */
+    private RetryPolicy getRetryPolicy() {
+        Integer retries = getParentOption("--retries");
+        Long retryDelay = getParentOption("--retry-delay");
+        if (retries == null || retryDelay == null) {
+            return RetryPolicy.NONE;
+        }
+        return new RetryPolicy(Math.max(retries, 0), Math.max(retryDelay, 0));
+    }
+
+    /**
+     * Returns the value of the option given to the parent command, or null if
+     * this command has no parent with that option.
+     */
+    private <T> T getParentOption(String name) {
+        CommandSpec parent = spec.parent();
+        if (parent == null || parent.findOption(name) == null) {
+            return null;
+        }
+        return parent.findOption(name).getValue();
+    }
+
     /**
      * Handle given SQL code and return appropriate error message of the cause.
      *
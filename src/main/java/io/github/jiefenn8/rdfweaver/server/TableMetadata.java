@@ -0,0 +1,122 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class defines common methods to read the primary key and columns of
+ * a table from {@link DatabaseMetaData}, given the table name as written in
+ * a query. The name may be delimited and prefixed by its schema and catalog.
+ * If nothing is found under the given case of the name, the upper case name
+ * is tried as some databases store unquoted names in upper case.
+ */
+final class TableMetadata {
+
+    private TableMetadata() {
+    }
+
+    /**
+     * Returns the primary key columns of the table in key order, or an empty
+     * list if the table has none.
+     *
+     * @param metaData the metadata of the database holding the table
+     * @param catalog  the current catalog of the connection
+     * @param table    the name of the table as written in a query
+     * @return the primary key columns of the table
+     * @throws SQLException if the metadata can't be read
+     */
+    static List<String> getPrimaryKey(@NonNull DatabaseMetaData metaData, String catalog, @NonNull String table)
+            throws SQLException {
+        String[] name = splitName(catalog, table);
+        List<String> keys = readPrimaryKey(metaData, name[0], name[1], name[2]);
+        if (keys.isEmpty() && !name[2].equals(name[2].toUpperCase())) {
+            keys = readPrimaryKey(metaData, name[0], upperCase(name[1]), name[2].toUpperCase());
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the columns of the table mapped to their SQL type from
+     * {@link java.sql.Types}, in the order of the table, or an empty map if
+     * the table is not found.
+     *
+     * @param metaData the metadata of the database holding the table
+     * @param catalog  the current catalog of the connection
+     * @param table    the name of the table as written in a query
+     * @return the columns of the table and their SQL type
+     * @throws SQLException if the metadata can't be read
+     */
+    static Map<String, Integer> getColumnTypes(@NonNull DatabaseMetaData metaData, String catalog,
+                                               @NonNull String table) throws SQLException {
+        String[] name = splitName(catalog, table);
+        Map<String, Integer> columns = readColumnTypes(metaData, name[0], name[1], name[2]);
+        if (columns.isEmpty() && !name[2].equals(name[2].toUpperCase())) {
+            columns = readColumnTypes(metaData, name[0], upperCase(name[1]), name[2].toUpperCase());
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the given identifier without any SQL delimiters.
+     *
+     * @param identifier the identifier that may be delimited
+     * @return the identifier without delimiters
+     */
+    static String undelimit(@NonNull String identifier) {
+        return identifier.replaceAll("[\\[\\]\"`]", "");
+    }
+
+    /**
+     * Splits the table name into its catalog, schema and table name, with
+     * the given catalog used if the name has none.
+     */
+    private static String[] splitName(String catalog, String table) {
+        String[] parts = undelimit(table).split("[.]");
+        String name = parts[parts.length - 1];
+        String schema = parts.length > 1 ? parts[parts.length - 2] : null;
+        if (parts.length > 2) {
+            catalog = parts[parts.length - 3];
+        }
+        return new String[]{catalog, schema, name};
+    }
+
+    private static String upperCase(String value) {
+        return value == null ? null : value.toUpperCase();
+    }
+
+    /**
+     * Reads the primary key columns of the table ordered by their key sequence.
+     */
+    private static List<String> readPrimaryKey(DatabaseMetaData metaData, String catalog, String schema,
+                                               String table) throws SQLException {
+        TreeMap<Short, String> keys = new TreeMap<>();
+        try (ResultSet results = metaData.getPrimaryKeys(catalog, schema, table)) {
+            while (results.next()) {
+                keys.put(results.getShort("KEY_SEQ"), results.getString("COLUMN_NAME"));
+            }
+        }
+        return new ArrayList<>(keys.values());
+    }
+
+    /**
+     * Reads the columns of the table and their SQL type.
+     */
+    private static Map<String, Integer> readColumnTypes(DatabaseMetaData metaData, String catalog, String schema,
+                                                        String table) throws SQLException {
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        try (ResultSet results = metaData.getColumns(catalog, schema, table, null)) {
+            while (results.next()) {
+                columns.put(results.getString("COLUMN_NAME"), results.getInt("DATA_TYPE"));
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class handles the splitting of a table into partitions using the
+ * primary key of the table, discovered through {@link TableMetadata}.
+ * <p>
+ * A table with a single numeric key is split into ranges of equal width
+ * between the minimum and maximum key. Any other key is split by the hash of
+ * its columns modulo the number of partitions. Each partition is returned as
+ * a {@link QueryReference} that selects only the rows of that partition, with
+ * the bounds of a range given as query parameters.
+ */
+class TablePartitioner {
+
+    private static final Logger LOGGER = LogManager.getLogger(TablePartitioner.class);
+    private static final Set<Integer> NUMERIC_TYPES = Set.of(
+            Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.NUMERIC, Types.DECIMAL
+    );
+    private final JDBCDriver driver;
+
+    /**
+     * Constructs a {@code TablePartitioner} instance for the specified driver.
+     *
+     * @param driver the driver of the database holding the tables
+     */
+    TablePartitioner(@NonNull JDBCDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Returns the references to the partitions of the table of the given
+     * entity reference. Returns a list containing only the given reference if
+     * the table has no primary key or could not be split.
+     *
+     * @param conn            the connection to read the table key and range with
+     * @param entityReference the reference containing the table name
+     * @param count           the number of partitions to split into
+     * @param selectList      the columns to select from each partition
+     * @return the list of references to each partition
+     * @throws SQLException if the key or key range can't be read
+     */
+    List<EntityReference> partition(@NonNull Connection conn, @NonNull EntityReference entityReference,
+                                    @Positive int count, @NonNull String selectList) throws SQLException {
+        String table = entityReference.getPayload();
+        List<String> keys = TableMetadata.getPrimaryKey(conn.getMetaData(), conn.getCatalog(), table);
+        if (keys.isEmpty()) {
+            LOGGER.warn("No primary key found for '{}', table will not be partitioned.", table);
+            return List.of(entityReference);
+        }
+        SQLDialect dialect = driver.getDialect();
+        String baseQuery = dialect.selectFrom(selectList, table) + " WHERE ";
+        if (keys.size() == 1) {
+            String key = dialect.quoteIdentifier(keys.get(0));
+            List<PreparedQuery> ranges = findRanges(conn, dialect.tableName(table), key, count);
+            if (ranges != null) {
+                LOGGER.debug("Partitioning '{}' by range of key '{}'.", table, keys.get(0));
+                return toReferences(baseQuery, ranges, entityReference);
+            }
+        }
+        List<String> quotedKeys = new ArrayList<>();
+        keys.forEach((key) -> quotedKeys.add(dialect.quoteIdentifier(key)));
+        List<PreparedQuery> buckets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String predicate = driver.getHashBucketPredicate(quotedKeys, count, i);
+            if (predicate == null) {
+                LOGGER.warn("Driver {} can't hash partition '{}', table will not be partitioned.", driver, table);
+                return List.of(entityReference);
+            }
+            buckets.add(new PreparedQuery(predicate, List.of()));
+        }
+        LOGGER.debug("Partitioning '{}' by hash of key {}.", table, keys);
+        return toReferences(baseQuery, buckets, entityReference);
+    }
+
+    /**
+     * Returns the predicates splitting the range of a numeric key into ranges
+     * of equal width, with the range bounds as parameters, or null if the key
+     * is not numeric. The first and last ranges are open ended so that every
+     * row is covered.
+     */
+    private List<PreparedQuery> findRanges(Connection conn, String table, String key, int count)
+            throws SQLException {
+        String query = "SELECT MIN(" + key + "), MAX(" + key + ") FROM " + table;
+        BigInteger min;
+        BigInteger max;
+        try (Statement stmt = conn.createStatement(); ResultSet results = stmt.executeQuery(query)) {
+            if (!NUMERIC_TYPES.contains(results.getMetaData().getColumnType(1)) || !results.next()) {
+                return null;
+            }
+            BigDecimal minValue = results.getBigDecimal(1);
+            BigDecimal maxValue = results.getBigDecimal(2);
+            if (minValue == null || maxValue == null) {
+                return List.of(new PreparedQuery("1 = 1", List.of()));
+            }
+            min = minValue.setScale(0, RoundingMode.FLOOR).toBigInteger();
+            max = maxValue.setScale(0, RoundingMode.CEILING).toBigInteger();
+        }
+        BigInteger span = max.subtract(min).add(BigInteger.ONE);
+        BigInteger partitions = span.min(BigInteger.valueOf(count));
+        BigInteger[] division = span.divideAndRemainder(partitions);
+        BigInteger width = division[1].signum() == 0 ? division[0] : division[0].add(BigInteger.ONE);
+        List<PreparedQuery> predicates = new ArrayList<>();
+        BigDecimal lower = null;
+        for (int i = 1; i < partitions.intValue(); i++) {
+            BigInteger upper = min.add(width.multiply(BigInteger.valueOf(i)));
+            if (upper.compareTo(max) > 0) {
+                break;
+            }
+            BigDecimal bound = new BigDecimal(upper);
+            predicates.add(lower == null
+                    ? new PreparedQuery(key + " < ?", List.of(bound))
+                    : new PreparedQuery(key + " >= ? AND " + key + " < ?", List.of(lower, bound)));
+            lower = bound;
+        }
+        predicates.add(lower == null
+                ? new PreparedQuery("1 = 1", List.of())
+                : new PreparedQuery(key + " >= ?", List.of(lower)));
+        return predicates;
+    }
+
+    /**
+     * Returns the predicates as query references, or the original reference if
+     * there is only a single predicate.
+     */
+    private List<EntityReference> toReferences(String baseQuery, List<PreparedQuery> predicates,
+                                               EntityReference entityReference) {
+        if (predicates.size() <= 1) {
+            return List.of(entityReference);
+        }
+        List<EntityReference> references = new ArrayList<>();
+        for (PreparedQuery predicate : predicates) {
+            references.add(new QueryReference(baseQuery + predicate.getSql(), predicate.getParameters()));
+        }
+        return references;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+/**
+ * This class handles telling apart the {@link SQLException} that may pass on
+ * its own, such as a dropped connection, a timeout or a deadlock, from the
+ * ones that will fail again however often the query is retried.
+ */
+final class TransientErrors {
+
+    private static final String CONNECTION_STATE_CLASS = "08";
+    private static final String SERIALIZATION_FAILURE_STATE = "40001";
+    private static final String DEADLOCK_STATE = "40P01";
+
+    private TransientErrors() {
+    }
+
+    /**
+     * Returns true if the exception, or any exception chained to it, is of a
+     * transient or recoverable type, or has the SQL state of a connection
+     * failure, serialization failure or deadlock.
+     *
+     * @param ex the exception to check
+     * @return true if the failed query can be retried
+     */
+    static boolean isTransient(@NonNull SQLException ex) {
+        for (SQLException cause = ex; cause != null; cause = cause.getNextException()) {
+            if (cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            String state = cause.getSQLState();
+            if (state != null && (state.startsWith(CONNECTION_STATE_CLASS)
+                    || state.equals(SERIALIZATION_FAILURE_STATE) || state.equals(DEADLOCK_STATE))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class handles the persistence of the high-water mark reached in the
+ * watermark column of each table, so that the next run only reads the rows
+ * changed since.
+ * <p>
+ * Marks are kept in a properties file as the column type and the canonical
+ * lexical form of the value. Marks updated during a run are held back until
+ * {@link #commit()}, so that a failed run reads the same rows again.
+ */
+final class WatermarkStore {
+
+    private static final Logger LOGGER = LogManager.getLogger(WatermarkStore.class);
+    private final Path file;
+    private final Properties marks = new Properties();
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@code WatermarkStore} instance with the marks saved in
+     * the specified file, if it exists.
+     *
+     * @param file the file to read and save the marks with
+     * @throws IOException if the file exists but can't be read
+     */
+    WatermarkStore(@NonNull Path file) throws IOException {
+        this.file = file;
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                marks.load(reader);
+            }
+            LOGGER.debug("Loaded {} watermarks from '{}'.", marks.size(), file);
+        }
+    }
+
+    /**
+     * Returns the last committed mark of the watermark column of the given
+     * table, or null if there is none or it can't be read.
+     *
+     * @param table  the name of the table
+     * @param column the name of the watermark column
+     * @return the value of the mark
+     */
+    Object get(@NonNull String table, @NonNull String column) {
+        String mark = marks.getProperty(toKey(table, column));
+        if (mark == null) {
+            return null;
+        }
+        int separator = mark.indexOf(':');
+        try {
+            return ColumnType.valueOf(mark.substring(0, separator)).parse(mark.substring(separator + 1));
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Ignoring unreadable watermark '{}' of '{}'.", mark, table);
+            return null;
+        }
+    }
+
+    /**
+     * Sets the mark reached in the watermark column of the given table by
+     * this run. The mark is not saved until committed.
+     *
+     * @param table      the name of the table
+     * @param column     the name of the watermark column
+     * @param columnType the type the value was read as
+     * @param value      the value of the mark
+     */
+    void update(@NonNull String table, @NonNull String column, @NonNull ColumnType columnType, @NonNull Object value) {
+        pending.put(toKey(table, column), columnType.name() + ":" + columnType.toLexicalForm(value));
+    }
+
+    /**
+     * Saves every mark updated since the last commit to the file. The file
+     * is replaced whole, so it is never left half written.
+     *
+     * @throws IOException if the file can't be written
+     */
+    void commit() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        marks.putAll(pending);
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            marks.store(writer, "RDFWeaver watermarks");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Saved {} watermarks to '{}'.", pending.size(), file);
+        pending.clear();
+    }
+
+    /**
+     * Returns the key of the mark of a watermark column.
+     */
+    private static String toKey(String table, String column) {
+        return table + "#" + column;
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.ConfigMaps;
+import io.github.jiefenn8.graphloom.api.EntityMap;
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import io.github.jiefenn8.graphloom.rdf.RDFMapper;
+import io.github.jiefenn8.graphloom.rdf.r2rml.DatabaseType;
+import io.github.jiefenn8.rdfweaver.output.ChangeStream;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link ChangeFeedMapper}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ChangeFeedMapperTest {
+
+    private static final String EX = "http://example.com/";
+    private static final Node NAME = NodeFactory.createURI(EX + "name");
+    @Mock private RDFMapper mockMapper;
+    @Mock private ConfigMaps mockConfig;
+    @Mock private EntityMap mockEntityMap;
+    @Mock private EntityReference mockReference;
+    @Mock private ChangeStream mockStream;
+    private ChangeFeedMapper changeFeedMapper;
+
+    @Before
+    public void setUp() {
+        when(mockReference.getPayload()).thenReturn("EMP");
+        when(mockReference.getPayloadType()).thenReturn(DatabaseType.TABLE_NAME);
+        when(mockConfig.getEntityMaps()).thenReturn(Set.of(mockEntityMap));
+        when(mockMapper.mapToGraph(any(InputSource.class), any(ConfigMaps.class))).thenAnswer((invocation) -> {
+            InputSource source = invocation.getArgument(0);
+            Model model = ModelFactory.createDefaultModel();
+            source.executeEntityQuery(mockReference, (result) -> {
+                while (result.hasNext()) {
+                    Entity entity = result.nextEntity();
+                    model.add(ResourceFactory.createResource(EX + "emp/" + entity.getPropertyValue("EMPNO")),
+                            ResourceFactory.createProperty(EX + "name"),
+                            ResourceFactory.createStringLiteral(entity.getPropertyValue("ENAME")));
+                }
+            });
+            return model;
+        });
+        changeFeedMapper = new ChangeFeedMapper(mockMapper, 10);
+    }
+
+    private ChangeFeedSource sourceOf(List<Change> changes, Map<String, String> rows) {
+        return new ChangeFeedSource() {
+            private boolean read = false;
+
+            @Override
+            public boolean hasChangeFeed() {
+                return true;
+            }
+
+            @Override
+            public List<Change> readChanges(int limit) {
+                List<Change> result = read ? List.of() : changes;
+                read = true;
+                return result;
+            }
+
+            @Override
+            public String getKeyColumn(EntityReference entityReference) {
+                return "EMPNO";
+            }
+
+            @Override
+            public EntityReference rowEntityQuery(EntityReference entityReference, String key) {
+                EntityReference rowReference = mock(EntityReference.class);
+                when(rowReference.getPayload()).thenReturn(key);
+                return rowReference;
+            }
+
+            @Override
+            public void commit() throws IOException {
+            }
+
+            @Override
+            public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+                String key = entityReference.getPayload();
+                List<Entity> entities = new ArrayList<>();
+                if (rows.containsKey(key)) {
+                    entities.add((name) -> name.equals("EMPNO") ? key : rows.get(key));
+                }
+                action.accept(new EntityResult() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < entities.size();
+                    }
+
+                    @Override
+                    public Entity nextEntity() {
+                        return entities.get(index++);
+                    }
+                });
+            }
+        };
+    }
+
+    @Test
+    public void GivenChangesOfSameRow_WhenMapChanges_ThenDeleteAndAddRowOnce() {
+        ChangeFeedSource source = sourceOf(List.of(
+                new Change(1, Change.Operation.INSERT, "EMP", "7369"),
+                new Change(2, Change.Operation.UPDATE, "EMP", "7369")), Map.of("7369", "SMITH"));
+        Node subject = NodeFactory.createURI(EX + "emp/7369");
+
+        long result = changeFeedMapper.mapChanges(source, mockConfig, mockStream);
+        assertThat(result, is(2L));
+        InOrder inOrder = inOrder(mockStream);
+        inOrder.verify(mockStream).start();
+        inOrder.verify(mockStream).delete(Triple.create(subject, NAME, Node.ANY));
+        inOrder.verify(mockStream).add(Triple.create(subject, NAME, NodeFactory.createLiteral("SMITH")));
+        inOrder.verify(mockStream).commit();
+        inOrder.verify(mockStream).finish();
+        verify(mockStream, times(1)).delete(any());
+    }
+
+    @Test
+    public void GivenDeletedRow_WhenMapChanges_ThenDeleteMappedPatternsOfKey() {
+        ChangeFeedSource source = sourceOf(List.of(
+                new Change(3, Change.Operation.DELETE, "dbo.[EMP]", "7499")), Map.of());
+
+        changeFeedMapper.mapChanges(source, mockConfig, mockStream);
+        verify(mockStream).delete(Triple.create(NodeFactory.createURI(EX + "emp/7499"), NAME, Node.ANY));
+        verify(mockStream, never()).delete(Triple.create(NodeFactory.createURI(EX + "emp/7499"), Node.ANY,
+                Node.ANY));
+        verify(mockStream, never()).add(any());
+    }
+
+    @Test
+    public void GivenConstantObject_WhenMapChanges_ThenDeleteExactTriple() {
+        Node type = NodeFactory.createURI("http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
+        Node employee = NodeFactory.createURI(EX + "Employee");
+        when(mockMapper.mapToGraph(any(InputSource.class), any(ConfigMaps.class))).thenAnswer((invocation) -> {
+            InputSource source = invocation.getArgument(0);
+            Model model = ModelFactory.createDefaultModel();
+            source.executeEntityQuery(mockReference, (result) -> {
+                while (result.hasNext()) {
+                    Entity entity = result.nextEntity();
+                    model.getGraph().add(Triple.create(NodeFactory.createURI(EX + "emp/"
+                            + entity.getPropertyValue("EMPNO")), type, employee));
+                }
+            });
+            return model;
+        });
+        ChangeFeedSource source = sourceOf(List.of(
+                new Change(5, Change.Operation.DELETE, "EMP", "7521")), Map.of());
+
+        changeFeedMapper.mapChanges(source, mockConfig, mockStream);
+        verify(mockStream).delete(Triple.create(NodeFactory.createURI(EX + "emp/7521"), type, employee));
+    }
+
+    @Test
+    public void GivenMappingFailure_WhenMapChanges_ThenAbortStream() {
+        when(mockMapper.mapToGraph(any(InputSource.class), any(ConfigMaps.class)))
+                .thenThrow(new IllegalStateException("Mapping failed."));
+        ChangeFeedSource source = sourceOf(List.of(
+                new Change(6, Change.Operation.INSERT, "EMP", "7566")), Map.of("7566", "JONES"));
+
+        Assert.assertThrows(IllegalStateException.class,
+                () -> changeFeedMapper.mapChanges(source, mockConfig, mockStream));
+        verify(mockStream).abort();
+        verify(mockStream, never()).commit();
+        verify(mockStream, never()).finish();
+    }
+
+    @Test
+    public void GivenChangeOfUnmappedTable_WhenMapChanges_ThenSendNoChanges() {
+        ChangeFeedSource source = sourceOf(List.of(
+                new Change(4, Change.Operation.INSERT, "DEPT", "10")), Map.of("10", "SALES"));
+
+        long result = changeFeedMapper.mapChanges(source, mockConfig, mockStream);
+        assertThat(result, is(1L));
+        verify(mockStream, never()).delete(any());
+        verify(mockStream).commit();
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link Checkpoint}.
+ */
+public class CheckpointTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath().resolve("output.nt.checkpoint");
+    }
+
+    @Test
+    public void GivenCompletedTask_WhenReopen_ThenTaskIsCompleted() throws Exception {
+        Checkpoint checkpoint = new Checkpoint(directory);
+        Files.writeString(checkpoint.getSegment("a1"), "");
+        checkpoint.complete("a1", 0);
+
+        Checkpoint result = new Checkpoint(directory);
+        assertThat(result.isCompleted("a1"), is(true));
+        assertThat(result.getCompletedCount(), is(1));
+    }
+
+    @Test
+    public void GivenRecordWithoutSegment_WhenReopen_ThenTaskIsNotCompleted() throws Exception {
+        new Checkpoint(directory).complete("a1", 10);
+
+        Checkpoint result = new Checkpoint(directory);
+        assertThat(result.isCompleted("a1"), is(false));
+    }
+
+    @Test
+    public void GivenTornRecord_WhenReopenAndComplete_ThenKeepLaterRecord() throws Exception {
+        Checkpoint checkpoint = new Checkpoint(directory);
+        Files.writeString(checkpoint.getSegment("b2"), "");
+        Files.writeString(directory.resolve("journal"), "a1", StandardCharsets.UTF_8);
+
+        new Checkpoint(directory).complete("b2", 3);
+        Checkpoint result = new Checkpoint(directory);
+        assertThat(result.isCompleted("b2"), is(true));
+        assertThat(result.isCompleted("a1"), is(false));
+    }
+
+    @Test
+    public void GivenCheckpoint_WhenDelete_ThenRemoveDirectory() throws Exception {
+        Checkpoint checkpoint = new Checkpoint(directory);
+        Files.writeString(checkpoint.getSegment("a1"), "");
+        checkpoint.complete("a1", 0);
+
+        checkpoint.delete();
+        assertThat(Files.exists(directory), is(false));
+        assertThat(checkpoint.isCompleted("a1"), is(false));
+    }
+}
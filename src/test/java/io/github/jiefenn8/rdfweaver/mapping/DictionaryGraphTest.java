@@ -0,0 +1,141 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link DictionaryGraph}.
+ */
+public class DictionaryGraphTest {
+
+    private static final Node JOB = NodeFactory.createURI("http://example.com/job");
+    private static final Node NAME = NodeFactory.createURI("http://example.com/name");
+    private DictionaryGraph graph;
+
+    @Before
+    public void setUp() {
+        graph = new DictionaryGraph();
+    }
+
+    private static Node employee(int id) {
+        return NodeFactory.createURI("http://example.com/emp/" + id);
+    }
+
+    @Test
+    public void GivenSameTripleTwice_WhenAdd_ThenHoldOnce() {
+        graph.add(Triple.create(employee(1), JOB, NodeFactory.createLiteral("CLERK")));
+        graph.add(Triple.create(employee(1), JOB, NodeFactory.createLiteral("CLERK")));
+        assertThat(graph.size(), is(1));
+        assertThat(graph.getTermCount(), is(3));
+        assertThat(graph.contains(employee(1), JOB, NodeFactory.createLiteral("CLERK")), is(true));
+        assertThat(graph.contains(employee(1), JOB, NodeFactory.createLiteral("MANAGER")), is(false));
+    }
+
+    @Test
+    public void GivenTriples_WhenFindByTerm_ThenReturnMatchingTriples() {
+        for (int i = 0; i < 1000; i++) {
+            graph.add(Triple.create(employee(i), JOB, NodeFactory.createLiteral(i % 2 == 0 ? "CLERK" : "MANAGER")));
+            graph.add(Triple.create(employee(i), NAME, NodeFactory.createLiteral("Employee " + i)));
+        }
+        assertThat(graph.find(employee(7), Node.ANY, Node.ANY).toList().size(), is(2));
+        assertThat(graph.find(Node.ANY, JOB, Node.ANY).toList().size(), is(1000));
+        assertThat(graph.find(Node.ANY, JOB, NodeFactory.createLiteral("CLERK")).toList().size(), is(500));
+        assertThat(graph.find(Node.ANY, NAME, NodeFactory.createLiteral("CLERK")).toList().size(), is(0));
+        assertThat(graph.find(Node.ANY, Node.ANY, Node.ANY).toList().size(), is(2000));
+        List<Triple> triples = graph.find(employee(7), NAME, Node.ANY).toList();
+        assertThat(triples.get(0), is(Triple.create(employee(7), NAME, NodeFactory.createLiteral("Employee 7"))));
+    }
+
+    @Test
+    public void GivenTriplesAddedAfterFind_WhenFind_ThenReturnAddedTriples() {
+        graph.add(Triple.create(employee(1), JOB, NodeFactory.createLiteral("CLERK")));
+        assertThat(graph.find(Node.ANY, JOB, Node.ANY).toList().size(), is(1));
+        graph.add(Triple.create(employee(2), JOB, NodeFactory.createLiteral("CLERK")));
+        assertThat(graph.find(Node.ANY, JOB, Node.ANY).toList().size(), is(2));
+    }
+
+    @Test
+    public void GivenTerms_WhenFind_ThenReturnEqualTerms() {
+        Node[] objects = {
+                NodeFactory.createLiteral("Smith", "en"),
+                NodeFactory.createLiteral("800", XSDDatatype.XSDinteger),
+                NodeFactory.createLiteral("Z\u00FCrich \uD83D\uDE00 \uD800"),
+                NodeFactory.createBlankNode("b0"),
+                NodeFactory.createURI("http://example.com/dept/\u7814\u7A76")
+        };
+        for (Node object : objects) {
+            graph.add(Triple.create(employee(1), NAME, object));
+        }
+        for (Node object : objects) {
+            List<Triple> triples = graph.find(Node.ANY, Node.ANY, object).toList();
+            assertThat(triples.size(), is(1));
+            assertThat(triples.get(0).getObject(), is(object));
+        }
+    }
+
+    @Test
+    public void GivenModel_WhenWriteAndRead_ThenReturnIsomorphicModel() {
+        Model model = ModelFactory.createModelForGraph(graph);
+        for (int i = 0; i < 100; i++) {
+            graph.add(Triple.create(employee(i), JOB, NodeFactory.createLiteral("CLERK")));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDFDataMgr.write(out, model, Lang.TURTLE);
+        Model result = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(result, new ByteArrayInputStream(out.toByteArray()), Lang.TURTLE);
+        assertThat(result.isIsomorphicWith(model), is(true));
+    }
+
+    @Test
+    public void GivenBuiltGraph_WhenReadByThreads_ThenEveryThreadReturnSameTriples() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            graph.add(Triple.create(employee(i), JOB, NodeFactory.createLiteral(i % 2 == 0 ? "CLERK" : "MANAGER")));
+            graph.add(Triple.create(employee(i), NAME, NodeFactory.createLiteral(String.valueOf(i),
+                    XSDDatatype.XSDinteger)));
+        }
+        List<Triple> expected = graph.find(Node.ANY, Node.ANY, Node.ANY).toList();
+        Callable<Boolean> read = () -> {
+            for (int i = 0; i < 1000; i++) {
+                Node object = NodeFactory.createLiteral(String.valueOf(i), XSDDatatype.XSDinteger);
+                if (!graph.contains(employee(i), NAME, object)
+                        || graph.find(Node.ANY, NAME, object).toList().size() != 1
+                        || graph.find(employee(i), Node.ANY, Node.ANY).toList().size() != 2) {
+                    return false;
+                }
+            }
+            return graph.find(Node.ANY, Node.ANY, Node.ANY).toList().equals(expected);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> reads = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                reads.add(read);
+            }
+            for (Future<Boolean> result : executor.invokeAll(reads)) {
+                assertThat(result.get(), is(true));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
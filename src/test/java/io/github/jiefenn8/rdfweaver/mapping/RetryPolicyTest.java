@@ -0,0 +1,32 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link RetryPolicy}.
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void GivenRetries_WhenCanRetry_ThenAllowOnlyThatManyRetries() {
+        RetryPolicy policy = new RetryPolicy(2, 100);
+        assertThat(policy.canRetry(2), is(true));
+        assertThat(policy.canRetry(3), is(false));
+    }
+
+    @Test
+    public void GivenFailedAttempts_WhenGetDelay_ThenDoubleDelayUpToCap() {
+        RetryPolicy policy = new RetryPolicy(30, 500);
+        assertThat(policy.getDelay(1), is(500L));
+        assertThat(policy.getDelay(3), is(2000L));
+        assertThat(policy.getDelay(30), is(60000L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void GivenNegativeRetries_WhenConstruct_ThenThrowException() {
+        new RetryPolicy(-1, 100);
+    }
+}
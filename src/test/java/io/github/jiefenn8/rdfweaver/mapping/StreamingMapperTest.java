@@ -0,0 +1,327 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import io.github.jiefenn8.graphloom.api.ConfigMaps;
+import io.github.jiefenn8.graphloom.api.EntityMap;
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.api.InputSource;
+import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import io.github.jiefenn8.graphloom.api.inputsource.EntityResult;
+import io.github.jiefenn8.graphloom.rdf.RDFMapper;
+import io.github.jiefenn8.rdfweaver.output.AbortableStream;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link StreamingMapper}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class StreamingMapperTest {
+
+    private static final int BATCH_SIZE = 3;
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    private final List<Long> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    @Mock private RDFMapper mockMapper;
+    @Mock private ConfigMaps mockConfig;
+    @Mock private EntityMap mockEntityMap;
+    @Mock private EntityReference mockReference;
+    private StreamingMapper streamingMapper;
+    private Graph graph;
+    private StreamRDF stream;
+
+    @Before
+    public void setUp() {
+        when(mockConfig.getNamespaceMap()).thenReturn(Map.of("ex", "http://example.com/"));
+        when(mockConfig.getEntityMaps()).thenReturn(Set.of(mockEntityMap));
+        when(mockMapper.mapToGraph(any(InputSource.class), any(ConfigMaps.class))).thenAnswer((invocation) -> {
+            InputSource source = invocation.getArgument(0);
+            Model model = ModelFactory.createDefaultModel();
+            source.executeEntityQuery(mockReference, (result) -> mapRows(result, model));
+            batchSizes.add(model.size());
+            return model;
+        });
+        streamingMapper = new StreamingMapper(mockMapper, BATCH_SIZE);
+        graph = GraphFactory.createDefaultGraph();
+        stream = StreamRDFLib.graph(graph);
+    }
+
+    private void mapRows(EntityResult result, Model model) {
+        while (result.hasNext()) {
+            String id = result.nextEntity().getPropertyValue("ID");
+            model.add(ResourceFactory.createResource("http://example.com/" + id),
+                    ResourceFactory.createProperty("http://example.com/id"),
+                    ResourceFactory.createStringLiteral(id));
+        }
+    }
+
+    private InputSource sourceOf(int rows) {
+        return new InputSource() {
+            @Override
+            public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+                action.accept(new EntityResult() {
+                    private int row = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return row < rows;
+                    }
+
+                    @Override
+                    public Entity nextEntity() {
+                        String id = String.valueOf(++row);
+                        return (name) -> id;
+                    }
+                });
+            }
+        };
+    }
+
+    @Test
+    public void GivenRowsOverBatchSize_WhenMapToStream_ThenStreamAllTriples() {
+        long result = streamingMapper.mapToStream(sourceOf(10), mockConfig, stream);
+        assertThat(result, is(10L));
+        assertThat(graph.size(), is(10));
+    }
+
+    @Test
+    public void GivenRowsOverBatchSize_WhenMapToStream_ThenMapInBoundedBatches() {
+        streamingMapper.mapToStream(sourceOf(10), mockConfig, stream);
+        assertThat(batchSizes.size(), is(4));
+        assertThat(batchSizes, everyItem(lessThanOrEqualTo((long) BATCH_SIZE)));
+    }
+
+    @Test
+    public void GivenNoRows_WhenMapToStream_ThenStartAndFinishStream() {
+        StreamRDF mockStream = mock(StreamRDF.class);
+        long result = streamingMapper.mapToStream(sourceOf(0), mockConfig, mockStream);
+        assertThat(result, is(0L));
+        verify(mockStream).start();
+        verify(mockStream).prefix("ex", "http://example.com/");
+        verify(mockStream).finish();
+    }
+
+    @Test
+    public void GivenOtherQueryDuringBatch_WhenMapToStream_ThenPassQueryToSource() {
+        InputSource spySource = spy(sourceOf(5));
+        EntityReference joinReference = mock(EntityReference.class);
+        when(mockMapper.mapToGraph(any(InputSource.class), any(ConfigMaps.class))).thenAnswer((invocation) -> {
+            InputSource source = invocation.getArgument(0);
+            Model model = ModelFactory.createDefaultModel();
+            source.executeEntityQuery(mockReference, (result) -> {
+                source.executeEntityQuery(joinReference, (joinResult) -> mapRows(joinResult, model));
+                mapRows(result, model);
+            });
+            return model;
+        });
+
+        streamingMapper.mapToStream(spySource, mockConfig, stream);
+        verify(spySource, times(1)).executeEntityQuery(eq(mockReference), any());
+        verify(spySource, times(2)).executeEntityQuery(eq(joinReference), any());
+    }
+
+    @Test
+    public void GivenParallelism_WhenMapToStream_ThenStreamTriplesOfAllEntityMaps() {
+        when(mockConfig.getEntityMaps()).thenReturn(Set.of(mockEntityMap, mock(EntityMap.class), mock(EntityMap.class)));
+        StreamingMapper parallelMapper = new StreamingMapper(mockMapper, BATCH_SIZE, 3);
+        long result = parallelMapper.mapToStream(sourceOf(10), mockConfig, stream);
+        assertThat(result, is(30L));
+        assertThat(batchSizes.size(), is(12));
+    }
+
+    @Test
+    public void GivenFailingEntityMap_WhenMapToStreamInParallel_ThenThrowFailureAndAbortStream() {
+        EntityMap failingMap = mock(EntityMap.class);
+        when(mockConfig.getEntityMaps()).thenReturn(Set.of(mockEntityMap, failingMap));
+        when(mockMapper.mapToGraph(any(InputSource.class), any(ConfigMaps.class))).thenAnswer((invocation) -> {
+            ConfigMaps config = invocation.getArgument(1);
+            if (config.getEntityMaps().contains(failingMap)) {
+                throw new IllegalStateException("failed");
+            }
+            return ModelFactory.createDefaultModel();
+        });
+        AbortableStream mockStream = mock(AbortableStream.class);
+        StreamingMapper parallelMapper = new StreamingMapper(mockMapper, BATCH_SIZE, 2);
+
+        Assert.assertThrows(IllegalStateException.class,
+                () -> parallelMapper.mapToStream(sourceOf(10), mockConfig, mockStream));
+        verify(mockStream).abort();
+        verify(mockStream, never()).finish();
+    }
+
+    @Test
+    public void GivenFailingEntityMap_WhenMapToStream_ThenNotFinishStream() {
+        when(mockMapper.mapToGraph(any(InputSource.class), any(ConfigMaps.class)))
+                .thenThrow(new IllegalStateException("failed"));
+        StreamRDF mockStream = mock(StreamRDF.class);
+
+        Assert.assertThrows(IllegalStateException.class,
+                () -> streamingMapper.mapToStream(sourceOf(10), mockConfig, mockStream));
+        verify(mockStream).start();
+        verify(mockStream, never()).finish();
+    }
+
+    @Test
+    public void GivenPartitionedSource_WhenMapToStreamInParallel_ThenMapEveryPartition() {
+        EntityReference firstPartition = mock(EntityReference.class);
+        EntityReference secondPartition = mock(EntityReference.class);
+        InputSource firstSource = sourceOf(4);
+        InputSource secondSource = spy(sourceOf(6));
+        PartitionableSource partitionedSource = new PartitionableSource() {
+            @Override
+            public List<EntityReference> partitionEntityQuery(EntityReference entityReference) {
+                return List.of(firstPartition, secondPartition);
+            }
+
+            @Override
+            public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+                InputSource source = entityReference == firstPartition ? firstSource : secondSource;
+                source.executeEntityQuery(entityReference, action);
+            }
+        };
+        StreamingMapper parallelMapper = new StreamingMapper(mockMapper, BATCH_SIZE, 2);
+
+        long result = parallelMapper.mapToStream(partitionedSource, mockConfig, stream);
+        assertThat(result, is(10L));
+        verify(secondSource).executeEntityQuery(eq(secondPartition), any());
+    }
+
+    @Test
+    public void GivenUnpartitionedReference_WhenMapToStream_ThenQueryOriginalReference() {
+        PartitionableSource spySource = spy(new PartitionableSource() {
+            @Override
+            public List<EntityReference> partitionEntityQuery(EntityReference entityReference) {
+                return List.of(entityReference);
+            }
+
+            @Override
+            public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+                sourceOf(5).executeEntityQuery(entityReference, action);
+            }
+        });
+
+        long result = streamingMapper.mapToStream(spySource, mockConfig, stream);
+        assertThat(result, is(5L));
+        verify(spySource).partitionEntityQuery(mockReference);
+    }
+
+    @Test
+    public void GivenSessionSource_WhenMapToStreamInParallel_ThenMapSameReferenceInOneSession() {
+        when(mockConfig.getEntityMaps()).thenReturn(Set.of(mockEntityMap, mock(EntityMap.class)));
+        AtomicInteger sessions = new AtomicInteger();
+        SessionSource sessionSource = new SessionSource() {
+            @Override
+            public Session openSession() {
+                sessions.incrementAndGet();
+                return () -> {
+                };
+            }
+
+            @Override
+            public void executeEntityQuery(EntityReference entityReference, Consumer<EntityResult> action) {
+                sourceOf(5).executeEntityQuery(entityReference, action);
+            }
+        };
+        StreamingMapper parallelMapper = new StreamingMapper(mockMapper, BATCH_SIZE, 2);
+
+        long result = parallelMapper.mapToStream(sessionSource, mockConfig, stream);
+        assertThat(result, is(10L));
+        assertThat(sessions.get(), is(1));
+    }
+
+    @Test
+    public void GivenCheckpoint_WhenMapToStream_ThenStreamAllTriplesAndRecordTask() throws Exception {
+        Checkpoint checkpoint = new Checkpoint(folder.getRoot().toPath());
+        StreamingMapper checkpointMapper = new StreamingMapper(mockMapper, BATCH_SIZE, 1, checkpoint, RetryPolicy.NONE);
+
+        long result = checkpointMapper.mapToStream(sourceOf(10), mockConfig, stream);
+        assertThat(result, is(10L));
+        assertThat(graph.size(), is(10));
+        assertThat(checkpoint.getCompletedCount(), is(1));
+    }
+
+    @Test
+    public void GivenCompletedCheckpoint_WhenMapToStream_ThenStreamSegmentWithoutQueryingSource() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        new StreamingMapper(mockMapper, BATCH_SIZE, 1, new Checkpoint(directory), RetryPolicy.NONE)
+                .mapToStream(sourceOf(10), mockConfig, StreamRDFLib.sinkNull());
+        InputSource spySource = spy(sourceOf(10));
+        StreamingMapper resumedMapper = new StreamingMapper(mockMapper, BATCH_SIZE, 1, new Checkpoint(directory),
+                RetryPolicy.NONE);
+
+        long result = resumedMapper.mapToStream(spySource, mockConfig, stream);
+        assertThat(result, is(10L));
+        assertThat(graph.size(), is(10));
+        verify(spySource, never()).executeEntityQuery(any(), any());
+    }
+
+    @Test
+    public void GivenTransientFailure_WhenMapToStreamWithCheckpoint_ThenMapTaskAgain() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        InputSource failingSource = (entityReference, action) -> {
+            boolean fail = attempts.incrementAndGet() == 1;
+            sourceOf(10).executeEntityQuery(entityReference, (result) -> action.accept(new EntityResult() {
+                private int row = 0;
+
+                @Override
+                public boolean hasNext() {
+                    if (fail && row == 5) {
+                        throw new TransientSourceException("Connection reset", null);
+                    }
+                    return result.hasNext();
+                }
+
+                @Override
+                public Entity nextEntity() {
+                    row++;
+                    return result.nextEntity();
+                }
+            }));
+        };
+        Checkpoint checkpoint = new Checkpoint(folder.getRoot().toPath());
+        StreamingMapper checkpointMapper = new StreamingMapper(mockMapper, BATCH_SIZE, 1, checkpoint,
+                new RetryPolicy(1, 0));
+
+        long result = checkpointMapper.mapToStream(failingSource, mockConfig, stream);
+        assertThat(result, is(10L));
+        assertThat(graph.size(), is(10));
+        assertThat(attempts.get(), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void GivenNonPositiveParallelism_WhenConstruct_ThenThrowException() {
+        new StreamingMapper(mockMapper, BATCH_SIZE, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void GivenNonPositiveBatchSize_WhenConstruct_ThenThrowException() {
+        new StreamingMapper(mockMapper, 0);
+    }
+}
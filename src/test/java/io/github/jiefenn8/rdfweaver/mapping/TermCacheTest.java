@@ -0,0 +1,85 @@
+package io.github.jiefenn8.rdfweaver.mapping;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link TermCache}.
+ */
+public class TermCacheTest {
+
+    private TermCache termCache;
+
+    @Before
+    public void setUp() {
+        termCache = new TermCache(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void GivenZeroSize_WhenConstruct_ThenThrowException() {
+        new TermCache(0);
+    }
+
+    @Test
+    public void GivenEqualNodes_WhenIntern_ThenReturnFirstNode() {
+        Node first = NodeFactory.createURI("http://example.com/job");
+        Node second = NodeFactory.createURI("http://example.com/job");
+        termCache.intern(first);
+        Node result = termCache.intern(second);
+        assertThat(result, is(sameInstance(first)));
+        assertThat(termCache.getHits(), is(1L));
+        assertThat(termCache.getMisses(), is(1L));
+        assertThat(termCache.getHitRate(), is(0.5));
+    }
+
+    @Test
+    public void GivenCacheFull_WhenIntern_ThenEvictLeastRecentlyUsed() {
+        Node first = NodeFactory.createLiteral("CLERK");
+        Node second = NodeFactory.createLiteral("MANAGER");
+        termCache.intern(first);
+        termCache.intern(second);
+        termCache.intern(NodeFactory.createLiteral("CLERK"));
+        termCache.intern(NodeFactory.createLiteral("ANALYST"));
+        assertThat(termCache.size(), is(2));
+        assertThat(termCache.intern(NodeFactory.createLiteral("CLERK")), is(sameInstance(first)));
+        assertThat(termCache.intern(NodeFactory.createLiteral("MANAGER")), is(not(sameInstance(second))));
+    }
+
+    @Test
+    public void GivenLongLiteral_WhenIntern_ThenNotKept() {
+        String value = new String(new char[300]).replace('\0', 'a');
+        termCache.intern(NodeFactory.createLiteral(value));
+        Node result = termCache.intern(NodeFactory.createLiteral(value));
+        assertThat(termCache.size(), is(0));
+        assertThat(termCache.getMisses(), is(0L));
+        assertThat(result.getLiteralLexicalForm(), is(value));
+    }
+
+    @Test
+    public void GivenInterningStream_WhenTriple_ThenGraphSharesTerms() {
+        termCache = new TermCache(16);
+        Graph graph = GraphFactory.createDefaultGraph();
+        InterningStream stream = new InterningStream(StreamRDFLib.graph(graph), termCache);
+        stream.start();
+        for (int i = 0; i < 2; i++) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.com/emp/" + i),
+                    NodeFactory.createURI("http://example.com/job"), NodeFactory.createLiteral("CLERK")));
+        }
+        stream.finish();
+        Triple[] triples = graph.find(Node.ANY, Node.ANY, Node.ANY).toList().toArray(new Triple[0]);
+        assertThat(triples.length, is(2));
+        assertThat(triples[1].getPredicate(), is(sameInstance(triples[0].getPredicate())));
+        assertThat(triples[1].getObject(), is(sameInstance(triples[0].getObject())));
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Unit test class for {@link BloomDedupFilter}.
+ */
+public class BloomDedupFilterTest {
+
+    @Test
+    public void GivenAddedHashes_WhenAddAgain_ThenReturnFalse() {
+        BloomDedupFilter filter = new BloomDedupFilter(1 << 16);
+        Random random = new Random(42);
+        long[] hashes = new long[2000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+            filter.add(hashes[i], ~hashes[i]);
+        }
+        int result = 0;
+        for (long hash : hashes) {
+            result += filter.add(hash, ~hash) ? 1 : 0;
+        }
+        assertThat(result, is(0));
+        assertThat(filter.getFalsePositiveRate(), is(lessThan(0.001)));
+    }
+
+    @Test
+    public void GivenSmallMemory_WhenAddManyHashes_ThenFalsePositiveRateGrows() {
+        BloomDedupFilter filter = new BloomDedupFilter(64);
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(random.nextLong(), random.nextLong());
+        }
+        assertThat(filter.getFalsePositiveRate(), is(greaterThan(0.5)));
+        filter.close();
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdfconnection.RDFConnection;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link ChunkedUploader}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ChunkedUploaderTest {
+
+    private static final String GRAPH = "http://example.com/graph";
+    @Mock private RDFConnection mockConnection;
+
+    private Graph chunkOf(int start, int size) {
+        Graph chunk = GraphFactory.createDefaultGraph();
+        for (int i = start; i < start + size; i++) {
+            chunk.add(Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                    NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i))));
+        }
+        return chunk;
+    }
+
+    @Test
+    public void GivenChunks_WhenFinish_ThenLoadEveryChunk() {
+        ChunkedUploader uploader = new ChunkedUploader(() -> mockConnection, GRAPH, 2, RetryPolicy.NONE);
+        for (int i = 0; i < 5; i++) {
+            uploader.submit(chunkOf(i * 2, 2));
+        }
+
+        long result = uploader.finish();
+        assertThat(result, is(10L));
+        verify(mockConnection, times(5)).load(eq(GRAPH), any(Model.class));
+        verify(mockConnection, atLeastOnce()).close();
+    }
+
+    @Test
+    public void GivenServerError_WhenFinish_ThenLoadFailedChunkAgain() {
+        doThrow(new HttpException(503, "Service Unavailable", null)).doNothing()
+                .when(mockConnection).load(eq(GRAPH), any(Model.class));
+        ChunkedUploader uploader = new ChunkedUploader(() -> mockConnection, GRAPH, 1, new RetryPolicy(1, 0));
+        uploader.submit(chunkOf(0, 3));
+
+        long result = uploader.finish();
+        assertThat(result, is(3L));
+        verify(mockConnection, times(2)).load(eq(GRAPH), any(Model.class));
+    }
+
+    @Test
+    public void GivenClientError_WhenFinish_ThenThrowWithoutRetry() {
+        doThrow(new HttpException(400, "Bad Request", null)).when(mockConnection).load(eq(GRAPH), any(Model.class));
+        ChunkedUploader uploader = new ChunkedUploader(() -> mockConnection, GRAPH, 1, new RetryPolicy(3, 0));
+        uploader.submit(chunkOf(0, 3));
+
+        Assert.assertThrows(HttpException.class, uploader::finish);
+        verify(mockConnection, times(1)).load(eq(GRAPH), any(Model.class));
+    }
+
+    @Test
+    public void GivenUpdate_WhenUpdate_ThenSendOverOwnConnection() {
+        ChunkedUploader uploader = new ChunkedUploader(() -> mockConnection, GRAPH, 1, RetryPolicy.NONE);
+        uploader.finish();
+        uploader.update("DROP SILENT GRAPH <" + GRAPH + ">");
+
+        verify(mockConnection).update("DROP SILENT GRAPH <" + GRAPH + ">");
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void GivenServerError_WhenUploadFile_ThenLoadFileAgainOverOwnConnection() {
+        Path file = Path.of("blank.nt");
+        doThrow(new HttpException(503, "Service Unavailable", null)).doNothing()
+                .when(mockConnection).load(GRAPH, file.toString());
+        ChunkedUploader uploader = new ChunkedUploader(() -> mockConnection, GRAPH, 1, new RetryPolicy(1, 0));
+        uploader.finish();
+        uploader.uploadFile(file);
+
+        verify(mockConnection, times(2)).load(GRAPH, file.toString());
+        verify(mockConnection, times(2)).close();
+    }
+
+    @Test
+    public void GivenPendingChunks_WhenAbort_ThenStopAndCloseConnections() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        doAnswer((invocation) -> {
+            loading.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }).when(mockConnection).load(eq(GRAPH), any(Model.class));
+        ChunkedUploader uploader = new ChunkedUploader(() -> mockConnection, GRAPH, 1, RetryPolicy.NONE);
+        for (int i = 0; i < 2; i++) {
+            uploader.submit(chunkOf(i * 2, 2));
+        }
+        loading.await();
+
+        uploader.abort();
+        verify(mockConnection, times(1)).load(eq(GRAPH), any(Model.class));
+        verify(mockConnection).close();
+    }
+}
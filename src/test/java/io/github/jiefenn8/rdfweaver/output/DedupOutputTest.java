@@ -0,0 +1,130 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test class for {@link DedupOutput}.
+ */
+public class DedupOutputTest {
+
+    private static final int ROWS = 2000;
+    @Rule public MockitoRule mockitoRule = MockitoJUnit.rule();
+    @Mock private RDFOutput mockOutput;
+    private List<Triple> received;
+
+    @Before
+    public void setUp() throws Exception {
+        received = new ArrayList<>();
+        Graph graph = GraphFactory.createDefaultGraph();
+        when(mockOutput.openStream()).thenReturn(new CollectingStream(graph, received));
+    }
+
+    /**
+     * Sends every row with its class triple and its department triple, so
+     * that the class and department triples repeat through the rows.
+     */
+    private void sendRows(StreamRDF stream) {
+        Node type = NodeFactory.createURI("http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
+        Node employee = NodeFactory.createURI("http://example.com/Employee");
+        Node dept = NodeFactory.createURI("http://example.com/dept");
+        stream.start();
+        for (int i = 0; i < ROWS; i++) {
+            Node subject = NodeFactory.createURI("http://example.com/emp/" + i % (ROWS / 2));
+            stream.triple(Triple.create(subject, type, employee));
+            stream.triple(Triple.create(subject, dept, NodeFactory.createLiteral(String.valueOf(i % 4))));
+        }
+        stream.finish();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void GivenZeroMemory_WhenConstruct_ThenThrowException() {
+        new DedupOutput(mockOutput, DedupMode.EXACT, 0);
+    }
+
+    @Test
+    public void GivenExactMode_WhenSendDuplicates_ThenPassEachTripleOnce() throws Exception {
+        DedupOutput dedupOutput = new DedupOutput(mockOutput, DedupMode.EXACT, 1024);
+        sendRows(dedupOutput.openStream());
+        assertThat(received.size(), is(ROWS));
+    }
+
+    @Test
+    public void GivenBloomMode_WhenSendDuplicates_ThenPassNoDuplicate() throws Exception {
+        DedupOutput dedupOutput = new DedupOutput(mockOutput, DedupMode.BLOOM, 1 << 16);
+        sendRows(dedupOutput.openStream());
+        assertThat(received.size(), is(ROWS));
+    }
+
+    @Test
+    public void GivenSameTextAsIRIAndLiteral_WhenSend_ThenPassBoth() throws Exception {
+        Node subject = NodeFactory.createURI("http://example.com/emp/1");
+        Node predicate = NodeFactory.createURI("http://example.com/homepage");
+        StreamRDF stream = new DedupOutput(mockOutput, DedupMode.EXACT, 1024).openStream();
+        stream.start();
+        stream.triple(Triple.create(subject, predicate, NodeFactory.createURI("http://example.com/")));
+        stream.triple(Triple.create(subject, predicate, NodeFactory.createLiteral("http://example.com/")));
+        stream.triple(Triple.create(subject, predicate, NodeFactory.createLiteral("http://example.com/", "en")));
+        stream.finish();
+        assertThat(received.size(), is(3));
+    }
+
+    @Test
+    public void GivenQuadsInTwoGraphs_WhenSend_ThenPassQuadOfEachGraph() throws Exception {
+        DatasetGraph dataset = DatasetGraphFactory.create();
+        when(mockOutput.openStream()).thenReturn(StreamRDFLib.dataset(dataset));
+        StreamRDF stream = new DedupOutput(mockOutput, DedupMode.EXACT, 1024).openStream();
+        Triple triple = Triple.create(NodeFactory.createURI("http://example.com/emp/1"),
+                NodeFactory.createURI("http://example.com/dept"), NodeFactory.createLiteral("10"));
+        stream.start();
+        for (int i = 0; i < 3; i++) {
+            stream.quad(Quad.create(NodeFactory.createURI("http://example.com/graph/a"), triple));
+            stream.quad(Quad.create(NodeFactory.createURI("http://example.com/graph/b"), triple));
+        }
+        stream.finish();
+        assertThat(Iter.count(dataset.find()), is(equalTo(2L)));
+    }
+
+    /**
+     * Stream that keeps every triple received in order, duplicates included.
+     */
+    private static class CollectingStream extends StreamRDFWrapper {
+
+        private final List<Triple> triples;
+
+        private CollectingStream(Graph graph, List<Triple> triples) {
+            super(StreamRDFLib.graph(graph));
+            this.triples = triples;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            triples.add(triple);
+            super.triple(triple);
+        }
+    }
+}
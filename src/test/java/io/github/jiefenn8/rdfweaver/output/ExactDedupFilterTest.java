@@ -0,0 +1,109 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Unit test class for {@link ExactDedupFilter}.
+ */
+public class ExactDedupFilterTest {
+
+    private static final int HASHES = 5000;
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    private File spillDirectory;
+    private long[] highs;
+    private long[] lows;
+    private ExactDedupFilter filter;
+
+    @Before
+    public void setUp() throws IOException {
+        spillDirectory = folder.newFolder("spill");
+        Random random = new Random(42);
+        highs = new long[HASHES];
+        lows = new long[HASHES];
+        for (int i = 0; i < HASHES; i++) {
+            highs[i] = random.nextLong();
+            lows[i] = random.nextLong();
+        }
+        filter = new ExactDedupFilter(16 * 64, spillDirectory.toPath());
+    }
+
+    @After
+    public void tearDown() {
+        filter.close();
+    }
+
+    @Test
+    public void GivenNewHashes_WhenAdd_ThenReturnTrue() {
+        int result = 0;
+        for (int i = 0; i < HASHES; i++) {
+            result += filter.add(highs[i], lows[i]) ? 1 : 0;
+        }
+        assertThat(result, is(HASHES));
+    }
+
+    @Test
+    public void GivenHashesSpilledToRuns_WhenAddAgain_ThenReturnFalse() {
+        for (int i = 0; i < HASHES; i++) {
+            filter.add(highs[i], lows[i]);
+        }
+        int result = 0;
+        for (int i = 0; i < HASHES; i++) {
+            result += filter.add(highs[i], lows[i]) ? 1 : 0;
+        }
+        assertThat(result, is(0));
+        assertThat(filter.getRunCount(), is(greaterThan(0)));
+        assertThat(filter.getRunCount(), is(lessThanOrEqualTo(12)));
+    }
+
+    @Test
+    public void GivenManySpills_WhenAdd_ThenRewriteEachHashOncePerLevel() {
+        Random random = new Random(7);
+        int hashes = 50000;
+        for (int i = 0; i < hashes; i++) {
+            filter.add(random.nextLong(), random.nextLong());
+        }
+        int spills = hashes / 49;
+        int levels = 32 - Integer.numberOfLeadingZeros(spills) + 1 >> 1;
+        assertThat(filter.getWrittenBytes(), is(lessThanOrEqualTo((levels + 1L) * hashes * 16)));
+        assertThat(filter.getRunCount(), is(lessThanOrEqualTo(3 * levels)));
+    }
+
+    @Test
+    public void GivenHashesSharingHighBits_WhenAdd_ThenTellApartByLowBits() {
+        assertThat(filter.add(7, 1), is(true));
+        assertThat(filter.add(7, 2), is(true));
+        assertThat(filter.add(7, 1), is(false));
+        assertThat(filter.add(0, 0), is(true));
+        assertThat(filter.add(0, 0), is(false));
+    }
+
+    @Test
+    public void GivenSpillDirectory_WhenSpillAndClose_ThenDeleteRunsInDirectory() throws IOException {
+        for (int i = 0; i < HASHES; i++) {
+            filter.add(highs[i], lows[i]);
+        }
+        try (Stream<Path> runDirectories = Files.list(spillDirectory.toPath())) {
+            assertThat(runDirectories.count(), is(1L));
+        }
+        filter.close();
+        try (Stream<Path> runDirectories = Files.list(spillDirectory.toPath())) {
+            assertThat(runDirectories.count(), is(0L));
+        }
+    }
+}
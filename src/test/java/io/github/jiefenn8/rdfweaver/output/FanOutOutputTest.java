@@ -0,0 +1,222 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test class for {@link FanOutOutput}.
+ */
+public class FanOutOutputTest {
+
+    private static final int TRIPLES = 5000;
+    @Rule public MockitoRule mockitoRule = MockitoJUnit.rule();
+    @Mock private RDFOutput mockOutput;
+    @Mock private RDFOutput mockOtherOutput;
+    private Graph graph;
+    private Graph otherGraph;
+
+    @Before
+    public void setUp() {
+        graph = GraphFactory.createDefaultGraph();
+        otherGraph = GraphFactory.createDefaultGraph();
+    }
+
+    private void sendTriples(StreamRDF stream) {
+        stream.start();
+        stream.prefix("ex", "http://example.com/");
+        for (int i = 0; i < TRIPLES; i++) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                    NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i))));
+        }
+        stream.finish();
+    }
+
+    @Test
+    public void GivenOutputs_WhenSendTriples_ThenWriteEveryTripleToEveryOutput() throws Exception {
+        when(mockOutput.openStream()).thenReturn(StreamRDFLib.graph(graph));
+        when(mockOtherOutput.openStream()).thenReturn(StreamRDFLib.graph(otherGraph));
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput), 2);
+
+        sendTriples(fanOutput.openStream());
+        assertThat(graph.size(), is(TRIPLES));
+        assertThat(otherGraph.size(), is(TRIPLES));
+        assertThat(otherGraph.getPrefixMapping().getNsPrefixURI("ex"), is(equalTo("http://example.com/")));
+    }
+
+    @Test
+    public void GivenBlockedOutput_WhenSendTriples_ThenOtherOutputRunsAhead() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(1000);
+        when(mockOutput.openStream()).thenReturn(new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                try {
+                    released.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        when(mockOtherOutput.openStream()).thenReturn(new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                received.countDown();
+            }
+        });
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput), 4);
+        Thread mapping = new Thread(() -> {
+            try {
+                sendTriples(fanOutput.openStream());
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        mapping.start();
+
+        assertThat(received.await(10, TimeUnit.SECONDS), is(true));
+        released.countDown();
+        mapping.join(10000);
+        assertThat(mapping.isAlive(), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void GivenFailingOutput_WhenSendTriples_ThenThrowException() throws Exception {
+        when(mockOutput.openStream()).thenReturn(new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                throw new IllegalStateException("Output failed.");
+            }
+        });
+        when(mockOtherOutput.openStream()).thenReturn(StreamRDFLib.graph(otherGraph));
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput), 2);
+
+        sendTriples(fanOutput.openStream());
+    }
+
+    @Test
+    public void GivenFailingOutput_WhenSendTriples_ThenAbortOtherOutput() throws Exception {
+        CountDownLatch aborted = new CountDownLatch(1);
+        when(mockOutput.openStream()).thenReturn(new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                throw new IllegalStateException("Output failed.");
+            }
+        });
+        when(mockOtherOutput.openStream()).thenReturn(new AbortableGraphStream(otherGraph, aborted));
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput), 2);
+
+        StreamRDF stream = fanOutput.openStream();
+        Assert.assertThrows(IllegalStateException.class, () -> sendTriples(stream));
+        assertThat(aborted.getCount(), is(0L));
+    }
+
+    @Test
+    public void GivenStartedStream_WhenAbort_ThenAbortEveryOutput() throws Exception {
+        CountDownLatch aborted = new CountDownLatch(2);
+        when(mockOutput.openStream()).thenReturn(new AbortableGraphStream(graph, aborted));
+        when(mockOtherOutput.openStream()).thenReturn(new AbortableGraphStream(otherGraph, aborted));
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput), 2);
+
+        AbortableStream stream = (AbortableStream) fanOutput.openStream();
+        stream.start();
+        stream.triple(Triple.create(NodeFactory.createURI("http://example.com/0"),
+                NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral("0")));
+        stream.abort();
+        stream.abort();
+        assertThat(aborted.getCount(), is(0L));
+    }
+
+    @Test
+    public void GivenFailingOpenStream_WhenOpenStream_ThenAbortOpenedStreams() throws Exception {
+        CountDownLatch aborted = new CountDownLatch(1);
+        when(mockOutput.openStream()).thenReturn(new AbortableGraphStream(graph, aborted));
+        when(mockOtherOutput.openStream()).thenThrow(new IOException("Disk full."));
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput), 2);
+
+        Assert.assertThrows(IOException.class, fanOutput::openStream);
+        assertThat(aborted.getCount(), is(0L));
+    }
+
+    @Test
+    public void GivenFailingChangeStreamAbort_WhenAbort_ThenAbortOtherChangeStreams() throws Exception {
+        ChangeStream mockChangeStream = mock(ChangeStream.class);
+        ChangeStream mockOtherChangeStream = mock(ChangeStream.class);
+        doThrow(IllegalStateException.class).when(mockChangeStream).abort();
+        when(mockOutput.openChangeStream()).thenReturn(mockChangeStream);
+        when(mockOtherOutput.openChangeStream()).thenReturn(mockOtherChangeStream);
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput), 2);
+
+        fanOutput.openChangeStream().abort();
+        verify(mockOtherChangeStream).abort();
+    }
+
+    @Test
+    public void GivenOutputs_WhenSave_ThenSaveModelToEveryOutput() throws Exception {
+        Model model = ModelFactory.createDefaultModel();
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput));
+
+        fanOutput.save(model);
+        verify(mockOutput).save(model);
+        verify(mockOtherOutput).save(model);
+    }
+
+    @Test(expected = IOException.class)
+    public void GivenFailingOutput_WhenSave_ThenThrowException() throws Exception {
+        Model model = ModelFactory.createDefaultModel();
+        doThrow(IOException.class).when(mockOtherOutput).save(model);
+        FanOutOutput fanOutput = new FanOutOutput(List.of(mockOutput, mockOtherOutput));
+
+        fanOutput.save(model);
+    }
+
+    /**
+     * Stream adding to a graph that counts down the latch when aborted.
+     */
+    private static class AbortableGraphStream extends StreamRDFBase implements AbortableStream {
+
+        private final Graph graph;
+        private final CountDownLatch aborted;
+
+        private AbortableGraphStream(Graph graph, CountDownLatch aborted) {
+            this.graph = graph;
+            this.aborted = aborted;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            graph.add(triple);
+        }
+
+        @Override
+        public void abort() {
+            aborted.countDown();
+        }
+    }
+}
@@ -61,4 +61,17 @@ public class FileResolverTest {
         Path result = FileResolver.resolveFilename(testDir, filename);
         assertThat(result, is(equalTo(expected)));
     }
+
+    @Test
+    public void GivenFilenameWithExtensions_WhenSegmentName_ThenNumberBeforeExtensions() {
+        String result = FileResolver.segmentName("rdfOutput.nt.gz", 12);
+        assertThat(result, is(equalTo("rdfOutput-00012.nt.gz")));
+    }
+
+    @Test
+    public void GivenExistingSegment_WhenResolveFilename_ThenReturnIncrementedPath() throws Exception {
+        Files.createFile(testDir.resolve("rdfFile-00001.nt"));
+        Path result = FileResolver.resolveFilename(testDir, "rdfFile.nt");
+        assertThat(result, is(equalTo(testDir.resolve("rdfFile1.nt"))));
+    }
 }
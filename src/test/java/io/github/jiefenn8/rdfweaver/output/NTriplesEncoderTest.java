@@ -0,0 +1,100 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link NTriplesEncoder}.
+ */
+public class NTriplesEncoderTest {
+
+    private ByteArrayOutputStream outputStream;
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        outputStream = new ByteArrayOutputStream();
+        graph = GraphFactory.createDefaultGraph();
+        StringBuilder ascii = new StringBuilder();
+        for (char c = 1; c < 0x80; c++) {
+            ascii.append(c);
+        }
+        Node subject = NodeFactory.createURI("http://example.com/r\u00e9sum\u00e9");
+        Node predicate = NodeFactory.createURI("http://example.com/value");
+        graph.add(Triple.create(subject, predicate, NodeFactory.createLiteral(ascii.toString())));
+        graph.add(Triple.create(subject, predicate, NodeFactory.createLiteral("\u00e9 \u20ac \ud83d\ude00")));
+        graph.add(Triple.create(subject, predicate, NodeFactory.createLiteral("chat", "fr")));
+        graph.add(Triple.create(subject, predicate, NodeFactory.createLiteral("1", XSDDatatype.XSDinteger)));
+        graph.add(Triple.create(subject, predicate, NodeFactory.createLiteral("a", XSDDatatype.XSDstring)));
+        graph.add(Triple.create(NodeFactory.createBlankNode("b-1.x"), predicate, NodeFactory.createBlankNode()));
+    }
+
+    @Test
+    public void GivenGraph_WhenFinish_ThenWriteSameBytesAsJena() {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        RDFDataMgr.write(expected, graph, RDFFormat.NTRIPLES_UTF8);
+        StreamOps.graphToStream(graph, new NTriplesEncoder(Channels.newChannel(outputStream)));
+
+        assertThat(outputStream.toByteArray(), equalTo(expected.toByteArray()));
+    }
+
+    @Test
+    public void GivenDataset_WhenFinish_ThenWriteSameBytesAsJena() {
+        DatasetGraph dataset = DatasetGraphFactory.create(graph);
+        Node name = NodeFactory.createURI("http://example.com/graph");
+        graph.find().forEachRemaining((triple) -> dataset.add(new Quad(name, triple)));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        RDFDataMgr.write(expected, dataset, RDFFormat.NQUADS_UTF8);
+        StreamOps.datasetToStream(dataset, new NTriplesEncoder(Channels.newChannel(outputStream)));
+
+        assertThat(outputStream.toByteArray(), equalTo(expected.toByteArray()));
+    }
+
+    @Test
+    public void GivenSmallBuffer_WhenFinish_ThenWriteSameBytesAsJena() {
+        Node predicate = NodeFactory.createURI("http://example.com/label");
+        for (int i = 0; i < 1000; i++) {
+            graph.add(Triple.create(NodeFactory.createURI("http://example.com/" + i), predicate,
+                    NodeFactory.createLiteral("Label \u00e9 " + i + " \"\u20ac\"", "en")));
+        }
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        RDFDataMgr.write(expected, graph, RDFFormat.NTRIPLES_UTF8);
+        StreamOps.graphToStream(graph, new NTriplesEncoder(Channels.newChannel(outputStream), 100));
+
+        assertThat(outputStream.toByteArray(), equalTo(expected.toByteArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void GivenUnpairedSurrogate_WhenTriple_ThenThrowException() {
+        new NTriplesEncoder(Channels.newChannel(outputStream)).triple(Triple.create(
+                NodeFactory.createURI("http://example.com/1"), NodeFactory.createURI("http://example.com/value"),
+                NodeFactory.createLiteral("\ud800")));
+    }
+
+    @Test
+    public void GivenFormats_WhenSupports_ThenOnlySupportUTF8LineFormats() {
+        assertThat(NTriplesEncoder.supports(RDFFormat.NT), is(true));
+        assertThat(NTriplesEncoder.supports(RDFFormat.NQUADS), is(true));
+        assertThat(NTriplesEncoder.supports(RDFFormat.NTRIPLES_ASCII), is(false));
+        assertThat(NTriplesEncoder.supports(RDFFormat.TURTLE), is(false));
+    }
+}
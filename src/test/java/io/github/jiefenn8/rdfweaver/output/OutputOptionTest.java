@@ -67,7 +67,8 @@ public class OutputOptionTest {
 
     @Test
     public void GivenNoParams_WhenExecute_ThenReturnDefaultRDFFile() throws Exception {
-        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class)))
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
                 .thenReturn(mock(RDFFileSystem.class));
         commandLine.execute();
         RDFFileSystem result = commandLine.getExecutionResult();
@@ -83,7 +84,8 @@ public class OutputOptionTest {
 
     @Test
     public void GivenAnyParams_WhenExecuteTriggerException_ThenReturnCode_34() throws Exception {
-        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class)))
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
                 .thenThrow(RuntimeException.class);
         int result = commandLine.execute();
         assertThat(result, is(34));
@@ -93,7 +95,8 @@ public class OutputOptionTest {
     public void GivenAnyParams_WhenExecuteTriggerException_ThenPrintErrorMessage() throws Exception {
         String arg = "--dir" + DELIMITER + testDir;
         String expected = "Unhandled exception occurred during runtime. Aborting." + EOL;
-        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class)))
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
                 .thenThrow(RuntimeException.class);
 
         commandLine.execute(arg);
@@ -106,7 +109,8 @@ public class OutputOptionTest {
         Path testDirectory = Paths.get(OUTPUT_DIR);
         String[] args = new String[]{"--dir" + DELIMITER + testDirectory};
         RDFFileSystem mockFileSystem = mock(RDFFileSystem.class);
-        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class)))
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
                 .thenReturn(mockFileSystem);
         when(mockFileSystem.getParent()).thenReturn(testDirectory.toString());
 
@@ -116,7 +120,8 @@ public class OutputOptionTest {
     }
 
     public List<String> validFormatParameters() {
-        return Arrays.asList("TURTLE", "NTRIPLES", "NQUADS", "TRIG", "JSONLD", "RDFXML", "RDFJSON");
+        return Arrays.asList("TURTLE", "NTRIPLES", "NQUADS", "TRIG", "JSONLD", "RDFXML", "RDFJSON", "THRIFT",
+                "THRIFT_VALUES");
     }
 
     @Test
@@ -125,7 +130,8 @@ public class OutputOptionTest {
         String[] args = new String[]{"--format" + DELIMITER + value};
         RDFFileSystem mockRDFFileSystem = mock(RDFFileSystem.class);
         RDFFormat expected = RDFFileFormat.valueOf(value).getFormat();
-        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class)))
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
                 .thenReturn(mockRDFFileSystem);
         when(mockRDFFileSystem.getFormat()).thenReturn(expected);
 
@@ -140,7 +146,8 @@ public class OutputOptionTest {
         String[] args = new String[]{"--file" + DELIMITER + filename};
         RDFFileSystem mockRDFFileSystem = mock(RDFFileSystem.class);
         when(mockRDFFileSystem.getName()).thenReturn(filename);
-        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class)))
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
                 .thenReturn(mockRDFFileSystem);
 
         commandLine.execute(args);
@@ -158,4 +165,152 @@ public class OutputOptionTest {
         int result = commandLine.execute(args);
         assertThat(result, is(0));
     }
+
+    @Test
+    public void GivenFusekiUploadParams_WhenExecute_ThenConfigureUpload() throws Exception {
+        String[] args = new String[]{"--host=localhost", "--port=3030", "--base=ds", "--upload-threads=8"};
+        FusekiTDBRemote.Builder mockBuilder = mock(FusekiTDBRemote.Builder.class, RETURNS_MOCKS);
+        when(mockRDFOutputFactory.createFusekiBuilder(any(InetAddress.class), anyInt(), anyString()))
+                .thenReturn(mockBuilder);
+        when(mockBuilder.graphName(any()).build()).thenReturn(mock(FusekiTDBRemote.class));
+        commandLine.execute(args);
+        verify(mockBuilder).upload(50000, 8);
+    }
+
+    @Test
+    public void GivenStreamUploadParams_WhenExecute_ThenConfigureStreamUpload() throws Exception {
+        String[] args = new String[]{"--host=localhost", "--port=3030", "--base=ds", "--stream-upload",
+                "--upload-format=THRIFT"};
+        FusekiTDBRemote.Builder mockBuilder = mock(FusekiTDBRemote.Builder.class, RETURNS_MOCKS);
+        when(mockRDFOutputFactory.createFusekiBuilder(any(InetAddress.class), anyInt(), anyString()))
+                .thenReturn(mockBuilder);
+        when(mockBuilder.graphName(any()).build()).thenReturn(mock(FusekiTDBRemote.class));
+        commandLine.execute(args);
+        verify(mockBuilder).streamUpload(RDFFormat.RDF_THRIFT);
+    }
+
+    @Test
+    public void GivenTDB2Params_WhenExecute_ThenConfigureLoad() throws Exception {
+        String[] args = new String[]{"--tdb2=" + OUTPUT_DIR, "--load-batch-size=1000", "--load-parallel"};
+        TDB2Local.Builder mockBuilder = mock(TDB2Local.Builder.class, RETURNS_MOCKS);
+        when(mockRDFOutputFactory.createTDB2Builder(any(Path.class))).thenReturn(mockBuilder);
+        when(mockBuilder.graphName(any()).build()).thenReturn(mock(TDB2Local.class));
+        commandLine.execute(args);
+        verify(mockBuilder).load(1000, true);
+    }
+
+    @Test
+    public void GivenGzipFileParam_WhenExecute_ThenDetectGzipCompression() throws Exception {
+        String[] args = new String[]{"--file" + DELIMITER + "dump.nt.gz", "--compress-threads=2"};
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mock(RDFFileSystem.class));
+        commandLine.execute(args);
+        verify(mockRDFOutputFactory).createFileSystem(any(Path.class), eq("dump.nt.gz"), any(RDFFormat.class),
+                eq(FileCompression.GZIP), eq(2), any(Rollover.class));
+    }
+
+    @Test
+    public void GivenCompressParam_WhenExecute_ThenAddExtensionToFilename() throws Exception {
+        String[] args = new String[]{"--file" + DELIMITER + "dump.nt", "--compress=GZIP"};
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mock(RDFFileSystem.class));
+        commandLine.execute(args);
+        verify(mockRDFOutputFactory).createFileSystem(any(Path.class), eq("dump.nt.gz"), any(RDFFormat.class),
+                eq(FileCompression.GZIP), anyInt(), any(Rollover.class));
+    }
+
+    @Test
+    public void GivenRolloverParams_WhenExecute_ThenCreateSegmentedFile() throws Exception {
+        String[] args = new String[]{"--max-file-size=2G", "--max-file-triples=1000"};
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mock(RDFFileSystem.class));
+        commandLine.execute(args);
+        verify(mockRDFOutputFactory).createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), argThat((rollover) -> rollover.getMaxBytes() == 2L << 30
+                        && rollover.getMaxTriples() == 1000));
+    }
+
+    @Test
+    public void GivenFusekiAndFileParams_WhenExecute_ThenReturnFanOutput() throws Exception {
+        String[] args = new String[]{"--host=localhost", "--port=3030", "--base=ds", "--file" + DELIMITER + "dump.nt"};
+        FusekiTDBRemote.Builder mockBuilder = mock(FusekiTDBRemote.Builder.class, RETURNS_MOCKS);
+        RDFFileSystem mockFileSystem = mock(RDFFileSystem.class);
+        FanOutOutput mockFanOutput = mock(FanOutOutput.class);
+        when(mockRDFOutputFactory.createFusekiBuilder(any(InetAddress.class), anyInt(), anyString()))
+                .thenReturn(mockBuilder);
+        when(mockBuilder.graphName(any()).build()).thenReturn(mock(FusekiTDBRemote.class));
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mockFileSystem);
+        when(mockRDFOutputFactory.createFanOutput(anyList())).thenReturn(mockFanOutput);
+
+        commandLine.execute(args);
+        RDFOutput result = commandLine.getExecutionResult();
+        assertThat(result, is(sameInstance(mockFanOutput)));
+        verify(mockRDFOutputFactory).createFanOutput(argThat((outputs) -> outputs.size() == 2
+                && outputs.get(1) == mockFileSystem));
+    }
+
+    @Test
+    public void GivenRepeatedFileParams_WhenExecute_ThenCreateFileForEachGroup() throws Exception {
+        String[] args = new String[]{"--file" + DELIMITER + "dump.nt", "--file" + DELIMITER + "dump.ttl",
+                "--format" + DELIMITER + "TURTLE"};
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mock(RDFFileSystem.class));
+        when(mockRDFOutputFactory.createFanOutput(anyList())).thenReturn(mock(FanOutOutput.class));
+
+        commandLine.execute(args);
+        verify(mockRDFOutputFactory).createFileSystem(any(Path.class), eq("dump.nt"), eq(RDFFormat.NT),
+                any(FileCompression.class), anyInt(), any(Rollover.class));
+        verify(mockRDFOutputFactory).createFileSystem(any(Path.class), eq("dump.ttl"), eq(RDFFormat.TURTLE),
+                any(FileCompression.class), anyInt(), any(Rollover.class));
+    }
+
+    @Test
+    public void GivenDedupParams_WhenExecute_ThenReturnDedupOutput() throws Exception {
+        String[] args = new String[]{"--dedup" + DELIMITER + "BLOOM", "--dedup-memory" + DELIMITER + "2M"};
+        RDFFileSystem mockFileSystem = mock(RDFFileSystem.class);
+        DedupOutput mockDedupOutput = mock(DedupOutput.class);
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mockFileSystem);
+        when(mockRDFOutputFactory.createDedupOutput(mockFileSystem, DedupMode.BLOOM, 2L << 20,
+                Path.of(System.getProperty("java.io.tmpdir"))))
+                .thenReturn(mockDedupOutput);
+
+        commandLine.execute(args);
+        RDFOutput result = commandLine.getExecutionResult();
+        assertThat(result, is(sameInstance(mockDedupOutput)));
+    }
+
+    @Test
+    public void GivenDedupDirParam_WhenExecute_ThenReturnDedupOutputSpillingToDir() throws Exception {
+        String[] args = new String[]{"--dedup" + DELIMITER + "EXACT", "--dedup-dir" + DELIMITER + "spill"};
+        RDFFileSystem mockFileSystem = mock(RDFFileSystem.class);
+        DedupOutput mockDedupOutput = mock(DedupOutput.class);
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mockFileSystem);
+        when(mockRDFOutputFactory.createDedupOutput(mockFileSystem, DedupMode.EXACT, 64L << 20, Path.of("spill")))
+                .thenReturn(mockDedupOutput);
+
+        commandLine.execute(args);
+        RDFOutput result = commandLine.getExecutionResult();
+        assertThat(result, is(sameInstance(mockDedupOutput)));
+    }
+
+    @Test
+    public void GivenSameFileTwice_WhenExecute_ThenReturnCode_32() throws Exception {
+        String[] args = new String[]{"--format" + DELIMITER + "NTRIPLES", "--format" + DELIMITER + "TURTLE"};
+        when(mockRDFOutputFactory.createFileSystem(any(Path.class), anyString(), any(RDFFormat.class),
+                any(FileCompression.class), anyInt(), any(Rollover.class)))
+                .thenReturn(mock(RDFFileSystem.class));
+
+        int result = commandLine.execute(args);
+        assertThat(result, is(32));
+    }
 }
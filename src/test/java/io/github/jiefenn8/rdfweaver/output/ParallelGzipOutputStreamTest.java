@@ -0,0 +1,50 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link ParallelGzipOutputStream}.
+ */
+public class ParallelGzipOutputStreamTest {
+
+    private byte[] decompress(byte[] compressed) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @Test
+    public void GivenDataOfManyBlocks_WhenClose_ThenDecompressToSameData() throws Exception {
+        byte[] data = new byte[5 * (1 << 20) + 123];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream outputStream = new ParallelGzipOutputStream(result, 3)) {
+            outputStream.write(data, 0, 1000);
+            outputStream.write(data[1000]);
+            outputStream.write(data, 1001, data.length - 1001);
+        }
+
+        assertThat(decompress(result.toByteArray()), is(equalTo(data)));
+    }
+
+    @Test
+    public void GivenNoData_WhenClose_ThenWriteEmptyGzip() throws Exception {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(result, 2).close();
+        assertThat(decompress(result.toByteArray()).length, is(0));
+    }
+}
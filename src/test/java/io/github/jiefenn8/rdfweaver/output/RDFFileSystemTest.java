@@ -1,6 +1,12 @@
 package io.github.jiefenn8.rdfweaver.output;
 
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -8,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -44,4 +51,68 @@ public class RDFFileSystemTest {
         RDFFormat result = rdfFileSystem.getFormat();
         assertThat(result, is(equalTo(mockFormat)));
     }
+
+    @Test
+    public void GivenStreamingFormat_WhenOpenStream_ThenWriteStreamedTriples() throws Exception {
+        Path file = Files.createTempDirectory(OUTPUT_DIR).resolve("stream.nt");
+        RDFFileSystem fileSystem = new RDFFileSystem(file, RDFFormat.NT);
+        StreamRDF stream = fileSystem.openStream();
+        stream.start();
+        stream.triple(Triple.create(NodeFactory.createURI("http://example.com/s"),
+                NodeFactory.createURI("http://example.com/p"),
+                NodeFactory.createLiteral("o")));
+        stream.finish();
+
+        Model result = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(result, file.toString());
+        assertThat(result.size(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void GivenNonStreamingFormat_WhenOpenStream_ThenWriteOnFinish() throws Exception {
+        Path file = Files.createTempDirectory(OUTPUT_DIR).resolve("stream.jsonld");
+        RDFFileSystem fileSystem = new RDFFileSystem(file, RDFFormat.JSONLD);
+        StreamRDF stream = fileSystem.openStream();
+        stream.start();
+        stream.triple(Triple.create(NodeFactory.createURI("http://example.com/s"),
+                NodeFactory.createURI("http://example.com/p"),
+                NodeFactory.createLiteral("o")));
+        stream.finish();
+
+        Model result = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(result, file.toString());
+        assertThat(result.size(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void GivenOpenStream_WhenAbort_ThenDeleteFile() throws Exception {
+        Path file = Files.createTempDirectory(OUTPUT_DIR).resolve("stream.ttl");
+        RDFFileSystem fileSystem = new RDFFileSystem(file, RDFFormat.TURTLE);
+        StreamRDF stream = fileSystem.openStream();
+        stream.start();
+        stream.triple(Triple.create(NodeFactory.createURI("http://example.com/s"),
+                NodeFactory.createURI("http://example.com/p"),
+                NodeFactory.createLiteral("o")));
+        ((AbortableStream) stream).abort();
+
+        assertThat(Files.exists(file), is(false));
+    }
+
+    @Test
+    public void GivenParallelGzip_WhenOpenStream_ThenWriteReadableGzipFile() throws Exception {
+        Path file = Files.createTempDirectory(OUTPUT_DIR).resolve("stream.nt.gz");
+        RDFFileSystem fileSystem = new RDFFileSystem(file, RDFFormat.NT, FileCompression.GZIP, 4, Rollover.NONE);
+        StreamRDF stream = fileSystem.openStream();
+        stream.start();
+        for (int i = 0; i < 30000; i++) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.com/s" + i),
+                    NodeFactory.createURI("http://example.com/p"),
+                    NodeFactory.createLiteral("o" + i)));
+        }
+        stream.finish();
+
+        Model result = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(result, file.toString());
+        assertThat(result.size(), is(equalTo(30000L)));
+    }
 }
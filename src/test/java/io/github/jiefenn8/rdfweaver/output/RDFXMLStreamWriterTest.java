@@ -0,0 +1,79 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link RDFXMLStreamWriter}.
+ */
+public class RDFXMLStreamWriterTest {
+
+    private ByteArrayOutputStream outputStream;
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        outputStream = new ByteArrayOutputStream();
+        graph = GraphFactory.createDefaultGraph();
+    }
+
+    private Graph reload() {
+        Graph reloaded = GraphFactory.createDefaultGraph();
+        RDFDataMgr.read(reloaded, new ByteArrayInputStream(outputStream.toByteArray()), Lang.RDFXML);
+        return reloaded;
+    }
+
+    @Test
+    public void GivenGraph_WhenFinish_ThenWriteIsomorphicRDFXML() {
+        graph.getPrefixMapping().setNsPrefix("ex", "http://example.com/");
+        Node subject = NodeFactory.createURI("http://example.com/1");
+        Node blank = NodeFactory.createBlankNode();
+        graph.add(Triple.create(subject, NodeFactory.createURI("http://example.com/name"),
+                NodeFactory.createLiteral("A & <B>", "en")));
+        graph.add(Triple.create(subject, NodeFactory.createURI("http://example.com/count"),
+                NodeFactory.createLiteral("1", XSDDatatype.XSDinteger)));
+        graph.add(Triple.create(subject, NodeFactory.createURI("http://other.org/vocab#link"), blank));
+        graph.add(Triple.create(blank, NodeFactory.createURI("http://other.org/vocab#note"),
+                NodeFactory.createLiteral("\"quoted\"\nline")));
+        StreamOps.graphToStream(graph, new RDFXMLStreamWriter(outputStream));
+
+        assertThat(reload().isIsomorphicWith(graph), is(true));
+    }
+
+    @Test
+    public void GivenPrefixes_WhenFinish_ThenDeclarePrefixesOnRoot() {
+        graph.getPrefixMapping().setNsPrefix("ex", "http://example.com/");
+        graph.add(Triple.create(NodeFactory.createURI("http://example.com/1"),
+                NodeFactory.createURI("http://example.com/name"), NodeFactory.createLiteral("A")));
+        StreamOps.graphToStream(graph, new RDFXMLStreamWriter(outputStream));
+
+        String result = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(result, containsString("xmlns:ex=\"http://example.com/\""));
+        assertThat(result, containsString("<ex:name>A</ex:name>"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void GivenPredicateWithoutLocalName_WhenTriple_ThenThrowException() {
+        RDFXMLStreamWriter writer = new RDFXMLStreamWriter(outputStream);
+        writer.start();
+        writer.triple(Triple.create(NodeFactory.createURI("http://example.com/1"),
+                NodeFactory.createURI("http://example.com/1"), NodeFactory.createLiteral("A")));
+    }
+}
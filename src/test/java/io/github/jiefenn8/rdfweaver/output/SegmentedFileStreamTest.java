@@ -0,0 +1,108 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link SegmentedFileStream}.
+ */
+public class SegmentedFileStreamTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.newFolder("output").toPath().resolve("rdfOutput.nt.gz");
+    }
+
+    private void sendTriples(SegmentedFileStream stream, int count) {
+        stream.start();
+        for (int i = 0; i < count; i++) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                    NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i))));
+        }
+        stream.finish();
+    }
+
+    private String sha256(Path path) throws Exception {
+        StringBuilder checksum = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(path))) {
+            checksum.append(String.format("%02x", b));
+        }
+        return checksum.toString();
+    }
+
+    @Test
+    public void GivenTripleLimit_WhenFinish_ThenWriteSegmentsAndManifest() throws Exception {
+        SegmentedFileStream stream = new SegmentedFileStream(file, RDFFormat.NT, FileCompression.GZIP, 2,
+                new Rollover(0, 4));
+        sendTriples(stream, 10);
+
+        List<String> manifest = Files.readAllLines(SegmentedFileStream.getManifest(file));
+        assertThat(manifest.size(), is(4));
+        String[] last = manifest.get(3).split("\t");
+        assertThat(last[0], is(equalTo("rdfOutput-00003.nt.gz")));
+        assertThat(last[1], is(equalTo("2")));
+        Path segment = file.resolveSibling(last[0]);
+        assertThat(last[2], is(equalTo(String.valueOf(Files.size(segment)))));
+        assertThat(last[3], is(equalTo(sha256(segment))));
+        Model result = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(result, segment.toString());
+        assertThat(result.size(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void GivenByteLimit_WhenFinish_ThenCutOnTripleBoundaries() throws Exception {
+        Path plainFile = file.resolveSibling("rdfOutput.nt");
+        SegmentedFileStream stream = new SegmentedFileStream(plainFile, RDFFormat.NT, FileCompression.NONE, 1,
+                new Rollover(100000, 0));
+        sendTriples(stream, 20000);
+
+        List<String> manifest = Files.readAllLines(SegmentedFileStream.getManifest(plainFile));
+        assertThat(manifest.size() > 2, is(true));
+        long total = 0;
+        for (String record : manifest.subList(1, manifest.size())) {
+            String[] fields = record.split("\t");
+            List<String> lines = Files.readAllLines(plainFile.resolveSibling(fields[0]));
+            assertThat(lines.size(), is(Integer.parseInt(fields[1])));
+            assertThat(lines.stream().allMatch((line) -> line.startsWith("<") && line.endsWith(" .")), is(true));
+            total += lines.size();
+        }
+        assertThat(total, is(20000L));
+    }
+
+    @Test
+    public void GivenWrittenSegments_WhenAbort_ThenDeleteSegmentsAndManifest() throws Exception {
+        SegmentedFileStream stream = new SegmentedFileStream(file, RDFFormat.NT, FileCompression.GZIP, 1,
+                new Rollover(0, 4));
+        stream.start();
+        for (int i = 0; i < 10; i++) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                    NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i))));
+        }
+        stream.abort();
+
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertThat(files.count(), is(0L));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.update.UpdateFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link SparqlUpdateStream}.
+ */
+public class SparqlUpdateStreamTest {
+
+    private static final Node SUBJECT = NodeFactory.createURI("http://example.com/emp/7369");
+    private static final Node NAME = NodeFactory.createURI("http://example.com/name");
+    private static final Triple TRIPLE = Triple.create(SUBJECT, NAME, NodeFactory.createLiteral("SMITH"));
+    private static final Triple PATTERN = Triple.create(SUBJECT, NAME, Node.ANY);
+    private final List<String> updates = new ArrayList<>();
+
+    private SparqlUpdateStream createStream(String graphName) {
+        return new SparqlUpdateStream(graphName) {
+            @Override
+            protected void send(String update) {
+                updates.add(update);
+            }
+        };
+    }
+
+    @Test
+    public void GivenDeleteAndAdd_WhenCommit_ThenSendDeleteBeforeInsert() {
+        SparqlUpdateStream stream = createStream(null);
+        stream.add(TRIPLE);
+        stream.delete(PATTERN);
+        stream.commit();
+
+        String result = updates.get(0);
+        assertThat(result.indexOf("DELETE WHERE { <http://example.com/emp/7369> <http://example.com/name> ?o }"),
+                is(0));
+        assertThat(result, containsString("INSERT DATA {\n<http://example.com/emp/7369> <http://example.com/name> \"SMITH\" ."));
+        UpdateFactory.create(result);
+    }
+
+    @Test
+    public void GivenGraphName_WhenCommit_ThenChangeNamedGraph() {
+        SparqlUpdateStream stream = createStream("http://example.com/graph");
+        stream.delete(PATTERN);
+        stream.add(TRIPLE);
+        stream.finish();
+
+        assertThat(updates.get(0), containsString("GRAPH <http://example.com/graph> { <http://example.com/emp/7369>"));
+        UpdateFactory.create(updates.get(0));
+    }
+
+    @Test
+    public void GivenNoChangesOrBlankSubject_WhenCommit_ThenSendNothing() {
+        SparqlUpdateStream stream = createStream(null);
+        stream.delete(Triple.create(NodeFactory.createBlankNode(), NAME, Node.ANY));
+        stream.commit();
+        stream.finish();
+
+        assertThat(updates.isEmpty(), is(true));
+    }
+
+    @Test
+    public void GivenConcretePattern_WhenCommit_ThenDeleteExactTriple() {
+        SparqlUpdateStream stream = createStream(null);
+        stream.delete(TRIPLE);
+        stream.commit();
+
+        assertThat(updates.get(0), containsString(
+                "DELETE WHERE { <http://example.com/emp/7369> <http://example.com/name> \"SMITH\" }"));
+        UpdateFactory.create(updates.get(0));
+    }
+
+    @Test
+    public void GivenChangesNotCommitted_WhenAbort_ThenSendNothing() {
+        SparqlUpdateStream stream = createStream(null);
+        stream.delete(PATTERN);
+        stream.add(TRIPLE);
+        stream.abort();
+        stream.commit();
+
+        assertThat(updates.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFFormat;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link StreamingUploadStream}.
+ */
+public class StreamingUploadStreamTest {
+
+    private final List<String> requests = new ArrayList<>();
+    private HttpServer server;
+    private String graphStore;
+    private int status = 200;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ds/data", (exchange) -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            synchronized (requests) {
+                requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawQuery() + " "
+                        + exchange.getRequestHeaders().getFirst("Transfer-Encoding") + "\n" + body);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        graphStore = "http://localhost:" + server.getAddress().getPort() + "/ds/data";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void sendTriples(StreamingUploadStream stream, int count) {
+        stream.start();
+        for (int i = 0; i < count; i++) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                    NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i))));
+        }
+        stream.finish();
+    }
+
+    @Test
+    public void GivenReplace_WhenFinish_ThenPutChunkedNTriples() {
+        StreamingUploadStream stream = new StreamingUploadStream(graphStore, "http://example.com/graph", true,
+                RDFFormat.NT, 2);
+        sendTriples(stream, 2500);
+
+        assertThat(requests.size(), is(1));
+        String request = requests.get(0);
+        assertThat(request, startsWith("PUT graph=http%3A%2F%2Fexample.com%2Fgraph chunked\n"));
+        assertThat(request.split("\n").length, is(2501));
+        assertThat(request, containsString("<http://example.com/2499> <http://example.com/id> \"2499\" ."));
+    }
+
+    @Test
+    public void GivenAppend_WhenFinish_ThenPostToDefaultGraph() {
+        StreamingUploadStream stream = new StreamingUploadStream(graphStore, null, false, RDFFormat.NT, 2);
+        sendTriples(stream, 3);
+
+        assertThat(requests.size(), is(1));
+        assertThat(requests.get(0), startsWith("POST default chunked\n"));
+    }
+
+    @Test
+    public void GivenServerError_WhenFinish_ThenThrowException() {
+        status = 500;
+        StreamingUploadStream stream = new StreamingUploadStream(graphStore, null, true, RDFFormat.NT, 2);
+        Assert.assertThrows(HttpException.class, () -> sendTriples(stream, 3));
+    }
+
+    @Test
+    public void GivenStreamedTriples_WhenAbort_ThenCutRequestOff() {
+        StreamingUploadStream stream = new StreamingUploadStream(graphStore, null, true, RDFFormat.NT, 2);
+        stream.start();
+        for (int i = 0; i < 2500; i++) {
+            stream.triple(Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                    NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i))));
+        }
+        stream.abort();
+
+        assertThat(requests.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link TDB2Local}.
+ */
+public class TDB2LocalTest {
+
+    private static final String GRAPH = "http://example.com/graph";
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    private Path location;
+
+    @Before
+    public void setUp() throws IOException {
+        location = folder.newFolder("tdb2").toPath();
+    }
+
+    private Triple tripleOf(int i) {
+        return Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i)));
+    }
+
+    private void sendTriples(TDB2Local output, int start, int count) {
+        StreamRDF stream = output.openStream();
+        stream.start();
+        for (int i = start; i < start + count; i++) {
+            stream.triple(tripleOf(i));
+        }
+        stream.finish();
+    }
+
+    private long countTriples(String graphName) {
+        DatasetGraph dataset = DatabaseMgr.connectDatasetGraph(location.toString());
+        return Txn.calculateRead(dataset, () -> {
+            Graph graph = graphName == null ? dataset.getDefaultGraph()
+                    : dataset.getGraph(NodeFactory.createURI(graphName));
+            return (long) graph.size();
+        });
+    }
+
+    @Test
+    public void GivenModel_WhenSave_ThenLoadIntoDefaultGraph() {
+        TDB2Local output = new TDB2Local.Builder(location).build();
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < 5; i++) {
+            model.getGraph().add(tripleOf(i));
+        }
+
+        output.save(model);
+        assertThat(countTriples(null), is(5L));
+    }
+
+    @Test
+    public void GivenSmallBatches_WhenLoadInParallel_ThenLoadEveryBatch() {
+        TDB2Local output = new TDB2Local.Builder(location).graphName(GRAPH).load(3, true).build();
+        sendTriples(output, 0, 10);
+        assertThat(countTriples(GRAPH), is(10L));
+    }
+
+    @Test
+    public void GivenExistingGraph_WhenLoad_ThenReplaceGraph() {
+        sendTriples(new TDB2Local.Builder(location).graphName(GRAPH).build(), 0, 10);
+        sendTriples(new TDB2Local.Builder(location).graphName(GRAPH).load(2, false).build(), 100, 3);
+        assertThat(countTriples(GRAPH), is(3L));
+    }
+
+    @Test
+    public void GivenExistingGraph_WhenAbortLoad_ThenKeepGraph() {
+        sendTriples(new TDB2Local.Builder(location).graphName(GRAPH).build(), 0, 10);
+        AbortableStream stream = (AbortableStream) new TDB2Local.Builder(location).graphName(GRAPH)
+                .load(2, false).build().openStream();
+        stream.start();
+        for (int i = 100; i < 105; i++) {
+            stream.triple(tripleOf(i));
+        }
+        stream.abort();
+        assertThat(countTriples(GRAPH), is(10L));
+    }
+
+    @Test
+    public void GivenExistingGraph_WhenAbortParallelLoad_ThenKeepGraph() {
+        sendTriples(new TDB2Local.Builder(location).graphName(GRAPH).build(), 0, 10);
+        AbortableStream stream = (AbortableStream) new TDB2Local.Builder(location).graphName(GRAPH)
+                .load(2, true).build().openStream();
+        stream.start();
+        for (int i = 100; i < 105; i++) {
+            stream.triple(tripleOf(i));
+        }
+        stream.abort();
+        assertThat(countTriples(GRAPH), is(10L));
+        sendTriples(new TDB2Local.Builder(location).graphName(GRAPH).append(true).build(), 200, 1);
+        assertThat(countTriples(GRAPH), is(11L));
+    }
+
+    @Test
+    public void GivenTriplesFromTwoThreads_WhenAbortFromThirdThread_ThenKeepGraph() throws Exception {
+        sendTriples(new TDB2Local.Builder(location).graphName(GRAPH).build(), 0, 10);
+        AbortableStream stream = (AbortableStream) new TDB2Local.Builder(location).graphName(GRAPH)
+                .load(2, false).build().openStream();
+        stream.start();
+        Thread[] senders = new Thread[2];
+        for (int t = 0; t < senders.length; t++) {
+            int start = 100 + t * 10;
+            senders[t] = new Thread(() -> {
+                for (int i = start; i < start + 5; i++) {
+                    synchronized (stream) {
+                        stream.triple(tripleOf(i));
+                    }
+                }
+            });
+            senders[t].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        Thread aborter = new Thread(stream::abort);
+        aborter.start();
+        aborter.join();
+        assertThat(countTriples(GRAPH), is(10L));
+        sendTriples(new TDB2Local.Builder(location).graphName(GRAPH).append(true).build(), 200, 1);
+        assertThat(countTriples(GRAPH), is(11L));
+    }
+
+    @Test
+    public void GivenTriplesFromTwoThreads_WhenFinish_ThenLoadEveryTriple() throws Exception {
+        StreamRDF stream = new TDB2Local.Builder(location).graphName(GRAPH).load(2, false).build().openStream();
+        stream.start();
+        Thread[] senders = new Thread[2];
+        for (int t = 0; t < senders.length; t++) {
+            int start = t * 10;
+            senders[t] = new Thread(() -> {
+                for (int i = start; i < start + 5; i++) {
+                    synchronized (stream) {
+                        stream.triple(tripleOf(i));
+                    }
+                }
+            });
+            senders[t].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        stream.finish();
+        assertThat(countTriples(GRAPH), is(10L));
+    }
+
+    @Test
+    public void GivenExistingGraph_WhenAppend_ThenAddToGraph() {
+        sendTriples(new TDB2Local.Builder(location).build(), 0, 10);
+        sendTriples(new TDB2Local.Builder(location).append(true).build(), 100, 3);
+        assertThat(countTriples(null), is(13L));
+    }
+
+    @Test
+    public void GivenChanges_WhenCommit_ThenDeletePatternsAndAddTriples() {
+        sendTriples(new TDB2Local.Builder(location).build(), 0, 10);
+        ChangeStream stream = new TDB2Local.Builder(location).build().openChangeStream();
+        stream.start();
+        Node subject = tripleOf(0).getSubject();
+        stream.delete(Triple.create(subject, tripleOf(0).getPredicate(), Node.ANY));
+        stream.delete(tripleOf(1));
+        stream.add(tripleOf(0));
+        stream.add(tripleOf(100));
+        stream.finish();
+
+        assertThat(countTriples(null), is(10L));
+    }
+}
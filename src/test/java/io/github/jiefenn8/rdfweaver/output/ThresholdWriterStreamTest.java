@@ -0,0 +1,68 @@
+package io.github.jiefenn8.rdfweaver.output;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link ThresholdWriterStream}.
+ */
+public class ThresholdWriterStreamTest {
+
+    private ByteArrayOutputStream outputStream;
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        outputStream = new ByteArrayOutputStream();
+        graph = GraphFactory.createDefaultGraph();
+        graph.getPrefixMapping().setNsPrefix("ex", "http://example.com/");
+        for (int i = 0; i < 10; i++) {
+            graph.add(Triple.create(NodeFactory.createURI("http://example.com/" + i),
+                    NodeFactory.createURI("http://example.com/id"), NodeFactory.createLiteral(String.valueOf(i))));
+        }
+    }
+
+    private String write(long threshold) {
+        StreamOps.graphToStream(graph, new ThresholdWriterStream(outputStream, RDFFormat.TURTLE_PRETTY,
+                RDFFormat.TURTLE_FLAT, threshold));
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private Graph reload() {
+        Graph reloaded = GraphFactory.createDefaultGraph();
+        RDFDataMgr.read(reloaded, new ByteArrayInputStream(outputStream.toByteArray()), Lang.TURTLE);
+        return reloaded;
+    }
+
+    @Test
+    public void GivenTriplesBelowThreshold_WhenFinish_ThenWritePrettyFormat() {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        RDFDataMgr.write(expected, graph, RDFFormat.TURTLE_PRETTY);
+
+        String result = write(10);
+        assertThat(result, is(new String(expected.toByteArray(), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void GivenTriplesAboveThreshold_WhenFinish_ThenWriteStreamingFormatWithPrefixesFirst() {
+        String result = write(4);
+        assertThat(result, startsWith("@prefix ex:"));
+        assertThat(reload().isIsomorphicWith(graph), is(true));
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.jiefenn8.rdfweaver.r2rml;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+/**
+ * Unit test class for {@link R2RMLColumnAnalyser}.
+ */
+public class R2RMLColumnAnalyserTest {
+
+    private static final String R2RML_PATH = "/r2rml/projection_r2rml.ttl";
+    private Map<String, Set<String>> columns;
+
+    @Before
+    public void setUp() {
+        String path = getClass().getResource(R2RML_PATH).getPath();
+        columns = new R2RMLColumnAnalyser().analyse(path);
+    }
+
+    @Test
+    public void GivenTriplesMap_WhenAnalyse_ThenReturnTemplateColumnAndChildColumns() {
+        assertThat(columns.get("EMP"), containsInAnyOrder("EMPNO", "ENAME", "DEPTNO"));
+    }
+
+    @Test
+    public void GivenParentTriplesMap_WhenAnalyse_ThenIncludeParentJoinColumns() {
+        assertThat(columns.get("DEPT"), containsInAnyOrder("DNAME", "DEPTID"));
+    }
+
+    @Test
+    public void GivenSqlQueryLogicalTable_WhenAnalyse_ThenExcludeQuery() {
+        assertThat(columns.size(), is(2));
+    }
+
+    @Test
+    public void GivenEscapedBraces_WhenParseTemplate_ThenIgnoreEscapedBraces() {
+        Set<String> result = R2RMLColumnAnalyser.parseTemplate("http://ex.com/{A}/\\{B\\}/{C}");
+        assertThat(result, containsInAnyOrder("A", "C"));
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import io.github.jiefenn8.rdfweaver.mapping.Change;
+import org.h2.api.Trigger;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Unit test class for {@link ChangeJournal}, against an embedded database
+ * with a trigger filling the journal table.
+ */
+public class ChangeJournalTest {
+
+    private Connection conn;
+    private ChangeJournal changeJournal;
+
+    @Before
+    public void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:journal;DB_CLOSE_DELAY=-1");
+        conn = dataSource.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE EMP (EMPNO INT PRIMARY KEY, ENAME VARCHAR(20))");
+            stmt.execute("CREATE TABLE RDF_JOURNAL (SEQ BIGINT AUTO_INCREMENT PRIMARY KEY, OP CHAR(1), "
+                    + "TABLE_NAME VARCHAR(64), ROW_KEY VARCHAR(64))");
+            stmt.execute("CREATE TRIGGER EMP_JOURNAL AFTER INSERT, UPDATE, DELETE ON EMP FOR EACH ROW CALL \""
+                    + JournalTrigger.class.getName() + "\"");
+            stmt.execute("INSERT INTO EMP VALUES (7369, 'SMITH')");
+            stmt.execute("INSERT INTO EMP VALUES (7499, 'ALLEN')");
+            stmt.execute("UPDATE EMP SET ENAME = 'JONES' WHERE EMPNO = 7369");
+            stmt.execute("DELETE FROM EMP WHERE EMPNO = 7499");
+        }
+        changeJournal = new ChangeJournal(JDBCDriver.UNDEFINED.getDialect(), "RDF_JOURNAL");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void GivenJournalFilledByTrigger_WhenRead_ThenReturnChangesInSequenceOrder() throws Exception {
+        List<Change> result = changeJournal.read(conn, 0, 10);
+        assertThat(result.size(), is(4));
+        assertThat(result.get(0).getOperation(), is(Change.Operation.INSERT));
+        assertThat(result.get(2).getOperation(), is(Change.Operation.UPDATE));
+        assertThat(result.get(2).getKey(), is(equalTo("7369")));
+        assertThat(result.get(3).getOperation(), is(Change.Operation.DELETE));
+        assertThat(result.get(3).getTable(), is(equalTo("EMP")));
+    }
+
+    @Test
+    public void GivenPositionAndLimit_WhenRead_ThenReturnOnlyChangesAfterPosition() throws Exception {
+        List<Change> first = changeJournal.read(conn, 0, 2);
+        List<Change> result = changeJournal.read(conn, first.get(1).getSequence(), 10);
+        assertThat(first.size(), is(2));
+        assertThat(result.size(), is(2));
+        assertThat(result.get(0).getSequence(), is(greaterThan(first.get(1).getSequence())));
+    }
+
+    /**
+     * Trigger recording every changed row of a table into the journal.
+     */
+    public static class JournalTrigger implements Trigger {
+
+        private String table;
+
+        @Override
+        public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                         boolean before, int type) {
+            table = tableName;
+        }
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws java.sql.SQLException {
+            String op = oldRow == null ? "I" : newRow == null ? "D" : "U";
+            Object key = newRow == null ? oldRow[0] : newRow[0];
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO RDF_JOURNAL (OP, TABLE_NAME, ROW_KEY) VALUES (?, ?, ?)")) {
+                stmt.setString(1, op);
+                stmt.setString(2, table);
+                stmt.setString(3, String.valueOf(key));
+                stmt.executeUpdate();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void remove() {
+        }
+    }
+}
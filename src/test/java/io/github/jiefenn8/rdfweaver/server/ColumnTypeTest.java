@@ -0,0 +1,92 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link ColumnType}.
+ */
+public class ColumnTypeTest {
+
+    @Test
+    public void GivenSQLTypes_WhenOf_ThenReturnNaturalColumnType() {
+        assertThat(ColumnType.of(Types.BIGINT), is(ColumnType.INTEGER));
+        assertThat(ColumnType.of(Types.NUMERIC), is(ColumnType.DECIMAL));
+        assertThat(ColumnType.of(Types.REAL), is(ColumnType.REAL));
+        assertThat(ColumnType.of(Types.FLOAT), is(ColumnType.DOUBLE));
+        assertThat(ColumnType.of(Types.BIT), is(ColumnType.BOOLEAN));
+        assertThat(ColumnType.of(Types.VARBINARY), is(ColumnType.BINARY));
+        assertThat(ColumnType.of(Types.NVARCHAR), is(ColumnType.STRING));
+    }
+
+    @Test
+    public void GivenDecimalOfScaleZero_WhenOf_ThenReturnInteger() {
+        assertThat(ColumnType.of(Types.NUMERIC, 4, 0), is(ColumnType.INTEGER));
+        assertThat(ColumnType.of(Types.DECIMAL, 18, 0), is(ColumnType.INTEGER));
+        assertThat(ColumnType.of(Types.NUMERIC, 38, 0), is(ColumnType.DECIMAL));
+        assertThat(ColumnType.of(Types.NUMERIC, 7, 2), is(ColumnType.DECIMAL));
+        assertThat(ColumnType.of(Types.NUMERIC, 0, -127), is(ColumnType.DECIMAL));
+        assertThat(ColumnType.of(Types.BIGINT, 19, 0), is(ColumnType.INTEGER));
+    }
+
+    @Test
+    public void GivenDouble_WhenToLexicalForm_ThenReturnScientificNotation() {
+        assertThat(ColumnType.DOUBLE.toLexicalForm(150.0), is(equalTo("1.5E2")));
+        assertThat(ColumnType.DOUBLE.toLexicalForm(-0.025), is(equalTo("-2.5E-2")));
+        assertThat(ColumnType.DOUBLE.toLexicalForm(1.0), is(equalTo("1.0E0")));
+        assertThat(ColumnType.DOUBLE.toLexicalForm(0.0), is(equalTo("0.0E0")));
+        assertThat(ColumnType.DOUBLE.toLexicalForm(Double.NEGATIVE_INFINITY), is(equalTo("-INF")));
+    }
+
+    @Test
+    public void GivenReal_WhenToLexicalForm_ThenReturnFloatLexicalForm() {
+        assertThat(ColumnType.REAL.toLexicalForm(1.1f), is(equalTo("1.1E0")));
+        assertThat(ColumnType.REAL.toLexicalForm((Object) 1234.5f), is(equalTo("1.2345E3")));
+        assertThat(ColumnType.REAL.parse("1.1E0"), is(equalTo(1.1f)));
+    }
+
+    @Test
+    public void GivenDecimal_WhenToLexicalForm_ThenReturnCanonicalDecimal() {
+        assertThat(ColumnType.DECIMAL.toLexicalForm(new BigDecimal("80000.00")), is(equalTo("80000.0")));
+        assertThat(ColumnType.DECIMAL.toLexicalForm(new BigDecimal("12.50")), is(equalTo("12.5")));
+    }
+
+    @Test
+    public void GivenPrimitives_WhenToLexicalForm_ThenReturnCanonicalForm() {
+        assertThat(ColumnType.INTEGER.toLexicalForm(-42L), is(equalTo("-42")));
+        assertThat(ColumnType.BOOLEAN.toLexicalForm(1L), is(equalTo("true")));
+        assertThat(ColumnType.BOOLEAN.toLexicalForm(0L), is(equalTo("false")));
+    }
+
+    @Test
+    public void GivenTemporalValues_WhenToLexicalForm_ThenReturnISOForm() {
+        assertThat(ColumnType.DATE.toLexicalForm(Date.valueOf("2021-07-09")), is(equalTo("2021-07-09")));
+        assertThat(ColumnType.TIME.toLexicalForm(Time.valueOf("10:00:00")), is(equalTo("10:00:00")));
+        assertThat(ColumnType.TIMESTAMP.toLexicalForm(Timestamp.valueOf("2021-07-09 10:00:00.5")),
+                is(equalTo("2021-07-09T10:00:00.5")));
+    }
+
+    @Test
+    public void GivenBytes_WhenToLexicalForm_ThenReturnUpperCaseHex() {
+        Object result = ColumnType.BINARY.toLexicalForm((Object) new byte[]{0x0A, (byte) 0xFF});
+        assertThat(result, is(equalTo("0AFF")));
+    }
+
+    @Test
+    public void GivenLexicalForm_WhenParse_ThenReturnValueOfLexicalForm() {
+        Timestamp timestamp = Timestamp.valueOf("2021-07-09 10:00:00.5");
+        String lexicalForm = ColumnType.TIMESTAMP.toLexicalForm((Object) timestamp);
+        assertThat(ColumnType.TIMESTAMP.parse(lexicalForm), is(equalTo(timestamp)));
+        assertThat(ColumnType.INTEGER.parse("-42"), is(equalTo(-42L)));
+        assertThat(ColumnType.DOUBLE.parse("1.5E2"), is(equalTo(150.0)));
+        assertThat((byte[]) ColumnType.BINARY.parse("0AFF"), is(equalTo(new byte[]{0x0A, (byte) 0xFF})));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link ConnectionSession}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ConnectionSessionTest {
+
+    @Mock private DataSource mockDataSource;
+    @Mock private Runnable mockOnClose;
+    private ConnectionSession connectionSession;
+
+    @Before
+    public void setUp() throws Exception {
+        when(mockDataSource.getConnection()).thenAnswer((invocation) -> mock(Connection.class));
+        connectionSession = new ConnectionSession(mockDataSource, 8, mockOnClose);
+    }
+
+    @Test
+    public void GivenReleasedConnection_WhenAcquire_ThenReuseConnection() throws Exception {
+        ConnectionSession.Lease first = connectionSession.acquire();
+        connectionSession.release(first);
+        ConnectionSession.Lease result = connectionSession.acquire();
+
+        assertThat(result, is(sameInstance(first)));
+        verify(mockDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void GivenConnectionInUse_WhenAcquire_ThenLeaseAnotherConnection() throws Exception {
+        ConnectionSession.Lease first = connectionSession.acquire();
+        ConnectionSession.Lease result = connectionSession.acquire();
+
+        assertThat(result.getConnection(), is(not(sameInstance(first.getConnection()))));
+    }
+
+    @Test
+    public void GivenRepeatedQuery_WhenPrepare_ThenReuseStatement() throws Exception {
+        ConnectionSession.Lease lease = connectionSession.acquire();
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(lease.getConnection().prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        PreparedQuery query = new PreparedQuery("SELECT * FROM [EMP] WHERE [ID] = ?", List.of(1));
+
+        lease.prepare(query, 100);
+        PreparedStatement result = lease.prepare(query, 100);
+        assertThat(result, is(sameInstance(mockStatement)));
+        verify(lease.getConnection(), times(1)).prepareStatement(anyString(), anyInt(), anyInt());
+        verify(mockStatement, times(2)).setObject(1, 1);
+    }
+
+    @Test
+    public void GivenLeasedConnections_WhenClose_ThenReturnConnectionsToPool() throws Exception {
+        ConnectionSession.Lease first = connectionSession.acquire();
+        ConnectionSession.Lease second = connectionSession.acquire();
+        connectionSession.close();
+
+        verify(first.getConnection()).close();
+        verify(second.getConnection()).close();
+        verify(mockOnClose).run();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link JDBCDriver}.
+ */
+public class JDBCDriverTest {
+
+    private static final int FETCH_SIZE = 500;
+
+    @Test
+    public void GivenMSSQL_WhenGetStreamingProperties_ThenReturnAdaptiveBuffering() {
+        Properties result = JDBCDriver.MSSQL.getStreamingProperties(FETCH_SIZE, false);
+        assertThat(result.getProperty("responseBuffering"), is(equalTo("adaptive")));
+    }
+
+    @Test
+    public void GivenMySQL_WhenGetStreamingProperties_ThenReturnCursorFetch() {
+        Properties result = JDBCDriver.MYSQL.getStreamingProperties(FETCH_SIZE, true);
+        assertThat(result.getProperty("useCursorFetch"), is(equalTo("true")));
+        assertThat(result.getProperty("defaultFetchSize"), is(equalTo("500")));
+        assertThat(result.getProperty("useCompression"), is(equalTo("true")));
+    }
+
+    @Test
+    public void GivenMySQLWithDefaultFetch_WhenGetStreamingProperties_ThenReturnNoCursorFetch() {
+        Properties result = JDBCDriver.MYSQL.getStreamingProperties(0, false);
+        assertThat(result.getProperty("useCursorFetch"), is(nullValue()));
+    }
+
+    @Test
+    public void GivenOracle_WhenGetStreamingProperties_ThenReturnPrefetchConnectionProperties() {
+        Properties result = JDBCDriver.ORACLE.getStreamingProperties(FETCH_SIZE, true);
+        Properties connectionProperties = (Properties) result.get("connectionProperties");
+        assertThat(connectionProperties.getProperty("defaultRowPrefetch"), is(equalTo("500")));
+        assertThat(connectionProperties.getProperty("oracle.jdbc.defaultLobPrefetchSize"), is(notNullValue()));
+        assertThat(connectionProperties.getProperty("oracle.net.networkCompression"), is(equalTo("on")));
+    }
+
+    @Test
+    public void GivenUndefined_WhenGetStreamingProperties_ThenReturnEmpty() {
+        Properties result = JDBCDriver.UNDEFINED.getStreamingProperties(FETCH_SIZE, true);
+        assertThat(result.isEmpty(), is(true));
+    }
+
+    @Test
+    public void GivenMySQL_WhenGetStatementCacheProperties_ThenReturnPreparedStatementCache() {
+        Properties result = JDBCDriver.MYSQL.getStatementCacheProperties(64);
+        assertThat(result.getProperty("cachePrepStmts"), is(equalTo("true")));
+        assertThat(result.getProperty("prepStmtCacheSize"), is(equalTo("64")));
+    }
+
+    @Test
+    public void GivenZeroCacheSize_WhenGetStatementCacheProperties_ThenReturnEmpty() {
+        Properties result = JDBCDriver.MSSQL.getStatementCacheProperties(0);
+        assertThat(result.isEmpty(), is(true));
+    }
+}
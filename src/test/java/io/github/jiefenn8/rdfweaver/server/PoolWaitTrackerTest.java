@@ -0,0 +1,43 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link PoolWaitTracker}.
+ */
+public class PoolWaitTrackerTest {
+
+    private PoolWaitTracker poolWaitTracker;
+
+    @Before
+    public void setUp() {
+        poolWaitTracker = new PoolWaitTracker("test-pool");
+    }
+
+    @Test
+    public void GivenAcquiredConnections_WhenGetWaitTime_ThenReturnTotalAndMaxWait() {
+        poolWaitTracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(30));
+        poolWaitTracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(poolWaitTracker.getAcquired(), is(2L));
+        assertThat(poolWaitTracker.getTotalWaitMillis(), is(80L));
+        assertThat(poolWaitTracker.getMaxWaitMillis(), is(50L));
+    }
+
+    @Test
+    public void GivenRecordedValues_WhenReset_ThenClearAllValues() {
+        poolWaitTracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(30));
+        poolWaitTracker.recordConnectionTimeout();
+        poolWaitTracker.reset();
+
+        assertThat(poolWaitTracker.getAcquired(), is(0L));
+        assertThat(poolWaitTracker.getMaxWaitMillis(), is(0L));
+        assertThat(poolWaitTracker.getTimeouts(), is(0L));
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link ProjectionPlanner}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectionPlannerTest {
+
+    private static final String TABLE = "EMP";
+    @Mock private Connection mockConnection;
+    @Mock private DatabaseMetaData mockMetaData;
+    @Mock private ResultSet mockColumns;
+    @Mock private ResultSet mockKeys;
+    private ProjectionPlanner projectionPlanner;
+
+    @Before
+    public void setUp() throws Exception {
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockMetaData.getColumns(any(), isNull(), eq(TABLE), isNull())).thenReturn(mockColumns);
+        when(mockColumns.next()).thenReturn(true, true, true, false);
+        when(mockColumns.getString("COLUMN_NAME")).thenReturn("EMPNO", "ENAME", "PHOTO");
+        when(mockColumns.getInt("DATA_TYPE")).thenReturn(Types.INTEGER, Types.VARCHAR, Types.BLOB);
+        projectionPlanner = new ProjectionPlanner(JDBCDriver.MSSQL.getDialect(), true);
+    }
+
+    private Set<String> columnsOf(String... columns) {
+        return new LinkedHashSet<>(List.of(columns));
+    }
+
+    private void stubPrimaryKey() throws Exception {
+        when(mockMetaData.getPrimaryKeys(any(), isNull(), eq(TABLE))).thenReturn(mockKeys);
+        when(mockKeys.next()).thenReturn(true, false);
+        when(mockKeys.getShort("KEY_SEQ")).thenReturn((short) 1);
+        when(mockKeys.getString("COLUMN_NAME")).thenReturn("EMPNO");
+    }
+
+    @Test
+    public void GivenColumnsCoveringKey_WhenPlanSelectList_ThenSelectColumns() throws Exception {
+        stubPrimaryKey();
+        String result = projectionPlanner.planSelectList(mockConnection, TABLE, columnsOf("EMPNO", "ENAME"));
+        assertThat(result, is(equalTo("[EMPNO], [ENAME]")));
+    }
+
+    @Test
+    public void GivenColumnsNotCoveringKey_WhenPlanSelectList_ThenSelectDistinctColumns() throws Exception {
+        stubPrimaryKey();
+        String result = projectionPlanner.planSelectList(mockConnection, TABLE, columnsOf("ename"));
+        assertThat(result, is(equalTo("DISTINCT [ename]")));
+    }
+
+    @Test
+    public void GivenColumnsNotCoveringKeyAndNoDistinct_WhenPlanSelectList_ThenSelectColumns() throws Exception {
+        projectionPlanner = new ProjectionPlanner(JDBCDriver.MSSQL.getDialect(), false);
+        String result = projectionPlanner.planSelectList(mockConnection, TABLE, columnsOf("ename"));
+        assertThat(result, is(equalTo("[ename]")));
+    }
+
+    @Test
+    public void GivenLobColumn_WhenPlanSelectList_ThenSelectColumnsWithoutDistinct() throws Exception {
+        stubPrimaryKey();
+        String result = projectionPlanner.planSelectList(mockConnection, TABLE, columnsOf("ENAME", "PHOTO"));
+        assertThat(result, is(equalTo("[ENAME], [PHOTO]")));
+    }
+
+    @Test
+    public void GivenUnknownColumn_WhenPlanSelectList_ThenSelectAllColumns() throws Exception {
+        String result = projectionPlanner.planSelectList(mockConnection, TABLE, columnsOf("ENAME", "SALARY"));
+        assertThat(result, is(equalTo("*")));
+    }
+}
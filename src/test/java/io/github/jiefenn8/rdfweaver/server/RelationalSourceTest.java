@@ -1,22 +1,48 @@
 package io.github.jiefenn8.rdfweaver.server;
 
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import io.github.jiefenn8.graphloom.rdf.r2rml.DatabaseType;
+import io.github.jiefenn8.rdfweaver.mapping.Change;
+import io.github.jiefenn8.rdfweaver.mapping.RetryPolicy;
+import io.github.jiefenn8.rdfweaver.mapping.SessionSource;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import javax.sql.DataSource;
 import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * Unit test class for {@link RelationalSource}.
@@ -34,6 +60,7 @@ public class RelationalSourceTest {
     private static final String TEST_USER = "test_user";
     private static final String TEST_PASS = "test_pass";
 
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
     @Mock private DataSourceFactory mockDataSourceFactory;
     @Mock private InetAddress mockAddress;
     private RelationalSource.Builder relationalSourceBuilder;
@@ -68,4 +95,398 @@ public class RelationalSourceTest {
                 }
         );
     }
+
+    @Test
+    public void GivenStreaming_WhenBuild_ThenConfigureReadOnlyStreamingDataSource() {
+        ArgumentCaptor<Properties> captor = ArgumentCaptor.forClass(Properties.class);
+        when(mockDataSourceFactory.getDataSource(captor.capture())).thenReturn(mock(DataSource.class));
+        relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .streaming(500, false)
+                .build();
+
+        Properties result = captor.getValue();
+        assertThat(result.getProperty("dataSource.responseBuffering"), is(equalTo("adaptive")));
+        assertThat(result.getProperty("readOnly"), is(equalTo("true")));
+    }
+
+    @Test
+    public void GivenFetchSize_WhenExecuteEntityQuery_ThenQueryWithForwardOnlyFetchSize() throws Exception {
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY),
+                eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        EntityReference mockReference = mock(EntityReference.class);
+        when(mockReference.getPayload()).thenReturn("TABLE");
+        when(mockReference.getPayloadType()).thenReturn(DatabaseType.TABLE_NAME);
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .database("")
+                .streaming(500, false)
+                .build();
+
+        source.executeEntityQuery(mockReference, (result) -> {
+        });
+        verify(mockStatement).setFetchSize(500);
+        verify(mockConnection).prepareStatement(eq("SELECT * FROM TABLE"), anyInt(), anyInt());
+    }
+
+    @Test
+    public void GivenQueryReference_WhenExecuteEntityQuery_ThenBindParameters() throws Exception {
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        QueryReference reference = new QueryReference("SELECT * FROM [EMP] WHERE [ID] < ?", List.of(10));
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .database("")
+                .build();
+
+        source.executeEntityQuery(reference, (result) -> {
+        });
+        source.executeEntityQuery(reference, (result) -> {
+        });
+        verify(mockStatement, times(2)).setObject(1, 10);
+        verify(mockConnection, times(2)).prepareStatement(eq(reference.getPayload()), anyInt(), anyInt());
+    }
+
+    @Test
+    public void GivenTransientConnectionFailure_WhenExecuteEntityQuery_ThenRetryQuery() throws Exception {
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection())
+                .thenThrow(new SQLTransientConnectionException("Connection refused"))
+                .thenReturn(mockConnection);
+        when(mockConnection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .retry(new RetryPolicy(2, 0))
+                .build();
+
+        int[] results = {0};
+        source.executeEntityQuery(new QueryReference("SELECT * FROM [EMP]"), (result) -> results[0]++);
+        assertThat(results[0], is(1));
+        verify(mockDataSource, times(2)).getConnection();
+    }
+
+    @Test
+    public void GivenNonTransientFailure_WhenExecuteEntityQuery_ThenThrowWithoutRetry() throws Exception {
+        DataSource mockDataSource = mock(DataSource.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenThrow(new SQLException("Invalid object name", "42S02"));
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .retry(new RetryPolicy(2, 0))
+                .build();
+
+        Assert.assertThrows(RuntimeException.class,
+                () -> source.executeEntityQuery(new QueryReference("SELECT * FROM [EMP]"), (result) -> {
+                }));
+        verify(mockDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void GivenPoolSettings_WhenBuild_ThenConfigurePool() {
+        ArgumentCaptor<Properties> captor = ArgumentCaptor.forClass(Properties.class);
+        when(mockDataSourceFactory.getDataSource(captor.capture())).thenReturn(mock(DataSource.class));
+        relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .pool(8, 5000)
+                .connectionInitSql("SET NOCOUNT ON")
+                .build();
+
+        Properties result = captor.getValue();
+        assertThat(result.getProperty("maximumPoolSize"), is(equalTo("8")));
+        assertThat(result.getProperty("connectionTimeout"), is(equalTo("5000")));
+        assertThat(result.getProperty("connectionInitSql"), is(equalTo("SET NOCOUNT ON")));
+    }
+
+    @Test
+    public void GivenOracleStreamingAndStatementCache_WhenBuild_ThenMergeConnectionProperties() {
+        ArgumentCaptor<Properties> captor = ArgumentCaptor.forClass(Properties.class);
+        when(mockDataSourceFactory.getDataSource(captor.capture())).thenReturn(mock(DataSource.class));
+        relationalSourceBuilder.newInstance()
+                .serverHost(JDBCDriver.ORACLE, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .streaming(500, false)
+                .statementCache(32)
+                .build();
+
+        Properties result = (Properties) captor.getValue().get("dataSource.connectionProperties");
+        assertThat(result.getProperty("defaultRowPrefetch"), is(equalTo("500")));
+        assertThat(result.getProperty("oracle.jdbc.implicitStatementCacheSize"), is(equalTo("32")));
+    }
+
+    @Test
+    public void GivenRepeatedTableReference_WhenExecuteEntityQuery_ThenPlanQueryOnce() throws Exception {
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        DatabaseMetaData mockMetaData = mock(DatabaseMetaData.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockMetaData.getColumns(any(), any(), anyString(), any())).thenReturn(mock(ResultSet.class));
+        when(mockConnection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        EntityReference mockReference = mock(EntityReference.class);
+        when(mockReference.getPayload()).thenReturn("EMP");
+        when(mockReference.getPayloadType()).thenReturn(DatabaseType.TABLE_NAME);
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .database("")
+                .projection(Map.of("EMP", Set.of("ENAME")), false)
+                .build();
+
+        source.executeEntityQuery(mockReference, (result) -> {
+        });
+        source.executeEntityQuery(mockReference, (result) -> {
+        });
+        verify(mockConnection, times(1)).getMetaData();
+        verify(mockConnection, times(2)).prepareStatement(eq("SELECT * FROM EMP"), anyInt(), anyInt());
+    }
+
+    @Test
+    public void GivenOpenSession_WhenExecuteEntityQueries_ThenReuseConnection() throws Exception {
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        QueryReference reference = new QueryReference("SELECT 1");
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .build();
+
+        SessionSource.Session session = source.openSession();
+        try (session) {
+            source.executeEntityQuery(reference, (result) -> {
+            });
+            source.executeEntityQuery(reference, (result) -> {
+            });
+        }
+        verify(mockDataSource, times(1)).getConnection();
+        verify(mockConnection, times(1)).prepareStatement(anyString(), anyInt(), anyInt());
+        verify(mockConnection).close();
+    }
+
+    @Test
+    public void GivenFailingAction_WhenExecuteEntityQueryInSession_ThenReleaseConnection() throws Exception {
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        QueryReference reference = new QueryReference("SELECT 1");
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .build();
+
+        SessionSource.Session session = source.openSession();
+        try (session) {
+            Assert.assertThrows(IllegalStateException.class, () -> source.executeEntityQuery(reference,
+                    (result) -> {
+                        throw new IllegalStateException("Mapping failed.");
+                    }));
+            source.executeEntityQuery(reference, (result) -> {
+            });
+        }
+        verify(mockDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void GivenDatabase_WhenBuild_ThenSetCatalogOnPool() {
+        ArgumentCaptor<Properties> captor = ArgumentCaptor.forClass(Properties.class);
+        when(mockDataSourceFactory.getDataSource(captor.capture())).thenReturn(mock(DataSource.class));
+        relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .database("MyDatabase01")
+                .build();
+
+        assertThat(captor.getValue().getProperty("catalog"), is(equalTo("MyDatabase01")));
+    }
+
+    @Test
+    public void GivenCommittedWatermark_WhenExecuteEntityQuery_ThenSelectChangedRowsAndCommitNewMark() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("watermarks.properties");
+        Files.writeString(stateFile, "EMP#VERSION=INTEGER:10\n");
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        Statement mockMaxStatement = mock(Statement.class);
+        ResultSet mockMaxResult = mock(ResultSet.class);
+        ResultSetMetaData mockMaxMetaData = mock(ResultSetMetaData.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.createStatement()).thenReturn(mockMaxStatement);
+        when(mockMaxStatement.executeQuery("SELECT MAX([VERSION]) FROM EMP")).thenReturn(mockMaxResult);
+        when(mockMaxResult.getMetaData()).thenReturn(mockMaxMetaData);
+        when(mockMaxMetaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(mockMaxResult.next()).thenReturn(true);
+        when(mockMaxResult.getLong(1)).thenReturn(25L);
+        when(mockConnection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        EntityReference mockReference = mock(EntityReference.class);
+        when(mockReference.getPayload()).thenReturn("EMP");
+        when(mockReference.getPayloadType()).thenReturn(DatabaseType.TABLE_NAME);
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .incremental(Map.of("EMP", "VERSION"), stateFile)
+                .build();
+
+        source.executeEntityQuery(mockReference, (result) -> {
+        });
+        source.commit();
+        verify(mockConnection).prepareStatement(eq("SELECT * FROM EMP WHERE [VERSION] > ? AND [VERSION] <= ?"),
+                anyInt(), anyInt());
+        verify(mockStatement).setObject(1, 10L);
+        verify(mockStatement).setObject(2, 25L);
+        assertThat(new WatermarkStore(stateFile).get("EMP", "VERSION"), is(equalTo(25L)));
+    }
+
+    @Test
+    public void GivenTwoQueriesOfWatermarkedTable_WhenExecuteEntityQuery_ThenShareHighMark() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("watermarks.properties");
+        Files.writeString(stateFile, "EMP#VERSION=INTEGER:10\n");
+        DataSource mockDataSource = mock(DataSource.class);
+        Connection mockConnection = mock(Connection.class);
+        Statement mockMaxStatement = mock(Statement.class);
+        ResultSet mockMaxResult = mock(ResultSet.class);
+        ResultSetMetaData mockMaxMetaData = mock(ResultSetMetaData.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(mockDataSource);
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.createStatement()).thenReturn(mockMaxStatement);
+        when(mockMaxStatement.executeQuery("SELECT MAX([VERSION]) FROM EMP")).thenReturn(mockMaxResult);
+        when(mockMaxResult.getMetaData()).thenReturn(mockMaxMetaData);
+        when(mockMaxMetaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(mockMaxResult.next()).thenReturn(true);
+        when(mockMaxResult.getLong(1)).thenReturn(25L, 30L);
+        when(mockConnection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        EntityReference mockReference = mock(EntityReference.class);
+        when(mockReference.getPayload()).thenReturn("EMP");
+        when(mockReference.getPayloadType()).thenReturn(DatabaseType.TABLE_NAME);
+        EntityReference otherReference = mock(EntityReference.class);
+        when(otherReference.getPayload()).thenReturn("EMP");
+        when(otherReference.getPayloadType()).thenReturn(DatabaseType.TABLE_NAME);
+        RelationalSource source = relationalSourceBuilder.newInstance()
+                .serverHost(TEST_DRIVER, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .incremental(Map.of("EMP", "VERSION"), stateFile)
+                .build();
+
+        source.executeEntityQuery(mockReference, (result) -> {
+        });
+        source.executeEntityQuery(otherReference, (result) -> {
+        });
+        source.commit();
+        verify(mockMaxStatement, times(1)).executeQuery(anyString());
+        verify(mockConnection, times(2)).prepareStatement(
+                eq("SELECT * FROM EMP WHERE [VERSION] > ? AND [VERSION] <= ?"),
+                anyInt(), anyInt());
+        verify(mockStatement, never()).setObject(2, 30L);
+        assertThat(new WatermarkStore(stateFile).get("EMP", "VERSION"), is(equalTo(25L)));
+    }
+
+    @Test
+    public void GivenJournal_WhenReadChanges_ThenReadAfterCommittedChangeAndQueryRowByKey() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("watermarks.properties");
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:feed;DB_CLOSE_DELAY=-1");
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(dataSource);
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE EMP (EMPNO INT PRIMARY KEY, ENAME VARCHAR(20))");
+            stmt.execute("CREATE TABLE RDF_JOURNAL (SEQ BIGINT PRIMARY KEY, OP CHAR(1), TABLE_NAME VARCHAR(64), "
+                    + "ROW_KEY VARCHAR(64))");
+            stmt.execute("INSERT INTO EMP VALUES (7369, 'SMITH')");
+            stmt.execute("INSERT INTO RDF_JOURNAL VALUES (1, 'I', 'EMP', '7369'), (2, 'D', 'EMP', '7499')");
+        }
+        EntityReference mockReference = mock(EntityReference.class);
+        when(mockReference.getPayload()).thenReturn("EMP");
+        RelationalSource.Builder.OptionalConfig config = relationalSourceBuilder.newInstance()
+                .serverHost(JDBCDriver.UNDEFINED, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .changeFeed("RDF_JOURNAL", 0, stateFile);
+
+        try {
+            RelationalSource source = config.build();
+            List<Change> first = source.readChanges(1);
+            source.commit();
+            List<Change> result = config.build().readChanges(10);
+            assertThat(first.get(0).getSequence(), is(1L));
+            assertThat(result.size(), is(1));
+            assertThat(result.get(0).getOperation(), is(Change.Operation.DELETE));
+            String[] name = new String[1];
+            source.executeEntityQuery(source.rowEntityQuery(mockReference, "7369"),
+                    (entities) -> name[0] = entities.nextEntity().getPropertyValue("ENAME"));
+            assertThat(name[0], is(equalTo("SMITH")));
+        } finally {
+            try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+        }
+    }
+
+    @Test
+    public void GivenChangeCommittedOutOfOrder_WhenReadChangesWithWindow_ThenReadChangeAndKeepMark()
+            throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("watermarks.properties");
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:window;DB_CLOSE_DELAY=-1");
+        when(mockDataSourceFactory.getDataSource(any(Properties.class))).thenReturn(dataSource);
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE RDF_JOURNAL (SEQ BIGINT PRIMARY KEY, OP CHAR(1), TABLE_NAME VARCHAR(64), "
+                    + "ROW_KEY VARCHAR(64))");
+            stmt.execute("INSERT INTO RDF_JOURNAL VALUES (1, 'I', 'EMP', '7369'), (3, 'I', 'EMP', '7521')");
+        }
+        RelationalSource.Builder.OptionalConfig config = relationalSourceBuilder.newInstance()
+                .serverHost(JDBCDriver.UNDEFINED, mockAddress, TEST_PORT)
+                .credential(TEST_USER, TEST_PASS.toCharArray())
+                .changeFeed("RDF_JOURNAL", 2, stateFile);
+
+        try {
+            RelationalSource source = config.build();
+            source.readChanges(10);
+            source.commit();
+            try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("INSERT INTO RDF_JOURNAL VALUES (2, 'U', 'EMP', '7499')");
+            }
+            RelationalSource next = config.build();
+            List<Change> result = next.readChanges(1);
+            next.commit();
+            assertThat(result.get(0).getSequence(), is(2L));
+            assertThat(new WatermarkStore(stateFile).get("RDF_JOURNAL", "SEQ"), is(equalTo(3L)));
+        } finally {
+            try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package io.github.jiefenn8.rdfweaver.server;
 
 import io.github.jiefenn8.graphloom.api.inputsource.Entity;
+import io.github.jiefenn8.rdfweaver.mapping.TransientSourceException;
 import junit.framework.TestCase;
 import org.junit.Assert;
 import org.junit.Before;
@@ -12,10 +13,16 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.Types;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -57,6 +64,15 @@ public class SQLAdapterTest extends TestCase {
         );
     }
 
+    @Test
+    public void GivenDroppedConnection_WhenHasNext_ThenThrowTransientSourceException() throws Exception {
+        when(mockResultSet.next()).thenThrow(new SQLRecoverableException("Connection reset"));
+        Assert.assertThrows(
+                TransientSourceException.class,
+                () -> sqlAdapter.hasNext()
+        );
+    }
+
     @Test
     public void GivenResultSet_WhenNextEntity_ThenReturnThis() {
         Entity result = sqlAdapter.nextEntity();
@@ -88,4 +104,86 @@ public class SQLAdapterTest extends TestCase {
         assertThat(result, is(nullValue()));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void GivenMultipleRows_WhenNextEntity_ThenResolveColumnLayoutOnce() throws Exception {
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn("PROPERTY");
+        sqlAdapter.nextEntity();
+        sqlAdapter.nextEntity();
+        sqlAdapter.nextEntity();
+        verify(mockResultSet, times(1)).getMetaData();
+        verify(mockMetaData, times(1)).getColumnName(1);
+    }
+
+    @Test
+    public void GivenMultipleRows_WhenGetPropertyValue_ThenReturnValueOfCurrentRow() throws Exception {
+        String property = "PROPERTY";
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn(property);
+        when(mockResultSet.getString(1)).thenReturn("FIRST", "SECOND");
+        sqlAdapter.nextEntity();
+        sqlAdapter.nextEntity();
+        String result = sqlAdapter.getPropertyValue(property);
+        assertThat(result, is(equalTo("SECOND")));
+    }
+
+    @Test
+    public void GivenIntegerColumn_WhenGetPropertyValue_ThenReadWithoutString() throws Exception {
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn("ID");
+        when(mockMetaData.getColumnType(1)).thenReturn(Types.INTEGER);
+        when(mockResultSet.getLong(1)).thenReturn(42L);
+        sqlAdapter.nextEntity();
+        String result = sqlAdapter.getPropertyValue("ID");
+        assertThat(result, is(equalTo("42")));
+        verify(mockResultSet, never()).getString(anyInt());
+    }
+
+    @Test
+    public void GivenNullIntegerColumn_WhenGetPropertyValue_ThenReturnNull() throws Exception {
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn("ID");
+        when(mockMetaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(mockResultSet.wasNull()).thenReturn(true);
+        sqlAdapter.nextEntity();
+        String result = sqlAdapter.getPropertyValue("ID");
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void GivenDecimalColumnOfScaleZero_WhenGetPropertyValue_ThenReturnDigits() throws Exception {
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn("EMPNO");
+        when(mockMetaData.getColumnType(1)).thenReturn(Types.NUMERIC);
+        when(mockMetaData.getPrecision(1)).thenReturn(4);
+        when(mockResultSet.getLong(1)).thenReturn(7369L);
+        sqlAdapter.nextEntity();
+        String result = sqlAdapter.getPropertyValue("EMPNO");
+        assertThat(result, is(equalTo("7369")));
+    }
+
+    @Test
+    public void GivenDoubleColumn_WhenGetPropertyValue_ThenReturnDriverForm() throws Exception {
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn("SAL");
+        when(mockMetaData.getColumnType(1)).thenReturn(Types.DOUBLE);
+        when(mockResultSet.getString(1)).thenReturn("150.0");
+        sqlAdapter.nextEntity();
+        String result = sqlAdapter.getPropertyValue("SAL");
+        assertThat(result, is(equalTo("150.0")));
+        verify(mockResultSet, never()).getDouble(anyInt());
+    }
+
+    @Test
+    public void GivenRealColumnAndCanonicalForms_WhenGetPropertyValue_ThenReturnFloatLexicalForm()
+            throws Exception {
+        sqlAdapter = new SQLAdapter(mockResultSet, true);
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn("RATE");
+        when(mockMetaData.getColumnType(1)).thenReturn(Types.REAL);
+        when(mockResultSet.getFloat(1)).thenReturn(1.1f);
+        sqlAdapter.nextEntity();
+        String result = sqlAdapter.getPropertyValue("RATE");
+        assertThat(result, is(equalTo("1.1E0")));
+    }
+}
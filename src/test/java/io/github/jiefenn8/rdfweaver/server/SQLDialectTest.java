@@ -0,0 +1,56 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link SQLDialect}.
+ */
+public class SQLDialectTest {
+
+    private final SQLDialect mssql = JDBCDriver.MSSQL.getDialect();
+    private final SQLDialect mysql = JDBCDriver.MYSQL.getDialect();
+    private final SQLDialect oracle = JDBCDriver.ORACLE.getDialect();
+
+    @Test
+    public void GivenQualifiedName_WhenQuoteQualifiedName_ThenQuoteEachPartForDialect() {
+        assertThat(mssql.quoteQualifiedName("dbo.EMP"), is(equalTo("[dbo].[EMP]")));
+        assertThat(mysql.quoteQualifiedName("hr.emp"), is(equalTo("`hr`.`emp`")));
+        assertThat(oracle.quoteQualifiedName("hr.emp"), is(equalTo("\"HR\".\"EMP\"")));
+    }
+
+    @Test
+    public void GivenTableName_WhenTableName_ThenDelimitOnlyDelimitedParts() {
+        assertThat(mssql.tableName("dbo.emp"), is(equalTo("dbo.emp")));
+        assertThat(oracle.tableName("hr.[Emp Name]"), is(equalTo("hr.\"Emp Name\"")));
+        assertThat(mysql.selectFrom("*", "emp"), is(equalTo("SELECT * FROM emp")));
+    }
+
+    @Test
+    public void GivenDelimitedIdentifier_WhenQuoteIdentifier_ThenRequoteAndKeepCase() {
+        assertThat(oracle.quoteIdentifier("[Emp Name]"), is(equalTo("\"Emp Name\"")));
+        assertThat(mssql.quoteIdentifier("\"a]b\""), is(equalTo("[a]]b]")));
+    }
+
+    @Test
+    public void GivenQualifiedNameWithDottedDelimitedPart_WhenQuoteQualifiedName_ThenKeepPartWhole() {
+        assertThat(mysql.quoteQualifiedName("hr.\"emp.2020\""), is(equalTo("`hr`.`emp.2020`")));
+    }
+
+    @Test
+    public void GivenLiteralsAndComments_WhenDelimitQuery_ThenDelimitOnlyIdentifierChains() {
+        String query = "SELECT e.name, 'a.b' AS x, 1.5 FROM hr.emp e -- c.d\nWHERE e.id = 1";
+        String expected = "SELECT `e`.`name`, 'a.b' AS x, 1.5 FROM `hr`.`emp` e -- c.d\nWHERE `e`.`id` = 1";
+        assertThat(mysql.delimitQuery(query), is(equalTo(expected)));
+    }
+
+    @Test
+    public void GivenOverlappingIdentifiers_WhenDelimitQuery_ThenNotRewriteOtherIdentifiers() {
+        String query = "SELECT t.tab FROM s.tab t";
+        String expected = "SELECT [t].[tab] FROM [s].[tab] t";
+        assertThat(mssql.delimitQuery(query), is(equalTo(expected)));
+    }
+}
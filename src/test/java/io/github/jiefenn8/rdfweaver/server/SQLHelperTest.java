@@ -46,4 +46,14 @@ public class SQLHelperTest {
         String result = SQLHelper.prepareQuery(mockEntityRef);
         assertThat(result, is(equalTo(expected)));
     }
+
+    @Test
+    public void GivenTableReferenceAndSelectList_WhenPrepareQuery_ThenReturnProjectedQuery() {
+        EntityReference mockEntityRef = mock(EntityReference.class);
+        when(mockEntityRef.getPayload()).thenReturn("OBJECT.TABLE");
+        when(mockEntityRef.getPayloadType()).thenReturn(DatabaseType.TABLE_NAME);
+        String expected = "SELECT DISTINCT COL1, COL2 FROM [OBJECT].[TABLE]";
+        String result = SQLHelper.prepareQuery(mockEntityRef, "DISTINCT COL1, COL2");
+        assertThat(result, is(equalTo(expected)));
+    }
 }
@@ -19,6 +19,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.net.InetAddress;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
@@ -26,6 +28,7 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -405,4 +408,40 @@ public class ServerOptionTest {
         RelationalSource result = commandLine.getExecutionResult();
         assertThat(result, is(notNullValue()));
     }
+
+    public List<List<String>> poolSizeParams() {
+        return ImmutableList.of(
+                ImmutableList.of("auto", "0", "5"),
+                ImmutableList.of("auto", "3", "3"),
+                ImmutableList.of("8", "0", "8"),
+                ImmutableList.of("8", "3", "3")
+        );
+    }
+
+    @Test
+    @Parameters(method = "poolSizeParams")
+    public void GivenPoolSizeOptions_WhenExecute_ThenConfigurePoolSize(List<String> params) {
+        List<String> parameters = ImmutableList.of(TEST_DRIVER, TEST_HOST, TEST_PORT, TEST_USER, TEST_PASS);
+        List<String> args = new ArrayList<>(Arrays.asList(createExecutableArguments(parameters)));
+        args.add("--pool-size" + DELIMITER + params.get(0));
+        args.add("--max-connections" + DELIMITER + params.get(1));
+        RelationalSource.Builder.OptionalConfig config = mockRelationalSourceBuilder.newInstance()
+                .serverHost(any(JDBCDriver.class), any(InetAddress.class), anyInt())
+                .credential(anyString(), any(char[].class))
+                .database(any());
+        when(config.build()).thenReturn(mockRelationalSource);
+
+        commandLine.execute(args.toArray(new String[0]));
+        verify(config).pool(eq(Integer.parseInt(params.get(2))), anyLong());
+    }
+
+    @Test
+    public void GivenInvalidPoolSize_WhenExecute_ThenReturnCode_22() {
+        List<String> parameters = ImmutableList.of(TEST_DRIVER, TEST_HOST, TEST_PORT, TEST_USER, TEST_PASS);
+        List<String> args = new ArrayList<>(Arrays.asList(createExecutableArguments(parameters)));
+        args.add("--pool-size" + DELIMITER + "many");
+
+        int result = commandLine.execute(args.toArray(new String[0]));
+        assertThat(result, is(22));
+    }
 }
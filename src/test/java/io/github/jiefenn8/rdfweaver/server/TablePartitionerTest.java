@@ -0,0 +1,98 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import io.github.jiefenn8.graphloom.api.EntityReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link TablePartitioner}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TablePartitionerTest {
+
+    @Mock private Connection mockConnection;
+    @Mock private DatabaseMetaData mockMetaData;
+    @Mock private ResultSet mockKeys;
+    @Mock private EntityReference mockReference;
+    private TablePartitioner tablePartitioner;
+
+    @Before
+    public void setUp() throws Exception {
+        when(mockConnection.getMetaData()).thenReturn(mockMetaData);
+        when(mockMetaData.getPrimaryKeys(any(), eq("dbo"), eq("EMP"))).thenReturn(mockKeys);
+        when(mockReference.getPayload()).thenReturn("dbo.EMP");
+        tablePartitioner = new TablePartitioner(JDBCDriver.MSSQL);
+    }
+
+    private List<String> payloadsOf(List<EntityReference> references) {
+        return references.stream().map(EntityReference::getPayload).collect(Collectors.toList());
+    }
+
+    @Test
+    public void GivenNumericKey_WhenPartition_ThenReturnKeyRanges() throws Exception {
+        when(mockKeys.next()).thenReturn(true, false);
+        when(mockKeys.getShort("KEY_SEQ")).thenReturn((short) 1);
+        when(mockKeys.getString("COLUMN_NAME")).thenReturn("ID");
+        Statement mockStatement = mock(Statement.class);
+        ResultSet mockRange = mock(ResultSet.class);
+        ResultSetMetaData mockRangeMetaData = mock(ResultSetMetaData.class);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        when(mockStatement.executeQuery(anyString())).thenReturn(mockRange);
+        when(mockRange.getMetaData()).thenReturn(mockRangeMetaData);
+        when(mockRangeMetaData.getColumnType(1)).thenReturn(Types.INTEGER);
+        when(mockRange.next()).thenReturn(true);
+        when(mockRange.getBigDecimal(1)).thenReturn(BigDecimal.ONE);
+        when(mockRange.getBigDecimal(2)).thenReturn(BigDecimal.valueOf(100));
+
+        List<EntityReference> result = tablePartitioner.partition(mockConnection, mockReference, 4, "*");
+        assertThat(payloadsOf(result), contains(
+                "SELECT * FROM dbo.EMP WHERE [ID] < ?",
+                "SELECT * FROM dbo.EMP WHERE [ID] >= ? AND [ID] < ?",
+                "SELECT * FROM dbo.EMP WHERE [ID] >= ? AND [ID] < ?",
+                "SELECT * FROM dbo.EMP WHERE [ID] >= ?"));
+        assertThat(((QueryReference) result.get(1)).getParameters(),
+                contains(BigDecimal.valueOf(26), BigDecimal.valueOf(51)));
+    }
+
+    @Test
+    public void GivenCompositeKey_WhenPartition_ThenReturnHashBuckets() throws Exception {
+        when(mockKeys.next()).thenReturn(true, true, false);
+        when(mockKeys.getShort("KEY_SEQ")).thenReturn((short) 2, (short) 1);
+        when(mockKeys.getString("COLUMN_NAME")).thenReturn("NAME", "DEPT");
+
+        List<EntityReference> result = tablePartitioner.partition(mockConnection, mockReference, 2, "*");
+        assertThat(payloadsOf(result), contains(
+                "SELECT * FROM dbo.EMP WHERE ABS(CAST(CHECKSUM([DEPT], [NAME]) AS BIGINT)) % 2 = 0",
+                "SELECT * FROM dbo.EMP WHERE ABS(CAST(CHECKSUM([DEPT], [NAME]) AS BIGINT)) % 2 = 1"));
+    }
+
+    @Test
+    public void GivenNoPrimaryKey_WhenPartition_ThenReturnOriginalReference() throws Exception {
+        when(mockKeys.next()).thenReturn(false);
+
+        List<EntityReference> result = tablePartitioner.partition(mockConnection, mockReference, 4, "*");
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0), is(mockReference));
+    }
+}
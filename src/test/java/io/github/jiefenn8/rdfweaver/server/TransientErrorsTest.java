@@ -0,0 +1,33 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link TransientErrors}.
+ */
+public class TransientErrorsTest {
+
+    @Test
+    public void GivenTransientType_WhenIsTransient_ThenReturnTrue() {
+        assertThat(TransientErrors.isTransient(new SQLTimeoutException("Query timed out")), is(true));
+        assertThat(TransientErrors.isTransient(new SQLRecoverableException("Connection reset")), is(true));
+    }
+
+    @Test
+    public void GivenConnectionOrDeadlockState_WhenIsTransient_ThenReturnTrue() {
+        assertThat(TransientErrors.isTransient(new SQLException("Communication link failure", "08S01")), is(true));
+        assertThat(TransientErrors.isTransient(new SQLException("Deadlock victim", "40001", 1205)), is(true));
+    }
+
+    @Test
+    public void GivenSyntaxError_WhenIsTransient_ThenReturnFalse() {
+        assertThat(TransientErrors.isTransient(new SQLException("Incorrect syntax", "42000")), is(false));
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.jiefenn8.rdfweaver.server;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test class for {@link WatermarkStore}.
+ */
+public class WatermarkStoreTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+    private Path file;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("watermarks.properties");
+    }
+
+    @Test
+    public void GivenCommittedMark_WhenGet_ThenReturnTypedMark() throws Exception {
+        Timestamp mark = Timestamp.valueOf("2021-07-09 10:00:00.5");
+        WatermarkStore store = new WatermarkStore(file);
+        store.update("dbo.EMP", "UPDATED_AT", ColumnType.TIMESTAMP, mark);
+        store.commit();
+
+        Object result = new WatermarkStore(file).get("dbo.EMP", "UPDATED_AT");
+        assertThat(result, is(equalTo(mark)));
+    }
+
+    @Test
+    public void GivenUncommittedMark_WhenGet_ThenReturnPreviousMark() throws Exception {
+        WatermarkStore store = new WatermarkStore(file);
+        store.update("EMP", "VERSION", ColumnType.INTEGER, 10L);
+        store.commit();
+        store.update("EMP", "VERSION", ColumnType.INTEGER, 20L);
+
+        Object result = new WatermarkStore(file).get("EMP", "VERSION");
+        assertThat(result, is(equalTo(10L)));
+    }
+
+    @Test
+    public void GivenNoFile_WhenGet_ThenReturnNull() throws Exception {
+        Object result = new WatermarkStore(file).get("EMP", "VERSION");
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void GivenUnreadableMark_WhenGet_ThenReturnNull() throws Exception {
+        Files.writeString(file, "EMP#VERSION=INTEGER:abc\n");
+        Object result = new WatermarkStore(file).get("EMP", "VERSION");
+        assertThat(result, is(nullValue()));
+    }
+}